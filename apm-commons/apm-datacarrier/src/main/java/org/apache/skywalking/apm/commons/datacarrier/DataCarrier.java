@@ -47,6 +47,17 @@ public class DataCarrier<T> {
         channels = new Channels<T>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), BufferStrategy.BLOCKING);
     }
 
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the channels, which record the produce failures and the drains of the consumers.
+     */
+    public Channels<T> getChannels() {
+        return channels;
+    }
+
     /**
      * set a new IDataPartitioner. It will cover the current one or default one.(Default is {@link
      * SimpleRollingPartitioner}
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
 import org.apache.skywalking.apm.commons.datacarrier.common.AtomicRangeInteger;
 
@@ -30,6 +31,7 @@ public class Buffer<T> {
     private BufferStrategy strategy;
     private AtomicRangeInteger index;
     private List<QueueBlockingCallback<T>> callbacks;
+    private final AtomicLong blockedCount = new AtomicLong();
 
     Buffer(int bufferSize, BufferStrategy strategy) {
         buffer = new Object[bufferSize];
@@ -55,6 +57,7 @@ public class Buffer<T> {
                     while (buffer[i] != null) {
                         if (isFirstTimeBlocking) {
                             isFirstTimeBlocking = false;
+                            blockedCount.incrementAndGet();
                             for (QueueBlockingCallback<T> callback : callbacks) {
                                 callback.notify(data);
                             }
@@ -79,6 +82,27 @@ public class Buffer<T> {
         return buffer.length;
     }
 
+    /**
+     * @return the number of the data in the buffer. The buffer is scanned without lock, so it is an estimate while
+     * producing and consuming.
+     */
+    public int occupancy() {
+        int occupancy = 0;
+        for (Object data : buffer) {
+            if (data != null) {
+                occupancy++;
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * @return the number of the times a producer is blocked, as the buffer is full in {@link BufferStrategy#BLOCKING}.
+     */
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
     public LinkedList<T> obtain() {
         return this.obtain(0, buffer.length);
     }
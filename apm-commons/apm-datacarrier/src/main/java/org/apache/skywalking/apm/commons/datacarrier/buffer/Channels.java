@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.skywalking.apm.commons.datacarrier.callback.QueueBlockingCallback;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
@@ -30,6 +31,10 @@ public class Channels<T> {
     private IDataPartitioner<T> dataPartitioner;
     private BufferStrategy strategy;
     private final long size;
+    private final AtomicLong produceFailedCount = new AtomicLong();
+    private final AtomicLong consumedCount = new AtomicLong();
+    private final AtomicLong consumeBatchCount = new AtomicLong();
+    private final AtomicLong consumeNanos = new AtomicLong();
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
         this.dataPartitioner = partitioner;
@@ -55,6 +60,7 @@ public class Channels<T> {
                 return true;
             }
         }
+        produceFailedCount.incrementAndGet();
         return false;
     }
 
@@ -91,6 +97,56 @@ public class Channels<T> {
         return this.bufferChannels[index];
     }
 
+    /**
+     * Record a drain of the consumer, only the non-empty ones are recorded.
+     *
+     * @param size of the drained data
+     * @param nanos spent by the consumer on the drained data
+     */
+    public void recordConsume(int size, long nanos) {
+        consumedCount.addAndGet(size);
+        consumeBatchCount.incrementAndGet();
+        consumeNanos.addAndGet(nanos);
+    }
+
+    /**
+     * @return the number of the data in all channels, an estimate while producing and consuming.
+     */
+    public int occupancy() {
+        int occupancy = 0;
+        for (Buffer<T> buffer : bufferChannels) {
+            occupancy += buffer.occupancy();
+        }
+        return occupancy;
+    }
+
+    /**
+     * @return the number of the data not saved, as the buffers are full in {@link BufferStrategy#IF_POSSIBLE}.
+     */
+    public long getProduceFailedCount() {
+        return produceFailedCount.get();
+    }
+
+    public long getBlockedCount() {
+        long blockedCount = 0;
+        for (Buffer<T> buffer : bufferChannels) {
+            blockedCount += buffer.getBlockedCount();
+        }
+        return blockedCount;
+    }
+
+    public long getConsumedCount() {
+        return consumedCount.get();
+    }
+
+    public long getConsumeBatchCount() {
+        return consumeBatchCount.get();
+    }
+
+    public long getConsumeNanos() {
+        return consumeNanos.get();
+    }
+
     public void addCallback(QueueBlockingCallback<T> callback) {
         for (Buffer<T> channel : bufferChannels) {
             channel.addCallback(callback);
@@ -29,24 +29,72 @@ import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
  *
  * In typical case, the number of {@link MultipleChannelsConsumer} should be less than the number of channels.
  *
+ * In the work stealing mode, the channels aren't fixed to the consumer threads they are added to. An idle thread
+ * steals the most backlogged channels from a peer which has other backlogged channels, and the pool grows when the
+ * threads are busy, or shrinks when they are idle, between the min and the max size.
+ *
  * @author wusheng
  */
 public class BulkConsumePool implements ConsumerPool {
-    private List<MultipleChannelsConsumer> allConsumers;
+    private static final long BALANCE_CYCLE = 1000;
+    private static final double GROW_BUSY_RATIO = 0.8;
+    private static final double SHRINK_BUSY_RATIO = 0.2;
+    private static final int SHRINK_IDLE_CYCLES = 30;
+    /**
+     * Channels are stolen only when the last drain of them is over 1/STEAL_BACKLOG_RATIO of their capacity.
+     */
+    private static final int STEAL_BACKLOG_RATIO = 100;
+    /**
+     * An idle thread tries to steal once in this interval at most, rather than in every idle loop.
+     */
+    static final long STEAL_INTERVAL = 200;
+
+    private final String name;
+    private final long consumeCycle;
+    private final int minSize;
+    private final int maxSize;
+    private final boolean workStealing;
+    private volatile List<MultipleChannelsConsumer> allConsumers;
     private volatile boolean isStarted = false;
+    private volatile long retiredBusyNanos;
+    private int threadIndex = 0;
+    private Balancer balancer;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
-        size = EnvUtil.getInt(name + "_THREAD", size);
-        allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
-        for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
-            multipleChannelsConsumer.setDaemon(true);
-            allConsumers.add(multipleChannelsConsumer);
+        this(name, size, size, consumeCycle, false);
+    }
+
+    /**
+     * Create a pool in the work stealing mode.
+     *
+     * @param minSize the initial size of the pool.
+     * @param maxSize the size the pool grows to at most.
+     */
+    public BulkConsumePool(String name, int minSize, int maxSize, long consumeCycle) {
+        this(name, minSize, maxSize, consumeCycle, true);
+    }
+
+    private BulkConsumePool(String name, int size, int maxSize, long consumeCycle, boolean workStealing) {
+        this.name = name;
+        this.consumeCycle = consumeCycle;
+        this.workStealing = workStealing;
+        this.minSize = EnvUtil.getInt(name + "_THREAD", size);
+        this.maxSize = workStealing ? Math.max(minSize, EnvUtil.getInt(name + "_MAX_THREAD", maxSize)) : minSize;
+        List<MultipleChannelsConsumer> consumers = new ArrayList<MultipleChannelsConsumer>(minSize);
+        for (int i = 0; i < minSize; i++) {
+            consumers.add(newConsumer());
         }
+        allConsumers = consumers;
+    }
+
+    private MultipleChannelsConsumer newConsumer() {
+        MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + threadIndex++ + ".Thread", consumeCycle, workStealing ? this : null);
+        multipleChannelsConsumer.setDaemon(true);
+        return multipleChannelsConsumer;
     }
 
     @Override synchronized public void add(String name, Channels channels, IConsumer consumer) {
-        MultipleChannelsConsumer multipleChannelsConsumer = getLowestPayload();
+        MultipleChannelsConsumer multipleChannelsConsumer = getLowestPayload(allConsumers);
         multipleChannelsConsumer.addNewTarget(channels, consumer);
     }
 
@@ -55,10 +103,10 @@ public class BulkConsumePool implements ConsumerPool {
      *
      * @return the lowest consumer.
      */
-    private MultipleChannelsConsumer getLowestPayload() {
-        MultipleChannelsConsumer winner = allConsumers.get(0);
-        for (int i = 1; i < allConsumers.size(); i++) {
-            MultipleChannelsConsumer option = allConsumers.get(i);
+    private MultipleChannelsConsumer getLowestPayload(List<MultipleChannelsConsumer> consumers) {
+        MultipleChannelsConsumer winner = consumers.get(0);
+        for (int i = 1; i < consumers.size(); i++) {
+            MultipleChannelsConsumer option = consumers.get(i);
             if (option.size() < winner.size()) {
                 winner = option;
             }
@@ -66,6 +114,138 @@ public class BulkConsumePool implements ConsumerPool {
         return winner;
     }
 
+    /**
+     * Move the most backlogged channels of the peers to the idle thread. The channels are stolen only from a peer
+     * which has other backlogged channels, so a single hot channel doesn't bounce between the threads.
+     *
+     * @return true if any channels are stolen.
+     */
+    synchronized boolean steal(MultipleChannelsConsumer thief) {
+        if (!allConsumers.contains(thief)) {
+            // Retired by the resizing.
+            return false;
+        }
+        MultipleChannelsConsumer victim = null;
+        MultipleChannelsConsumer.Group stolen = null;
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            if (consumer == thief) {
+                continue;
+            }
+            int backlogged = 0;
+            MultipleChannelsConsumer.Group candidate = null;
+            for (MultipleChannelsConsumer.Group target : consumer.getTargets()) {
+                int backlog = target.getLastBatchSize();
+                if (backlog > 0) {
+                    backlogged++;
+                }
+                if ((long)backlog * STEAL_BACKLOG_RATIO >= target.capacity()
+                    && (candidate == null || backlog > candidate.getLastBatchSize())) {
+                    candidate = target;
+                }
+            }
+            if (backlogged > 1 && candidate != null
+                && (stolen == null || candidate.getLastBatchSize() > stolen.getLastBatchSize())) {
+                victim = consumer;
+                stolen = candidate;
+            }
+        }
+
+        if (stolen == null) {
+            return false;
+        }
+        victim.removeTarget(stolen);
+        thief.addTarget(stolen);
+        return true;
+    }
+
+    /**
+     * Grow the pool if the threads are busy in the last cycle, or shrink it if they are idle for a while. The new
+     * thread takes its share of the targets from the threads which have the most, so it is busy from the start.
+     *
+     * @param busyRatio the average ratio of the time the threads spent in the consumers in the last cycle.
+     * @param idleCycles the number of the cycles the threads are idle continuously.
+     */
+    synchronized void resize(double busyRatio, int idleCycles) {
+        List<MultipleChannelsConsumer> consumers = allConsumers;
+        if (busyRatio >= GROW_BUSY_RATIO && consumers.size() < maxSize && consumers.size() < getTargetCount()) {
+            MultipleChannelsConsumer consumer = newConsumer();
+            int share = getTargetCount() / (consumers.size() + 1);
+            while (consumer.getTargets().size() < share) {
+                MultipleChannelsConsumer victim = getHighestPayload(consumers);
+                if (victim.getTargets().size() <= share) {
+                    break;
+                }
+                MultipleChannelsConsumer.Group target = getMostBacklogged(victim.getTargets());
+                victim.removeTarget(target);
+                consumer.addTarget(target);
+            }
+            List<MultipleChannelsConsumer> newConsumers = new ArrayList<MultipleChannelsConsumer>(consumers);
+            newConsumers.add(consumer);
+            allConsumers = newConsumers;
+            consumer.start();
+        } else if (idleCycles >= SHRINK_IDLE_CYCLES && consumers.size() > minSize) {
+            List<MultipleChannelsConsumer> newConsumers = new ArrayList<MultipleChannelsConsumer>(consumers);
+            MultipleChannelsConsumer retired = newConsumers.remove(newConsumers.size() - 1);
+            allConsumers = newConsumers;
+            for (MultipleChannelsConsumer.Group target : retired.getTargets()) {
+                retired.removeTarget(target);
+                getLowestPayload(newConsumers).addTarget(target);
+            }
+            // No target left, so the consumers don't exit.
+            retired.shutdown();
+            retiredBusyNanos += retired.getBusyNanos();
+        }
+    }
+
+    private MultipleChannelsConsumer getHighestPayload(List<MultipleChannelsConsumer> consumers) {
+        MultipleChannelsConsumer winner = consumers.get(0);
+        for (int i = 1; i < consumers.size(); i++) {
+            MultipleChannelsConsumer option = consumers.get(i);
+            if (option.getTargets().size() > winner.getTargets().size()) {
+                winner = option;
+            }
+        }
+        return winner;
+    }
+
+    private MultipleChannelsConsumer.Group getMostBacklogged(List<MultipleChannelsConsumer.Group> targets) {
+        MultipleChannelsConsumer.Group winner = targets.get(0);
+        for (int i = 1; i < targets.size(); i++) {
+            MultipleChannelsConsumer.Group option = targets.get(i);
+            if (option.getLastBatchSize() > winner.getLastBatchSize()) {
+                winner = option;
+            }
+        }
+        return winner;
+    }
+
+    private int getTargetCount() {
+        int count = 0;
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            count += consumer.getTargets().size();
+        }
+        return count;
+    }
+
+    public int getSize() {
+        return allConsumers.size();
+    }
+
+    List<MultipleChannelsConsumer> getConsumers() {
+        return allConsumers;
+    }
+
+    /**
+     * @return the total time all threads of the pool spent in the consumers.
+     */
+    public long getBusyNanos() {
+        long busyNanos = retiredBusyNanos;
+        for (MultipleChannelsConsumer consumer : allConsumers) {
+            busyNanos += consumer.getBusyNanos();
+        }
+        return busyNanos;
+    }
+
     /**
      * @param channels
      * @return
@@ -74,29 +254,75 @@ public class BulkConsumePool implements ConsumerPool {
         return isStarted;
     }
 
-    @Override public void close(Channels channels) {
+    @Override synchronized public void close(Channels channels) {
+        if (balancer != null) {
+            balancer.running = false;
+        }
         for (MultipleChannelsConsumer consumer : allConsumers) {
             consumer.shutdown();
         }
     }
 
-    @Override public void begin(Channels channels) {
+    @Override synchronized public void begin(Channels channels) {
         if (isStarted) {
             return;
         }
         for (MultipleChannelsConsumer consumer : allConsumers) {
             consumer.start();
         }
+        if (maxSize > minSize) {
+            balancer = new Balancer("DataCarrier." + name + ".BulkConsumePool.Balancer");
+            balancer.setDaemon(true);
+            balancer.start();
+        }
         isStarted = true;
     }
 
+    /**
+     * Measure the busy ratio of the pool every cycle, to resize it.
+     */
+    private class Balancer extends Thread {
+        private volatile boolean running = true;
+
+        private Balancer(String threadName) {
+            super(threadName);
+        }
+
+        @Override public void run() {
+            long lastBusyNanos = getBusyNanos();
+            long lastNanos = System.nanoTime();
+            int idleCycles = 0;
+            while (running) {
+                try {
+                    Thread.sleep(BALANCE_CYCLE);
+                } catch (InterruptedException e) {
+                }
+
+                long busyNanos = getBusyNanos();
+                long nanos = System.nanoTime();
+                double busyRatio = (double)(busyNanos - lastBusyNanos) / (nanos - lastNanos) / getSize();
+                lastBusyNanos = busyNanos;
+                lastNanos = nanos;
+
+                idleCycles = busyRatio <= SHRINK_BUSY_RATIO ? idleCycles + 1 : 0;
+                int size = getSize();
+                resize(busyRatio, idleCycles);
+                if (getSize() != size) {
+                    idleCycles = 0;
+                }
+            }
+        }
+    }
+
     /**
      * The creator for {@link BulkConsumePool}.
      */
     public static class Creator implements Callable<ConsumerPool> {
         private String name;
         private int size;
+        private int maxSize;
         private long consumeCycle;
+        private boolean workStealing;
 
         public Creator(String name, int poolSize, long consumeCycle) {
             this.name = name;
@@ -104,7 +330,19 @@ public class BulkConsumePool implements ConsumerPool {
             this.consumeCycle = consumeCycle;
         }
 
+        /**
+         * Create the pool in the work stealing mode, with the size between the min and the max.
+         */
+        public Creator(String name, int minPoolSize, int maxPoolSize, long consumeCycle) {
+            this(name, minPoolSize, consumeCycle);
+            this.maxSize = maxPoolSize;
+            this.workStealing = true;
+        }
+
         @Override public ConsumerPool call() {
+            if (workStealing) {
+                return new BulkConsumePool(name, size, maxSize, consumeCycle);
+            }
             return new BulkConsumePool(name, size, consumeCycle);
         }
 
@@ -49,6 +49,13 @@ public enum ConsumerPoolFactory {
         return pools.get(poolName);
     }
 
+    /**
+     * @return a copy of all pools by the names.
+     */
+    public synchronized Map<String, ConsumerPool> getPools() {
+        return new HashMap<String, ConsumerPool>(pools);
+    }
+
     /**
      * Default pool provides the same capabilities as DataCarrier#consume(IConsumer, 1), which alloc one thread for one
      * DataCarrier.
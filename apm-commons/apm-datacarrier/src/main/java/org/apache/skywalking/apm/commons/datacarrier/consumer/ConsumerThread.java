@@ -22,6 +22,7 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 
 /**
  * Created by wusheng on 2016/10/25.
@@ -31,9 +32,18 @@ public class ConsumerThread<T> extends Thread {
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
     private long consumeCycle;
+    private Channels<T> channels;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, null);
+    }
+
+    /**
+     * @param channels the drains are recorded into, if not null.
+     */
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, Channels<T> channels) {
         super(threadName);
+        this.channels = channels;
         this.consumer = consumer;
         running = false;
         dataSources = new LinkedList<DataSource>();
@@ -97,11 +107,15 @@ public class ConsumerThread<T> extends Thread {
         }
 
         if (consumeList.size() > 0) {
+            long startNanos = System.nanoTime();
             try {
                 consumer.consume(consumeList);
             } catch (Throwable t) {
                 consumer.onError(consumeList, t);
             }
+            if (channels != null) {
+                channels.recordConsume(consumeList.size(), System.nanoTime() - startNanos);
+            }
         }
         return hasData;
     }
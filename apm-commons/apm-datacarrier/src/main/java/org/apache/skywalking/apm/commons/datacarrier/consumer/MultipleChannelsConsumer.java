@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.*;
 
 /**
@@ -32,11 +33,23 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     private volatile long size;
     private final long consumeCycle;
+    private volatile long busyNanos;
+    private final BulkConsumePool stealingPool;
+    private long nextStealTime;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, null);
+    }
+
+    /**
+     * @param stealingPool the pool to steal the targets from the peers when this thread is idle, null means the
+     * targets are fixed.
+     */
+    MultipleChannelsConsumer(String threadName, long consumeCycle, BulkConsumePool stealingPool) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
         this.consumeCycle = consumeCycle;
+        this.stealingPool = stealingPool;
     }
 
     @Override
@@ -46,10 +59,16 @@ public class MultipleChannelsConsumer extends Thread {
         while (running) {
             boolean hasData = false;
             for (Group target : consumeTargets) {
-                hasData = hasData || consume(target);
+                hasData = consume(target) || hasData;
             }
 
             if (!hasData) {
+                if (stealingPool != null && System.currentTimeMillis() >= nextStealTime) {
+                    nextStealTime = System.currentTimeMillis() + BulkConsumePool.STEAL_INTERVAL;
+                    if (stealingPool.steal(this)) {
+                        continue;
+                    }
+                }
                 try {
                     Thread.sleep(consumeCycle);
                 } catch (InterruptedException e) {
@@ -68,6 +87,18 @@ public class MultipleChannelsConsumer extends Thread {
     }
 
     private boolean consume(Group target) {
+        // The target may be moved to another thread while it is consumed here.
+        if (!target.consuming.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            return consume0(target);
+        } finally {
+            target.consuming.set(false);
+        }
+    }
+
+    private boolean consume0(Group target) {
         boolean hasData;
         LinkedList consumeList = new LinkedList();
         for (int i = 0; i < target.channels.getChannelSize(); i++) {
@@ -75,12 +106,18 @@ public class MultipleChannelsConsumer extends Thread {
             consumeList.addAll(buffer.obtain());
         }
 
+        target.lastBatchSize = consumeList.size();
         if (hasData = consumeList.size() > 0) {
+            long startNanos = System.nanoTime();
             try {
                 target.consumer.consume(consumeList);
             } catch (Throwable t) {
                 target.consumer.onError(consumeList, t);
             }
+            long nanos = System.nanoTime() - startNanos;
+            // Only written by this thread.
+            busyNanos += nanos;
+            target.channels.recordConsume(consumeList.size(), nanos);
         }
         return hasData;
     }
@@ -92,7 +129,10 @@ public class MultipleChannelsConsumer extends Thread {
      * @param consumer
      */
     public void addNewTarget(Channels channels, IConsumer consumer) {
-        Group group = new Group(channels, consumer);
+        addTarget(new Group(channels, consumer));
+    }
+
+    void addTarget(Group group) {
         // Recreate the new list to avoid change list while the list is used in consuming.
         ArrayList<Group> newList = new ArrayList<Group>();
         for (Group target : consumeTargets) {
@@ -100,24 +140,59 @@ public class MultipleChannelsConsumer extends Thread {
         }
         newList.add(group);
         consumeTargets = newList;
-        size += channels.size();
+        size += group.channels.size();
+    }
+
+    void removeTarget(Group group) {
+        ArrayList<Group> newList = new ArrayList<Group>();
+        for (Group target : consumeTargets) {
+            if (target != group) {
+                newList.add(target);
+            }
+        }
+        consumeTargets = newList;
+        size -= group.channels.size();
+    }
+
+    List<Group> getTargets() {
+        return consumeTargets;
     }
 
     public long size() {
         return size;
     }
 
+    /**
+     * @return the total time this thread spent in the consumers, the rest is spent in draining and sleeping.
+     */
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
     void shutdown() {
         running = false;
     }
 
-    private class Group {
+    static class Group {
         private Channels channels;
         private IConsumer consumer;
+        private final AtomicBoolean consuming = new AtomicBoolean();
+        /**
+         * The size of the last drain, the backlog accumulated in one loop of the owner thread.
+         */
+        private volatile int lastBatchSize;
 
         public Group(Channels channels, IConsumer consumer) {
             this.channels = channels;
             this.consumer = consumer;
         }
+
+        int getLastBatchSize() {
+            return lastBatchSize;
+        }
+
+        long capacity() {
+            return channels.size();
+        }
     }
 }
@@ -115,6 +115,52 @@ public class DataCarrierTest {
         Assert.assertEquals(200, result1.size() + result2.size());
     }
 
+    @Test
+    public void testStatistics() throws InterruptedException {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+
+        for (int i = 0; i < 250; i++) {
+            carrier.produce(new SampleData().setName("d" + i));
+        }
+
+        Channels<SampleData> channels = carrier.getChannels();
+        Assert.assertEquals(200, channels.occupancy());
+        Assert.assertEquals(50, channels.getProduceFailedCount());
+
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init() {
+
+            }
+
+            @Override
+            public void consume(List<SampleData> data) {
+
+            }
+
+            @Override
+            public void onError(List<SampleData> data, Throwable t) {
+
+            }
+
+            @Override
+            public void onExit() {
+
+            }
+        }, 1);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (channels.getConsumedCount() < 200 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        carrier.shutdownConsumers();
+
+        Assert.assertEquals(0, channels.occupancy());
+        Assert.assertEquals(200, channels.getConsumedCount());
+        Assert.assertTrue(channels.getConsumeBatchCount() >= 1);
+    }
+
     @Test
     public void testBlockingProduce() throws IllegalAccessException {
         final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.*;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 import org.junit.*;
@@ -88,4 +89,116 @@ public class BulkConsumePoolTest {
         Assert.assertEquals(5, result1.size());
         Assert.assertEquals(2, result2.size());
     }
+
+    @Test
+    public void testWorkStealing() throws InterruptedException {
+        BulkConsumePool pool = new BulkConsumePool("testStealingPool", 2, 2, 10);
+        Channels c1 = new Channels(1, 100, new SimpleRollingPartitioner(), BufferStrategy.IF_POSSIBLE);
+        Channels c2 = new Channels(1, 100, new SimpleRollingPartitioner(), BufferStrategy.IF_POSSIBLE);
+        Channels c3 = new Channels(1, 100, new SimpleRollingPartitioner(), BufferStrategy.IF_POSSIBLE);
+        SlowConsumer hot1 = new SlowConsumer(50);
+        SlowConsumer hot3 = new SlowConsumer(50);
+        // c1 and c3 are added to the same thread.
+        pool.add("test1", c1, hot1);
+        pool.add("test2", c2, new SlowConsumer(0));
+        pool.add("test3", c3, hot3);
+        pool.begin(c1);
+
+        long end = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < 10; i++) {
+                c1.save(new Object());
+                c3.save(new Object());
+            }
+            Thread.sleep(5);
+        }
+        pool.close(c1);
+
+        Set<String> threads = new HashSet<String>(hot1.threads);
+        threads.addAll(hot3.threads);
+        Assert.assertEquals(2, threads.size());
+        Assert.assertFalse(hot1.overlapped);
+        Assert.assertFalse(hot3.overlapped);
+    }
+
+    @Test
+    public void testResize() throws InterruptedException {
+        BulkConsumePool pool = new BulkConsumePool("testResizePool", 1, 3, 10);
+        List<Channels> channels = new ArrayList<Channels>();
+        List<SlowConsumer> consumers = new ArrayList<SlowConsumer>();
+        for (int i = 0; i < 3; i++) {
+            Channels c = new Channels(1, 100, new SimpleRollingPartitioner(), BufferStrategy.IF_POSSIBLE);
+            SlowConsumer consumer = new SlowConsumer(0);
+            pool.add("test" + i, c, consumer);
+            channels.add(c);
+            consumers.add(consumer);
+        }
+        pool.begin(channels.get(0));
+
+        pool.resize(0.9, 0);
+        pool.resize(0.9, 0);
+        Assert.assertEquals(3, pool.getSize());
+        // The new threads take their share of the targets.
+        for (MultipleChannelsConsumer consumer : pool.getConsumers()) {
+            Assert.assertEquals(1, consumer.getTargets().size());
+        }
+        // No more threads than the channels or the max size.
+        pool.resize(0.9, 0);
+        Assert.assertEquals(3, pool.getSize());
+
+        pool.resize(0.1, 29);
+        Assert.assertEquals(3, pool.getSize());
+        pool.resize(0.1, 30);
+        pool.resize(0.1, 30);
+        pool.resize(0.1, 30);
+        Assert.assertEquals(1, pool.getSize());
+
+        for (Channels c : channels) {
+            c.save(new Object());
+            c.save(new Object());
+        }
+        Thread.sleep(500);
+        pool.close(channels.get(0));
+
+        for (SlowConsumer consumer : consumers) {
+            Assert.assertEquals(2, consumer.count);
+        }
+    }
+
+    private static class SlowConsumer implements IConsumer {
+        private final long sleep;
+        private final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+        private final AtomicBoolean consuming = new AtomicBoolean();
+        private volatile boolean overlapped;
+        private volatile int count;
+
+        private SlowConsumer(long sleep) {
+            this.sleep = sleep;
+        }
+
+        @Override public void init() {
+
+        }
+
+        @Override public void consume(List data) {
+            if (!consuming.compareAndSet(false, true)) {
+                overlapped = true;
+            }
+            threads.add(Thread.currentThread().getName());
+            count += data.size();
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+            }
+            consuming.set(false);
+        }
+
+        @Override public void onError(List data, Throwable t) {
+
+        }
+
+        @Override public void onExit() {
+
+        }
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.network.trace.command;
+
+import java.util.Map;
+import org.apache.skywalking.apm.network.common.Command;
+import org.apache.skywalking.apm.network.common.KeyStringValuePair;
+
+/**
+ * The <code>TraceSamplingCommand</code> is pushed by the backend through the response of trace segment report stream,
+ * to adjust the sampling rate of the agents at runtime.
+ *
+ * Each arg of the command is a pair of service instance id and the max number of sampled traces in 3 seconds of this
+ * instance. The command always carries the whole state, so the agent whose instance id is absent should go back to its
+ * local setting.
+ */
+public class TraceSamplingCommand {
+    public static final String NAME = "TraceSampling";
+
+    /**
+     * No sampling limit for the given service instance in this command.
+     */
+    public static final int NO_LIMIT = -1;
+
+    public static Command build(Map<Integer, Integer> sampleNPer3SecsOfInstances) {
+        Command.Builder builder = Command.newBuilder().setCommand(NAME);
+        for (Map.Entry<Integer, Integer> entry : sampleNPer3SecsOfInstances.entrySet()) {
+            builder.addArgs(KeyStringValuePair.newBuilder()
+                .setKey(String.valueOf(entry.getKey()))
+                .setValue(String.valueOf(entry.getValue())));
+        }
+        return builder.build();
+    }
+
+    public static boolean isSamplingCommand(Command command) {
+        return NAME.equals(command.getCommand());
+    }
+
+    /**
+     * @return the max number of sampled traces in 3 seconds for the given service instance, or {@link #NO_LIMIT} if the
+     * command doesn't include this instance.
+     */
+    public static int findSampleNPer3Secs(Command command, int serviceInstanceId) {
+        String key = String.valueOf(serviceInstanceId);
+        for (KeyStringValuePair arg : command.getArgsList()) {
+            if (key.equals(arg.getKey())) {
+                try {
+                    return Integer.parseInt(arg.getValue());
+                } catch (NumberFormatException e) {
+                    return NO_LIMIT;
+                }
+            }
+        }
+        return NO_LIMIT;
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.skywalking.apm.agent.core.base64;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 
@@ -30,6 +31,14 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 public final class Base64 {
     private static final ILog logger = LogManager.getLogger(Base64.class);
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ThreadLocal<byte[]> DECODE_BUFFER = new ThreadLocal<byte[]>() {
+        @Override protected byte[] initialValue() {
+            return new byte[256];
+        }
+    };
+
     private Base64() {
     }
 
@@ -42,23 +51,62 @@ public final class Base64 {
         }
     }
 
+    /**
+     * Decode the part of the given text, from <code>start</code> (inclusive) to <code>end</code> (exclusive), without
+     * creating the substring. The bytes are decoded into a buffer reused by the current thread.
+     *
+     * @return the decoded text, or null if the part isn't BASE64 encoded.
+     */
+    public static String decode2UTFString(String in, int start, int end) {
+        int maxLength = (int)((end - start) * 6L / 8L);
+        byte[] buffer = DECODE_BUFFER.get();
+        if (buffer.length < maxLength) {
+            buffer = new byte[Math.max(maxLength, buffer.length * 2)];
+            DECODE_BUFFER.set(buffer);
+        }
+        int length = decode(in, start, end, buffer);
+        if (length < 0) {
+            return null;
+        }
+        return new String(buffer, 0, length, UTF_8);
+    }
+
     public static byte[] decode(String in) {
+        // If the input includes whitespace, this output array will be longer than necessary.
+        byte[] out = new byte[(int)(in.length() * 6L / 8L)];
+        int outCount = decode(in, 0, in.length(), out);
+        if (outCount < 0) {
+            return null;
+        }
+
+        // If we sized our out array perfectly, we're done.
+        if (outCount == out.length)
+            return out;
+
+        // Copy the decoded bytes to a new, right-sized array.
+        byte[] prefix = new byte[outCount];
+        System.arraycopy(out, 0, prefix, 0, outCount);
+        return prefix;
+    }
+
+    /**
+     * @return the count of the decoded bytes in <code>out</code>, or -1 if the input isn't BASE64 encoded.
+     */
+    private static int decode(String in, int start, int end, byte[] out) {
         // Ignore trailing '=' padding and whitespace from the input.
-        int limit = in.length();
-        for (; limit > 0; limit--) {
+        int limit = end;
+        for (; limit > start; limit--) {
             char c = in.charAt(limit - 1);
             if (c != '=' && c != '\n' && c != '\r' && c != ' ' && c != '\t') {
                 break;
             }
         }
 
-        // If the input includes whitespace, this output array will be longer than necessary.
-        byte[] out = new byte[(int)(limit * 6L / 8L)];
         int outCount = 0;
         int inCount = 0;
 
         int word = 0;
-        for (int pos = 0; pos < limit; pos++) {
+        for (int pos = start; pos < limit; pos++) {
             char c = in.charAt(pos);
 
             int bits;
@@ -84,7 +132,7 @@ public final class Base64 {
             } else if (c == '\n' || c == '\r' || c == ' ' || c == '\t') {
                 continue;
             } else {
-                return null;
+                return -1;
             }
 
             // Append this char's 6 bits to the word.
@@ -102,7 +150,7 @@ public final class Base64 {
         int lastWordChars = inCount % 4;
         if (lastWordChars == 1) {
             // We read 1 char followed by "===". But 6 bits is a truncated byte! Fail.
-            return null;
+            return -1;
         } else if (lastWordChars == 2) {
             // We read 2 chars followed by "==". Emit 1 byte with 8 of those 12 bits.
             word = word << 12;
@@ -113,15 +161,7 @@ public final class Base64 {
             out[outCount++] = (byte)(word >> 16);
             out[outCount++] = (byte)(word >> 8);
         }
-
-        // If we sized our out array perfectly, we're done.
-        if (outCount == out.length)
-            return out;
-
-        // Copy the decoded bytes to a new, right-sized array.
-        byte[] prefix = new byte[outCount];
-        System.arraycopy(out, 0, prefix, 0, outCount);
-        return prefix;
+        return outCount;
     }
 
     private static final byte[] MAP = new byte[] {
@@ -147,6 +187,65 @@ public final class Base64 {
         }
     }
 
+    /**
+     * Encode the given text, and append the result to the given builder. The text of ASCII characters only, such as
+     * ids and most of the endpoint names, is encoded without being converted to bytes first. A null text is treated as
+     * an empty one.
+     */
+    public static void encode(String text, StringBuilder out) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                encode(text.getBytes(UTF_8), MAP, out);
+                return;
+            }
+        }
+
+        int end = length - length % 3;
+        for (int i = 0; i < end; i += 3) {
+            int word = (text.charAt(i) << 16) | (text.charAt(i + 1) << 8) | text.charAt(i + 2);
+            out.append((char)MAP[word >> 18]).append((char)MAP[(word >> 12) & 0x3f])
+                .append((char)MAP[(word >> 6) & 0x3f]).append((char)MAP[word & 0x3f]);
+        }
+        switch (length % 3) {
+            case 1:
+                out.append((char)MAP[text.charAt(end) >> 2]).append((char)MAP[(text.charAt(end) & 0x03) << 4])
+                    .append("==");
+                break;
+            case 2:
+                int word = (text.charAt(end) << 8) | text.charAt(end + 1);
+                out.append((char)MAP[word >> 10]).append((char)MAP[(word >> 4) & 0x3f])
+                    .append((char)MAP[(word << 2) & 0x3f]).append('=');
+                break;
+        }
+    }
+
+    private static void encode(byte[] in, byte[] map, StringBuilder out) {
+        int end = in.length - in.length % 3;
+        for (int i = 0; i < end; i += 3) {
+            out.append((char)map[(in[i] & 0xff) >> 2]);
+            out.append((char)map[((in[i] & 0x03) << 4) | ((in[i + 1] & 0xff) >> 4)]);
+            out.append((char)map[((in[i + 1] & 0x0f) << 2) | ((in[i + 2] & 0xff) >> 6)]);
+            out.append((char)map[in[i + 2] & 0x3f]);
+        }
+        switch (in.length % 3) {
+            case 1:
+                out.append((char)map[(in[end] & 0xff) >> 2]);
+                out.append((char)map[(in[end] & 0x03) << 4]);
+                out.append("==");
+                break;
+            case 2:
+                out.append((char)map[(in[end] & 0xff) >> 2]);
+                out.append((char)map[((in[end] & 0x03) << 4) | ((in[end + 1] & 0xff) >> 4)]);
+                out.append((char)map[(in[end + 1] & 0x0f) << 2]);
+                out.append('=');
+                break;
+        }
+    }
+
     public static String encode(byte[] in) {
         return encode(in, MAP);
     }
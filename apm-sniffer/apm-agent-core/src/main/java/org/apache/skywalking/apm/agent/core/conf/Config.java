@@ -74,6 +74,12 @@ public class Config {
          */
         public static boolean IS_OPEN_DEBUGGING_CLASS = false;
 
+        /**
+         * If true, skywalking agent will remember the classes not enhanced in `/enhancement-cache` folder, and skip
+         * matching them in the next boots with the same plugins and application jars.
+         */
+        public static boolean IS_OPEN_ENHANCEMENT_CACHE = false;
+
         /**
          * Active V2 header in default
          */
@@ -76,6 +76,16 @@ public class ContextCarrier implements Serializable {
      */
     private DistributedTraceId primaryDistributedTraceId;
 
+    /**
+     * The v2 header deserialized, whose endpoint names are decoded at the first read, as only the extracted carrier of
+     * a sampled trace needs them.
+     */
+    private String undecodedHeader;
+
+    private int entryEndpointNameStart;
+
+    private int parentEndpointNameStart;
+
     public CarrierItem items() {
         CarrierItemHead head;
         if (Config.Agent.ACTIVE_V2_HEADER && Config.Agent.ACTIVE_V1_HEADER) {
@@ -103,30 +113,34 @@ public class ContextCarrier implements Serializable {
         if (this.isValid(version)) {
             if (HeaderVersion.v1.equals(version)) {
                 if (Config.Agent.ACTIVE_V1_HEADER) {
-                    return StringUtil.join('|',
-                        this.getTraceSegmentId().encode(),
-                        this.getSpanId() + "",
-                        this.getParentServiceInstanceId() + "",
-                        this.getEntryServiceInstanceId() + "",
-                        this.getPeerHost(),
-                        this.getEntryEndpointName(),
-                        this.getParentEndpointName(),
-                        this.getPrimaryDistributedTraceId().encode());
+                    return new StringBuilder(128)
+                        .append(this.getTraceSegmentId().encode()).append('|')
+                        .append(this.getSpanId()).append('|')
+                        .append(this.getParentServiceInstanceId()).append('|')
+                        .append(this.getEntryServiceInstanceId()).append('|')
+                        .append(this.getPeerHost()).append('|')
+                        .append(this.getEntryEndpointName()).append('|')
+                        .append(this.getParentEndpointName()).append('|')
+                        .append(this.getPrimaryDistributedTraceId().encode()).toString();
                 } else {
                     return "";
                 }
             } else {
                 if (Config.Agent.ACTIVE_V2_HEADER) {
-                    return StringUtil.join('-',
-                        "1",
-                        Base64.encode(this.getPrimaryDistributedTraceId().encode()),
-                        Base64.encode(this.getTraceSegmentId().encode()),
-                        this.getSpanId() + "",
-                        this.getParentServiceInstanceId() + "",
-                        this.getEntryServiceInstanceId() + "",
-                        Base64.encode(this.getPeerHost()),
-                        Base64.encode(this.getEntryEndpointName()),
-                        Base64.encode(this.getParentEndpointName()));
+                    StringBuilder header = new StringBuilder(192).append('1').append('-');
+                    Base64.encode(this.getPrimaryDistributedTraceId().encode(), header);
+                    header.append('-');
+                    Base64.encode(this.getTraceSegmentId().encode(), header);
+                    header.append('-')
+                        .append(this.getSpanId()).append('-')
+                        .append(this.getParentServiceInstanceId()).append('-')
+                        .append(this.getEntryServiceInstanceId()).append('-');
+                    Base64.encode(this.getPeerHost(), header);
+                    header.append('-');
+                    Base64.encode(this.getEntryEndpointName(), header);
+                    header.append('-');
+                    Base64.encode(this.getParentEndpointName(), header);
+                    return header.toString();
                 } else {
                     return "";
                 }
@@ -144,38 +158,43 @@ public class ContextCarrier implements Serializable {
     ContextCarrier deserialize(String text, HeaderVersion version) {
         if (text != null) {
             // if this carrier is initialized by v1 or v2, don't do deserialize again for performance.
-            if (this.isValid(HeaderVersion.v1) || this.isValid(HeaderVersion.v2)) {
+            if (this.isValid(HeaderVersion.v2) || this.isValid(HeaderVersion.v1)) {
                 return this;
             }
             if (HeaderVersion.v1.equals(version)) {
-                String[] parts = text.split("\\|", 8);
-                if (parts.length == 8) {
+                int[] ends = split(text, '|', 8);
+                if (ends != null) {
                     try {
-                        this.traceSegmentId = new ID(parts[0]);
-                        this.spanId = Integer.parseInt(parts[1]);
-                        this.parentServiceInstanceId = Integer.parseInt(parts[2]);
-                        this.entryServiceInstanceId = Integer.parseInt(parts[3]);
-                        this.peerHost = parts[4];
-                        this.entryEndpointName = parts[5];
-                        this.parentEndpointName = parts[6];
-                        this.primaryDistributedTraceId = new PropagatedTraceId(parts[7]);
+                        this.traceSegmentId = new ID(text.substring(0, ends[0]));
+                        this.spanId = parseInt(text, ends[0] + 1, ends[1]);
+                        this.parentServiceInstanceId = parseInt(text, ends[1] + 1, ends[2]);
+                        this.entryServiceInstanceId = parseInt(text, ends[2] + 1, ends[3]);
+                        this.peerHost = text.substring(ends[3] + 1, ends[4]);
+                        this.entryEndpointName = text.substring(ends[4] + 1, ends[5]);
+                        this.parentEndpointName = text.substring(ends[5] + 1, ends[6]);
+                        this.primaryDistributedTraceId = new PropagatedTraceId(text.substring(ends[6] + 1, ends[7]));
                     } catch (NumberFormatException e) {
 
                     }
                 }
             } else if (HeaderVersion.v2.equals(version)) {
-                String[] parts = text.split("\\-", 9);
-                if (parts.length == 9) {
+                int[] ends = split(text, '-', 9);
+                if (ends != null) {
                     try {
                         // parts[0] is sample flag, always trace if header exists.
-                        this.primaryDistributedTraceId = new PropagatedTraceId(Base64.decode2UTFString(parts[1]));
-                        this.traceSegmentId = new ID(Base64.decode2UTFString(parts[2]));
-                        this.spanId = Integer.parseInt(parts[3]);
-                        this.parentServiceInstanceId = Integer.parseInt(parts[4]);
-                        this.entryServiceInstanceId = Integer.parseInt(parts[5]);
-                        this.peerHost = Base64.decode2UTFString(parts[6]);
-                        this.entryEndpointName = Base64.decode2UTFString(parts[7]);
-                        this.parentEndpointName = Base64.decode2UTFString(parts[8]);
+                        String traceId = Base64.decode2UTFString(text, ends[0] + 1, ends[1]);
+                        String segmentId = Base64.decode2UTFString(text, ends[1] + 1, ends[2]);
+                        if (traceId != null && segmentId != null) {
+                            this.primaryDistributedTraceId = new PropagatedTraceId(traceId);
+                            this.traceSegmentId = new ID(segmentId);
+                            this.spanId = parseInt(text, ends[2] + 1, ends[3]);
+                            this.parentServiceInstanceId = parseInt(text, ends[3] + 1, ends[4]);
+                            this.entryServiceInstanceId = parseInt(text, ends[4] + 1, ends[5]);
+                            this.peerHost = Base64.decode2UTFString(text, ends[5] + 1, ends[6]);
+                            this.undecodedHeader = text;
+                            this.entryEndpointNameStart = ends[6] + 1;
+                            this.parentEndpointNameStart = ends[7] + 1;
+                        }
                     } catch (NumberFormatException e) {
 
                     }
@@ -187,6 +206,62 @@ public class ContextCarrier implements Serializable {
         return this;
     }
 
+    /**
+     * Split the text like {@link String#split(String, int)} with the limit of <code>parts</code>, without regex.
+     *
+     * @return the end indexes of all parts, or null if the text doesn't have so many parts.
+     */
+    private static int[] split(String text, char separator, int parts) {
+        int[] ends = new int[parts];
+        int from = 0;
+        for (int i = 0; i < parts - 1; i++) {
+            int end = text.indexOf(separator, from);
+            if (end < 0) {
+                return null;
+            }
+            ends[i] = end;
+            from = end + 1;
+        }
+        ends[parts - 1] = text.length();
+        return ends;
+    }
+
+    /**
+     * Parse the decimal integer in the text, from <code>start</code> (inclusive) to <code>end</code> (exclusive),
+     * without creating the substring.
+     */
+    private static int parseInt(String text, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Empty number in " + text);
+        }
+        boolean negative = text.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > 10) {
+            throw new NumberFormatException("Illegal number in " + text);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Illegal number in " + text);
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            throw new NumberFormatException("Illegal number in " + text);
+        }
+        return (int)value;
+    }
+
+    private void decodeEndpointNames() {
+        if (undecodedHeader != null) {
+            entryEndpointName = Base64.decode2UTFString(undecodedHeader, entryEndpointNameStart, parentEndpointNameStart - 1);
+            parentEndpointName = Base64.decode2UTFString(undecodedHeader, parentEndpointNameStart, undecodedHeader.length());
+            undecodedHeader = null;
+        }
+    }
+
     public boolean isValid() {
         return isValid(HeaderVersion.v2) || isValid(HeaderVersion.v1);
     }
@@ -204,8 +279,8 @@ public class ContextCarrier implements Serializable {
                 && parentServiceInstanceId != DictionaryUtil.nullValue()
                 && entryServiceInstanceId != DictionaryUtil.nullValue()
                 && !StringUtil.isEmpty(peerHost)
-                && !StringUtil.isEmpty(entryEndpointName)
-                && !StringUtil.isEmpty(parentEndpointName)
+                && !StringUtil.isEmpty(getEntryEndpointName())
+                && !StringUtil.isEmpty(getParentEndpointName())
                 && primaryDistributedTraceId != null;
         } else if (HeaderVersion.v2.equals(version)) {
             return traceSegmentId != null
@@ -221,22 +296,27 @@ public class ContextCarrier implements Serializable {
     }
 
     public String getEntryEndpointName() {
+        decodeEndpointNames();
         return entryEndpointName;
     }
 
     void setEntryEndpointName(String entryEndpointName) {
+        decodeEndpointNames();
         this.entryEndpointName = '#' + entryEndpointName;
     }
 
     void setEntryEndpointId(int entryOperationId) {
+        decodeEndpointNames();
         this.entryEndpointName = entryOperationId + "";
     }
 
     void setParentEndpointName(String parentEndpointName) {
+        decodeEndpointNames();
         this.parentEndpointName = '#' + parentEndpointName;
     }
 
     void setParentEndpointId(int parentOperationId) {
+        decodeEndpointNames();
         this.parentEndpointName = parentOperationId + "";
     }
 
@@ -289,6 +369,7 @@ public class ContextCarrier implements Serializable {
     }
 
     public String getParentEndpointName() {
+        decodeEndpointNames();
         return parentEndpointName;
     }
 
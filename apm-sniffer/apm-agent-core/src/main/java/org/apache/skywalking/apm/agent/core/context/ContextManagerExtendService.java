@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent.core.context;
 
 import org.apache.skywalking.apm.agent.core.boot.*;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.util.SuffixMatcher;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 
 /**
@@ -27,12 +28,14 @@ import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
  */
 @DefaultImplementor
 public class ContextManagerExtendService implements BootService {
+    private volatile SuffixMatcher ignoreSuffixMatcher = new SuffixMatcher(Config.Agent.IGNORE_SUFFIX);
+
     @Override public void prepare() {
 
     }
 
     @Override public void boot() {
-
+        ignoreSuffixMatcher = new SuffixMatcher(Config.Agent.IGNORE_SUFFIX);
     }
 
     @Override public void onComplete() {
@@ -45,8 +48,7 @@ public class ContextManagerExtendService implements BootService {
 
     public AbstractTracerContext createTraceContext(String operationName, boolean forceSampling) {
         AbstractTracerContext context;
-        int suffixIdx = operationName.lastIndexOf(".");
-        if (suffixIdx > -1 && Config.Agent.IGNORE_SUFFIX.contains(operationName.substring(suffixIdx))) {
+        if (ignoreSuffixMatcher.match(operationName)) {
             context = new IgnoredTracerContext();
         } else {
             SamplingService samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
@@ -39,22 +39,19 @@ public class ID {
     }
 
     public ID(String encodingString) {
-        String[] idParts = encodingString.split("\\.", 3);
-        this.isValid = true;
-        for (int part = 0; part < 3; part++) {
-            try {
-                if (part == 0) {
-                    part1 = Long.parseLong(idParts[part]);
-                } else if (part == 1) {
-                    part2 = Long.parseLong(idParts[part]);
-                } else {
-                    part3 = Long.parseLong(idParts[part]);
-                }
-            } catch (NumberFormatException e) {
-                this.isValid = false;
-                break;
-            }
-
+        int firstDot = encodingString.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : encodingString.indexOf('.', firstDot + 1);
+        if (secondDot < 0) {
+            this.isValid = false;
+            return;
+        }
+        try {
+            part1 = Long.parseLong(encodingString.substring(0, firstDot));
+            part2 = Long.parseLong(encodingString.substring(firstDot + 1, secondDot));
+            part3 = Long.parseLong(encodingString.substring(secondDot + 1));
+            this.isValid = true;
+        } catch (NumberFormatException e) {
+            this.isValid = false;
         }
     }
 
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+/**
+ * The <code>SuffixMatcher</code> compiles a comma separated suffix list, such as <code>.jpg,.css,.js</code>, into a
+ * reversed trie. {@link #match(String)} checks whether the part of the given name starting from its last dot is one of
+ * the suffixes, walking the name backwards, so it costs no more than the longest suffix and never allocates.
+ */
+public class SuffixMatcher {
+    private static final char SUFFIX_START = '.';
+
+    private final Node root = new Node();
+
+    public SuffixMatcher(String suffixes) {
+        if (suffixes == null) {
+            return;
+        }
+        for (String suffix : suffixes.split(",")) {
+            suffix = suffix.trim();
+            if (suffix.length() < 2 || suffix.charAt(0) != SUFFIX_START || suffix.indexOf(SUFFIX_START, 1) > -1) {
+                continue;
+            }
+            Node node = root;
+            for (int i = suffix.length() - 1; i >= 0; i--) {
+                node = node.getOrCreateChild(suffix.charAt(i));
+            }
+            node.terminal = true;
+        }
+    }
+
+    public boolean match(String name) {
+        Node node = root;
+        for (int i = name.length() - 1; i >= 0; i--) {
+            char c = name.charAt(i);
+            node = node.child(c);
+            if (node == null) {
+                return false;
+            }
+            if (c == SUFFIX_START) {
+                return node.terminal;
+            }
+        }
+        return false;
+    }
+
+    private static class Node {
+        private char[] chars = new char[0];
+        private Node[] children = new Node[0];
+        private boolean terminal;
+
+        private Node child(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node getOrCreateChild(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                char[] newChars = new char[chars.length + 1];
+                Node[] newChildren = new Node[children.length + 1];
+                System.arraycopy(chars, 0, newChars, 0, chars.length);
+                System.arraycopy(children, 0, newChildren, 0, children.length);
+                newChars[chars.length] = c;
+                newChildren[children.length] = child;
+                chars = newChars;
+                children = newChildren;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+
+/**
+ * The <code>EnhancementCache</code> remembers, across the restarts of the same application with the same plugins, the
+ * classes which have been loaded but not enhanced. These classes are the most of the loaded ones, and on the next
+ * boots, {@link #wrap(ClassFileTransformer)} skips the byte-buddy matching of them.
+ *
+ * A class is identified by its name and the hash of its bytes. The cache file is named by the fingerprint of the
+ * plugin definitions, the plugin jars and the jars of the application class path, so any change of them starts a new
+ * cache. The classes from other places, e.g. the web application class loaders of a servlet container, are cached too,
+ * but their super types are not fingerprinted, so don't enable the cache if those jars are upgraded in place.
+ *
+ * The enhanced classes are never cached, their interceptors are bound when the classes are loaded, which can't be
+ * restored from bytes.
+ */
+public class EnhancementCache {
+    private static final ILog logger = LogManager.getLogger(EnhancementCache.class);
+
+    private static final int MAGIC = 0x53574543;
+    private static final String FILE_PREFIX = "enhancement-";
+    private static final String FILE_SUFFIX = ".cache";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File cacheFile;
+    private final Set<Long> unenhancedClasses = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+    private volatile boolean changed = false;
+    private final ThreadLocal<boolean[]> transformFailed = new ThreadLocal<boolean[]>() {
+        @Override protected boolean[] initialValue() {
+            return new boolean[1];
+        }
+    };
+
+    public EnhancementCache(File cacheFolder, String fingerprint) {
+        this.cacheFile = new File(cacheFolder, FILE_PREFIX + fingerprint + FILE_SUFFIX);
+    }
+
+    /**
+     * Load the unenhanced classes of the last boots, if the cache file of the same fingerprint exists.
+     */
+    public void load() {
+        if (!cacheFile.exists()) {
+            return;
+        }
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            if (input.readInt() != MAGIC) {
+                logger.warn("Ignore the broken enhancement cache file {}.", cacheFile.getAbsolutePath());
+                return;
+            }
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                unenhancedClasses.add(input.readLong());
+            }
+            logger.info("Load {} unenhanced classes from the enhancement cache.", size);
+        } catch (IOException e) {
+            logger.error(e, "Load the enhancement cache file {} failure.", cacheFile.getAbsolutePath());
+            unenhancedClasses.clear();
+        } finally {
+            close(input);
+        }
+    }
+
+    /**
+     * Save the unenhanced classes, if any new one has been found, and remove the caches of other fingerprints.
+     */
+    public synchronized void save() {
+        if (!changed) {
+            return;
+        }
+        File folder = cacheFile.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            logger.error("Can't create the enhancement cache folder " + folder.getAbsolutePath());
+            return;
+        }
+
+        File tempFile = new File(folder, cacheFile.getName() + ".tmp");
+        DataOutputStream output = null;
+        try {
+            Long[] classes = unenhancedClasses.toArray(new Long[0]);
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            output.writeInt(MAGIC);
+            output.writeInt(classes.length);
+            for (Long clazz : classes) {
+                output.writeLong(clazz);
+            }
+            output.close();
+            output = null;
+
+            if (cacheFile.exists() && !cacheFile.delete() || !tempFile.renameTo(cacheFile)) {
+                logger.error("Can't replace the enhancement cache file " + cacheFile.getAbsolutePath());
+                return;
+            }
+            changed = false;
+        } catch (IOException e) {
+            logger.error(e, "Save the enhancement cache file {} failure.", cacheFile.getAbsolutePath());
+        } finally {
+            close(output);
+        }
+
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(FILE_PREFIX) && !file.equals(cacheFile)) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notify the cache that the transformation of the current thread fails, so the class isn't cached.
+     */
+    public void onError() {
+        transformFailed.get()[0] = true;
+    }
+
+    /**
+     * @return a transformer skipping the cached unenhanced classes, and caching the ones the given transformer doesn't
+     * change.
+     */
+    public ClassFileTransformer wrap(final ClassFileTransformer transformer) {
+        return new ClassFileTransformer() {
+            @Override
+            public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                ProtectionDomain protectionDomain, byte[] classfileBuffer) throws IllegalClassFormatException {
+                if (classBeingRedefined != null || className == null) {
+                    return transformer.transform(loader, className, classBeingRedefined, protectionDomain, classfileBuffer);
+                }
+
+                long key = key(className, classfileBuffer);
+                if (unenhancedClasses.contains(key)) {
+                    return null;
+                }
+
+                boolean[] failed = transformFailed.get();
+                failed[0] = false;
+                byte[] transformed = transformer.transform(loader, className, null, protectionDomain, classfileBuffer);
+                if (transformed == null && !failed[0]) {
+                    unenhancedClasses.add(key);
+                    changed = true;
+                }
+                return transformed;
+            }
+        };
+    }
+
+    boolean isUnenhanced(String className, byte[] classfileBuffer) {
+        return unenhancedClasses.contains(key(className, classfileBuffer));
+    }
+
+    /**
+     * FNV-1a 64 bits hash of the class name and bytes.
+     */
+    static long key(String className, byte[] classfileBuffer) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < className.length(); i++) {
+            hash ^= className.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        for (byte b : classfileBuffer) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * @param plugins all loaded plugins.
+     * @param jars the plugin jars and the application class path entries.
+     * @return the fingerprint of the plugin definitions and the jars, as a hex string.
+     */
+    public static String fingerprint(List<AbstractClassEnhancePluginDefine> plugins, List<File> jars) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            for (AbstractClassEnhancePluginDefine plugin : plugins) {
+                digest.update(plugin.getClass().getName().getBytes(UTF_8));
+                digest.update(describe(plugin.enhanceClass()).getBytes(UTF_8));
+            }
+            for (File jar : jars) {
+                digest.update((jar.getAbsolutePath() + ":" + jar.length() + ":" + jar.lastModified()).getBytes(UTF_8));
+            }
+
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte b : digest.digest()) {
+                fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String describe(ClassMatch match) {
+        if (match == null) {
+            return "";
+        } else if (match instanceof NameMatch) {
+            return ((NameMatch)match).getClassName();
+        } else if (match instanceof MultiClassNameMatch) {
+            return ((MultiClassNameMatch)match).getMatchClassNames().toString();
+        } else if (match instanceof ClassAnnotationMatch) {
+            return Arrays.toString(((ClassAnnotationMatch)match).getAnnotations());
+        } else if (match instanceof MethodAnnotationMatch) {
+            return Arrays.toString(((MethodAnnotationMatch)match).getAnnotations());
+        } else if (match instanceof HierarchyMatch) {
+            return Arrays.toString(((HierarchyMatch)match).getParentTypes());
+        }
+        return match.getClass().getName();
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -19,31 +19,94 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import net.bytebuddy.description.NamedElement;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
-import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import net.bytebuddy.utility.JavaModule;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
-import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
-
-import static net.bytebuddy.matcher.ElementMatchers.isInterface;
-import static net.bytebuddy.matcher.ElementMatchers.not;
 
 /**
  * The <code>PluginFinder</code> represents a finder , which assist to find the one
  * from the given {@link AbstractClassEnhancePluginDefine} list.
  *
+ * The plugins are indexed by the class names, the annotation names and the super type names they match, so one type
+ * only costs a few hash lookups, rather than evaluating every {@link IndirectMatch}. Only the {@link IndirectMatch}
+ * implementations unknown to the finder are still evaluated one by one.
+ *
  * @author wusheng
  */
 public class PluginFinder {
+    private static final ILog logger = LogManager.getLogger(PluginFinder.class);
+
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    /**
+     * Indexed by the first annotation of {@link ClassAnnotationMatch}.
+     */
+    private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> classAnnotationMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    /**
+     * Indexed by the first annotation of {@link MethodAnnotationMatch}.
+     */
+    private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> methodAnnotationMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    /**
+     * Indexed by the first parent type of {@link HierarchyMatch}.
+     */
+    private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> hierarchyMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    /**
+     * All parent types of all {@link HierarchyMatch}s, the only super type names worth collecting.
+     */
+    private final Set<String> hierarchyTypeNames = new HashSet<String>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new LinkedList<AbstractClassEnhancePluginDefine>();
+    private final Map<AbstractClassEnhancePluginDefine, Integer> pluginOrders = new IdentityHashMap<AbstractClassEnhancePluginDefine, Integer>();
+
+    /**
+     * The names of the types whose whole hierarchy has none of {@link #hierarchyTypeNames}, per class loader. The super
+     * types shared by many classes, e.g. the framework base classes, are walked only once.
+     */
+    private final Map<ClassLoader, Set<String>> noHierarchyMatchTypes = new WeakHashMap<ClassLoader, Set<String>>();
+    private final Set<String> bootstrapNoHierarchyMatchTypes = newConcurrentSet();
+
+    /**
+     * The plugins found by the matcher of {@link #buildMatch()}, reused by {@link #find(TypeDescription, ClassLoader)}
+     * when transforming the same type right after.
+     */
+    private final ThreadLocal<FoundPlugins> lastFound = new ThreadLocal<FoundPlugins>() {
+        @Override protected FoundPlugins initialValue() {
+            return new FoundPlugins();
+        }
+    };
+
+    /**
+     * Notified when the matching of a type fails, so the type isn't cached as unenhanced.
+     */
+    private volatile EnhancementCache enhancementCache;
+    private final Comparator<AbstractClassEnhancePluginDefine> pluginOrderComparator = new Comparator<AbstractClassEnhancePluginDefine>() {
+        @Override public int compare(AbstractClassEnhancePluginDefine define1, AbstractClassEnhancePluginDefine define2) {
+            return pluginOrders.get(define1).compareTo(pluginOrders.get(define2));
+        }
+    };
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
@@ -52,15 +115,23 @@ public class PluginFinder {
             if (match == null) {
                 continue;
             }
+            pluginOrders.put(plugin, pluginOrders.size());
 
             if (match instanceof NameMatch) {
                 NameMatch nameMatch = (NameMatch)match;
-                LinkedList<AbstractClassEnhancePluginDefine> pluginDefines = nameMatchDefine.get(nameMatch.getClassName());
-                if (pluginDefines == null) {
-                    pluginDefines = new LinkedList<AbstractClassEnhancePluginDefine>();
-                    nameMatchDefine.put(nameMatch.getClassName(), pluginDefines);
+                index(nameMatchDefine, nameMatch.getClassName(), plugin);
+            } else if (match instanceof MultiClassNameMatch) {
+                for (String className : ((MultiClassNameMatch)match).getMatchClassNames()) {
+                    index(nameMatchDefine, className, plugin);
                 }
-                pluginDefines.add(plugin);
+            } else if (match instanceof ClassAnnotationMatch) {
+                index(classAnnotationMatchDefine, ((ClassAnnotationMatch)match).getAnnotations()[0], plugin);
+            } else if (match instanceof MethodAnnotationMatch) {
+                index(methodAnnotationMatchDefine, ((MethodAnnotationMatch)match).getAnnotations()[0], plugin);
+            } else if (match instanceof HierarchyMatch) {
+                String[] parentTypes = ((HierarchyMatch)match).getParentTypes();
+                index(hierarchyMatchDefine, parentTypes[0], plugin);
+                Collections.addAll(hierarchyTypeNames, parentTypes);
             } else {
                 signatureMatchDefine.add(plugin);
             }
@@ -68,6 +139,17 @@ public class PluginFinder {
     }
 
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription,
+        ClassLoader classLoader) {
+        FoundPlugins found = lastFound.get();
+        if (found.typeDescription == typeDescription && found.classLoader == classLoader) {
+            List<AbstractClassEnhancePluginDefine> matchedPlugins = found.plugins;
+            found.clear();
+            return matchedPlugins;
+        }
+        return doFind(typeDescription, classLoader);
+    }
+
+    private List<AbstractClassEnhancePluginDefine> doFind(TypeDescription typeDescription,
         ClassLoader classLoader) {
         List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<AbstractClassEnhancePluginDefine>();
         String typeName = typeDescription.getTypeName();
@@ -75,30 +157,233 @@ public class PluginFinder {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
+        List<AbstractClassEnhancePluginDefine> indirectMatchedPlugins = null;
+        if (!classAnnotationMatchDefine.isEmpty()) {
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                indirectMatchedPlugins = matchCandidates(classAnnotationMatchDefine.get(annotation.getAnnotationType().getActualName()),
+                    typeDescription, indirectMatchedPlugins);
+            }
+        }
+
+        if (!methodAnnotationMatchDefine.isEmpty()) {
+            Set<String> methodAnnotations = null;
+            for (MethodDescription.InDefinedShape methodDescription : typeDescription.getDeclaredMethods()) {
+                for (AnnotationDescription annotation : methodDescription.getDeclaredAnnotations()) {
+                    String annotationName = annotation.getAnnotationType().getActualName();
+                    if (methodAnnotationMatchDefine.containsKey(annotationName)) {
+                        if (methodAnnotations == null) {
+                            methodAnnotations = new HashSet<String>();
+                        }
+                        methodAnnotations.add(annotationName);
+                    }
+                }
+            }
+            if (methodAnnotations != null) {
+                for (String annotationName : methodAnnotations) {
+                    indirectMatchedPlugins = matchCandidates(methodAnnotationMatchDefine.get(annotationName),
+                        typeDescription, indirectMatchedPlugins);
+                }
+            }
+        }
+
+        if (!hierarchyMatchDefine.isEmpty()) {
+            Set<String> superTypeNames = findHierarchyTypeNames(typeDescription, classLoader);
+            for (String superTypeName : superTypeNames) {
+                LinkedList<AbstractClassEnhancePluginDefine> candidates = hierarchyMatchDefine.get(superTypeName);
+                if (candidates == null) {
+                    continue;
+                }
+                for (AbstractClassEnhancePluginDefine candidate : candidates) {
+                    String[] parentTypes = ((HierarchyMatch)candidate.enhanceClass()).getParentTypes();
+                    boolean matched = true;
+                    for (String parentType : parentTypes) {
+                        if (!superTypeNames.contains(parentType)) {
+                            matched = false;
+                            break;
+                        }
+                    }
+                    if (matched) {
+                        indirectMatchedPlugins = add(indirectMatchedPlugins, candidate);
+                    }
+                }
+            }
+        }
+
         for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
             IndirectMatch match = (IndirectMatch)pluginDefine.enhanceClass();
             if (match.isMatch(typeDescription)) {
-                matchedPlugins.add(pluginDefine);
+                indirectMatchedPlugins = add(indirectMatchedPlugins, pluginDefine);
             }
         }
 
+        if (indirectMatchedPlugins != null) {
+            if (indirectMatchedPlugins.size() > 1) {
+                Collections.sort(indirectMatchedPlugins, pluginOrderComparator);
+            }
+            matchedPlugins.addAll(indirectMatchedPlugins);
+        }
         return matchedPlugins;
     }
 
-    public ElementMatcher<? super TypeDescription> buildMatch() {
-        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+    public void setEnhancementCache(EnhancementCache enhancementCache) {
+        this.enhancementCache = enhancementCache;
+    }
+
+    /**
+     * Build the type matcher of the agent. It finds the plugins by the same indexes of {@link #find(TypeDescription,
+     * ClassLoader)}, and keeps the result for the following transformation of the type.
+     *
+     * Like {@link org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher}, the type is ignored when
+     * byte-buddy can't resolve it.
+     */
+    public AgentBuilder.RawMatcher buildMatch() {
+        ElementMatcher.Junction<TypeDescription> signatureJunction = null;
+        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
+            ElementMatcher.Junction<TypeDescription> junction = ((IndirectMatch)define.enhanceClass()).buildJunction();
+            signatureJunction = signatureJunction == null ? junction : signatureJunction.or(junction);
+        }
+        final ElementMatcher<TypeDescription> interfaceJunction = signatureJunction;
+
+        return new AgentBuilder.RawMatcher() {
             @Override
-            public boolean matches(NamedElement target) {
-                return nameMatchDefine.containsKey(target.getActualName());
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader, JavaModule module,
+                Class<?> classBeingRedefined, ProtectionDomain protectionDomain) {
+                try {
+                    // only the plugin provided matches may enhance the interfaces
+                    if (typeDescription.isInterface() && (interfaceJunction == null || !interfaceJunction.matches(typeDescription))) {
+                        return false;
+                    }
+                    List<AbstractClassEnhancePluginDefine> plugins = doFind(typeDescription, classLoader);
+                    if (plugins.isEmpty()) {
+                        return false;
+                    }
+                    lastFound.get().set(typeDescription, classLoader, plugins);
+                    return true;
+                } catch (Throwable t) {
+                    logger.warn(t, "Byte-buddy occurs exception when match type.");
+                    EnhancementCache cache = enhancementCache;
+                    if (cache != null) {
+                        cache.onError();
+                    }
+                    return false;
+                }
             }
         };
-        judge = judge.and(not(isInterface()));
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
-            if (match instanceof IndirectMatch) {
-                judge = judge.or(((IndirectMatch)match).buildJunction());
+    }
+
+    /**
+     * @return the names in {@link #hierarchyTypeNames} of all the super classes and interfaces of the given type.
+     */
+    private Set<String> findHierarchyTypeNames(TypeDescription typeDescription, ClassLoader classLoader) {
+        Set<String> noMatchTypes = getNoHierarchyMatchTypes(classLoader);
+        String typeName = typeDescription.getTypeName();
+        if (noMatchTypes.contains(typeName)) {
+            return Collections.emptySet();
+        }
+
+        Set<String> superTypeNames = new HashSet<String>();
+        boolean matched = false;
+        for (TypeDescription.Generic implInterface : typeDescription.getInterfaces()) {
+            matched |= collectHierarchyTypeNames(implInterface, superTypeNames, noMatchTypes);
+        }
+        if (typeDescription.getSuperClass() != null) {
+            matched |= collectHierarchyTypeNames(typeDescription.getSuperClass(), superTypeNames, noMatchTypes);
+        }
+        if (!matched && !hierarchyTypeNames.contains(typeName)) {
+            noMatchTypes.add(typeName);
+        }
+        return superTypeNames;
+    }
+
+    private boolean collectHierarchyTypeNames(TypeDescription.Generic clazz, Set<String> superTypeNames,
+        Set<String> noMatchTypes) {
+        String typeName = clazz.asRawType().getTypeName();
+        if (noMatchTypes.contains(typeName)) {
+            return false;
+        }
+
+        boolean matched = false;
+        if (hierarchyTypeNames.contains(typeName)) {
+            superTypeNames.add(typeName);
+            matched = true;
+        }
+        for (TypeDescription.Generic generic : clazz.getInterfaces()) {
+            matched |= collectHierarchyTypeNames(generic, superTypeNames, noMatchTypes);
+        }
+        TypeDescription.Generic superClazz = clazz.getSuperClass();
+        if (superClazz != null && !typeName.equals("java.lang.Object")) {
+            matched |= collectHierarchyTypeNames(superClazz, superTypeNames, noMatchTypes);
+        }
+
+        if (!matched) {
+            noMatchTypes.add(typeName);
+        }
+        return matched;
+    }
+
+    private Set<String> getNoHierarchyMatchTypes(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return bootstrapNoHierarchyMatchTypes;
+        }
+        synchronized (noHierarchyMatchTypes) {
+            Set<String> noMatchTypes = noHierarchyMatchTypes.get(classLoader);
+            if (noMatchTypes == null) {
+                noMatchTypes = newConcurrentSet();
+                noHierarchyMatchTypes.put(classLoader, noMatchTypes);
             }
+            return noMatchTypes;
+        }
+    }
+
+    private List<AbstractClassEnhancePluginDefine> matchCandidates(List<AbstractClassEnhancePluginDefine> candidates,
+        TypeDescription typeDescription, List<AbstractClassEnhancePluginDefine> matchedPlugins) {
+        if (candidates != null) {
+            for (AbstractClassEnhancePluginDefine candidate : candidates) {
+                if (((IndirectMatch)candidate.enhanceClass()).isMatch(typeDescription)) {
+                    matchedPlugins = add(matchedPlugins, candidate);
+                }
+            }
+        }
+        return matchedPlugins;
+    }
+
+    private static List<AbstractClassEnhancePluginDefine> add(List<AbstractClassEnhancePluginDefine> plugins,
+        AbstractClassEnhancePluginDefine plugin) {
+        if (plugins == null) {
+            plugins = new ArrayList<AbstractClassEnhancePluginDefine>(2);
+        }
+        plugins.add(plugin);
+        return plugins;
+    }
+
+    private static void index(Map<String, LinkedList<AbstractClassEnhancePluginDefine>> defines, String key,
+        AbstractClassEnhancePluginDefine plugin) {
+        LinkedList<AbstractClassEnhancePluginDefine> pluginDefines = defines.get(key);
+        if (pluginDefines == null) {
+            pluginDefines = new LinkedList<AbstractClassEnhancePluginDefine>();
+            defines.put(key, pluginDefines);
+        }
+        pluginDefines.add(plugin);
+    }
+
+    private static Set<String> newConcurrentSet() {
+        return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    private static class FoundPlugins {
+        private TypeDescription typeDescription;
+        private ClassLoader classLoader;
+        private List<AbstractClassEnhancePluginDefine> plugins;
+
+        private void set(TypeDescription typeDescription, ClassLoader classLoader,
+            List<AbstractClassEnhancePluginDefine> plugins) {
+            this.typeDescription = typeDescription;
+            this.classLoader = classLoader;
+            this.plugins = plugins;
+        }
+
+        private void clear() {
+            set(null, null, null);
         }
-        return new ProtectiveShieldMatcher(judge);
     }
 }
@@ -78,6 +78,10 @@ public class ClassAnnotationMatch implements IndirectMatch {
         return isAnnotatedWith(named(annotationName));
     }
 
+    public String[] getAnnotations() {
+        return annotations;
+    }
+
     public static ClassMatch byClassAnnotationMatch(String[] annotations) {
         return new ClassAnnotationMatch(annotations);
     }
@@ -101,6 +101,10 @@ public class HierarchyMatch implements IndirectMatch {
 
     }
 
+    public String[] getParentTypes() {
+        return parentTypes;
+    }
+
     public static ClassMatch byHierarchyMatch(String[] parentTypes) {
         return new HierarchyMatch(parentTypes);
     }
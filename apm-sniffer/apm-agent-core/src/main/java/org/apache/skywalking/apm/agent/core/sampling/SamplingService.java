@@ -28,9 +28,13 @@ import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.common.Command;
+import org.apache.skywalking.apm.network.trace.command.TraceSamplingCommand;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
@@ -39,6 +43,9 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and  {@link Config.Agent#SAMPLE_N_PER_3_SECS }
+ * <p>
+ * The backend could also push a {@link TraceSamplingCommand} to lower the sampling rate at runtime, when it is
+ * saturated. The stricter one of the local setting and the pushed one takes effect.
  *
  * @author wusheng
  */
@@ -49,6 +56,10 @@ public class SamplingService implements BootService {
     private volatile boolean on = false;
     private volatile AtomicInteger samplingFactorHolder;
     private volatile ScheduledFuture<?> scheduledFuture;
+    /**
+     * The limit pushed by the backend, {@link TraceSamplingCommand#NO_LIMIT} means following the local setting only.
+     */
+    private volatile int dynamicSampleNPer3Secs = TraceSamplingCommand.NO_LIMIT;
 
     @Override
     public void prepare() throws Throwable {
@@ -63,22 +74,13 @@ public class SamplingService implements BootService {
              * cancel the old one.
              */
             scheduledFuture.cancel(true);
+            scheduledFuture = null;
         }
+        on = false;
+        dynamicSampleNPer3Secs = TraceSamplingCommand.NO_LIMIT;
         if (Config.Agent.SAMPLE_N_PER_3_SECS > 0) {
+            startResetTask();
             on = true;
-            this.resetSamplingFactor();
-            ScheduledExecutorService service = Executors
-                .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("SamplingService"));
-            scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(new Runnable() {
-                @Override
-                public void run() {
-                    resetSamplingFactor();
-                }
-            }, new RunnableWithExceptionProtection.CallbackWhenException() {
-                @Override public void handle(Throwable t) {
-                    logger.error("unexpected exception.", t);
-                }
-            }), 0, 3, TimeUnit.SECONDS);
             logger.debug("Agent sampling mechanism started. Sample {} traces in 3 seconds.", Config.Agent.SAMPLE_N_PER_3_SECS);
         }
     }
@@ -101,7 +103,7 @@ public class SamplingService implements BootService {
     public boolean trySampling() {
         if (on) {
             int factor = samplingFactorHolder.get();
-            if (factor < Config.Agent.SAMPLE_N_PER_3_SECS) {
+            if (factor < sampleNPer3Secs()) {
                 boolean success = samplingFactorHolder.compareAndSet(factor, factor + 1);
                 return success;
             } else {
@@ -123,6 +125,66 @@ public class SamplingService implements BootService {
         }
     }
 
+    /**
+     * Apply the {@link TraceSamplingCommand} pushed by the backend. The command carries the limits of all throttled
+     * service instances, if the current instance isn't included, go back to the local setting.
+     */
+    public void handleCommand(Command command) {
+        int serviceInstanceId = RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID;
+        if (serviceInstanceId == DictionaryUtil.nullValue()) {
+            return;
+        }
+        applyDynamicLimit(TraceSamplingCommand.findSampleNPer3Secs(command, serviceInstanceId));
+    }
+
+    void applyDynamicLimit(int sampleNPer3Secs) {
+        if (sampleNPer3Secs < 0) {
+            sampleNPer3Secs = TraceSamplingCommand.NO_LIMIT;
+        }
+        if (sampleNPer3Secs == dynamicSampleNPer3Secs) {
+            return;
+        }
+
+        if (sampleNPer3Secs == TraceSamplingCommand.NO_LIMIT) {
+            dynamicSampleNPer3Secs = sampleNPer3Secs;
+            on = Config.Agent.SAMPLE_N_PER_3_SECS > 0;
+            logger.info("Backend released the sampling limit, sample {} traces in 3 seconds.", Config.Agent.SAMPLE_N_PER_3_SECS);
+        } else {
+            startResetTask();
+            dynamicSampleNPer3Secs = sampleNPer3Secs;
+            on = true;
+            logger.info("Backend limited the sampling, sample {} traces in 3 seconds.", sampleNPer3Secs());
+        }
+    }
+
+    private int sampleNPer3Secs() {
+        int local = Config.Agent.SAMPLE_N_PER_3_SECS;
+        int dynamic = dynamicSampleNPer3Secs;
+        if (dynamic == TraceSamplingCommand.NO_LIMIT) {
+            return local;
+        }
+        return local > 0 ? Math.min(local, dynamic) : dynamic;
+    }
+
+    private synchronized void startResetTask() {
+        if (scheduledFuture != null) {
+            return;
+        }
+        this.resetSamplingFactor();
+        ScheduledExecutorService service = Executors
+            .newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("SamplingService"));
+        scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(new Runnable() {
+            @Override
+            public void run() {
+                resetSamplingFactor();
+            }
+        }, new RunnableWithExceptionProtection.CallbackWhenException() {
+            @Override public void handle(Throwable t) {
+                logger.error("unexpected exception.", t);
+            }
+        }), 3, 3, TimeUnit.SECONDS);
+    }
+
     private void resetSamplingFactor() {
         samplingFactorHolder = new AtomicInteger(0);
     }
@@ -192,4 +192,53 @@ public class ContextCarrierV2HeaderTest {
         Assert.assertEquals(contextCarrier.getEntryServiceInstanceId(), contextCarrier2.getEntryServiceInstanceId());
         Assert.assertEquals(contextCarrier.getParentServiceInstanceId(), contextCarrier2.getParentServiceInstanceId());
     }
+
+    @Test
+    public void testV2HeaderWithNonASCIIEndpointName() {
+        List<DistributedTraceId> distributedTraceIds = new ArrayList<DistributedTraceId>();
+        distributedTraceIds.add(new PropagatedTraceId("3.4.5"));
+
+        ContextCarrier contextCarrier = new ContextCarrier();
+        contextCarrier.setTraceSegmentId(new ID(1, 2, 3));
+        contextCarrier.setDistributedTraceIds(distributedTraceIds);
+        contextCarrier.setSpanId(4);
+        contextCarrier.setEntryServiceInstanceId(1);
+        contextCarrier.setParentServiceInstanceId(1);
+        contextCarrier.setPeerHost("127.0.0.1:8080");
+        contextCarrier.setEntryEndpointName("/\u8ba2\u5355/list");
+        contextCarrier.setParentEndpointName("/portal/a");
+
+        String headerValue = contextCarrier.serialize(ContextCarrier.HeaderVersion.v2);
+        Assert.assertEquals("1-My40LjU=-MS4yLjM=-4-1-1-IzEyNy4wLjAuMTo4MDgw-Iy/orqLljZUvbGlzdA==-Iy9wb3J0YWwvYQ==", headerValue);
+
+        ContextCarrier contextCarrier2 = new ContextCarrier().deserialize(headerValue, ContextCarrier.HeaderVersion.v2);
+        Assert.assertTrue(contextCarrier2.isValid());
+        Assert.assertEquals("#/\u8ba2\u5355/list", contextCarrier2.getEntryEndpointName());
+        Assert.assertEquals("#/portal/a", contextCarrier2.getParentEndpointName());
+        Assert.assertEquals(contextCarrier.getTraceSegmentId(), contextCarrier2.getTraceSegmentId());
+        Assert.assertEquals(contextCarrier.getDistributedTraceId(), contextCarrier2.getDistributedTraceId());
+    }
+
+    @Test
+    public void testSetEndpointNamesAfterDeserialize() {
+        String headerValue = "1-My40LjU=-MS4yLjM=-4-1-1-IzEyNy4wLjAuMTo4MDgw-Iy9wb3J0YWwv-Iy90ZXN0RW50cnlTcGFu";
+
+        ContextCarrier contextCarrier = new ContextCarrier().deserialize(headerValue, ContextCarrier.HeaderVersion.v2);
+        contextCarrier.setEntryEndpointName("/entry");
+        Assert.assertEquals("#/entry", contextCarrier.getEntryEndpointName());
+        Assert.assertEquals("#/testEntrySpan", contextCarrier.getParentEndpointName());
+
+        contextCarrier = new ContextCarrier().deserialize(headerValue, ContextCarrier.HeaderVersion.v2);
+        contextCarrier.setParentEndpointId(5);
+        Assert.assertEquals("5", contextCarrier.getParentEndpointName());
+        Assert.assertEquals("#/portal/", contextCarrier.getEntryEndpointName());
+    }
+
+    @Test
+    public void testDeserializeIllegalV2Header() {
+        Assert.assertFalse(new ContextCarrier().deserialize("1-My40LjU=-MS4yLjM=-4-1-1-IzEyNy4wLjAuMTo4MDgw-", ContextCarrier.HeaderVersion.v2).isValid());
+        Assert.assertFalse(new ContextCarrier().deserialize("1-My40LjU=-MS4yLjM=-x-1-1-IzEyNy4wLjAuMTo4MDgw--", ContextCarrier.HeaderVersion.v2).isValid());
+        Assert.assertFalse(new ContextCarrier().deserialize("1-My40LjU=-M-4-1-1-IzEyNy4wLjAuMTo4MDgw--", ContextCarrier.HeaderVersion.v2).isValid());
+        Assert.assertFalse(new ContextCarrier().deserialize("1.2343|1|1|1|#127.0.0.1:8080|#/portal/|#/testEntrySpan|1.2343.234234234", ContextCarrier.HeaderVersion.v1).isValid());
+    }
 }
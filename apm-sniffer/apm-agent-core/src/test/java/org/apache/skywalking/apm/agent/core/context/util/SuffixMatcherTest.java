@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.context.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SuffixMatcherTest {
+
+    @Test
+    public void testMatch() {
+        SuffixMatcher matcher = new SuffixMatcher(".jpg,.jpeg,.js,.css, .html");
+        Assert.assertTrue(matcher.match("/static/logo.jpg"));
+        Assert.assertTrue(matcher.match("/static/logo.jpeg"));
+        Assert.assertTrue(matcher.match("/static/app.min.js"));
+        Assert.assertTrue(matcher.match("/index.html"));
+        Assert.assertFalse(matcher.match("/static/app.json"));
+        Assert.assertFalse(matcher.match("/static/app.j"));
+        Assert.assertFalse(matcher.match("/static/js"));
+        Assert.assertFalse(matcher.match("/css.html/users"));
+        Assert.assertFalse(matcher.match(""));
+    }
+
+    @Test
+    public void testEmptySuffixes() {
+        Assert.assertFalse(new SuffixMatcher("").match("/logo.jpg"));
+        Assert.assertFalse(new SuffixMatcher(null).match("/logo.jpg"));
+    }
+}
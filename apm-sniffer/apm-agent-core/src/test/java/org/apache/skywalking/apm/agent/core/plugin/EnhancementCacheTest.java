@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.File;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EnhancementCacheTest {
+    private static final byte[] CLASS_BYTES = new byte[] {1, 2, 3};
+    private static final byte[] ENHANCED_CLASS_BYTES = new byte[] {4, 5, 6};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSkipUnenhancedClassesOfLastBoot() throws Exception {
+        String fingerprint = EnhancementCache.fingerprint(Collections.<AbstractClassEnhancePluginDefine>emptyList(),
+            Collections.<File>emptyList());
+        EnhancementCache cache = new EnhancementCache(folder.getRoot(), fingerprint);
+        cache.load();
+        CountingTransformer transformer = new CountingTransformer();
+        ClassFileTransformer wrapped = cache.wrap(transformer);
+
+        Assert.assertNull(wrapped.transform(null, "a/Plain", null, null, CLASS_BYTES));
+        Assert.assertArrayEquals(ENHANCED_CLASS_BYTES, wrapped.transform(null, "a/Enhanced", null, null, CLASS_BYTES));
+        Assert.assertEquals(2, transformer.count);
+        cache.save();
+
+        EnhancementCache nextBootCache = new EnhancementCache(folder.getRoot(), fingerprint);
+        nextBootCache.load();
+        Assert.assertTrue(nextBootCache.isUnenhanced("a/Plain", CLASS_BYTES));
+        Assert.assertFalse(nextBootCache.isUnenhanced("a/Plain", ENHANCED_CLASS_BYTES));
+        Assert.assertFalse(nextBootCache.isUnenhanced("a/Enhanced", CLASS_BYTES));
+
+        transformer.count = 0;
+        wrapped = nextBootCache.wrap(transformer);
+        Assert.assertNull(wrapped.transform(null, "a/Plain", null, null, CLASS_BYTES));
+        Assert.assertArrayEquals(ENHANCED_CLASS_BYTES, wrapped.transform(null, "a/Enhanced", null, null, CLASS_BYTES));
+        Assert.assertEquals(1, transformer.count);
+    }
+
+    @Test
+    public void testCacheOfOtherFingerprintIgnored() throws Exception {
+        EnhancementCache cache = new EnhancementCache(folder.getRoot(), "v1");
+        cache.wrap(new CountingTransformer()).transform(null, "a/Plain", null, null, CLASS_BYTES);
+        cache.save();
+
+        EnhancementCache otherCache = new EnhancementCache(folder.getRoot(), "v2");
+        otherCache.load();
+        Assert.assertFalse(otherCache.isUnenhanced("a/Plain", CLASS_BYTES));
+    }
+
+    @Test
+    public void testFailedTransformationNotCached() throws Exception {
+        final EnhancementCache cache = new EnhancementCache(folder.getRoot(), "v1");
+        ClassFileTransformer wrapped = cache.wrap(new ClassFileTransformer() {
+            @Override
+            public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+                cache.onError();
+                return null;
+            }
+        });
+        wrapped.transform(null, "a/Plain", null, null, CLASS_BYTES);
+        Assert.assertFalse(cache.isUnenhanced("a/Plain", CLASS_BYTES));
+    }
+
+    private static class CountingTransformer implements ClassFileTransformer {
+        private int count;
+
+        @Override
+        public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            count++;
+            return className.endsWith("Enhanced") ? ENHANCED_CLASS_BYTES : null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.Serializable;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+public class PluginFinderTest {
+    private TestPluginDefine nameMatchPlugin = new TestPluginDefine(NameMatch.byName(NamedService.class.getName()));
+    private TestPluginDefine multiNameMatchPlugin = new TestPluginDefine(MultiClassNameMatch.byMultiClassMatch(NamedService.class.getName(), AnnotatedService.class.getName()));
+    private TestPluginDefine classAnnotationPlugin = new TestPluginDefine(ClassAnnotationMatch.byClassAnnotationMatch(new String[] {Traced.class.getName()}));
+    private TestPluginDefine methodAnnotationPlugin = new TestPluginDefine(MethodAnnotationMatch.byMethodAnnotationMatch(new String[] {Traced.class.getName()}));
+    private TestPluginDefine hierarchyPlugin = new TestPluginDefine(HierarchyMatch.byHierarchyMatch(new String[] {Runnable.class.getName(), Serializable.class.getName()}));
+
+    private PluginFinder finder;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        finder = new PluginFinder(Arrays.<AbstractClassEnhancePluginDefine>asList(nameMatchPlugin, multiNameMatchPlugin,
+            classAnnotationPlugin, methodAnnotationPlugin, hierarchyPlugin));
+    }
+
+    @Test
+    public void testFind() {
+        assertFound(NamedService.class, nameMatchPlugin, multiNameMatchPlugin);
+        assertFound(AnnotatedService.class, multiNameMatchPlugin, classAnnotationPlugin);
+        assertFound(MethodAnnotatedService.class, methodAnnotationPlugin);
+        assertFound(SerializableTask.class, hierarchyPlugin);
+        assertFound(SubSerializableTask.class, hierarchyPlugin);
+        assertFound(Task.class);
+        assertFound(SubTask.class);
+        assertFound(Object.class);
+    }
+
+    @Test
+    public void testBuildMatch() {
+        AgentBuilder.RawMatcher matcher = finder.buildMatch();
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        TypeDescription typeDescription = new TypeDescription.ForLoadedType(SubSerializableTask.class);
+        Assert.assertTrue(matcher.matches(typeDescription, classLoader, null, null, null));
+        Assert.assertEquals(Collections.singletonList(hierarchyPlugin), finder.find(typeDescription, classLoader));
+
+        Assert.assertFalse(matcher.matches(new TypeDescription.ForLoadedType(SubTask.class), classLoader, null, null, null));
+        Assert.assertFalse(matcher.matches(new TypeDescription.ForLoadedType(TracedInterface.class), classLoader, null, null, null));
+    }
+
+    @Test
+    public void testFailedMatchNotCached() throws Exception {
+        EnhancementCache cache = new EnhancementCache(folder.getRoot(), "v1");
+        finder.setEnhancementCache(cache);
+        final AgentBuilder.RawMatcher matcher = finder.buildMatch();
+        final TypeDescription unresolvable = Mockito.mock(TypeDescription.class);
+        Mockito.when(unresolvable.isInterface()).thenThrow(new IllegalStateException("Cannot resolve type"));
+
+        ClassFileTransformer wrapped = cache.wrap(new ClassFileTransformer() {
+            @Override
+            public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+                matcher.matches(unresolvable, loader, null, null, null);
+                return null;
+            }
+        });
+        byte[] classBytes = new byte[] {1, 2, 3};
+        Assert.assertNull(wrapped.transform(getClass().getClassLoader(), "a/Unresolvable", null, null, classBytes));
+        Assert.assertFalse(cache.isUnenhanced("a/Unresolvable", classBytes));
+    }
+
+    private void assertFound(Class<?> type, AbstractClassEnhancePluginDefine... plugins) {
+        List<AbstractClassEnhancePluginDefine> found = finder.find(new TypeDescription.ForLoadedType(type), getClass().getClassLoader());
+        Assert.assertEquals(type.getName(), Arrays.asList(plugins), found);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Traced {
+    }
+
+    public static class NamedService {
+    }
+
+    @Traced
+    public static class AnnotatedService {
+    }
+
+    @Traced
+    public interface TracedInterface {
+    }
+
+    public static class MethodAnnotatedService {
+        @Traced
+        public void call() {
+        }
+    }
+
+    public static class Task implements Runnable {
+        @Override public void run() {
+        }
+    }
+
+    public static class SubTask extends Task {
+    }
+
+    public static class SerializableTask extends Task implements Serializable {
+    }
+
+    public static class SubSerializableTask extends SerializableTask {
+    }
+
+    private static class TestPluginDefine extends AbstractClassEnhancePluginDefine {
+        private final ClassMatch classMatch;
+
+        private TestPluginDefine(ClassMatch classMatch) {
+            this.classMatch = classMatch;
+        }
+
+        @Override
+        protected DynamicType.Builder<?> enhance(TypeDescription typeDescription,
+            DynamicType.Builder<?> newClassBuilder, ClassLoader classLoader, EnhanceContext context) {
+            return newClassBuilder;
+        }
+
+        @Override protected ClassMatch enhanceClass() {
+            return classMatch;
+        }
+    }
+}
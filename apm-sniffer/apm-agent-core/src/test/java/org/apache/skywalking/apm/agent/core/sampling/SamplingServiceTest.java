@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.RemoteDownstreamConfig;
+import org.apache.skywalking.apm.agent.core.dictionary.DictionaryUtil;
+import org.apache.skywalking.apm.network.trace.command.TraceSamplingCommand;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SamplingServiceTest {
+    private SamplingService samplingService;
+
+    @Before
+    public void setUp() {
+        samplingService = new SamplingService();
+        RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID = 1;
+    }
+
+    @After
+    public void tearDown() throws Throwable {
+        samplingService.shutdown();
+        Config.Agent.SAMPLE_N_PER_3_SECS = -1;
+        RemoteDownstreamConfig.Agent.SERVICE_INSTANCE_ID = DictionaryUtil.nullValue();
+    }
+
+    @Test
+    public void testLimitPushedByBackend() throws Throwable {
+        Config.Agent.SAMPLE_N_PER_3_SECS = -1;
+        samplingService.boot();
+        assertTrue(samplingService.trySampling());
+
+        Map<Integer, Integer> limits = new HashMap<Integer, Integer>();
+        limits.put(1, 1);
+        samplingService.handleCommand(TraceSamplingCommand.build(limits));
+        assertTrue(samplingService.trySampling());
+        assertFalse(samplingService.trySampling());
+
+        samplingService.handleCommand(TraceSamplingCommand.build(new HashMap<Integer, Integer>()));
+        assertTrue(samplingService.trySampling());
+    }
+
+    @Test
+    public void testStricterLimitTakesEffect() throws Throwable {
+        Config.Agent.SAMPLE_N_PER_3_SECS = 1;
+        samplingService.boot();
+
+        Map<Integer, Integer> limits = new HashMap<Integer, Integer>();
+        limits.put(1, 5);
+        limits.put(2, 0);
+        samplingService.handleCommand(TraceSamplingCommand.build(limits));
+        assertTrue(samplingService.trySampling());
+        assertFalse(samplingService.trySampling());
+    }
+}
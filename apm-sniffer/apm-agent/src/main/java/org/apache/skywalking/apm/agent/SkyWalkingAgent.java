@@ -27,6 +27,8 @@ import net.bytebuddy.dynamic.scaffold.TypeValidation;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ElementMatchers;
 import net.bytebuddy.utility.JavaModule;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
@@ -34,7 +36,10 @@ import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.*;
 
+import java.io.File;
 import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static net.bytebuddy.matcher.ElementMatchers.*;
@@ -56,10 +61,17 @@ public class SkyWalkingAgent {
      */
     public static void premain(String agentArgs, Instrumentation instrumentation) throws PluginException {
         final PluginFinder pluginFinder;
+        EnhancementCache enhancementCache = null;
         try {
             SnifferConfigInitializer.initialize(agentArgs);
 
-            pluginFinder = new PluginFinder(new PluginBootstrap().loadPlugins());
+            List<AbstractClassEnhancePluginDefine> plugins = new PluginBootstrap().loadPlugins();
+            pluginFinder = new PluginFinder(plugins);
+
+            if (Config.Agent.IS_OPEN_ENHANCEMENT_CACHE) {
+                enhancementCache = createEnhancementCache(plugins);
+                pluginFinder.setEnhancementCache(enhancementCache);
+            }
 
         } catch (Exception e) {
             logger.error(e, "Skywalking agent initialized failure. Shutting down.");
@@ -69,7 +81,7 @@ public class SkyWalkingAgent {
         final ByteBuddy byteBuddy = new ByteBuddy()
             .with(TypeValidation.of(Config.Agent.IS_OPEN_DEBUGGING_CLASS));
 
-        new AgentBuilder.Default(byteBuddy)
+        AgentBuilder agentBuilder = new AgentBuilder.Default(byteBuddy)
             .ignore(
                 nameStartsWith("net.bytebuddy.")
                 .or(nameStartsWith("org.slf4j."))
@@ -82,8 +94,13 @@ public class SkyWalkingAgent {
                 .or(ElementMatchers.<TypeDescription>isSynthetic()))
             .type(pluginFinder.buildMatch())
             .transform(new Transformer(pluginFinder))
-            .with(new Listener())
-            .installOn(instrumentation);
+            .with(new Listener(enhancementCache));
+
+        if (enhancementCache == null) {
+            agentBuilder.installOn(instrumentation);
+        } else {
+            instrumentation.addTransformer(enhancementCache.wrap(agentBuilder.makeRaw()));
+        }
 
         try {
             ServiceManager.INSTANCE.boot();
@@ -91,13 +108,41 @@ public class SkyWalkingAgent {
             logger.error(e, "Skywalking agent boot failure.");
         }
 
+        final EnhancementCache shutdownEnhancementCache = enhancementCache;
         Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
             @Override public void run() {
                 ServiceManager.INSTANCE.shutdown();
+                if (shutdownEnhancementCache != null) {
+                    shutdownEnhancementCache.save();
+                }
             }
         }, "skywalking service shutdown thread"));
     }
 
+    /**
+     * The cache is fingerprinted by the plugins, the jars in the agent folder and the application class path.
+     */
+    private static EnhancementCache createEnhancementCache(
+        List<AbstractClassEnhancePluginDefine> plugins) throws AgentPackageNotFoundException {
+        File agentPath = AgentPackagePath.getPath();
+        List<File> jars = new ArrayList<File>();
+        for (String folder : new String[] {"plugins", "activations"}) {
+            File[] files = new File(agentPath, folder).listFiles();
+            if (files != null) {
+                Arrays.sort(files);
+                jars.addAll(Arrays.asList(files));
+            }
+        }
+        for (String classPath : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            jars.add(new File(classPath));
+        }
+
+        EnhancementCache enhancementCache = new EnhancementCache(new File(agentPath, "enhancement-cache"),
+            EnhancementCache.fingerprint(plugins, jars));
+        enhancementCache.load();
+        return enhancementCache;
+    }
+
     private static class Transformer implements AgentBuilder.Transformer {
         private PluginFinder pluginFinder;
 
@@ -135,6 +180,12 @@ public class SkyWalkingAgent {
     }
 
     private static class Listener implements AgentBuilder.Listener {
+        private final EnhancementCache enhancementCache;
+
+        Listener(EnhancementCache enhancementCache) {
+            this.enhancementCache = enhancementCache;
+        }
+
         @Override
         public void onDiscovery(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
 
@@ -160,6 +211,9 @@ public class SkyWalkingAgent {
         public void onError(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded,
             Throwable throwable) {
             logger.error("Enhance class " + typeName + " error.", throwable);
+            if (enhancementCache != null) {
+                enhancementCache.onError();
+            }
         }
 
         @Override
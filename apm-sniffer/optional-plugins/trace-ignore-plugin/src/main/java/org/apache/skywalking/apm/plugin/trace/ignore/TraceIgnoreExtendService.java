@@ -28,8 +28,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfigInitializer;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.AntPathMatcher;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
 import org.apache.skywalking.apm.util.StringUtil;
 
 /**
@@ -42,14 +41,16 @@ public class TraceIgnoreExtendService extends ContextManagerExtendService {
 
     private static final ILog LOGGER = LogManager.getLogger(TraceIgnoreExtendService.class);
 
-    private static final String DEFAULT_PATH_SEPARATOR = "/";
+    private static final char DEFAULT_PATH_SEPARATOR = '/';
 
-    private static final String PATTERN_SEPARATOR = ",";
-
-    private TracePathMatcher pathMatcher = new AntPathMatcher();
+    /**
+     * All the ignore patterns compiled together, re-compiled only if {@link IgnoreConfig.Trace#IGNORE_PATH} changes.
+     */
+    private volatile FastPathMatcher pathMatcher = new FastPathMatcher(null);
 
     @Override
     public void boot() {
+        super.boot();
         try {
             IgnoreConfigInitializer.initialize();
         } catch (ConfigNotFoundException e) {
@@ -57,22 +58,26 @@ public class TraceIgnoreExtendService extends ContextManagerExtendService {
         } catch (AgentPackageNotFoundException e) {
             LOGGER.error("trace ignore config init error", e);
         }
+        pathMatcher = new FastPathMatcher(IgnoreConfig.Trace.IGNORE_PATH);
     }
 
     @Override
     public AbstractTracerContext createTraceContext(String operationName, boolean forceSampling) {
         String pattens = IgnoreConfig.Trace.IGNORE_PATH;
         if (!StringUtil.isEmpty(pattens) && !forceSampling) {
-            String path = operationName;
-            if (!StringUtil.isEmpty(path) && path.length() > 1 && path.endsWith(DEFAULT_PATH_SEPARATOR)) {
-                path = path.substring(0, path.length() - 1);
+            FastPathMatcher matcher = pathMatcher;
+            if (!pattens.equals(matcher.getPatterns())) {
+                matcher = new FastPathMatcher(pattens);
+                pathMatcher = matcher;
             }
 
-            for (String pattern : pattens.split(PATTERN_SEPARATOR)) {
-                if (pathMatcher.match(pattern, path)) {
-                    LOGGER.debug("operationName : " + operationName + " Ignore tracking");
-                    return new IgnoredTracerContext();
-                }
+            int length = operationName == null ? 0 : operationName.length();
+            if (length > 1 && operationName.charAt(length - 1) == DEFAULT_PATH_SEPARATOR) {
+                length--;
+            }
+            if (length > 0 && matcher.match(operationName, length)) {
+                LOGGER.debug("operationName : " + operationName + " Ignore tracking");
+                return new IgnoredTracerContext();
             }
         }
         return super.createTraceContext(operationName, forceSampling);
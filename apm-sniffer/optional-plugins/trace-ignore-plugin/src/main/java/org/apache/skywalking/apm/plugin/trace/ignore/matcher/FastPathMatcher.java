@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The <code>FastPathMatcher</code> compiles all the comma separated ant-style patterns into one automaton, sharing the
+ * common prefixes like a trie. The supported wildcards are the same as the ones documented for the plugin:
+ * <pre>
+ * ?  matches any single character, except '/'
+ * *  matches zero or more characters in one path segment
+ * ** matches zero or more path segments
+ * </pre>
+ * A path is matched in a single pass over its characters, by tracking all the automaton states reached so far. The
+ * state sets are kept in per-thread buffers, so matching doesn't allocate once the thread has matched a path before.
+ */
+public class FastPathMatcher {
+    private static final char PATH_SEPARATOR = '/';
+    private static final String PATTERN_SEPARATOR = ",";
+    private static final String MULTILEVEL_DIRECTORIES = "**";
+
+    private static final int LITERAL = 0;
+    private static final int ANY_BUT_SEPARATOR = 1;
+    private static final int ANY = 2;
+
+    private final String patterns;
+    private final List<Node> nodes = new ArrayList<Node>();
+    private final Node root;
+    private final ThreadLocal<States> states = new ThreadLocal<States>() {
+        @Override protected States initialValue() {
+            return new States(nodes.size());
+        }
+    };
+
+    public FastPathMatcher(String patterns) {
+        this.patterns = patterns;
+        this.root = newNode();
+        if (patterns != null) {
+            for (String pattern : patterns.split(PATTERN_SEPARATOR)) {
+                pattern = pattern.trim();
+                if (pattern.length() > 0) {
+                    compile(pattern);
+                }
+            }
+        }
+        for (Node node : nodes) {
+            node.acceptsAll = node.isAnyLoop() && node.reachesAccept();
+        }
+    }
+
+    public String getPatterns() {
+        return patterns;
+    }
+
+    public boolean match(String path) {
+        return match(path, path.length());
+    }
+
+    /**
+     * @param path to match
+     * @param length of the path prefix to match, allowing the caller to ignore a trailing separator without
+     * creating a substring.
+     * @return true if the first <code>length</code> characters of the path match any of the patterns.
+     */
+    public boolean match(String path, int length) {
+        States states = this.states.get();
+        states.nextGeneration();
+        states.add(root);
+        states.swap();
+
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            states.nextGeneration();
+            for (int s = 0; s < states.currentSize; s++) {
+                Node node = states.current[s];
+                if (node.acceptsAll) {
+                    return true;
+                }
+                for (int t = 0; t < node.transitionSize; t++) {
+                    int kind = node.kinds[t];
+                    if (kind == ANY || (kind == LITERAL && node.chars[t] == c)
+                        || (kind == ANY_BUT_SEPARATOR && c != PATH_SEPARATOR)) {
+                        states.add(node.targets[t]);
+                    }
+                }
+            }
+            states.swap();
+            if (states.currentSize == 0) {
+                return false;
+            }
+        }
+
+        for (int s = 0; s < states.currentSize; s++) {
+            if (states.current[s].accept) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compile(String pattern) {
+        String[] segments = pattern.split(String.valueOf(PATH_SEPARATOR), -1);
+        Node node = root;
+        for (int k = 0; k < segments.length; k++) {
+            String segment = segments[k];
+            boolean last = k == segments.length - 1;
+            if (MULTILEVEL_DIRECTORIES.equals(segment)) {
+                if (k == 0) {
+                    node = last ? anything(node) : leadingDirectories(node);
+                } else {
+                    node = directories(node);
+                }
+                continue;
+            }
+            // the separator before this segment has been consumed by a leading '**'
+            if (k > 0 && !(k == 1 && MULTILEVEL_DIRECTORIES.equals(segments[0]))) {
+                node = literal(node, PATH_SEPARATOR);
+            }
+            for (int i = 0; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c == '?') {
+                    node = anyOne(node);
+                } else if (c == '*') {
+                    if (i == 0 || segment.charAt(i - 1) != '*') {
+                        node = anyInSegment(node);
+                    }
+                } else {
+                    node = literal(node, c);
+                }
+            }
+        }
+        node.accept = true;
+    }
+
+    private Node literal(Node from, char c) {
+        for (int t = 0; t < from.transitionSize; t++) {
+            if (from.kinds[t] == LITERAL && from.chars[t] == c) {
+                return from.targets[t];
+            }
+        }
+        Node to = newNode();
+        from.addTransition(LITERAL, c, to);
+        return to;
+    }
+
+    private Node anyOne(Node from) {
+        for (int t = 0; t < from.transitionSize; t++) {
+            if (from.kinds[t] == ANY_BUT_SEPARATOR && from.targets[t] != from) {
+                return from.targets[t];
+            }
+        }
+        Node to = newNode();
+        from.addTransition(ANY_BUT_SEPARATOR, (char)0, to);
+        return to;
+    }
+
+    /**
+     * '*', a state looping on any character but the separator.
+     */
+    private Node anyInSegment(Node from) {
+        Node to = from.constructs.get("*");
+        if (to == null) {
+            to = newNode();
+            to.addTransition(ANY_BUT_SEPARATOR, (char)0, to);
+            from.addEpsilon(to);
+            from.constructs.put("*", to);
+        }
+        return to;
+    }
+
+    /**
+     * '/**', matches nothing, or a separator followed by anything.
+     */
+    private Node directories(Node from) {
+        Node to = from.constructs.get("/**");
+        if (to == null) {
+            to = newNode();
+            Node separator = newNode();
+            Node loop = newNode();
+            from.addEpsilon(to);
+            from.addEpsilon(separator);
+            separator.addTransition(LITERAL, PATH_SEPARATOR, loop);
+            loop.addTransition(ANY, (char)0, loop);
+            loop.addEpsilon(to);
+            from.constructs.put("/**", to);
+        }
+        return to;
+    }
+
+    /**
+     * '**&#47;' at the beginning of a pattern, matches nothing, or anything ending with a separator.
+     */
+    private Node leadingDirectories(Node from) {
+        Node to = from.constructs.get("**/");
+        if (to == null) {
+            to = newNode();
+            Node loop = newNode();
+            from.addEpsilon(to);
+            from.addEpsilon(loop);
+            loop.addTransition(ANY, (char)0, loop);
+            loop.addTransition(LITERAL, PATH_SEPARATOR, to);
+            from.constructs.put("**/", to);
+        }
+        return to;
+    }
+
+    /**
+     * A pattern of '**' only, matches anything.
+     */
+    private Node anything(Node from) {
+        Node to = from.constructs.get("**");
+        if (to == null) {
+            to = newNode();
+            to.addTransition(ANY, (char)0, to);
+            from.addEpsilon(to);
+            from.constructs.put("**", to);
+        }
+        return to;
+    }
+
+    private Node newNode() {
+        Node node = new Node(nodes.size());
+        nodes.add(node);
+        return node;
+    }
+
+    private static class Node {
+        private final int id;
+        private boolean accept;
+        private boolean acceptsAll;
+        private int transitionSize;
+        private int[] kinds = new int[0];
+        private char[] chars = new char[0];
+        private Node[] targets = new Node[0];
+        private Node[] epsilons = new Node[0];
+        /**
+         * Compiling only, the wildcard constructs started from this node, to share them between patterns.
+         */
+        private final Map<String, Node> constructs = new HashMap<String, Node>();
+
+        private Node(int id) {
+            this.id = id;
+        }
+
+        private void addTransition(int kind, char c, Node target) {
+            kinds = Arrays.copyOf(kinds, transitionSize + 1);
+            chars = Arrays.copyOf(chars, transitionSize + 1);
+            targets = Arrays.copyOf(targets, transitionSize + 1);
+            kinds[transitionSize] = kind;
+            chars[transitionSize] = c;
+            targets[transitionSize] = target;
+            transitionSize++;
+        }
+
+        private void addEpsilon(Node target) {
+            epsilons = Arrays.copyOf(epsilons, epsilons.length + 1);
+            epsilons[epsilons.length - 1] = target;
+        }
+
+        private boolean isAnyLoop() {
+            for (int t = 0; t < transitionSize; t++) {
+                if (kinds[t] == ANY && targets[t] == this) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean reachesAccept() {
+            if (accept) {
+                return true;
+            }
+            for (Node epsilon : epsilons) {
+                if (epsilon.reachesAccept()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The current and next state sets of one thread, deduplicated by marking the nodes with a generation.
+     */
+    private static class States {
+        private Node[] current;
+        private Node[] next;
+        private int currentSize;
+        private int nextSize;
+        private final int[] marks;
+        private int generation;
+
+        private States(int nodeSize) {
+            current = new Node[nodeSize];
+            next = new Node[nodeSize];
+            marks = new int[nodeSize];
+        }
+
+        private void nextGeneration() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+            nextSize = 0;
+        }
+
+        private void add(Node node) {
+            if (marks[node.id] == generation) {
+                return;
+            }
+            marks[node.id] = generation;
+            next[nextSize++] = node;
+            for (Node epsilon : node.epsilons) {
+                add(epsilon);
+            }
+        }
+
+        private void swap() {
+            Node[] swap = current;
+            current = next;
+            next = swap;
+            currentSize = nextSize;
+        }
+    }
+}
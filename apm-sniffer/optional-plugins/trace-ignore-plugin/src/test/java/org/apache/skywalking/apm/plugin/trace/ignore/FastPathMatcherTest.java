@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.AntPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastPathMatcherTest {
+
+    @Test
+    public void testSinglePattern() {
+        Assert.assertTrue(new FastPathMatcher("/eureka/*").match("/eureka/app"));
+        Assert.assertFalse(new FastPathMatcher("/eureka/*").match("/eureka/apps/list"));
+        Assert.assertTrue(new FastPathMatcher("/eureka/**").match("/eureka/apps/list"));
+        Assert.assertTrue(new FastPathMatcher("/eureka/**").match("/eureka"));
+        Assert.assertTrue(new FastPathMatcher("/eureka/apps/lis?").match("/eureka/apps/list"));
+        Assert.assertFalse(new FastPathMatcher("/eureka/apps/lis?").match("eureka/apps/lists"));
+        Assert.assertTrue(new FastPathMatcher("eureka/**/lists").match("eureka/apps/lists"));
+        Assert.assertTrue(new FastPathMatcher("eureka/**/lists").match("eureka/apps/a/b/c/lists"));
+        Assert.assertFalse(new FastPathMatcher("eureka/**/lists").match("eureka/apps/a/b/c/"));
+        Assert.assertTrue(new FastPathMatcher("eureka/**/b/**").match("eureka/apps/a/b/c/"));
+        Assert.assertTrue(new FastPathMatcher("/eureka/**/b/**/*.txt").match("/eureka/a/aa/aaa/b/bb/bbb/xxxxxx.txt"));
+        Assert.assertFalse(new FastPathMatcher("/eureka/**/b/**/*.txt").match("/eureka/a/aa/aaa/b/bb/bbb/xxxxxx"));
+        Assert.assertTrue(new FastPathMatcher("**/health").match("a/b/health"));
+        Assert.assertTrue(new FastPathMatcher("**").match("/any/path"));
+    }
+
+    @Test
+    public void testPrefixLength() {
+        FastPathMatcher matcher = new FastPathMatcher("/eureka/*");
+        Assert.assertTrue(matcher.match("/eureka/app/", "/eureka/app/".length() - 1));
+        Assert.assertFalse(matcher.match("/eureka/app/", "/eureka/app/".length()));
+    }
+
+    @Test
+    public void testSameResultAsAntPathMatcher() {
+        String[] patterns = {
+            "/eureka/*", "/eureka/**", "/eureka/apps/lis?", "/consul/**/health", "/static/**/*.js",
+            "/api/v?/users/*", "/a*b/c", "/actuator/**", "/api/*/orders/**"
+        };
+        String[] paths = {
+            "/eureka/app", "/eureka/apps/list", "/eureka", "/consul/health", "/consul/v1/agent/health",
+            "/static/js/app.js", "/static/app.css", "/api/v1/users/1", "/api/v12/users/1", "/ab/c", "/axxb/c",
+            "/axxb/d", "/actuator", "/actuator/metrics/jvm", "/api/shop/orders", "/api/shop/orders/1/items",
+            "/api/orders", "/user/login", "/"
+        };
+
+        StringBuilder all = new StringBuilder();
+        for (String pattern : patterns) {
+            all.append(pattern).append(',');
+        }
+        FastPathMatcher fastPathMatcher = new FastPathMatcher(all.toString());
+        TracePathMatcher antPathMatcher = new AntPathMatcher();
+        for (String path : paths) {
+            boolean expected = false;
+            for (String pattern : patterns) {
+                boolean matched = antPathMatcher.match(pattern, path);
+                Assert.assertEquals(pattern + " " + path, matched, new FastPathMatcher(pattern).match(path));
+                expected |= matched;
+            }
+            Assert.assertEquals(path, expected, fastPathMatcher.match(path));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.exporter.provider.grpc;
+
+import io.grpc.stub.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.exporter.MetricValuesExportService;
+import org.apache.skywalking.oap.server.exporter.grpc.*;
+import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
+import org.slf4j.*;
+
+/**
+ * The metric values are buffered in a data carrier, and sent by batch, one client stream per batch. A batch is
+ * resent, with a backoff, until the receiver acknowledges it, so every value is delivered at least once.
+ *
+ * While a batch is being resent, the buffer fills up and blocks the export thread, then the export worker drops the
+ * indicators, the persistence is never blocked by the receiver. The sender also waits for the stream to be ready
+ * before every value, so a batch doesn't pile up in the gRPC buffer either.
+ *
+ * Only the metrics subscribed by the receiver are exported, all of them if it subscribes none. The subscription is
+ * refreshed periodically.
+ */
+public class GRPCExporter implements MetricValuesExportService, IConsumer<ExportMetricValue> {
+    private static final Logger logger = LoggerFactory.getLogger(GRPCExporter.class);
+
+    private static final long ACK_TIMEOUT_SECONDS = 30;
+    private static final long SUBSCRIPTION_TIMEOUT_SECONDS = 10;
+    private static final long SUBSCRIPTION_REFRESH_SECONDS = 30;
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private final GRPCExporterSetting setting;
+    private final DataCarrier<ExportMetricValue> carrier;
+    private GRPCClient client;
+    private MetricExportServiceGrpc.MetricExportServiceStub exportStub;
+    private MetricExportServiceGrpc.MetricExportServiceBlockingStub blockingStub;
+    private volatile Set<String> subscriptionSet = Collections.emptySet();
+
+    public GRPCExporter(GRPCExporterSetting setting) {
+        this.setting = setting;
+        carrier = new DataCarrier<>("GRPCExporter", 1, setting.getBufferSize());
+        carrier.setBufferStrategy(BufferStrategy.BLOCKING);
+    }
+
+    public void start() {
+        client = new GRPCClient(setting.getTargetHost(), setting.getTargetPort());
+        client.connect();
+        exportStub = MetricExportServiceGrpc.newStub(client.getChannel());
+        blockingStub = MetricExportServiceGrpc.newBlockingStub(client.getChannel());
+
+        fetchSubscriptionList();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GRPCExporterSubscription");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::fetchSubscriptionList, SUBSCRIPTION_REFRESH_SECONDS, SUBSCRIPTION_REFRESH_SECONDS, TimeUnit.SECONDS);
+
+        carrier.consume(this, 1);
+    }
+
+    public void shutdown() {
+        carrier.shutdownConsumers();
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    void fetchSubscriptionList() {
+        try {
+            SubscriptionsResp subscription = blockingStub.withDeadlineAfter(SUBSCRIPTION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .subscription(SubscriptionReq.newBuilder().build());
+            subscriptionSet = new HashSet<>(subscription.getMetricNamesList());
+        } catch (Throwable t) {
+            logger.error("Fetch the subscription list from " + client + " failure, keep the previous one.", t);
+        }
+    }
+
+    @Override public void export(IndicatorMetaInfo meta, Indicator indicator) {
+        Set<String> subscriptions = subscriptionSet;
+        if (!subscriptions.isEmpty() && !subscriptions.contains(meta.getIndicatorName())) {
+            return;
+        }
+
+        ExportMetricValue.Builder builder = ExportMetricValue.newBuilder();
+        if (indicator instanceof LongValueHolder) {
+            builder.setType(ValueType.LONG).setLongValue(((LongValueHolder)indicator).getValue());
+        } else if (indicator instanceof IntValueHolder) {
+            builder.setType(ValueType.LONG).setLongValue(((IntValueHolder)indicator).getValue());
+        } else if (indicator instanceof DoubleValueHolder) {
+            builder.setType(ValueType.DOUBLE).setDoubleValue(((DoubleValueHolder)indicator).getValue());
+        } else {
+            return;
+        }
+        builder.setMetricName(meta.getIndicatorName());
+        builder.setEntityId(meta.getId());
+        builder.setScopeId(meta.getScope());
+        builder.setTimeBucket(indicator.getTimeBucket());
+
+        carrier.produce(builder.build());
+    }
+
+    @Override public void init() {
+    }
+
+    @Override public void consume(List<ExportMetricValue> data) {
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        while (!send(data)) {
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                logger.warn("Exporter is interrupted, {} metric values are not acknowledged.", data.size());
+                return;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * @return true if the receiver acknowledges the batch.
+     */
+    boolean send(List<ExportMetricValue> data) {
+        CountDownLatch finished = new CountDownLatch(1);
+        boolean[] acknowledged = {false};
+        ClientCallStreamObserver<ExportMetricValue> streamObserver = (ClientCallStreamObserver<ExportMetricValue>)exportStub.export(
+            new StreamObserver<ExportResponse>() {
+                @Override public void onNext(ExportResponse response) {
+                    acknowledged[0] = true;
+                }
+
+                @Override public void onError(Throwable throwable) {
+                    logger.error("Export " + data.size() + " metric values to " + client + " failure.", throwable);
+                    finished.countDown();
+                }
+
+                @Override public void onCompleted() {
+                    finished.countDown();
+                }
+            });
+
+        try {
+            for (ExportMetricValue value : data) {
+                while (!streamObserver.isReady()) {
+                    if (finished.await(5, TimeUnit.MILLISECONDS)) {
+                        // The stream is broken.
+                        return false;
+                    }
+                }
+                streamObserver.onNext(value);
+            }
+            streamObserver.onCompleted();
+
+            if (!finished.await(ACK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                streamObserver.cancel("Acknowledge timeout", null);
+                return false;
+            }
+            return acknowledged[0];
+        } catch (InterruptedException e) {
+            streamObserver.cancel("Exporter is interrupted", e);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override public void onError(List<ExportMetricValue> data, Throwable t) {
+        logger.error(t.getMessage(), t);
+    }
+
+    @Override public void onExit() {
+    }
+}
@@ -15,25 +15,21 @@
  * limitations under the License.
  *
  */
+package org.apache.skywalking.oap.server.exporter.provider.grpc;
 
-package org.apache.skywalking.oap.server.core.analysis.data;
+import lombok.*;
+import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 
 /**
- * @author peng-yongsheng
+ * The gRPC exporter settings.
  */
-public class EndOfBatchContext {
-
-    private boolean isEndOfBatch;
-
-    public EndOfBatchContext(boolean isEndOfBatch) {
-        this.isEndOfBatch = isEndOfBatch;
-    }
-
-    public boolean isEndOfBatch() {
-        return isEndOfBatch;
-    }
-
-    public void setEndOfBatch(boolean endOfBatch) {
-        isEndOfBatch = endOfBatch;
-    }
+@Setter
+@Getter
+public class GRPCExporterSetting extends ModuleConfig {
+    private String targetHost;
+    private int targetPort;
+    /**
+     * The max number of the metric values buffered before they are acknowledged by the receiver.
+     */
+    private int bufferSize = 20000;
 }
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.exporter.provider.grpc;
+
+import io.grpc.*;
+import io.grpc.stub.StreamObserver;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.exporter.grpc.*;
+import org.junit.*;
+
+/**
+ * The receiver stand-in fails the first stream, so the batch must be resent and acknowledged.
+ */
+public class GRPCExporterTest {
+    private Server server;
+    private GRPCExporter exporter;
+    private final AtomicInteger streams = new AtomicInteger();
+    private final List<ExportMetricValue> received = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = ServerBuilder.forPort(0).addService(new MetricExportServiceGrpc.MetricExportServiceImplBase() {
+            @Override public StreamObserver<ExportMetricValue> export(StreamObserver<ExportResponse> responseObserver) {
+                boolean fail = streams.incrementAndGet() == 1;
+                List<ExportMetricValue> values = new ArrayList<>();
+                return new StreamObserver<ExportMetricValue>() {
+                    @Override public void onNext(ExportMetricValue value) {
+                        values.add(value);
+                    }
+
+                    @Override public void onError(Throwable throwable) {
+                    }
+
+                    @Override public void onCompleted() {
+                        if (fail) {
+                            responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                            return;
+                        }
+                        received.addAll(values);
+                        responseObserver.onNext(ExportResponse.newBuilder().build());
+                        responseObserver.onCompleted();
+                    }
+                };
+            }
+
+            @Override public void subscription(SubscriptionReq request, StreamObserver<SubscriptionsResp> responseObserver) {
+                responseObserver.onNext(SubscriptionsResp.newBuilder().addMetricNames("service_cpm").build());
+                responseObserver.onCompleted();
+            }
+        }).build().start();
+
+        GRPCExporterSetting setting = new GRPCExporterSetting();
+        setting.setTargetHost("127.0.0.1");
+        setting.setTargetPort(server.getPort());
+        exporter = new GRPCExporter(setting);
+        exporter.start();
+    }
+
+    @After
+    public void tearDown() {
+        exporter.shutdown();
+        server.shutdownNow();
+    }
+
+    @Test
+    public void testExport() throws InterruptedException {
+        exporter.export(new IndicatorMetaInfo("service_cpm", DefaultScopeDefine.SERVICE, "1"), indicator(201808301440L, 100));
+        exporter.export(new IndicatorMetaInfo("service_resp_time", DefaultScopeDefine.SERVICE, "1"), indicator(201808301440L, 200));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Assert.assertEquals(2, streams.get());
+        Assert.assertEquals(1, received.size());
+        ExportMetricValue value = received.get(0);
+        Assert.assertEquals("service_cpm", value.getMetricName());
+        Assert.assertEquals("1", value.getEntityId());
+        Assert.assertEquals(DefaultScopeDefine.SERVICE, value.getScopeId());
+        Assert.assertEquals(ValueType.LONG, value.getType());
+        Assert.assertEquals(201808301440L, value.getTimeBucket());
+        Assert.assertEquals(100, value.getLongValue());
+    }
+
+    private Indicator indicator(long timeBucket, long value) {
+        MockIndicator indicator = new MockIndicator(value);
+        indicator.setTimeBucket(timeBucket);
+        return indicator;
+    }
+
+    private class MockIndicator extends Indicator implements LongValueHolder {
+        private final long value;
+
+        private MockIndicator(long value) {
+            this.value = value;
+        }
+
+        @Override public String id() {
+            return null;
+        }
+
+        @Override public void combine(Indicator indicator) {
+
+        }
+
+        @Override public void calculate() {
+
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public long getValue() {
+            return value;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
@@ -18,14 +18,18 @@
 
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.oap.server.core.alarm.AlarmCallback;
 import org.apache.skywalking.oap.server.core.alarm.AlarmMessage;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetric;
 import org.joda.time.LocalDateTime;
 import org.joda.time.Minutes;
 import org.slf4j.Logger;
@@ -42,11 +46,22 @@ public class AlarmCore {
 
     private Map<String, List<RunningRule>> runningContext;
     private LocalDateTime lastExecuteTime;
+    private final int checkThreads;
+    private ExecutorService checkExecutor;
 
     AlarmCore(Rules rules) {
+        this(rules, 1);
+    }
+
+    /**
+     * @param checkThreads the windows of every rule are partitioned by the entity hash, and the partitions are checked
+     * by this number of threads in parallel.
+     */
+    AlarmCore(Rules rules, int checkThreads) {
+        this.checkThreads = Math.max(checkThreads, 1);
         runningContext = new HashMap<>();
         rules.getRules().forEach(rule -> {
-            RunningRule runningRule = new RunningRule(rule);
+            RunningRule runningRule = new RunningRule(rule, this.checkThreads);
 
             String indicatorName = rule.getIndicatorName();
 
@@ -64,28 +79,47 @@ public class AlarmCore {
     }
 
     public void start(List<AlarmCallback> allCallbacks) {
+        start(allCallbacks, null);
+    }
+
+    /**
+     * @param checkLatency the duration of every check cycle is observed by it, if not null.
+     */
+    public void start(List<AlarmCallback> allCallbacks, HistogramMetric checkLatency) {
         LocalDateTime now = LocalDateTime.now();
         lastExecuteTime = now;
+        checkExecutor = Executors.newFixedThreadPool(checkThreads, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("AlarmCheck-%s").build());
         Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() -> {
             try {
-                List<AlarmMessage> alarmMessageList = new ArrayList<>(30);
                 LocalDateTime checkTime = LocalDateTime.now();
                 int minutes = Minutes.minutesBetween(lastExecuteTime, checkTime).getMinutes();
-                boolean[] hasExecute = new boolean[] {false};
-                runningContext.values().forEach(ruleList -> ruleList.forEach(runningRule -> {
-                    if (minutes > 0) {
-                        runningRule.moveTo(checkTime);
-                        /**
-                         * Don't run in the first quarter per min, avoid to trigger false alarm.
-                         */
-                        if (checkTime.getSecondOfMinute() > 15) {
-                            hasExecute[0] = true;
-                            alarmMessageList.addAll(runningRule.check());
-                        }
+                if (minutes <= 0) {
+                    return;
+                }
+                /**
+                 * Don't run in the first quarter per min, avoid to trigger false alarm.
+                 */
+                boolean execute = checkTime.getSecondOfMinute() > 15;
+
+                HistogramMetric.Timer timer = checkLatency == null ? null : checkLatency.createTimer();
+                List<AlarmMessage> alarmMessageList = new ArrayList<>(30);
+                try {
+                    List<Future<List<AlarmMessage>>> futures = new ArrayList<>(checkThreads);
+                    for (int i = 0; i < checkThreads; i++) {
+                        int partition = i;
+                        futures.add(checkExecutor.submit(() -> check(checkTime, execute, partition)));
                     }
-                }));
+                    for (Future<List<AlarmMessage>> future : futures) {
+                        alarmMessageList.addAll(future.get());
+                    }
+                } finally {
+                    if (timer != null) {
+                        timer.finish();
+                    }
+                }
+
                 // Set the last execute time, and make sure the second is `00`, such as: 18:30:00
-                if (hasExecute[0]) {
+                if (execute && !runningContext.isEmpty()) {
                     lastExecuteTime = checkTime.minusSeconds(checkTime.getSecondOfMinute());
                 }
 
@@ -97,4 +131,15 @@ public class AlarmCore {
             }
         }, 10, 10, TimeUnit.SECONDS);
     }
+
+    private List<AlarmMessage> check(LocalDateTime checkTime, boolean execute, int partition) {
+        List<AlarmMessage> alarmMessageList = new ArrayList<>();
+        runningContext.values().forEach(ruleList -> ruleList.forEach(runningRule -> {
+            runningRule.moveTo(checkTime, partition);
+            if (execute) {
+                alarmMessageList.addAll(runningRule.check(partition));
+            }
+        }));
+        return alarmMessageList;
+    }
 }
@@ -23,8 +23,13 @@ import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.alarm.*;
 import org.apache.skywalking.oap.server.library.module.*;
 import org.apache.skywalking.oap.server.library.util.ResourceUtils;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricCreator;
 
 public class AlarmModuleProvider extends ModuleProvider {
+    private final AlarmSettings settings = new AlarmSettings();
+    private NotifyHandler notifyHandler;
+
     @Override public String name() {
         return "default";
     }
@@ -34,7 +39,7 @@ public class AlarmModuleProvider extends ModuleProvider {
     }
 
     @Override public ModuleConfig createConfigBeanIfAbsent() {
-        return new AlarmSettings();
+        return settings;
     }
 
     @Override public void prepare() throws ServiceNotProvidedException, ModuleStartException {
@@ -46,12 +51,13 @@ public class AlarmModuleProvider extends ModuleProvider {
         }
         RulesReader reader = new RulesReader(applicationReader);
         Rules rules = reader.readRules();
-        NotifyHandler notifyHandler = new NotifyHandler(rules);
-        notifyHandler.init(new AlarmStandardPersistence());
+        notifyHandler = new NotifyHandler(rules, settings.getCheckThreads());
         this.registerServiceImplementation(IndicatorNotify.class, notifyHandler);
     }
 
     @Override public void start() throws ServiceNotProvidedException, ModuleStartException {
+        MetricCreator metricCreator = getManager().find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        notifyHandler.init(metricCreator, new AlarmStandardPersistence());
     }
 
     @Override public void notifyAfterCompleted() throws ServiceNotProvidedException, ModuleStartException {
@@ -59,6 +65,6 @@ public class AlarmModuleProvider extends ModuleProvider {
     }
 
     @Override public String[] requiredModules() {
-        return new String[] {CoreModule.NAME};
+        return new String[] {CoreModule.NAME, TelemetryModule.NAME};
     }
 }
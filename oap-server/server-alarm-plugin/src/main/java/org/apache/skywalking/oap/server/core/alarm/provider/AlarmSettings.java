@@ -18,7 +18,13 @@
 
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
+import lombok.*;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 
+@Getter
 public class AlarmSettings extends ModuleConfig {
+    /**
+     * The number of the threads checking the alarm rules in parallel, the windows are partitioned by the entity.
+     */
+    @Setter private int checkThreads = 2;
 }
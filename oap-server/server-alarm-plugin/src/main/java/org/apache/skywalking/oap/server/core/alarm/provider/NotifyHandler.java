@@ -24,6 +24,7 @@ import org.apache.skywalking.oap.server.core.alarm.AlarmCallback;
 import org.apache.skywalking.oap.server.core.alarm.IndicatorNotify;
 import org.apache.skywalking.oap.server.core.alarm.MetaInAlarm;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.telemetry.api.*;
 
 import static org.apache.skywalking.oap.server.core.source.DefaultScopeDefine.*;
 
@@ -32,8 +33,12 @@ public class NotifyHandler implements IndicatorNotify {
     private final Rules rules;
 
     public NotifyHandler(Rules rules) {
+        this(rules, 1);
+    }
+
+    public NotifyHandler(Rules rules, int checkThreads) {
         this.rules = rules;
-        core = new AlarmCore(rules);
+        core = new AlarmCore(rules, checkThreads);
     }
 
     @Override public void notify(MetaInAlarm meta, Indicator indicator) {
@@ -56,12 +61,25 @@ public class NotifyHandler implements IndicatorNotify {
     }
 
     public void init(AlarmCallback... callbacks) {
+        init((MetricCreator)null, callbacks);
+    }
+
+    /**
+     * @param metricCreator creates the metrics of the alarm check and the webhooks, if not null.
+     */
+    public void init(MetricCreator metricCreator, AlarmCallback... callbacks) {
         List<AlarmCallback> allCallbacks = new ArrayList<>();
         for (AlarmCallback callback : callbacks) {
             allCallbacks.add(callback);
         }
-        allCallbacks.add(new WebhookCallback(rules.getWebhooks()));
-        core.start(allCallbacks);
+        allCallbacks.add(new WebhookCallback(rules.getWebhooks(), metricCreator));
+
+        HistogramMetric checkLatency = null;
+        if (metricCreator != null) {
+            checkLatency = metricCreator.createHistogramMetric("alarm_check_latency", "Latency of one check cycle of all the alarm rules",
+                MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        }
+        core.start(allCallbacks, checkLatency);
     }
 
 }
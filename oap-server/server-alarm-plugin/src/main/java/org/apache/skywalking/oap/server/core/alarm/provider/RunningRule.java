@@ -18,12 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import org.apache.skywalking.oap.server.core.alarm.AlarmMessage;
 import org.apache.skywalking.oap.server.core.alarm.MetaInAlarm;
 import org.apache.skywalking.oap.server.core.analysis.indicator.DoubleValueHolder;
@@ -32,9 +36,6 @@ import org.apache.skywalking.oap.server.core.analysis.indicator.IntValueHolder;
 import org.apache.skywalking.oap.server.core.analysis.indicator.LongValueHolder;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.joda.time.LocalDateTime;
-import org.joda.time.Minutes;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,7 +46,6 @@ import org.slf4j.LoggerFactory;
  */
 public class RunningRule {
     private static final Logger logger = LoggerFactory.getLogger(RunningRule.class);
-    private static DateTimeFormatter TIME_BUCKET_FORMATTER = DateTimeFormat.forPattern("yyyyMMddHHmm");
 
     private String ruleName;
     private int period;
@@ -54,18 +54,31 @@ public class RunningRule {
     private final OP op;
     private final int countThreshold;
     private final int silencePeriod;
-    private Map<MetaInAlarm, Window> windows;
+    /**
+     * The windows are partitioned by the entity hash, every partition is moved and checked by one thread.
+     */
+    private final List<Map<MetaInAlarm, Window>> windows;
     private volatile IndicatorValueType valueType;
     private int targetScopeId;
-    private List<String> includeNames;
+    private Set<String> includeNames;
     private AlarmMessageFormatter formatter;
 
     public RunningRule(AlarmRule alarmRule) {
+        this(alarmRule, 1);
+    }
+
+    /**
+     * @param partitions the number of the partitions the windows are put into.
+     */
+    public RunningRule(AlarmRule alarmRule, int partitions) {
         indicatorName = alarmRule.getIndicatorName();
         this.ruleName = alarmRule.getAlarmRuleName();
 
         // Init the empty window for alarming rule.
-        windows = new ConcurrentHashMap<>();
+        windows = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            windows.add(new ConcurrentHashMap<>());
+        }
 
         period = alarmRule.getPeriod();
 
@@ -75,7 +88,9 @@ public class RunningRule {
         this.countThreshold = alarmRule.getCount();
         this.silencePeriod = alarmRule.getSilencePeriod();
 
-        this.includeNames = alarmRule.getIncludeNames();
+        if (CollectionUtils.isNotEmpty(alarmRule.getIncludeNames())) {
+            this.includeNames = new HashSet<>(alarmRule.getIncludeNames());
+        }
         this.formatter = new AlarmMessageFormatter(alarmRule.getMessage());
     }
 
@@ -91,7 +106,7 @@ public class RunningRule {
             return;
         }
 
-        if (CollectionUtils.isNotEmpty(includeNames)) {
+        if (includeNames != null) {
             if (!includeNames.contains(meta.getName())) {
                 return;
             }
@@ -114,15 +129,16 @@ public class RunningRule {
         }
 
         if (valueType != null) {
-            Window window = windows.get(meta);
+            long minute = toMinutes(indicator.getTimeBucket());
+            Map<MetaInAlarm, Window> partition = windows.get(Math.floorMod(meta.hashCode(), windows.size()));
+            Window window = partition.get(meta);
             if (window == null) {
                 window = new Window(period);
-                LocalDateTime timebucket = TIME_BUCKET_FORMATTER.parseLocalDateTime(indicator.getTimeBucket() + "");
-                window.moveTo(timebucket);
-                windows.put(meta, window);
+                window.moveTo(minute);
+                partition.put(meta, window);
             }
 
-            window.add(indicator);
+            window.add(minute, isMatch(indicator));
         }
     }
 
@@ -132,7 +148,17 @@ public class RunningRule {
      * @param targetTime of moving target
      */
     public void moveTo(LocalDateTime targetTime) {
-        windows.values().forEach(window -> window.moveTo(targetTime));
+        for (int partition = 0; partition < windows.size(); partition++) {
+            moveTo(targetTime, partition);
+        }
+    }
+
+    /**
+     * Move the windows of the entities in the given partition only.
+     */
+    public void moveTo(LocalDateTime targetTime, int partition) {
+        long minute = toMinutes(targetTime.getYear(), targetTime.getMonthOfYear(), targetTime.getDayOfMonth(), targetTime.getHourOfDay(), targetTime.getMinuteOfHour());
+        windows.get(partition).values().forEach(window -> window.moveTo(minute));
     }
 
     /**
@@ -140,8 +166,20 @@ public class RunningRule {
      */
     public List<AlarmMessage> check() {
         List<AlarmMessage> alarmMessageList = new ArrayList<>(30);
+        for (int partition = 0; partition < windows.size(); partition++) {
+            alarmMessageList.addAll(check(partition));
+        }
+        return alarmMessageList;
+    }
+
+    /**
+     * Check the windows of the entities in the given partition only, the partitions are checked in parallel, every
+     * window by one of them.
+     */
+    public List<AlarmMessage> check(int partition) {
+        List<AlarmMessage> alarmMessageList = new ArrayList<>(30);
 
-        windows.entrySet().forEach(entry -> {
+        windows.get(partition).entrySet().forEach(entry -> {
             MetaInAlarm meta = entry.getKey();
             Window window = entry.getValue();
             AlarmMessage alarmMessage = window.checkAlarm();
@@ -159,86 +197,175 @@ public class RunningRule {
         return alarmMessageList;
     }
 
+    /**
+     * Compare the value of the indicator with the threshold, only once when it enters the window.
+     */
+    private boolean isMatch(Indicator indicator) {
+        switch (valueType) {
+            case LONG:
+                long lvalue = ((LongValueHolder)indicator).getValue();
+                long lexpected = threshold.getLongThreshold();
+                switch (op) {
+                    case GREATER:
+                        return lvalue > lexpected;
+                    case LESS:
+                        return lvalue < lexpected;
+                    case EQUAL:
+                        return lvalue == lexpected;
+                }
+                break;
+            case INT:
+                int ivalue = ((IntValueHolder)indicator).getValue();
+                int iexpected = threshold.getIntThreshold();
+                switch (op) {
+                    case LESS:
+                        return ivalue < iexpected;
+                    case GREATER:
+                        return ivalue > iexpected;
+                    case EQUAL:
+                        return ivalue == iexpected;
+                }
+                break;
+            case DOUBLE:
+                double dvalue = ((DoubleValueHolder)indicator).getValue();
+                double dexpected = threshold.getDoubleThreadhold();
+                switch (op) {
+                    case EQUAL:
+                        // NOTICE: double equal is not reliable in Java,
+                        // match result is not predictable
+                        return dvalue == dexpected;
+                    case GREATER:
+                        return dvalue > dexpected;
+                    case LESS:
+                        return dvalue < dexpected;
+                }
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * @param timeBucket minute time bucket, in the format of yyyyMMddHHmm.
+     * @return the minutes since the epoch, computed from the fields without parsing.
+     */
+    static long toMinutes(long timeBucket) {
+        int minute = (int)(timeBucket % 100);
+        int hour = (int)(timeBucket / 100 % 100);
+        int day = (int)(timeBucket / 10000 % 100);
+        int month = (int)(timeBucket / 1000000 % 100);
+        int year = (int)(timeBucket / 100000000);
+        return toMinutes(year, month, day, hour, minute);
+    }
+
+    private static long toMinutes(int year, int month, int day, int hour, int minute) {
+        return LocalDate.of(year, month, day).toEpochDay() * 24 * 60 + hour * 60 + minute;
+    }
+
     /**
      * A indicator window, based on {@link AlarmRule#period}. This window slides with time, just keeps the recent
      * N(period) buckets.
      *
+     * The slot of a minute is the minute modulo the period, it keeps the minute and whether the value matches the
+     * threshold and is counted. The count of the matched values is kept as the values enter and leave the window, so
+     * the check doesn't scan the slots. A slot leaves the window when it is overwritten by a newer minute, or when the
+     * window moves beyond it, the one who flips its counted bit decrements the count, so no lock is required between
+     * the alarm notify thread adding the values and the alarm core thread moving the window.
+     *
      * @author wusheng
      */
     public class Window {
-        private LocalDateTime endTime;
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final AtomicLong endMinute = new AtomicLong(EMPTY);
         private int period;
         private int counter;
         private int silenceCountdown;
 
-        private LinkedList<Indicator> values;
-        private ReentrantLock lock = new ReentrantLock();
+        private final AtomicLongArray slots;
+        private final AtomicInteger matchCount = new AtomicInteger();
 
         public Window(int period) {
             this.period = period;
             // -1 means silence countdown is not running.
             silenceCountdown = -1;
             counter = 0;
-            init();
+            slots = new AtomicLongArray(period);
+            for (int i = 0; i < period; i++) {
+                slots.set(i, EMPTY);
+            }
         }
 
-        public void moveTo(LocalDateTime current) {
-            lock.lock();
-            try {
-                if (endTime == null) {
-                    init();
-                    endTime = current;
-                } else {
-                    int minutes = Minutes.minutesBetween(endTime, current).getMinutes();
-                    if (minutes <= 0) {
-                        return;
-                    }
-                    if (minutes > values.size()) {
-                        // re-init
-                        init();
-                    } else {
-                        for (int i = 0; i < minutes; i++) {
-                            values.removeFirst();
-                            values.addLast(null);
-                        }
-                    }
-                    endTime = current;
-                }
-            } finally {
-                lock.unlock();
+        /**
+         * Move the window end to the given minute, the window never moves back. The minutes leaving the window are
+         * uncounted.
+         */
+        public void moveTo(long minute) {
+            long previous = endMinute.getAndAccumulate(minute, Math::max);
+            if (previous == EMPTY || minute <= previous) {
+                return;
+            }
+            long newStart = minute - period + 1;
+            for (long leaving = previous - period + 1; leaving < newStart && leaving <= previous; leaving++) {
+                uncount(slotOf(leaving), newStart);
             }
         }
 
-        public void add(Indicator indicator) {
-            long bucket = indicator.getTimeBucket();
+        public void add(long minute, boolean matched) {
+            long end = endMinute.get();
+            if (minute > end) {
+                moveTo(minute);
+                end = endMinute.get();
+            }
 
-            LocalDateTime timebucket = TIME_BUCKET_FORMATTER.parseLocalDateTime(bucket + "");
+            if (end - minute >= period) {
+                // too old data
+                // also should happen, but maybe if agent/probe mechanism time is not right.
+                return;
+            }
 
-            int minutes = Minutes.minutesBetween(timebucket, endTime).getMinutes();
-            if (minutes == -1) {
-                this.moveTo(timebucket);
+            int slot = slotOf(minute);
+            long state = (minute << 1) | (matched ? 1 : 0);
+            while (true) {
+                long current = slots.get(slot);
+                if (current != EMPTY && (current >> 1) > minute) {
+                    // A newer minute has taken the slot.
+                    return;
+                }
+                if (slots.compareAndSet(slot, current, state)) {
+                    int delta = (matched ? 1 : 0) - (int)(current & 1);
+                    if (delta != 0) {
+                        matchCount.addAndGet(delta);
+                    }
+                    break;
+                }
+            }
 
+            // The window may have moved beyond the minute while it was being added.
+            if (matched) {
+                uncount(slot, endMinute.get() - period + 1);
             }
+        }
 
-            lock.lock();
-            try {
-                if (minutes < 0) {
-                    moveTo(timebucket);
-                    minutes = 0;
+        /**
+         * Clear the counted bit of the slot if its minute is before the window start.
+         */
+        private void uncount(int slot, long windowStart) {
+            while (true) {
+                long current = slots.get(slot);
+                if ((current & 1) == 0 || (current >> 1) >= windowStart) {
+                    return;
                 }
-
-                if (minutes >= values.size()) {
-                    // too old data
-                    // also should happen, but maybe if agent/probe mechanism time is not right.
+                if (slots.compareAndSet(slot, current, current & ~1L)) {
+                    matchCount.decrementAndGet();
                     return;
                 }
-
-                values.set(values.size() - minutes - 1, indicator);
-            } finally {
-                lock.unlock();
             }
         }
 
+        private int slotOf(long minute) {
+            return (int)Math.floorMod(minute, (long)period);
+        }
+
         public AlarmMessage checkAlarm() {
             if (isMatch()) {
                 /**
@@ -267,81 +394,8 @@ public class RunningRule {
         }
 
         private boolean isMatch() {
-            int matchCount = 0;
-            for (Indicator indicator : values) {
-                if (indicator == null) {
-                    continue;
-                }
-
-                switch (valueType) {
-                    case LONG:
-                        long lvalue = ((LongValueHolder)indicator).getValue();
-                        long lexpected = RunningRule.this.threshold.getLongThreshold();
-                        switch (op) {
-                            case GREATER:
-                                if (lvalue > lexpected)
-                                    matchCount++;
-                                break;
-                            case LESS:
-                                if (lvalue < lexpected)
-                                    matchCount++;
-                                break;
-                            case EQUAL:
-                                if (lvalue == lexpected)
-                                    matchCount++;
-                                break;
-                        }
-                        break;
-                    case INT:
-                        int ivalue = ((IntValueHolder)indicator).getValue();
-                        int iexpected = RunningRule.this.threshold.getIntThreshold();
-                        switch (op) {
-                            case LESS:
-                                if (ivalue < iexpected)
-                                    matchCount++;
-                                break;
-                            case GREATER:
-                                if (ivalue > iexpected)
-                                    matchCount++;
-                                break;
-                            case EQUAL:
-                                if (ivalue == iexpected)
-                                    matchCount++;
-                                break;
-                        }
-                        break;
-                    case DOUBLE:
-                        double dvalue = ((DoubleValueHolder)indicator).getValue();
-                        double dexpected = RunningRule.this.threshold.getDoubleThreadhold();
-                        switch (op) {
-                            case EQUAL:
-                                // NOTICE: double equal is not reliable in Java,
-                                // match result is not predictable
-                                if (dvalue == dexpected)
-                                    matchCount++;
-                                break;
-                            case GREATER:
-                                if (dvalue > dexpected)
-                                    matchCount++;
-                                break;
-                            case LESS:
-                                if (dvalue < dexpected)
-                                    matchCount++;
-                                break;
-                        }
-                        break;
-                }
-            }
-
             // Reach the threshold in current bucket.
-            return matchCount >= countThreshold;
-        }
-
-        private void init() {
-            values = new LinkedList();
-            for (int i = 0; i < period; i++) {
-                values.add(null);
-            }
+            return matchCount.get() >= countThreshold;
         }
     }
 }
@@ -20,24 +20,37 @@ package org.apache.skywalking.oap.server.core.alarm.provider;
 
 import com.google.gson.Gson;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import org.apache.http.StatusLine;
-import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.apache.skywalking.oap.server.core.alarm.AlarmCallback;
 import org.apache.skywalking.oap.server.core.alarm.AlarmMessage;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetric;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetric;
+import org.apache.skywalking.oap.server.telemetry.api.MetricCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricTag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Use SkyWalking alarm webhook API call a remote endpoints.
  *
+ * The alarms are queued per endpoint and posted by a sender thread of the endpoint, through a shared pool of the keep
+ * alive connections, so a slow endpoint delays neither the alarm check nor the other endpoints. The alarms queued
+ * while a post is in flight are coalesced into the next post. A failed post is retried with an exponential backoff,
+ * and the alarms are dropped when the queue is full or the retries are exhausted.
+ *
  * @author wusheng
  */
 public class WebhookCallback implements AlarmCallback {
@@ -45,54 +58,145 @@ public class WebhookCallback implements AlarmCallback {
     private static final int HTTP_CONNECT_TIMEOUT = 1000;
     private static final int HTTP_CONNECTION_REQUEST_TIMEOUT = 1000;
     private static final int HTTP_SOCKET_TIMEOUT = 10000;
+    private static final int MAX_CONNECTIONS_PER_ENDPOINT = 2;
+    private static final int QUEUE_SIZE = 10000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_RETRIES = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
 
-    private List<String> remoteEndpoints;
-    private RequestConfig requestConfig;
+    private final List<EndpointSender> senders;
+    private CloseableHttpClient httpClient;
     private Gson gson = new Gson();
+    private HistogramMetric deliveryLatency;
+    private CounterMetric droppedCounter;
 
     public WebhookCallback(List<String> remoteEndpoints) {
-        this.remoteEndpoints = remoteEndpoints;
-        requestConfig = RequestConfig.custom()
+        this(remoteEndpoints, null);
+    }
+
+    /**
+     * @param metricCreator creates the delivery latency and the dropped alarms metrics, if not null.
+     */
+    public WebhookCallback(List<String> remoteEndpoints, MetricCreator metricCreator) {
+        senders = new ArrayList<>(remoteEndpoints.size());
+        if (remoteEndpoints.size() == 0) {
+            return;
+        }
+
+        if (metricCreator != null) {
+            deliveryLatency = metricCreator.createHistogramMetric("alarm_webhook_latency", "Latency of the alarm webhook posts",
+                MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+            droppedCounter = metricCreator.createCounter("alarm_webhook_dropped_count", "The number of the alarms dropped by the webhooks",
+                MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ENDPOINT);
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_PER_ENDPOINT * remoteEndpoints.size());
+        RequestConfig requestConfig = RequestConfig.custom()
             .setConnectTimeout(HTTP_CONNECT_TIMEOUT)
             .setConnectionRequestTimeout(HTTP_CONNECTION_REQUEST_TIMEOUT)
             .setSocketTimeout(HTTP_SOCKET_TIMEOUT).build();
+        httpClient = HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).build();
+
+        for (int i = 0; i < remoteEndpoints.size(); i++) {
+            EndpointSender sender = new EndpointSender(remoteEndpoints.get(i));
+            Thread thread = new Thread(sender, "AlarmWebhookSender-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            senders.add(sender);
+        }
     }
 
     @Override public void doAlarm(List<AlarmMessage> alarmMessage) {
-        if (remoteEndpoints.size() == 0) {
-            return;
+        senders.forEach(sender -> sender.offer(alarmMessage));
+    }
+
+    private void drop(String url, int size) {
+        logger.error("drop {} alarms to {}.", size, url);
+        if (droppedCounter != null) {
+            droppedCounter.inc(size);
+        }
+    }
+
+    private class EndpointSender implements Runnable {
+        private final String url;
+        private final BlockingQueue<AlarmMessage> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+        private EndpointSender(String url) {
+            this.url = url;
         }
 
-        CloseableHttpClient httpClient = HttpClients.custom().build();
-        try {
-            remoteEndpoints.forEach(url -> {
-                HttpPost post = new HttpPost(url);
-                post.setConfig(requestConfig);
-                post.setHeader("Accept", "application/json");
-                post.setHeader("Content-type", "application/json");
+        private void offer(List<AlarmMessage> alarmMessage) {
+            int dropped = 0;
+            for (AlarmMessage message : alarmMessage) {
+                if (!queue.offer(message)) {
+                    dropped++;
+                }
+            }
+            if (dropped > 0) {
+                drop(url, dropped);
+            }
+        }
 
-                StringEntity entity = null;
+        @Override public void run() {
+            while (true) {
                 try {
-                    entity = new StringEntity(gson.toJson(alarmMessage));
-                    post.setEntity(entity);
-                    CloseableHttpResponse httpResponse = httpClient.execute(post);
-                    StatusLine statusLine = httpResponse.getStatusLine();
-                    if (statusLine != null && statusLine.getStatusCode() != 200) {
-                        logger.error("send alarm to " + url + " failure. Response code: " + statusLine.getStatusCode());
-                    }
-                } catch (UnsupportedEncodingException e) {
-                    logger.error("Alarm to JSON error, " + e.getMessage(), e);
-                } catch (ClientProtocolException e) {
-                    logger.error("send alarm to " + url + " failure.", e);
-                } catch (IOException e) {
-                    logger.error("send alarm to " + url + " failure.", e);
+                    List<AlarmMessage> batch = new ArrayList<>();
+                    batch.add(queue.take());
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                    send(batch);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Throwable t) {
+                    logger.error(t.getMessage(), t);
                 }
-            });
-        } finally {
-            try {
-                httpClient.close();
+            }
+        }
+
+        private void send(List<AlarmMessage> batch) throws InterruptedException {
+            StringEntity entity = new StringEntity(gson.toJson(batch), StandardCharsets.UTF_8);
+            long backoff = INITIAL_BACKOFF_MILLIS;
+            for (int retry = 0; ; retry++) {
+                if (post(entity)) {
+                    return;
+                }
+                if (retry == MAX_RETRIES) {
+                    drop(url, batch.size());
+                    return;
+                }
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+
+        /**
+         * @return false if the post should be retried.
+         */
+        private boolean post(StringEntity entity) {
+            HttpPost post = new HttpPost(url);
+            post.setHeader("Accept", "application/json");
+            post.setHeader("Content-type", "application/json");
+            post.setEntity(entity);
+
+            HistogramMetric.Timer timer = deliveryLatency == null ? null : deliveryLatency.createTimer();
+            try (CloseableHttpResponse httpResponse = httpClient.execute(post)) {
+                // Consume the response, so the connection is kept alive for the next post.
+                EntityUtils.consume(httpResponse.getEntity());
+                StatusLine statusLine = httpResponse.getStatusLine();
+                if (statusLine != null && statusLine.getStatusCode() != 200) {
+                    logger.error("send alarm to " + url + " failure. Response code: " + statusLine.getStatusCode());
+                    // Only the server errors and the throttling are retried.
+                    return statusLine.getStatusCode() < 500 && statusLine.getStatusCode() != 429;
+                }
+                return true;
             } catch (IOException e) {
-                logger.error(e.getMessage(), e);
+                logger.error("send alarm to " + url + " failure.", e);
+                return false;
+            } finally {
+                if (timer != null) {
+                    timer.finish();
+                }
             }
         }
     }
@@ -19,11 +19,12 @@
 package org.apache.skywalking.oap.server.core.alarm.provider;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 import org.apache.skywalking.oap.server.core.alarm.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
-import org.joda.time.LocalDateTime;
+import org.joda.time.*;
 import org.joda.time.format.*;
 import org.junit.*;
 import org.powermock.reflect.Whitebox;
@@ -53,16 +54,97 @@ public class RunningRuleTest {
         long timeInPeriod1 = 201808301434L;
         runningRule.in(getMetaInAlarm(123), getIndicator(timeInPeriod1, 70));
 
-        Map<MetaInAlarm, RunningRule.Window> windows = Whitebox.getInternalState(runningRule, "windows");
+        List<Map<MetaInAlarm, RunningRule.Window>> windows = Whitebox.getInternalState(runningRule, "windows");
 
-        RunningRule.Window window = windows.get(getMetaInAlarm(123));
-        LocalDateTime endTime = Whitebox.getInternalState(window, "endTime");
+        RunningRule.Window window = windows.get(0).get(getMetaInAlarm(123));
+        AtomicLong endMinute = Whitebox.getInternalState(window, "endMinute");
         int period = Whitebox.getInternalState(window, "period");
-        LinkedList<Indicator> indicatorBuffer = Whitebox.getInternalState(window, "values");
+        AtomicLongArray slots = Whitebox.getInternalState(window, "slots");
 
-        Assert.assertTrue(startTime.equals(endTime));
+        Assert.assertEquals(startTime.toDateTime(DateTimeZone.UTC).getMillis() / 60000, endMinute.get());
         Assert.assertEquals(15, period);
-        Assert.assertEquals(15, indicatorBuffer.size());
+        Assert.assertEquals(15, slots.length());
+    }
+
+    @Test
+    public void testToMinutes() {
+        Assert.assertEquals(0, RunningRule.toMinutes(197001010000L));
+        Assert.assertEquals(TIME_BUCKET_FORMATTER.parseLocalDateTime("201903010001").toDateTime(DateTimeZone.UTC).getMillis() / 60000,
+            RunningRule.toMinutes(201903010001L));
+        Assert.assertEquals(2, RunningRule.toMinutes(201903010001L) - RunningRule.toMinutes(201902282359L));
+    }
+
+    @Test
+    public void testWindowSlides() {
+        AlarmRule alarmRule = new AlarmRule();
+        alarmRule.setAlarmRuleName("endpoint_percent_rule");
+        alarmRule.setIndicatorName("endpoint_percent");
+        alarmRule.setOp("<");
+        alarmRule.setThreshold("75");
+        alarmRule.setCount(1);
+        alarmRule.setPeriod(3);
+        alarmRule.setIncludeNames(new ArrayList<>(Collections.singletonList("Service_123")));
+
+        RunningRule runningRule = new RunningRule(alarmRule);
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301440L, 70));
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301441L, 70));
+        runningRule.in(getMetaInAlarm(456), getIndicator(201808301441L, 70));
+
+        runningRule.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301442"));
+        Assert.assertEquals(1, runningRule.check().size());
+
+        // The matched minutes slide out of the window, and the late value is too old.
+        runningRule.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301444"));
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301440L, 70));
+        Assert.assertEquals(0, runningRule.check().size());
+    }
+
+    @Test
+    public void testIncrementalCount() {
+        AlarmRule alarmRule = new AlarmRule();
+        alarmRule.setAlarmRuleName("endpoint_percent_rule");
+        alarmRule.setIndicatorName("endpoint_percent");
+        alarmRule.setOp("<");
+        alarmRule.setThreshold("75");
+        alarmRule.setCount(2);
+        alarmRule.setPeriod(3);
+
+        RunningRule runningRule = new RunningRule(alarmRule);
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301440L, 70));
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301441L, 70));
+        // The value of the same minute is replaced, so the minute isn't matched any more.
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301441L, 80));
+
+        runningRule.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301442"));
+        Assert.assertEquals(0, runningRule.check().size());
+
+        runningRule.in(getMetaInAlarm(123), getIndicator(201808301442L, 70));
+        Assert.assertEquals(0, runningRule.check().size());
+        Assert.assertEquals(1, runningRule.check().size());
+    }
+
+    @Test
+    public void testPartitionedCheck() {
+        AlarmRule alarmRule = new AlarmRule();
+        alarmRule.setAlarmRuleName("endpoint_percent_rule");
+        alarmRule.setIndicatorName("endpoint_percent");
+        alarmRule.setOp("<");
+        alarmRule.setThreshold("75");
+        alarmRule.setCount(1);
+        alarmRule.setPeriod(3);
+
+        int partitions = 3;
+        RunningRule runningRule = new RunningRule(alarmRule, partitions);
+        for (int id = 1; id <= 10; id++) {
+            runningRule.in(getMetaInAlarm(id), getIndicator(201808301440L, 70));
+        }
+
+        int alarms = 0;
+        for (int partition = 0; partition < partitions; partition++) {
+            runningRule.moveTo(TIME_BUCKET_FORMATTER.parseLocalDateTime("201808301441"), partition);
+            alarms += runningRule.check(partition).size();
+        }
+        Assert.assertEquals(10, alarms);
     }
 
     @Test
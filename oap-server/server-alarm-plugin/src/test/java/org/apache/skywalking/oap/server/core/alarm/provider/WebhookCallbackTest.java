@@ -22,6 +22,7 @@ import com.google.gson.*;
 import java.io.*;
 import java.net.InetSocketAddress;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.*;
 import javax.servlet.http.*;
 import org.apache.skywalking.oap.server.core.alarm.AlarmMessage;
@@ -33,6 +34,8 @@ import org.junit.*;
 public class WebhookCallbackTest implements Servlet {
     private Server server;
     private volatile boolean isSuccess = false;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int failures = 0;
 
     @Before
     public void init() throws Exception {
@@ -70,9 +73,37 @@ public class WebhookCallbackTest implements Servlet {
         alarmMessages.add(anotherAlarmMessage);
         webhookCallback.doAlarm(alarmMessages);
 
+        waitForSuccess(5000);
         Assert.assertTrue(isSuccess);
     }
 
+    @Test
+    public void testRetry() {
+        failures = 1;
+        List<String> remoteEndpoints = new ArrayList<>();
+        remoteEndpoints.add("http://127.0.0.1:8778/webhook/receiveAlarm");
+        WebhookCallback webhookCallback = new WebhookCallback(remoteEndpoints);
+        List<AlarmMessage> alarmMessages = new ArrayList<>(2);
+        alarmMessages.add(new AlarmMessage());
+        alarmMessages.add(new AlarmMessage());
+        webhookCallback.doAlarm(alarmMessages);
+
+        waitForSuccess(5000);
+        Assert.assertTrue(isSuccess);
+        Assert.assertEquals(2, requests.get());
+    }
+
+    private void waitForSuccess(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (!isSuccess && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
     @Override public void init(ServletConfig config) throws ServletException {
 
     }
@@ -84,6 +115,12 @@ public class WebhookCallbackTest implements Servlet {
     @Override
     public void service(ServletRequest request, ServletResponse response) throws ServletException, IOException {
         HttpServletRequest httpServletRequest = (HttpServletRequest)request;
+        requests.incrementAndGet();
+        if (failures > 0) {
+            failures--;
+            ((HttpServletResponse)response).setStatus(503);
+            return;
+        }
         if (httpServletRequest.getContentType().equals("application/json")) {
             InputStream inputStream = request.getInputStream();
             ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -43,6 +43,43 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter private int hourMetricsDataTTL;
     @Setter private int dayMetricsDataTTL;
     @Setter private int monthMetricsDataTTL;
+    /**
+     * The max number of the cached query results of the closed time buckets, 0 means the cache is disabled.
+     */
+    @Setter private int queryResultCacheSize = 10000;
+    /**
+     * Unit is second. A time bucket is closed, when its end time is earlier than now minus this delay.
+     */
+    @Setter private int queryResultCacheClosedDelay = 120;
+    /**
+     * The number of the recent minute buckets of the service topology kept in memory, 0 means disabled. Only used by
+     * the single node OAP.
+     */
+    @Setter private int topologySnapshotMinutes = 60;
+    /**
+     * The number of the recent hour buckets of the service topology kept in memory, 0 means disabled. Only used by the
+     * single node OAP.
+     */
+    @Setter private int topologySnapshotHours = 24;
+    /**
+     * The number of the counters of the persisted top N sketch of every indicator in every time bucket, 0 means
+     * disabled. The top N of all the entities at the minute step is read from the sketches when it is certain.
+     */
+    @Setter private int topNSketchSize = 0;
+    /**
+     * The max number of the minute sketches merged by one top N query, a longer duration is queried from the
+     * indicators.
+     */
+    @Setter private int topNSketchBuckets = 60;
+    /**
+     * The minutes of the window of the persisted summaries of the integer entity values, which serve the values of the
+     * whole windows, hours, days and months. It must divide an hour, 0 means disabled.
+     */
+    @Setter private int summaryWindowMinutes = 0;
+    /**
+     * The max number of the endpoints in the in-memory name index of the metadata search, 0 means disabled.
+     */
+    @Setter private int nameIndexMaxEndpoints = 1000000;
 
     CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
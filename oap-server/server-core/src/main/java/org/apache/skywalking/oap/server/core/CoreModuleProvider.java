@@ -20,6 +20,9 @@ package org.apache.skywalking.oap.server.core;
 
 import java.io.IOException;
 import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.IndicatorTypeListener;
+import org.apache.skywalking.oap.server.core.analysis.manual.servicerelation.ServiceRelationSnapshots;
+import org.apache.skywalking.oap.server.core.analysis.manual.sketch.TopNSketches;
+import org.apache.skywalking.oap.server.core.analysis.manual.summary.IndicatorSummaries;
 import org.apache.skywalking.oap.server.core.analysis.record.annotation.RecordTypeListener;
 import org.apache.skywalking.oap.server.core.analysis.topn.annotation.TopNTypeListener;
 import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
@@ -39,6 +42,7 @@ import org.apache.skywalking.oap.server.core.storage.PersistenceTimer;
 import org.apache.skywalking.oap.server.core.storage.annotation.StorageAnnotationListener;
 import org.apache.skywalking.oap.server.core.storage.model.*;
 import org.apache.skywalking.oap.server.core.storage.ttl.DataTTLKeeperTimer;
+import org.apache.skywalking.oap.server.core.worker.PipelineSnapshotHandler;
 import org.apache.skywalking.oap.server.library.module.*;
 import org.apache.skywalking.oap.server.library.server.ServerException;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCServer;
@@ -57,6 +61,7 @@ public class CoreModuleProvider extends ModuleProvider {
     private GRPCServer grpcServer;
     private JettyServer jettyServer;
     private RemoteClientManager remoteClientManager;
+    private QueryResultCache queryResultCache;
     private final AnnotationScan annotationScan;
     private final StorageAnnotationListener storageAnnotationListener;
     private final StreamAnnotationListener streamAnnotationListener;
@@ -134,11 +139,16 @@ public class CoreModuleProvider extends ModuleProvider {
         this.registerServiceImplementation(NetworkAddressInventoryCache.class, new NetworkAddressInventoryCache(getManager()));
         this.registerServiceImplementation(INetworkAddressInventoryRegister.class, new NetworkAddressInventoryRegister(getManager()));
 
-        this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager()));
-        this.registerServiceImplementation(MetricQueryService.class, new MetricQueryService(getManager()));
+        TopNSketches.INSTANCE.setSize(moduleConfig.getTopNSketchSize(), moduleConfig.getTopNSketchBuckets());
+        IndicatorSummaries.INSTANCE.setWindowMinutes(moduleConfig.getSummaryWindowMinutes());
+        ServiceRelationSnapshots.INSTANCE.setRetention(moduleConfig.getTopologySnapshotMinutes(), moduleConfig.getTopologySnapshotHours());
+        InventoryNameIndex.INSTANCE.setMaxEndpointSize(moduleConfig.getNameIndexMaxEndpoints());
+        this.queryResultCache = new QueryResultCache(getManager(), moduleConfig.getQueryResultCacheSize(), moduleConfig.getQueryResultCacheClosedDelay());
+        this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager(), queryResultCache));
+        this.registerServiceImplementation(MetricQueryService.class, new MetricQueryService(getManager(), queryResultCache));
         this.registerServiceImplementation(TraceQueryService.class, new TraceQueryService(getManager()));
         this.registerServiceImplementation(MetadataQueryService.class, new MetadataQueryService(getManager()));
-        this.registerServiceImplementation(AggregationQueryService.class, new AggregationQueryService(getManager()));
+        this.registerServiceImplementation(AggregationQueryService.class, new AggregationQueryService(getManager(), queryResultCache));
         this.registerServiceImplementation(AlarmQueryService.class, new AlarmQueryService(getManager()));
         this.registerServiceImplementation(TopNRecordsQueryService.class, new TopNRecordsQueryService(getManager()));
 
@@ -156,7 +166,9 @@ public class CoreModuleProvider extends ModuleProvider {
     @Override public void start() throws ModuleStartException {
         grpcServer.addHandler(new RemoteServiceHandler(getManager()));
         grpcServer.addHandler(new HealthCheckServiceHandler());
+        jettyServer.addHandler(new PipelineSnapshotHandler());
         remoteClientManager.start();
+        queryResultCache.start();
 
         try {
             receiver.scan();
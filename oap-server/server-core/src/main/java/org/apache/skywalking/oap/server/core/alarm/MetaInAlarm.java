@@ -18,7 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.alarm;
 
-import java.util.Objects;
 
 public abstract class MetaInAlarm {
     public abstract int getScopeId();
@@ -52,6 +51,6 @@ public abstract class MetaInAlarm {
     }
 
     @Override public int hashCode() {
-        return Objects.hash(getId0(), getId1());
+        return 31 * getId0() + getId1();
     }
 }
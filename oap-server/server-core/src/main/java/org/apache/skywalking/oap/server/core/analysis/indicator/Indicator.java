@@ -103,7 +103,7 @@ public abstract class Indicator extends StreamData implements StorageData {
     /**
      * timeBucket in minute 201809120511 min 100000000000 max 999999999999
      */
-    private boolean isMinuteBucket() {
+    protected boolean isMinuteBucket() {
         return timeBucket < 999999999999L && timeBucket > 100000000000L;
     }
 
@@ -46,6 +46,7 @@ public class ServiceCallRelationDispatcher implements SourceDispatcher<ServiceRe
         indicator.setComponentId(source.getComponentId());
         indicator.setEntityId(source.getEntityId());
         IndicatorProcess.INSTANCE.in(indicator);
+        ServiceRelationSnapshots.INSTANCE.offer(source);
     }
 
     private void clientSide(ServiceRelation source) {
@@ -56,5 +57,6 @@ public class ServiceCallRelationDispatcher implements SourceDispatcher<ServiceRe
         indicator.setComponentId(source.getComponentId());
         indicator.setEntityId(source.getEntityId());
         IndicatorProcess.INSTANCE.in(indicator);
+        ServiceRelationSnapshots.INSTANCE.offer(source);
     }
 }
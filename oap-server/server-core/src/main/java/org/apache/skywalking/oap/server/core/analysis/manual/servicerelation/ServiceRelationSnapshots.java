@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.servicerelation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.core.worker.PipelineProfiler;
+import org.apache.skywalking.oap.server.core.source.*;
+import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
+import org.slf4j.*;
+
+/**
+ * The in memory topology of the recent minute and hour buckets, updated by the {@link ServiceCallRelationDispatcher}
+ * when the service relations are dispatched. Querying the topology of a recent duration only merges the call sets of
+ * a few buckets, instead of aggregating the relation indicators in the storage.
+ *
+ * The dispatcher only offers the relations to a bounded buffer, they are recorded by the snapshot thread, so the
+ * dispatching isn't slowed down by the snapshots. When the buffer is full, the relation is still in the indicators, but
+ * missed by the snapshots, so its minute and hour buckets are marked as not covered, and the topology of them is
+ * loaded from the storage. The drops are counted in the pipeline profiler.
+ *
+ * The snapshots only include the relations dispatched since the OAP started, so a bucket is covered only when it
+ * starts after the boot time. They are not persisted, the relation indicators are still the source of the older
+ * durations and of the cluster mode, where every OAP node only dispatches a part of the relations. So the snapshots
+ * only serve the single node OAP.
+ */
+public enum ServiceRelationSnapshots {
+    INSTANCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceRelationSnapshots.class);
+
+    private final Map<Long, Snapshot> minuteSnapshots = new ConcurrentHashMap<>();
+    private final Map<Long, Snapshot> hourSnapshots = new ConcurrentHashMap<>();
+    private final Set<Long> droppedMinutes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> droppedHours = ConcurrentHashMap.newKeySet();
+    private volatile int minuteRetention = 0;
+    private volatile int hourRetention = 0;
+    private volatile long bootTime = System.currentTimeMillis();
+    private volatile long minuteFloor = 0;
+    private volatile long hourFloor = 0;
+    private volatile DataCarrier<ServiceRelation> dataCarrier;
+
+    /**
+     * @param minuteRetention the number of the recent minute buckets kept in memory, 0 means disabled.
+     * @param hourRetention the number of the recent hour buckets kept in memory, 0 means disabled.
+     */
+    public void setRetention(int minuteRetention, int hourRetention) {
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+        this.bootTime = System.currentTimeMillis();
+        this.minuteSnapshots.clear();
+        this.hourSnapshots.clear();
+        this.droppedMinutes.clear();
+        this.droppedHours.clear();
+        evict();
+
+        if (dataCarrier != null) {
+            dataCarrier.shutdownConsumers();
+            PipelineProfiler.INSTANCE.unregister(dataCarrier);
+            dataCarrier = null;
+        }
+        if (minuteRetention > 0 || hourRetention > 0) {
+            DataCarrier<ServiceRelation> carrier = new DataCarrier<>("ServiceRelationSnapshots", 1, 10000);
+            carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+            carrier.consume(new SnapshotConsumer(), 1);
+            PipelineProfiler.INSTANCE.register("ServiceRelationSnapshots", "service_relation", carrier);
+            dataCarrier = carrier;
+        }
+    }
+
+    /**
+     * Offer the dispatched relation to the snapshot thread, never blocks the dispatcher.
+     */
+    void offer(ServiceRelation relation) {
+        DataCarrier<ServiceRelation> carrier = dataCarrier;
+        if (carrier != null && !carrier.produce(relation)) {
+            dropped(relation);
+        }
+    }
+
+    /**
+     * The snapshots of the buckets miss the relation, so they are not served.
+     */
+    void dropped(ServiceRelation relation) {
+        droppedMinutes.add(relation.getTimeBucket());
+        droppedHours.add(TimeBucketUtils.INSTANCE.minuteToHour(relation.getTimeBucket()));
+    }
+
+    void record(ServiceRelation relation) {
+        if (minuteRetention <= 0 && hourRetention <= 0) {
+            return;
+        }
+
+        String entityId = relation.getEntityId();
+        long minuteTimeBucket = relation.getTimeBucket();
+        if (minuteRetention > 0) {
+            record(minuteSnapshots, minuteTimeBucket, minuteFloor, relation.getDetectPoint(), entityId);
+        }
+        if (hourRetention > 0) {
+            record(hourSnapshots, TimeBucketUtils.INSTANCE.minuteToHour(minuteTimeBucket), hourFloor, relation.getDetectPoint(), entityId);
+        }
+    }
+
+    private void record(Map<Long, Snapshot> snapshots, long timeBucket, long floor, DetectPoint detectPoint,
+        String entityId) {
+        if (timeBucket < floor) {
+            return;
+        }
+
+        Snapshot snapshot = snapshots.get(timeBucket);
+        if (snapshot == null) {
+            snapshot = snapshots.computeIfAbsent(timeBucket, key -> new Snapshot());
+            evict();
+        }
+        snapshot.add(detectPoint, entityId);
+    }
+
+    /**
+     * @return true if all the buckets of the given duration are in memory, and none of them missed a relation.
+     */
+    public boolean isCovered(Step step, long startTB, long endTB) {
+        long now = System.currentTimeMillis();
+        switch (step) {
+            case MINUTE:
+                return minuteRetention > 0
+                    && startTB >= TimeBucketUtils.INSTANCE.getMinuteTimeBucket(bootTime + 60 * 1000L)
+                    && startTB >= TimeBucketUtils.INSTANCE.getMinuteTimeBucket(now - (minuteRetention - 1) * 60 * 1000L)
+                    && !isDropped(droppedMinutes, startTB, endTB);
+            case HOUR:
+                return hourRetention > 0
+                    && startTB >= hourTimeBucket(bootTime + 60 * 60 * 1000L)
+                    && startTB >= hourTimeBucket(now - (hourRetention - 1) * 60 * 60 * 1000L)
+                    && !isDropped(droppedHours, startTB, endTB);
+            default:
+                return false;
+        }
+    }
+
+    private boolean isDropped(Set<Long> droppedTimeBuckets, long startTB, long endTB) {
+        for (Long timeBucket : droppedTimeBuckets) {
+            if (timeBucket >= startTB && timeBucket <= endTB) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param serviceIds null means all services, otherwise only the calls whose source or dest is one of them.
+     * @return the distinct calls of the given detect point, in the same shape as the calls loaded from the storage.
+     */
+    public List<Call> load(Step step, long startTB, long endTB, DetectPoint detectPoint,
+        Collection<Integer> serviceIds) {
+        Map<Long, Snapshot> snapshots = step == Step.HOUR ? hourSnapshots : minuteSnapshots;
+
+        Set<String> entityIds = new HashSet<>();
+        snapshots.forEach((timeBucket, snapshot) -> {
+            if (timeBucket >= startTB && timeBucket <= endTB) {
+                entityIds.addAll(snapshot.get(detectPoint));
+            }
+        });
+
+        List<Call> calls = new ArrayList<>();
+        for (String entityId : entityIds) {
+            Integer[] ids = ServiceRelation.splitEntityId(entityId);
+            if (serviceIds != null && !serviceIds.contains(ids[0]) && !serviceIds.contains(ids[1])) {
+                continue;
+            }
+            Call call = new Call();
+            call.setId(entityId);
+            call.setSource(ids[0]);
+            call.setTarget(ids[1]);
+            call.setComponentId(ids[2]);
+            call.setDetectPoint(detectPoint);
+            calls.add(call);
+        }
+        return calls;
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        minuteFloor = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(now - minuteRetention * 60 * 1000L);
+        hourFloor = hourTimeBucket(now - hourRetention * 60 * 60 * 1000L);
+        minuteSnapshots.keySet().removeIf(timeBucket -> timeBucket < minuteFloor);
+        hourSnapshots.keySet().removeIf(timeBucket -> timeBucket < hourFloor);
+        droppedMinutes.removeIf(timeBucket -> timeBucket < minuteFloor);
+        droppedHours.removeIf(timeBucket -> timeBucket < hourFloor);
+    }
+
+    private long hourTimeBucket(long time) {
+        return TimeBucketUtils.INSTANCE.minuteToHour(TimeBucketUtils.INSTANCE.getMinuteTimeBucket(time));
+    }
+
+    private static class Snapshot {
+        private final Set<String> serverSide = ConcurrentHashMap.newKeySet();
+        private final Set<String> clientSide = ConcurrentHashMap.newKeySet();
+
+        private void add(DetectPoint detectPoint, String entityId) {
+            get(detectPoint).add(entityId);
+        }
+
+        private Set<String> get(DetectPoint detectPoint) {
+            return detectPoint == DetectPoint.SERVER ? serverSide : clientSide;
+        }
+    }
+
+    private class SnapshotConsumer implements IConsumer<ServiceRelation> {
+
+        @Override public void init() {
+
+        }
+
+        @Override public void consume(List<ServiceRelation> data) {
+            data.forEach(ServiceRelationSnapshots.this::record);
+        }
+
+        @Override public void onError(List<ServiceRelation> data, Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+
+        @Override public void onExit() {
+        }
+    }
+}
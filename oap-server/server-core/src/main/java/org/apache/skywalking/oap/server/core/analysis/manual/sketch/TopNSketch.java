@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.sketch;
+
+import java.io.*;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.query.entity.TopNEntity;
+
+/**
+ * A mergeable sketch of the entities of the highest average values, keeping at most the capacity counters.
+ *
+ * Every counter holds the sum and the number of the values of an entity really observed, the max of them, and the
+ * number of its values possibly dropped by the merged sketches with the upper bound of them. The floor is an upper bound
+ * of every value dropped, so the average of any entity without a counter is never higher than the floor.
+ *
+ * The counters are ranked by the upper bound of their averages, the observed average when nothing is missing. The top N
+ * is only served when it is certain: the N counters of the highest averages miss no value and, if any counter has been
+ * dropped, their averages are not lower than the floor. Otherwise the top N is unknown and read from the indicators.
+ */
+public class TopNSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private double floor;
+    private int buckets;
+    private boolean truncated;
+
+    public TopNSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>();
+    }
+
+    /**
+     * @return the sketch of the exact values of every entity in one time bucket.
+     */
+    public static TopNSketch of(Map<String, Double> values, int capacity) {
+        TopNSketch sketch = new TopNSketch(capacity);
+        values.forEach((entityId, value) -> sketch.counters.put(entityId, new Counter(value, 1, value, 0, 0)));
+        sketch.buckets = 1;
+        sketch.truncate();
+        return sketch;
+    }
+
+    /**
+     * Merge the sketch of the same time bucket from another OAP node. Every entity is only on one node in a time bucket,
+     * so an entity absent from one side misses no value.
+     */
+    public void combine(TopNSketch other) {
+        other.counters.forEach((entityId, counter) -> counters.merge(entityId, counter, Counter::add));
+        floor = Math.max(floor, other.floor);
+        buckets = Math.max(buckets, other.buckets);
+        truncated = truncated || other.truncated;
+        truncate();
+    }
+
+    /**
+     * Merge the sketch of other time buckets. An entity absent from a truncated side may have a value dropped in every
+     * time bucket of that side, each one not higher than its floor.
+     */
+    public void merge(TopNSketch other) {
+        Set<String> entityIds = new HashSet<>(counters.keySet());
+        entityIds.addAll(other.counters.keySet());
+
+        Map<String, Counter> merged = new HashMap<>();
+        for (String entityId : entityIds) {
+            Counter counter = counters.get(entityId);
+            Counter otherCounter = other.counters.get(entityId);
+            if (counter == null) {
+                merged.put(entityId, otherCounter.miss(this));
+            } else if (otherCounter == null) {
+                merged.put(entityId, counter.miss(other));
+            } else {
+                merged.put(entityId, counter.add(otherCounter));
+            }
+        }
+
+        counters.clear();
+        counters.putAll(merged);
+        floor = Math.max(floor, other.floor);
+        buckets += other.buckets;
+        truncated = truncated || other.truncated;
+        truncate();
+    }
+
+    /**
+     * @return the entities of the highest average values, the average of an entity is its observed sum divided by the
+     * number of its observed values. Null if the top N isn't certain.
+     */
+    public List<TopNEntity> topN(int topN) {
+        List<Map.Entry<String, Counter>> entries = ranked();
+        if (truncated && entries.size() < topN) {
+            return null;
+        }
+
+        List<TopNEntity> topNEntities = new ArrayList<>(Math.min(topN, entries.size()));
+        for (int i = 0; i < entries.size() && i < topN; i++) {
+            Counter counter = entries.get(i).getValue();
+            if (counter.missing > 0 || (truncated && counter.average() < floor)) {
+                return null;
+            }
+            TopNEntity entity = new TopNEntity();
+            entity.setId(entries.get(i).getKey());
+            entity.setValue((long)counter.average());
+            topNEntities.add(entity);
+        }
+        return topNEntities;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    double getFloor() {
+        return floor;
+    }
+
+    private List<Map.Entry<String, Counter>> ranked() {
+        List<Map.Entry<String, Counter>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort((entry1, entry2) -> Double.compare(entry2.getValue().upperBound(), entry1.getValue().upperBound()));
+        return entries;
+    }
+
+    private void truncate() {
+        if (counters.size() <= capacity) {
+            return;
+        }
+        List<Map.Entry<String, Counter>> entries = ranked();
+        for (int i = capacity; i < entries.size(); i++) {
+            Counter counter = entries.get(i).getValue();
+            floor = Math.max(floor, counter.missing > 0 ? Math.max(counter.max, counter.missingBound) : counter.max);
+            counters.remove(entries.get(i).getKey());
+        }
+        truncated = true;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(capacity);
+            output.writeDouble(floor);
+            output.writeInt(buckets);
+            output.writeBoolean(truncated);
+            output.writeInt(counters.size());
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                Counter counter = entry.getValue();
+                output.writeUTF(entry.getKey());
+                output.writeDouble(counter.sum);
+                output.writeLong(counter.count);
+                output.writeDouble(counter.max);
+                output.writeLong(counter.missing);
+                output.writeDouble(counter.missingBound);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static TopNSketch fromBytes(byte[] bytes) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            TopNSketch sketch = new TopNSketch(input.readInt());
+            sketch.floor = input.readDouble();
+            sketch.buckets = input.readInt();
+            sketch.truncated = input.readBoolean();
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                String entityId = input.readUTF();
+                sketch.counters.put(entityId, new Counter(input.readDouble(), input.readLong(), input.readDouble(), input.readLong(), input.readDouble()));
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static class Counter {
+        private final double sum;
+        private final long count;
+        private final double max;
+        private final long missing;
+        private final double missingBound;
+
+        private Counter(double sum, long count, double max, long missing, double missingBound) {
+            this.sum = sum;
+            this.count = count;
+            this.max = max;
+            this.missing = missing;
+            this.missingBound = missingBound;
+        }
+
+        private Counter add(Counter other) {
+            return new Counter(sum + other.sum, count + other.count, Math.max(max, other.max), missing + other.missing,
+                Math.max(missingBound, other.missingBound));
+        }
+
+        /**
+         * @return the counter missing the values of the entity in the time buckets of the given sketch.
+         */
+        private Counter miss(TopNSketch sketch) {
+            if (!sketch.truncated) {
+                return this;
+            }
+            return new Counter(sum, count, max, missing + sketch.buckets, Math.max(missingBound, sketch.floor));
+        }
+
+        private double average() {
+            return sum / count;
+        }
+
+        /**
+         * @return the highest possible average, when every missing value is at its upper bound.
+         */
+        private double upperBound() {
+            return missing == 0 ? average() : Math.max(average(), (sum + missing * missingBound) / (count + missing));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.sketch;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.worker.*;
+
+/**
+ * Turns every closed minute bucket of one indicator collected by the {@link MinuteValueCollector} into a
+ * {@link TopNSketchIndicator}.
+ */
+public class TopNSketchConsumer implements MinuteValueConsumer {
+
+    private final String indicatorName;
+    private final int capacity;
+
+    public TopNSketchConsumer(String indicatorName, int capacity) {
+        this.indicatorName = indicatorName;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the sketches of the closed buckets.
+     */
+    @Override public List<TopNSketchIndicator> consume(SortedMap<Long, Map<String, Double>> closedBuckets,
+        long closedTimeBucket) {
+        List<TopNSketchIndicator> sketches = new ArrayList<>(closedBuckets.size());
+        closedBuckets.forEach((timeBucket, values) -> {
+            TopNSketchIndicator sketch = new TopNSketchIndicator();
+            sketch.setTimeBucket(timeBucket);
+            sketch.setIndicatorName(indicatorName);
+            sketch.setSketch(TopNSketch.of(values, capacity).toBytes());
+            sketches.add(sketch);
+        });
+        return sketches;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.sketch;
+
+import java.util.*;
+import lombok.*;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.IndicatorType;
+import org.apache.skywalking.oap.server.core.remote.annotation.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.annotation.*;
+
+/**
+ * The {@link TopNSketch} of the entities of one indicator in one time bucket. The partial sketches of every OAP node
+ * are routed to one node by the indicator name, merged and persisted like the other indicators, and are downsampled
+ * into the hour, day and month sketches by merging the sketches of the time buckets. Only the minute sketches serve the
+ * top N queries, as the top N of the coarser steps averages the hour, day and month values of the entities.
+ */
+@IndicatorType
+@StreamData
+@StorageEntity(name = TopNSketchIndicator.INDEX_NAME, builder = TopNSketchIndicator.Builder.class, sourceScopeId = DefaultScopeDefine.ALL)
+public class TopNSketchIndicator extends Indicator {
+
+    public static final String INDEX_NAME = "topn_sketch";
+    public static final String INDICATOR_NAME = "indicator_name";
+    public static final String SKETCH = "sketch";
+
+    @Setter @Getter @Column(columnName = INDICATOR_NAME) @IDColumn private String indicatorName;
+    @Setter @Getter @Column(columnName = SKETCH) private byte[] sketch;
+
+    @Override public String id() {
+        return getTimeBucket() + Const.ID_SPLIT + indicatorName;
+    }
+
+    @Override public void combine(Indicator indicator) {
+        TopNSketch merged = TopNSketch.fromBytes(sketch);
+        TopNSketch other = TopNSketch.fromBytes(((TopNSketchIndicator)indicator).getSketch());
+        if (isMinuteBucket()) {
+            merged.combine(other);
+        } else {
+            merged.merge(other);
+        }
+        sketch = merged.toBytes();
+    }
+
+    @Override public void calculate() {
+
+    }
+
+    @Override public Indicator toHour() {
+        return copy(toTimeBucketInHour());
+    }
+
+    @Override public Indicator toDay() {
+        return copy(toTimeBucketInDay());
+    }
+
+    @Override public Indicator toMonth() {
+        return copy(toTimeBucketInMonth());
+    }
+
+    private TopNSketchIndicator copy(long timeBucket) {
+        TopNSketchIndicator indicator = new TopNSketchIndicator();
+        indicator.setTimeBucket(timeBucket);
+        indicator.setIndicatorName(getIndicatorName());
+        indicator.setSketch(getSketch());
+        return indicator;
+    }
+
+    @Override public int remoteHashCode() {
+        return indicatorName.hashCode();
+    }
+
+    @Override public void deserialize(RemoteData remoteData) {
+        setIndicatorName(remoteData.getDataStrings(0));
+        setSketch(Base64.getDecoder().decode(remoteData.getDataStrings(1)));
+
+        setTimeBucket(remoteData.getDataLongs(0));
+    }
+
+    @Override public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+
+        remoteBuilder.addDataStrings(getIndicatorName());
+        remoteBuilder.addDataStrings(Base64.getEncoder().encodeToString(getSketch()));
+
+        remoteBuilder.addDataLongs(getTimeBucket());
+        return remoteBuilder;
+    }
+
+    @Override public int hashCode() {
+        int result = 17;
+        result = 31 * result + indicatorName.hashCode();
+        result = 31 * result + (int)getTimeBucket();
+        return result;
+    }
+
+    @Override public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+
+        TopNSketchIndicator indicator = (TopNSketchIndicator)obj;
+        if (!indicatorName.equals(indicator.indicatorName))
+            return false;
+
+        if (getTimeBucket() != indicator.getTimeBucket())
+            return false;
+
+        return true;
+    }
+
+    public static class Builder implements StorageBuilder<TopNSketchIndicator> {
+
+        @Override public TopNSketchIndicator map2Data(Map<String, Object> dbMap) {
+            TopNSketchIndicator indicator = new TopNSketchIndicator();
+            indicator.setIndicatorName((String)dbMap.get(INDICATOR_NAME));
+            String sketch = (String)dbMap.get(SKETCH);
+            indicator.setSketch(StringUtil.isEmpty(sketch) ? new TopNSketch(0).toBytes() : Base64.getDecoder().decode(sketch));
+            indicator.setTimeBucket(((Number)dbMap.get(TIME_BUCKET)).longValue());
+            return indicator;
+        }
+
+        @Override public Map<String, Object> data2Map(TopNSketchIndicator storageData) {
+            Map<String, Object> map = new HashMap<>();
+            map.put(INDICATOR_NAME, storageData.getIndicatorName());
+            map.put(SKETCH, Base64.getEncoder().encodeToString(storageData.getSketch()));
+            map.put(TIME_BUCKET, storageData.getTimeBucket());
+            return map;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.sketch;
+
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.analysis.manual.summary.IndicatorSummary;
+
+/**
+ * The settings of the {@link TopNSketchIndicator}s, which are collected from the minute indicators and serve the top N
+ * queries of all the entities of an indicator.
+ */
+public enum TopNSketches {
+    INSTANCE;
+
+    @Getter private volatile int capacity = 0;
+    @Getter private volatile int maxMergedBuckets = 0;
+
+    /**
+     * @param capacity the number of the counters of every sketch, 0 means disabled.
+     * @param maxMergedBuckets the max number of the sketches merged by one top N query, a longer duration is queried
+     * from the indicators.
+     */
+    public void setSize(int capacity, int maxMergedBuckets) {
+        this.capacity = capacity;
+        this.maxMergedBuckets = maxMergedBuckets;
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0 && maxMergedBuckets > 0;
+    }
+
+    /**
+     * @return the consumer building the sketches of the given minute indicator, or null if the sketches are disabled.
+     */
+    public TopNSketchConsumer newConsumer(String indicatorName) {
+        if (!isEnabled() || TopNSketchIndicator.INDEX_NAME.equals(indicatorName) || IndicatorSummary.INDEX_NAME.equals(indicatorName)) {
+            return null;
+        }
+        return new TopNSketchConsumer(indicatorName, capacity);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.summary;
+
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.sketch.TopNSketchIndicator;
+
+/**
+ * The settings of the {@link IndicatorSummary}s, which are collected from the minute indicators and serve the values
+ * of the entities in the whole windows, hours, days and months without aggregating the minute values in the storage.
+ */
+public enum IndicatorSummaries {
+    INSTANCE;
+
+    @Getter private volatile int windowMinutes = 0;
+
+    /**
+     * @param windowMinutes the minutes of the summary window, which must divide an hour, 0 means disabled.
+     */
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+
+    public boolean isEnabled() {
+        return windowMinutes > 0 && 60 % windowMinutes == 0;
+    }
+
+    /**
+     * @return the first minute time bucket of the summary window of the given minute time bucket.
+     */
+    public long windowOf(long minuteTimeBucket) {
+        return IndicatorSummaryConsumer.windowOf(minuteTimeBucket, windowMinutes);
+    }
+
+    /**
+     * @return the consumer adding up the summaries of the given minute indicator, or null if the summaries are disabled
+     * or the indicator doesn't hold an integer value.
+     */
+    public IndicatorSummaryConsumer newConsumer(String indicatorName, Class<? extends Indicator> indicatorClass) {
+        if (!isEnabled() || IndicatorSummary.INDEX_NAME.equals(indicatorName) || TopNSketchIndicator.INDEX_NAME.equals(indicatorName)
+            || !(LongValueHolder.class.isAssignableFrom(indicatorClass) || IntValueHolder.class.isAssignableFrom(indicatorClass))) {
+            return null;
+        }
+        return new IndicatorSummaryConsumer(indicatorName, windowMinutes, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.summary;
+
+import java.util.*;
+import lombok.*;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.annotation.IndicatorType;
+import org.apache.skywalking.oap.server.core.remote.annotation.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.core.storage.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.annotation.*;
+
+/**
+ * The summary of the minute values of one entity of one indicator in one summary window, the time bucket is the first
+ * minute of the window. The partial summaries of every OAP node are routed to one node by the entity, merged and
+ * persisted like the other indicators, and are downsampled into the hour, day and month summaries by adding up the
+ * windows.
+ *
+ * The summary without entity id is the marker of the window, its count is the number of the nodes which closed the
+ * window completely, and its summation is the number of the nodes which started in the window, so they could miss
+ * some values of it.
+ */
+@IndicatorType
+@StreamData
+@StorageEntity(name = IndicatorSummary.INDEX_NAME, builder = IndicatorSummary.Builder.class, sourceScopeId = DefaultScopeDefine.ALL)
+public class IndicatorSummary extends Indicator {
+
+    public static final String INDEX_NAME = "indicator_summary";
+    public static final String INDICATOR_NAME = "indicator_name";
+    public static final String SUMMATION = "summation";
+    public static final String COUNT = "count";
+
+    @Setter @Getter @Column(columnName = INDICATOR_NAME) @IDColumn private String indicatorName;
+    @Setter @Getter @Column(columnName = ENTITY_ID) @IDColumn private String entityId;
+    @Setter @Getter @Column(columnName = SUMMATION) private long summation;
+    @Setter @Getter @Column(columnName = COUNT) private long count;
+
+    public static String id(long timeBucket, String indicatorName, String entityId) {
+        String id = timeBucket + Const.ID_SPLIT + indicatorName;
+        return StringUtil.isEmpty(entityId) ? id : id + Const.ID_SPLIT + entityId;
+    }
+
+    @Override public String id() {
+        return id(getTimeBucket(), indicatorName, entityId);
+    }
+
+    @Override public void combine(Indicator indicator) {
+        IndicatorSummary summary = (IndicatorSummary)indicator;
+        summation += summary.getSummation();
+        count += summary.getCount();
+    }
+
+    @Override public void calculate() {
+
+    }
+
+    @Override public Indicator toHour() {
+        return copy(toTimeBucketInHour());
+    }
+
+    @Override public Indicator toDay() {
+        return copy(toTimeBucketInDay());
+    }
+
+    @Override public Indicator toMonth() {
+        return copy(toTimeBucketInMonth());
+    }
+
+    private IndicatorSummary copy(long timeBucket) {
+        IndicatorSummary summary = new IndicatorSummary();
+        summary.setTimeBucket(timeBucket);
+        summary.setIndicatorName(getIndicatorName());
+        summary.setEntityId(getEntityId());
+        summary.setSummation(getSummation());
+        summary.setCount(getCount());
+        return summary;
+    }
+
+    @Override public int remoteHashCode() {
+        int result = 17;
+        result = 31 * result + indicatorName.hashCode();
+        result = 31 * result + entityId.hashCode();
+        return result;
+    }
+
+    @Override public void deserialize(RemoteData remoteData) {
+        setIndicatorName(remoteData.getDataStrings(0));
+        setEntityId(remoteData.getDataStrings(1));
+
+        setSummation(remoteData.getDataLongs(0));
+        setCount(remoteData.getDataLongs(1));
+        setTimeBucket(remoteData.getDataLongs(2));
+    }
+
+    @Override public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+
+        remoteBuilder.addDataStrings(getIndicatorName());
+        remoteBuilder.addDataStrings(getEntityId());
+
+        remoteBuilder.addDataLongs(getSummation());
+        remoteBuilder.addDataLongs(getCount());
+        remoteBuilder.addDataLongs(getTimeBucket());
+        return remoteBuilder;
+    }
+
+    @Override public int hashCode() {
+        int result = 17;
+        result = 31 * result + indicatorName.hashCode();
+        result = 31 * result + entityId.hashCode();
+        result = 31 * result + (int)getTimeBucket();
+        return result;
+    }
+
+    @Override public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+
+        IndicatorSummary summary = (IndicatorSummary)obj;
+        if (!indicatorName.equals(summary.indicatorName))
+            return false;
+        if (!entityId.equals(summary.entityId))
+            return false;
+
+        if (getTimeBucket() != summary.getTimeBucket())
+            return false;
+
+        return true;
+    }
+
+    public static class Builder implements StorageBuilder<IndicatorSummary> {
+
+        @Override public IndicatorSummary map2Data(Map<String, Object> dbMap) {
+            IndicatorSummary summary = new IndicatorSummary();
+            summary.setIndicatorName((String)dbMap.get(INDICATOR_NAME));
+            String entityId = (String)dbMap.get(ENTITY_ID);
+            summary.setEntityId(entityId == null ? Const.EMPTY_STRING : entityId);
+            summary.setSummation(((Number)dbMap.get(SUMMATION)).longValue());
+            summary.setCount(((Number)dbMap.get(COUNT)).longValue());
+            summary.setTimeBucket(((Number)dbMap.get(TIME_BUCKET)).longValue());
+            return summary;
+        }
+
+        @Override public Map<String, Object> data2Map(IndicatorSummary storageData) {
+            Map<String, Object> map = new HashMap<>();
+            map.put(INDICATOR_NAME, storageData.getIndicatorName());
+            map.put(ENTITY_ID, storageData.getEntityId());
+            map.put(SUMMATION, storageData.getSummation());
+            map.put(COUNT, storageData.getCount());
+            map.put(TIME_BUCKET, storageData.getTimeBucket());
+            return map;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.summary;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.worker.*;
+import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
+
+/**
+ * Adds up the closed minute buckets of one integer indicator collected by the {@link MinuteValueCollector} into the
+ * summaries of the entities in their windows, and turns every closed summary window into the
+ * {@link IndicatorSummary}s of its entities and its marker. The L2 aggregation routes every entity to one node, so the
+ * summaries of the nodes are disjoint and add up.
+ *
+ * Only the summation and the count of every entity in the open windows are kept. A window is closed when its last
+ * minute is. The open windows are lost when the OAP stops, so the windows begun before this consumer are only marked
+ * as incomplete.
+ */
+public class IndicatorSummaryConsumer implements MinuteValueConsumer {
+
+    private final String indicatorName;
+    private final int windowMinutes;
+    private final long startTimeBucket;
+    private final Map<Long, Map<String, IndicatorSummary>> openWindows = new TreeMap<>();
+    private boolean startWindowClosed = false;
+
+    public IndicatorSummaryConsumer(String indicatorName, int windowMinutes, long currentTimeMillis) {
+        this.indicatorName = indicatorName;
+        this.windowMinutes = windowMinutes;
+        this.startTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(currentTimeMillis);
+    }
+
+    /**
+     * @return the summaries and markers of the windows closed with the closed buckets.
+     */
+    @Override public List<IndicatorSummary> consume(SortedMap<Long, Map<String, Double>> closedBuckets,
+        long closedTimeBucket) {
+        closedBuckets.forEach((timeBucket, values) -> {
+            long window = windowOf(timeBucket, windowMinutes);
+            Map<String, IndicatorSummary> summaries = openWindows.computeIfAbsent(window, key -> new HashMap<>());
+            values.forEach((entityId, value) -> {
+                IndicatorSummary summary = summaries.computeIfAbsent(entityId, key -> newSummary(window, entityId, 0, 0));
+                summary.setSummation(summary.getSummation() + value.longValue());
+                summary.setCount(summary.getCount() + 1);
+            });
+        });
+
+        Map<Long, Map<String, IndicatorSummary>> closedWindows = new TreeMap<>();
+        Iterator<Map.Entry<Long, Map<String, IndicatorSummary>>> iterator = openWindows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Map<String, IndicatorSummary>> window = iterator.next();
+            if (window.getKey() + windowMinutes - 1 <= closedTimeBucket) {
+                closedWindows.put(window.getKey(), window.getValue());
+                iterator.remove();
+            }
+        }
+
+        long startWindow = windowOf(startTimeBucket, windowMinutes);
+        if (!startWindowClosed && startWindow + windowMinutes - 1 <= closedTimeBucket) {
+            closedWindows.putIfAbsent(startWindow, Collections.emptyMap());
+            startWindowClosed = true;
+        }
+
+        List<IndicatorSummary> summaries = new ArrayList<>();
+        closedWindows.forEach((window, entitySummaries) -> {
+            if (window <= startTimeBucket) {
+                summaries.add(newSummary(window, Const.EMPTY_STRING, 1, 0));
+            } else {
+                summaries.addAll(entitySummaries.values());
+                summaries.add(newSummary(window, Const.EMPTY_STRING, 0, 1));
+            }
+        });
+        return summaries;
+    }
+
+    private IndicatorSummary newSummary(long window, String entityId, long summation, long count) {
+        IndicatorSummary summary = new IndicatorSummary();
+        summary.setTimeBucket(window);
+        summary.setIndicatorName(indicatorName);
+        summary.setEntityId(entityId);
+        summary.setSummation(summation);
+        summary.setCount(count);
+        return summary;
+    }
+
+    /**
+     * @return the first minute time bucket of the window of the given minute time bucket, the window minutes divide
+     * an hour.
+     */
+    static long windowOf(long minuteTimeBucket, int windowMinutes) {
+        return minuteTimeBucket - minuteTimeBucket % 100 % windowMinutes;
+    }
+}
@@ -18,30 +18,89 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.alarm.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.WithMetadata;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.slf4j.*;
 
 /**
  * Alarm notify worker, do a simple route to alarm core after the aggregation persistence.
  *
+ * The indicators are forwarded by the alarm notify thread, not the persistence thread, so the cost of the alarm rules
+ * doesn't delay the storage writes. The buffer is bounded, the indicators are dropped and counted when it is full.
+ *
  * @author wusheng
  */
 public class AlarmNotifyWorker extends AbstractWorker<Indicator> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlarmNotifyWorker.class);
+
     private ModuleManager moduleManager;
     private AlarmEntrance entrance;
+    private final DataCarrier<Indicator> dataCarrier;
+    private final CounterMetric droppedCounter;
 
     public AlarmNotifyWorker(int workerId, ModuleManager moduleManager) {
         super(workerId);
         this.moduleManager = moduleManager;
         this.entrance = new AlarmEntrance(moduleManager);
+
+        String name = "ALARM_NOTIFY";
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, 1, 20);
+        try {
+            ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
+        } catch (Exception e) {
+            throw new UnexpectedException(e.getMessage(), e);
+        }
+
+        this.dataCarrier = new DataCarrier<>("AlarmNotifyWorker", name, 1, 10000);
+        this.dataCarrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+        this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new AlarmNotifyConsumer());
+        PipelineProfiler.INSTANCE.register("AlarmNotifyWorker", String.valueOf(workerId), dataCarrier);
+
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        droppedCounter = metricCreator.createCounter("alarm_notify_dropped_count", "The number of the indicators dropped as the alarm notify buffer is full",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
     }
 
     @Override public void in(Indicator indicator) {
         if (indicator instanceof WithMetadata) {
-            entrance.forward(indicator);
+            if (!dataCarrier.produce(indicator)) {
+                droppedCounter.inc();
+            }
+        }
+    }
+
+    private class AlarmNotifyConsumer implements IConsumer<Indicator> {
+
+        @Override public void init() {
+
+        }
+
+        @Override public void consume(List<Indicator> data) {
+            for (Indicator indicator : data) {
+                try {
+                    entrance.forward(indicator);
+                } catch (Throwable t) {
+                    logger.error(t.getMessage(), t);
+                }
+            }
+        }
+
+        @Override public void onError(List<Indicator> data, Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+
+        @Override public void onExit() {
         }
     }
 }
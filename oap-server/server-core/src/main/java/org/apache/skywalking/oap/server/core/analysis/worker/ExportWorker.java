@@ -18,21 +18,41 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.exporter.*;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.slf4j.*;
 
 /**
+ * The indicators are exported by the export thread, not the persistence thread, so a slow exporter doesn't delay the
+ * storage writes. The buffer is bounded, the indicators are dropped and counted when it is full.
+ *
  * @author wusheng
  */
 public class ExportWorker extends AbstractWorker<Indicator> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportWorker.class);
+
     private ModuleManager moduleManager;
     private MetricValuesExportService exportService;
+    private DataCarrier<Indicator> dataCarrier;
+    private final CounterMetric droppedCounter;
 
     public ExportWorker(int workerId, ModuleManager moduleManager) {
         super(workerId);
         this.moduleManager = moduleManager;
+
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        droppedCounter = metricCreator.createCounter("metric_export_dropped_count", "The number of the indicators dropped as the export buffer is full",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
     }
 
     @Override public void in(Indicator indicator) {
@@ -41,8 +61,56 @@ public class ExportWorker extends AbstractWorker<Indicator> {
                 if (exportService == null) {
                     exportService = moduleManager.find(ExporterModule.NAME).provider().getService(MetricValuesExportService.class);
                 }
-                exportService.export(((WithMetadata)indicator).getMeta(), indicator);
+                if (!getDataCarrier().produce(indicator)) {
+                    droppedCounter.inc();
+                }
+            }
+        }
+    }
+
+    /**
+     * Created only when the exporter module is provided, so no export thread runs without it.
+     */
+    private synchronized DataCarrier<Indicator> getDataCarrier() {
+        if (dataCarrier == null) {
+            String name = "METRIC_EXPORT";
+            BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, 1, 20);
+            try {
+                ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
+            } catch (Exception e) {
+                throw new UnexpectedException(e.getMessage(), e);
             }
+
+            DataCarrier<Indicator> carrier = new DataCarrier<>("ExportWorker", name, 1, 10000);
+            carrier.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+            carrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new ExportConsumer());
+            PipelineProfiler.INSTANCE.register("ExportWorker", String.valueOf(getWorkerId()), carrier);
+            dataCarrier = carrier;
+        }
+        return dataCarrier;
+    }
+
+    private class ExportConsumer implements IConsumer<Indicator> {
+
+        @Override public void init() {
+
+        }
+
+        @Override public void consume(List<Indicator> data) {
+            for (Indicator indicator : data) {
+                try {
+                    exportService.export(((WithMetadata)indicator).getMeta(), indicator);
+                } catch (Throwable t) {
+                    logger.error(t.getMessage(), t);
+                }
+            }
+        }
+
+        @Override public void onError(List<Indicator> data, Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
+
+        @Override public void onExit() {
         }
     }
 }
@@ -24,7 +24,7 @@ import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -54,13 +54,14 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
         String name = "INDICATOR_L1_AGGREGATION";
         this.dataCarrier = new DataCarrier<>("IndicatorAggregateWorker." + modelName, name, 2, 10000);
 
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, BulkConsumePool.Creator.recommendMaxSize() * 2, 20);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, BulkConsumePool.Creator.recommendMaxSize() * 2, BulkConsumePool.Creator.recommendMaxSize() * 4, 20);
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
             throw new UnexpectedException(e.getMessage(), e);
         }
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new AggregatorConsumer(this));
+        PipelineProfiler.INSTANCE.register("IndicatorAggregateWorker", modelName, dataCarrier);
 
         MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         aggregationCounter = metricCreator.createCounter("indicator_aggregation", "The number of rows in aggregation",
@@ -71,18 +72,14 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
     }
 
     @Override public final void in(Indicator indicator) {
-        indicator.setEndOfBatchContext(new EndOfBatchContext(false));
         dataCarrier.produce(indicator);
     }
 
-    private void onWork(Indicator indicator) {
-        aggregationCounter.inc();
-        aggregate(indicator);
+    private void onWork(List<Indicator> indicators) {
+        indicators.forEach(this::aggregate);
 
-        if (indicator.getEndOfBatchContext().isEndOfBatch()) {
-            if (shouldSend()) {
-                sendToNext();
-            }
+        if (shouldSend()) {
+            sendToNext();
         }
     }
 
@@ -106,13 +103,12 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
             }
         }
 
-        mergeDataCache.getLast().collection().forEach(data -> {
-            if (logger.isDebugEnabled()) {
-                logger.debug(data.toString());
-            }
+        List<Indicator> indicators = new ArrayList<>(mergeDataCache.getLast().collection());
+        if (logger.isDebugEnabled()) {
+            indicators.forEach(data -> logger.debug(data.toString()));
+        }
 
-            nextWorker.in(data);
-        });
+        nextWorker.in(indicators);
         mergeDataCache.finishReadingLast();
     }
 
@@ -140,17 +136,9 @@ public class IndicatorAggregateWorker extends AbstractWorker<Indicator> {
         }
 
         @Override public void consume(List<Indicator> data) {
-            Iterator<Indicator> inputIterator = data.iterator();
-
-            int i = 0;
-            while (inputIterator.hasNext()) {
-                Indicator indicator = inputIterator.next();
-                i++;
-                if (i == data.size()) {
-                    indicator.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                aggregator.onWork(indicator);
-            }
+            // Count once per batch, rather than once per indicator.
+            aggregator.aggregationCounter.inc(data.size());
+            aggregator.onWork(data);
         }
 
         @Override public void onError(List<Indicator> data, Throwable t) {
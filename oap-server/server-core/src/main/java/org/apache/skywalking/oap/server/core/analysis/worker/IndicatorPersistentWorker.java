@@ -23,9 +23,9 @@ import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.*;
-import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
 import org.apache.skywalking.oap.server.core.storage.IIndicatorDAO;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -44,23 +44,25 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
     private final AbstractWorker<Indicator> nextAlarmWorker;
     private final AbstractWorker<Indicator> nextExportWorker;
     private final DataCarrier<Indicator> dataCarrier;
+    private final List<PersistedIndicatorCollector> collectors;
 
     IndicatorPersistentWorker(int workerId, String modelName, int batchSize, ModuleManager moduleManager,
         IIndicatorDAO indicatorDAO, AbstractWorker<Indicator> nextAlarmWorker,
-        AbstractWorker<Indicator> nextExportWorker) {
+        AbstractWorker<Indicator> nextExportWorker, List<PersistedIndicatorCollector> collectors) {
         super(moduleManager, workerId, batchSize);
         this.modelName = modelName;
         this.mergeDataCache = new MergeDataCache<>();
         this.indicatorDAO = indicatorDAO;
         this.nextAlarmWorker = nextAlarmWorker;
         this.nextExportWorker = nextExportWorker;
+        this.collectors = collectors;
 
         String name = "INDICATOR_L2_AGGREGATION";
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
         if (size == 0) {
             size = 1;
         }
-        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, 20);
+        BulkConsumePool.Creator creator = new BulkConsumePool.Creator(name, size, Math.max(size, BulkConsumePool.Creator.recommendMaxSize() / 2), 20);
         try {
             ConsumerPoolFactory.INSTANCE.createIfAbsent(name, creator);
         } catch (Exception e) {
@@ -69,6 +71,7 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
 
         this.dataCarrier = new DataCarrier<>("IndicatorPersistentWorker." + modelName, name, 1, 2000);
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new PersistentConsumer(this));
+        PipelineProfiler.INSTANCE.register("IndicatorPersistentWorker", modelName, dataCarrier);
     }
 
     @Override void onWork(Indicator indicator) {
@@ -76,7 +79,6 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
     }
 
     @Override public void in(Indicator indicator) {
-        indicator.setEndOfBatchContext(new EndOfBatchContext(false));
         dataCarrier.produce(indicator);
     }
 
@@ -115,6 +117,9 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
                     batchCollection.add(indicatorDAO.prepareBatchInsert(modelName, data));
                 }
 
+                for (PersistedIndicatorCollector collector : collectors) {
+                    collector.collect(data);
+                }
                 if (Objects.nonNull(nextAlarmWorker)) {
                     nextAlarmWorker.in(data);
                 }
@@ -126,6 +131,10 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
             }
         });
 
+        long now = System.currentTimeMillis();
+        for (PersistedIndicatorCollector collector : collectors) {
+            collector.close(now).forEach(IndicatorProcess.INSTANCE::in);
+        }
         return batchCollection;
     }
 
@@ -156,17 +165,7 @@ public class IndicatorPersistentWorker extends PersistenceWorker<Indicator, Merg
         }
 
         @Override public void consume(List<Indicator> data) {
-            Iterator<Indicator> inputIterator = data.iterator();
-
-            int i = 0;
-            while (inputIterator.hasNext()) {
-                Indicator indicator = inputIterator.next();
-                i++;
-                if (i == data.size()) {
-                    indicator.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                persistent.onWork(indicator);
-            }
+            data.forEach(persistent::onWork);
         }
 
         @Override public void onError(List<Indicator> data, Throwable t) {
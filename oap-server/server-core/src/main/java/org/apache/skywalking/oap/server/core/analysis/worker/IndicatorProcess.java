@@ -22,6 +22,8 @@ import java.util.*;
 import lombok.Getter;
 import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.analysis.manual.sketch.TopNSketches;
+import org.apache.skywalking.oap.server.core.analysis.manual.summary.IndicatorSummaries;
 import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.storage.annotation.StorageEntityAnnotationUtils;
 import org.apache.skywalking.oap.server.core.worker.*;
@@ -52,7 +54,7 @@ public enum IndicatorProcess {
             throw new UnexpectedException("");
         }
 
-        IndicatorPersistentWorker minutePersistentWorker = minutePersistentWorker(moduleManager, indicatorDAO, modelName);
+        IndicatorPersistentWorker minutePersistentWorker = minutePersistentWorker(moduleManager, indicatorDAO, modelName, indicatorClass);
         IndicatorPersistentWorker hourPersistentWorker = worker(moduleManager, indicatorDAO, modelName + Const.ID_SPLIT + Downsampling.Hour.getName());
         IndicatorPersistentWorker dayPersistentWorker = worker(moduleManager, indicatorDAO, modelName + Const.ID_SPLIT + Downsampling.Day.getName());
         IndicatorPersistentWorker monthPersistentWorker = worker(moduleManager, indicatorDAO, modelName + Const.ID_SPLIT + Downsampling.Month.getName());
@@ -70,15 +72,21 @@ public enum IndicatorProcess {
     }
 
     private IndicatorPersistentWorker minutePersistentWorker(ModuleManager moduleManager,
-        IIndicatorDAO indicatorDAO, String modelName) {
+        IIndicatorDAO indicatorDAO, String modelName, Class<? extends Indicator> indicatorClass) {
         AlarmNotifyWorker alarmNotifyWorker = new AlarmNotifyWorker(WorkerIdGenerator.INSTANCES.generate(), moduleManager);
         WorkerInstances.INSTANCES.put(alarmNotifyWorker.getWorkerId(), alarmNotifyWorker);
 
         ExportWorker exportWorker = new ExportWorker(WorkerIdGenerator.INSTANCES.generate(), moduleManager);
         WorkerInstances.INSTANCES.put(exportWorker.getWorkerId(), exportWorker);
 
+        List<MinuteValueConsumer> consumers = new ArrayList<>(2);
+        Optional.ofNullable(TopNSketches.INSTANCE.newConsumer(modelName)).ifPresent(consumers::add);
+        Optional.ofNullable(IndicatorSummaries.INSTANCE.newConsumer(modelName, indicatorClass)).ifPresent(consumers::add);
+        List<PersistedIndicatorCollector> collectors = consumers.isEmpty() ? Collections.emptyList()
+            : Collections.singletonList(new MinuteValueCollector(consumers));
+
         IndicatorPersistentWorker minutePersistentWorker = new IndicatorPersistentWorker(WorkerIdGenerator.INSTANCES.generate(), modelName,
-            1000, moduleManager, indicatorDAO, alarmNotifyWorker, exportWorker);
+            1000, moduleManager, indicatorDAO, alarmNotifyWorker, exportWorker, collectors);
         WorkerInstances.INSTANCES.put(minutePersistentWorker.getWorkerId(), minutePersistentWorker);
         persistentWorkers.add(minutePersistentWorker);
 
@@ -88,7 +96,7 @@ public enum IndicatorProcess {
     private IndicatorPersistentWorker worker(ModuleManager moduleManager,
         IIndicatorDAO indicatorDAO, String modelName) {
         IndicatorPersistentWorker persistentWorker = new IndicatorPersistentWorker(WorkerIdGenerator.INSTANCES.generate(), modelName,
-            1000, moduleManager, indicatorDAO, null, null);
+            1000, moduleManager, indicatorDAO, null, null, Collections.emptyList());
         WorkerInstances.INSTANCES.put(persistentWorker.getWorkerId(), persistentWorker);
         persistentWorkers.add(persistentWorker);
 
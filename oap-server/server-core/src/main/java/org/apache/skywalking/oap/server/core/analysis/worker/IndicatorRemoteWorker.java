@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
+import java.util.List;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
@@ -53,4 +54,12 @@ public class IndicatorRemoteWorker extends AbstractWorker<Indicator> {
             logger.error(e.getMessage(), e);
         }
     }
+
+    @Override public final void in(List<Indicator> indicators) {
+        try {
+            remoteSender.send(nextWorker.getWorkerId(), indicators, Selector.HashCode);
+        } catch (Throwable e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
 }
@@ -18,7 +18,8 @@
 
 package org.apache.skywalking.oap.server.core.analysis.worker;
 
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Function;
 import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
@@ -69,7 +70,7 @@ public class IndicatorTransWorker extends AbstractWorker<Indicator> {
 
     @Override public void in(Indicator indicator) {
         if (Objects.nonNull(hourPersistenceWorker)) {
-            aggregationMonthCounter.inc();
+            aggregationHourCounter.inc();
             hourPersistenceWorker.in(indicator.toHour());
         }
         if (Objects.nonNull(dayPersistenceWorker)) {
@@ -77,7 +78,7 @@ public class IndicatorTransWorker extends AbstractWorker<Indicator> {
             dayPersistenceWorker.in(indicator.toDay());
         }
         if (Objects.nonNull(monthPersistenceWorker)) {
-            aggregationHourCounter.inc();
+            aggregationMonthCounter.inc();
             monthPersistenceWorker.in(indicator.toMonth());
         }
         /**
@@ -89,4 +90,30 @@ public class IndicatorTransWorker extends AbstractWorker<Indicator> {
             minutePersistenceWorker.in(indicator);
         }
     }
+
+    @Override public void in(List<Indicator> indicators) {
+        if (Objects.nonNull(hourPersistenceWorker)) {
+            aggregationHourCounter.inc(indicators.size());
+            hourPersistenceWorker.in(transform(indicators, Indicator::toHour));
+        }
+        if (Objects.nonNull(dayPersistenceWorker)) {
+            aggregationDayCounter.inc(indicators.size());
+            dayPersistenceWorker.in(transform(indicators, Indicator::toDay));
+        }
+        if (Objects.nonNull(monthPersistenceWorker)) {
+            aggregationMonthCounter.inc(indicators.size());
+            monthPersistenceWorker.in(transform(indicators, Indicator::toMonth));
+        }
+        // Same as the single one, minute persistent must be at the end of all time dimensionalities.
+        if (Objects.nonNull(minutePersistenceWorker)) {
+            aggregationMinCounter.inc(indicators.size());
+            minutePersistenceWorker.in(indicators);
+        }
+    }
+
+    private static List<Indicator> transform(List<Indicator> indicators, Function<Indicator, Indicator> function) {
+        List<Indicator> transformed = new ArrayList<>(indicators.size());
+        indicators.forEach(indicator -> transformed.add(function.apply(indicator)));
+        return transformed;
+    }
 }
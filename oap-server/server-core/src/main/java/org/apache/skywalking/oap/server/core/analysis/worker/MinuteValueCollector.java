@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
+
+/**
+ * Collects the values of the entities of one minute indicator, as they are persisted by the L2 aggregation of this OAP
+ * node, and hands every closed minute bucket to the {@link MinuteValueConsumer}s. The latest persisted value is the
+ * final value of the entity in the bucket, and the L2 aggregation routes every entity to one node, so the values of the
+ * nodes never count the same entity twice.
+ *
+ * A minute bucket is closed 2 minutes after it ends, the values arriving later are dropped. Only the open buckets are
+ * kept, and they are lost when the OAP stops.
+ */
+public class MinuteValueCollector implements PersistedIndicatorCollector {
+
+    private static final long CLOSED_DELAY = TimeUnit.MINUTES.toMillis(2);
+
+    private final List<MinuteValueConsumer> consumers;
+    private final TreeMap<Long, Map<String, Double>> openBuckets = new TreeMap<>();
+    private long lastClosedTimeBucket = 0;
+
+    public MinuteValueCollector(List<MinuteValueConsumer> consumers) {
+        this.consumers = consumers;
+    }
+
+    @Override public void collect(Indicator indicator) {
+        if (!(indicator instanceof WithMetadata) || indicator.getTimeBucket() <= lastClosedTimeBucket) {
+            return;
+        }
+        Double value = valueOf(indicator);
+        if (value == null) {
+            return;
+        }
+        openBuckets.computeIfAbsent(indicator.getTimeBucket(), key -> new HashMap<>())
+            .put(((WithMetadata)indicator).getMeta().getId(), value);
+    }
+
+    /**
+     * @return the indicators derived by the consumers from the buckets closed at the given time.
+     */
+    @Override public List<Indicator> close(long currentTimeMillis) {
+        long closedTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(currentTimeMillis - CLOSED_DELAY);
+        SortedMap<Long, Map<String, Double>> closedBuckets = new TreeMap<>(openBuckets.headMap(closedTimeBucket, true));
+        openBuckets.headMap(closedTimeBucket, true).clear();
+        lastClosedTimeBucket = Math.max(lastClosedTimeBucket, closedTimeBucket);
+
+        List<Indicator> indicators = new ArrayList<>();
+        for (MinuteValueConsumer consumer : consumers) {
+            indicators.addAll(consumer.consume(closedBuckets, lastClosedTimeBucket));
+        }
+        return indicators;
+    }
+
+    /**
+     * @return the value of the indicator, or null if it doesn't hold a single value.
+     */
+    static Double valueOf(Indicator indicator) {
+        if (indicator instanceof LongValueHolder) {
+            return (double)((LongValueHolder)indicator).getValue();
+        } else if (indicator instanceof IntValueHolder) {
+            return (double)((IntValueHolder)indicator).getValue();
+        } else if (indicator instanceof DoubleValueHolder) {
+            return ((DoubleValueHolder)indicator).getValue();
+        }
+        return null;
+    }
+}
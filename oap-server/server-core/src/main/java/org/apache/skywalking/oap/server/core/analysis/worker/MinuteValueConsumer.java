@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+
+/**
+ * Consumes the final values of the entities in the minute buckets closed by a {@link MinuteValueCollector}.
+ */
+public interface MinuteValueConsumer {
+
+    /**
+     * @param closedBuckets the values of the entities in the minute buckets closed this time, in time order.
+     * @param closedTimeBucket the last closed minute time bucket, no value of it or of the earlier ones comes later.
+     * @return the indicators derived from the closed buckets.
+     */
+    List<? extends Indicator> consume(SortedMap<Long, Map<String, Double>> closedBuckets, long closedTimeBucket);
+}
@@ -16,14 +16,21 @@
  *
  */
 
-package org.apache.skywalking.oap.server.core.analysis.data;
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
 
 /**
- * @author peng-yongsheng
+ * Collects the indicators persisted by the minute {@link IndicatorPersistentWorker} of this OAP node, and derives new
+ * indicators from the closed time buckets, which are sent to the {@link IndicatorProcess} like the dispatched ones.
  */
-public interface QueueData {
+public interface PersistedIndicatorCollector {
 
-    EndOfBatchContext getEndOfBatchContext();
+    void collect(Indicator indicator);
 
-    void setEndOfBatchContext(EndOfBatchContext context);
+    /**
+     * @return the indicators derived from the buckets closed at the given time.
+     */
+    List<? extends Indicator> close(long currentTimeMillis);
 }
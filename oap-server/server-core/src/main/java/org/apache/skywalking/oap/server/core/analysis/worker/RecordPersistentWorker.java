@@ -25,6 +25,7 @@ import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.data.NonMergeDataCache;
 import org.apache.skywalking.oap.server.core.analysis.record.Record;
 import org.apache.skywalking.oap.server.core.storage.IRecordDAO;
+import org.apache.skywalking.oap.server.core.worker.PipelineProfiler;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -57,6 +58,7 @@ public class RecordPersistentWorker extends PersistenceWorker<Record, NonMergeDa
 
         this.dataCarrier = new DataCarrier<>(1, 10000);
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new RecordPersistentWorker.PersistentConsumer(this));
+        PipelineProfiler.INSTANCE.register("RecordPersistentWorker", modelName, dataCarrier);
     }
 
     @Override public void in(Record record) {
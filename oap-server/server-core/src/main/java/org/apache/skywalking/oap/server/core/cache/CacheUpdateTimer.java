@@ -18,13 +18,14 @@
 
 package org.apache.skywalking.oap.server.core.cache;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.register.ServiceInventory;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
-import org.apache.skywalking.oap.server.core.storage.cache.IServiceInventoryCacheDAO;
+import org.apache.skywalking.oap.server.core.storage.cache.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -42,11 +43,16 @@ public enum CacheUpdateTimer {
         logger.info("Cache update timer start");
 
         final long timeInterval = 3;
+        final long nameIndexSyncInterval = 10;
 
         if (!isStarted) {
-            Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+            executor.scheduleAtFixedRate(
                 new RunnableWithExceptionProtection(() -> update(moduleManager),
                     t -> logger.error("Cache update failure.", t)), 1, timeInterval, TimeUnit.SECONDS);
+            executor.scheduleWithFixedDelay(
+                new RunnableWithExceptionProtection(() -> syncNameIndex(moduleManager),
+                    t -> logger.error("Inventory name index synchronization failure.", t)), 1, nameIndexSyncInterval, TimeUnit.SECONDS);
 
             this.isStarted = true;
         }
@@ -68,4 +74,14 @@ public enum CacheUpdateTimer {
             }
         });
     }
-}
\ No newline at end of file
+
+    private void syncNameIndex(ModuleManager moduleManager) {
+        IServiceInventoryCacheDAO serviceInventoryCacheDAO = moduleManager.find(StorageModule.NAME).provider().getService(IServiceInventoryCacheDAO.class);
+        IEndpointInventoryCacheDAO endpointInventoryCacheDAO = moduleManager.find(StorageModule.NAME).provider().getService(IEndpointInventoryCacheDAO.class);
+        try {
+            InventoryNameIndex.INSTANCE.sync(serviceInventoryCacheDAO, endpointInventoryCacheDAO);
+        } catch (IOException e) {
+            logger.error("Inventory name index synchronization failure.", e);
+        }
+    }
+}
@@ -85,6 +85,7 @@ public class EndpointInventoryCache implements Service {
             endpointInventory = getCacheDAO().get(endpointId);
             if (nonNull(endpointInventory)) {
                 endpointIdCache.put(endpointId, endpointInventory);
+                InventoryNameIndex.INSTANCE.index(endpointInventory);
             } else {
                 logger.warn("EndpointInventory id {} is not in cache and persistent storage.", endpointId);
             }
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.cache;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import org.apache.skywalking.oap.server.core.storage.cache.*;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+
+/**
+ * The names of the services and of the server side endpoints, indexed in memory by the service, so the keyword search
+ * of the metadata query scans the names of one service instead of a match query in the storage.
+ *
+ * The index is fed by the inventories persisted by the register workers of this OAP and loaded by the inventory
+ * caches, and is synchronized with the storage periodically, loading all the inventories first and then the ones
+ * registered or updated since the last synchronization, so the inventories registered by the other OAP nodes are
+ * indexed too. Once synchronized, and as long as no endpoint is dropped by the max size, the index is complete and
+ * answers every search. Otherwise a result is used only when it fills the page, as all its names do match, and the
+ * storage is searched for the rest.
+ */
+public enum InventoryNameIndex {
+    INSTANCE;
+
+    /**
+     * The time before the last synchronization to load the inventories since, covering the inventories persisted late
+     * and the clock difference of the OAP nodes.
+     */
+    private static final long SYNC_OVERLAP = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<Integer, IndexedService> services = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Integer, IndexedName>> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger endpointSize = new AtomicInteger();
+    private volatile int maxEndpointSize = 0;
+    private volatile long syncTime = 0;
+    private volatile boolean overflowed = false;
+
+    /**
+     * @param maxEndpointSize the max number of the endpoints in the index, 0 means disabled.
+     */
+    public void setMaxEndpointSize(int maxEndpointSize) {
+        this.maxEndpointSize = maxEndpointSize;
+        this.services.clear();
+        this.endpoints.clear();
+        this.endpointSize.set(0);
+        this.syncTime = 0;
+        this.overflowed = false;
+    }
+
+    /**
+     * Load the inventories registered or updated since the last synchronization, or all of them at the first time.
+     */
+    public void sync(IServiceInventoryCacheDAO serviceInventoryCacheDAO,
+        IEndpointInventoryCacheDAO endpointInventoryCacheDAO) throws IOException {
+        if (maxEndpointSize <= 0 || overflowed) {
+            return;
+        }
+        long currentTime = System.currentTimeMillis();
+        long since = syncTime == 0 ? 0 : syncTime - SYNC_OVERLAP;
+        serviceInventoryCacheDAO.loadLastUpdate(since).forEach(this::index);
+        endpointInventoryCacheDAO.loadLastRegistered(since, maxEndpointSize + 1).forEach(this::index);
+        syncTime = currentTime;
+    }
+
+    /**
+     * @return true if every service and server side endpoint in the storage, as of the last synchronization, is in the
+     * index.
+     */
+    public boolean isComplete() {
+        return maxEndpointSize > 0 && syncTime > 0 && !overflowed;
+    }
+
+    public void index(RegisterSource registerSource) {
+        if (maxEndpointSize <= 0 || registerSource.getSequence() <= 0) {
+            return;
+        }
+
+        if (registerSource instanceof EndpointInventory) {
+            EndpointInventory endpointInventory = (EndpointInventory)registerSource;
+            if (endpointInventory.getDetectPoint() != DetectPoint.SERVER.ordinal()) {
+                return;
+            }
+            Map<Integer, IndexedName> serviceEndpoints = endpoints.computeIfAbsent(endpointInventory.getServiceId(), key -> new ConcurrentHashMap<>());
+            if (!serviceEndpoints.containsKey(endpointInventory.getSequence())) {
+                if (endpointSize.get() >= maxEndpointSize) {
+                    overflowed = true;
+                } else if (serviceEndpoints.putIfAbsent(endpointInventory.getSequence(), new IndexedName(endpointInventory.getName())) == null) {
+                    endpointSize.incrementAndGet();
+                }
+            }
+        } else if (registerSource instanceof ServiceInventory) {
+            ServiceInventory serviceInventory = (ServiceInventory)registerSource;
+            if (serviceInventory.getIsAddress() != BooleanUtils.FALSE) {
+                return;
+            }
+            IndexedService indexedService = services.computeIfAbsent(serviceInventory.getSequence(), key -> new IndexedService(serviceInventory.getName()));
+            indexedService.update(serviceInventory.getRegisterTime(), serviceInventory.getHeartbeatTime());
+        }
+    }
+
+    /**
+     * @return the endpoints of the service whose names contain the keyword ignoring case, sorted by the name and id, or
+     * null if the index isn't complete and they are less than the limit, then the storage should be searched.
+     */
+    public List<Endpoint> searchEndpoint(String keyword, int serviceId, int limit) {
+        if (limit <= 0) {
+            return null;
+        }
+
+        String lowerKeyword = lowerCase(keyword);
+        List<Endpoint> result = new ArrayList<>();
+        Map<Integer, IndexedName> serviceEndpoints = endpoints.getOrDefault(serviceId, Collections.emptyMap());
+        for (Map.Entry<Integer, IndexedName> entry : serviceEndpoints.entrySet()) {
+            if (entry.getValue().contains(lowerKeyword)) {
+                Endpoint endpoint = new Endpoint();
+                endpoint.setId(entry.getKey());
+                endpoint.setName(entry.getValue().name);
+                result.add(endpoint);
+            }
+        }
+        result.sort(Comparator.comparing(Endpoint::getName, String.CASE_INSENSITIVE_ORDER).thenComparingInt(Endpoint::getId));
+        return page(result, limit);
+    }
+
+    /**
+     * @return the services alive in the duration whose names contain the keyword ignoring case, sorted by the name and
+     * id, or null if the index isn't complete and they are less than the limit, then the storage should be searched.
+     */
+    public List<Service> searchServices(long startTimestamp, long endTimestamp, String keyword, int limit) {
+        if (limit <= 0) {
+            return null;
+        }
+
+        String lowerKeyword = lowerCase(keyword);
+        List<Service> result = new ArrayList<>();
+        for (Map.Entry<Integer, IndexedService> entry : services.entrySet()) {
+            IndexedService indexedService = entry.getValue();
+            if (indexedService.isAlive(startTimestamp, endTimestamp) && indexedService.name.contains(lowerKeyword)) {
+                Service service = new Service();
+                service.setId(entry.getKey());
+                service.setName(indexedService.name.name);
+                result.add(service);
+            }
+        }
+        result.sort(Comparator.comparing(Service::getName, String.CASE_INSENSITIVE_ORDER).thenComparingInt(Service::getId));
+        return page(result, limit);
+    }
+
+    private <T> List<T> page(List<T> result, int limit) {
+        if (result.size() >= limit) {
+            return new ArrayList<>(result.subList(0, limit));
+        }
+        return isComplete() ? result : null;
+    }
+
+    private static String lowerCase(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class IndexedName {
+        private final String name;
+        private final String lowerName;
+
+        private IndexedName(String name) {
+            this.name = name;
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+        }
+
+        private boolean contains(String lowerKeyword) {
+            return lowerName.contains(lowerKeyword);
+        }
+    }
+
+    private static class IndexedService {
+        private final IndexedName name;
+        private volatile long registerTime = Long.MAX_VALUE;
+        private volatile long heartbeatTime = 0;
+
+        private IndexedService(String name) {
+            this.name = new IndexedName(name);
+        }
+
+        private synchronized void update(long registerTime, long heartbeatTime) {
+            this.registerTime = Math.min(this.registerTime, registerTime);
+            this.heartbeatTime = Math.max(this.heartbeatTime, heartbeatTime);
+        }
+
+        /**
+         * The same condition as the time range of the storage search.
+         */
+        private boolean isAlive(long startTimestamp, long endTimestamp) {
+            return registerTime <= endTimestamp && heartbeatTime >= startTimestamp;
+        }
+    }
+}
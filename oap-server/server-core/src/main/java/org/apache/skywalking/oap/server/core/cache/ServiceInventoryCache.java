@@ -100,6 +100,7 @@ public class ServiceInventoryCache implements Service {
             serviceInventory = getCacheDAO().get(serviceId);
             if (nonNull(serviceInventory)) {
                 serviceIdCache.put(serviceId, serviceInventory);
+                InventoryNameIndex.INSTANCE.index(serviceInventory);
             }
         }
 
@@ -19,12 +19,14 @@
 package org.apache.skywalking.oap.server.core.query;
 
 import java.io.IOException;
+import java.text.ParseException;
 import java.util.List;
 import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.manual.sketch.*;
 import org.apache.skywalking.oap.server.core.cache.*;
 import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.core.register.*;
-import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnIds;
 import org.apache.skywalking.oap.server.core.storage.query.IAggregationQueryDAO;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -36,10 +38,13 @@ import org.apache.skywalking.oap.server.library.module.Service;
 public class AggregationQueryService implements Service {
 
     private final ModuleManager moduleManager;
+    private final QueryResultCache queryResultCache;
     private IAggregationQueryDAO aggregationQueryDAO;
+    private IIndicatorDAO sketchDAO;
 
-    public AggregationQueryService(ModuleManager moduleManager) {
+    public AggregationQueryService(ModuleManager moduleManager, QueryResultCache queryResultCache) {
         this.moduleManager = moduleManager;
+        this.queryResultCache = queryResultCache;
     }
 
     private IAggregationQueryDAO getAggregationQueryDAO() {
@@ -49,63 +54,138 @@ public class AggregationQueryService implements Service {
         return aggregationQueryDAO;
     }
 
+    private IIndicatorDAO getSketchDAO() {
+        if (sketchDAO == null) {
+            StorageBuilder builder = new TopNSketchIndicator.Builder();
+            sketchDAO = moduleManager.find(StorageModule.NAME).provider().getService(StorageDAO.class).newIndicatorDao(builder);
+        }
+        return sketchDAO;
+    }
+
     public List<TopNEntity> getServiceTopN(final String indName, final int topN, final Step step, final long startTB,
         final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getServiceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
-        for (TopNEntity entity : topNEntities) {
-            ServiceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class).get(Integer.valueOf(entity.getId()));
-            if (inventory != null) {
-                entity.setName(inventory.getName());
+        return getCachedTopN(QueryResultCache.key(indName, step, startTB, endTB, "service", topN, order), step, endTB, () -> {
+            List<TopNEntity> topNEntities = getSketchedTopN(indName, topN, step, startTB, endTB, order);
+            if (topNEntities == null) {
+                topNEntities = getAggregationQueryDAO().getServiceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
             }
-        }
-        return topNEntities;
+            for (TopNEntity entity : topNEntities) {
+                ServiceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInventoryCache.class).get(Integer.valueOf(entity.getId()));
+                if (inventory != null) {
+                    entity.setName(inventory.getName());
+                }
+            }
+            return topNEntities;
+        });
     }
 
     public List<TopNEntity> getAllServiceInstanceTopN(final String indName, final int topN, final Step step,
         final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getAllServiceInstanceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
-        for (TopNEntity entity : topNEntities) {
-            ServiceInstanceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class).get(Integer.valueOf(entity.getId()));
-            if (inventory != null) {
-                entity.setName(inventory.getName());
+        return getCachedTopN(QueryResultCache.key(indName, step, startTB, endTB, "all_service_instance", topN, order), step, endTB, () -> {
+            List<TopNEntity> topNEntities = getSketchedTopN(indName, topN, step, startTB, endTB, order);
+            if (topNEntities == null) {
+                topNEntities = getAggregationQueryDAO().getAllServiceInstanceTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
             }
-        }
-        return topNEntities;
+            for (TopNEntity entity : topNEntities) {
+                ServiceInstanceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class).get(Integer.valueOf(entity.getId()));
+                if (inventory != null) {
+                    entity.setName(inventory.getName());
+                }
+            }
+            return topNEntities;
+        });
     }
 
     public List<TopNEntity> getServiceInstanceTopN(final int serviceId, final String indName, final int topN,
         final Step step, final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getServiceInstanceTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
-        for (TopNEntity entity : topNEntities) {
-            ServiceInstanceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class).get(Integer.valueOf(entity.getId()));
-            if (inventory != null) {
-                entity.setName(inventory.getName());
+        return getCachedTopN(QueryResultCache.key(indName, step, startTB, endTB, "service_instance", serviceId, topN, order), step, endTB, () -> {
+            List<TopNEntity> topNEntities = getAggregationQueryDAO().getServiceInstanceTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+            for (TopNEntity entity : topNEntities) {
+                ServiceInstanceInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(ServiceInstanceInventoryCache.class).get(Integer.valueOf(entity.getId()));
+                if (inventory != null) {
+                    entity.setName(inventory.getName());
+                }
             }
-        }
-        return topNEntities;
+            return topNEntities;
+        });
     }
 
     public List<TopNEntity> getAllEndpointTopN(final String indName, final int topN, final Step step,
         final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getAllEndpointTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
-        for (TopNEntity entity : topNEntities) {
-            EndpointInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class).get(Integer.valueOf(entity.getId()));
-            if (inventory != null) {
-                entity.setName(inventory.getName());
+        return getCachedTopN(QueryResultCache.key(indName, step, startTB, endTB, "all_endpoint", topN, order), step, endTB, () -> {
+            List<TopNEntity> topNEntities = getSketchedTopN(indName, topN, step, startTB, endTB, order);
+            if (topNEntities == null) {
+                topNEntities = getAggregationQueryDAO().getAllEndpointTopN(indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
             }
-        }
-        return topNEntities;
+            for (TopNEntity entity : topNEntities) {
+                EndpointInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class).get(Integer.valueOf(entity.getId()));
+                if (inventory != null) {
+                    entity.setName(inventory.getName());
+                }
+            }
+            return topNEntities;
+        });
     }
 
     public List<TopNEntity> getEndpointTopN(final int serviceId, final String indName, final int topN,
         final Step step, final long startTB, final long endTB, final Order order) throws IOException {
-        List<TopNEntity> topNEntities = getAggregationQueryDAO().getEndpointTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
-        for (TopNEntity entity : topNEntities) {
-            EndpointInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class).get(Integer.valueOf(entity.getId()));
-            if (inventory != null) {
-                entity.setName(inventory.getName());
+        return getCachedTopN(QueryResultCache.key(indName, step, startTB, endTB, "endpoint", serviceId, topN, order), step, endTB, () -> {
+            List<TopNEntity> topNEntities = getAggregationQueryDAO().getEndpointTopN(serviceId, indName, ValueColumnIds.INSTANCE.getValueCName(indName), topN, step, startTB, endTB, order);
+            for (TopNEntity entity : topNEntities) {
+                EndpointInventory inventory = moduleManager.find(CoreModule.NAME).provider().getService(EndpointInventoryCache.class).get(Integer.valueOf(entity.getId()));
+                if (inventory != null) {
+                    entity.setName(inventory.getName());
+                }
+            }
+            return topNEntities;
+        });
+    }
+
+    private List<TopNEntity> getCachedTopN(String cacheKey, Step step, long endTB,
+        QueryResultCache.Loader<List<TopNEntity>> loader) throws IOException {
+        return queryResultCache.getOrLoad(cacheKey, step, endTB, QueryResultCache::copyTopNEntities, loader);
+    }
+
+    /**
+     * The top N of all the entities of an indicator at the minute step merges the persisted sketches of the minute
+     * buckets. The ones filtered by service, the ascending ones and the coarser steps are always from the indicators,
+     * as the sketches only keep the entities of the highest minute values.
+     *
+     * @return null if the duration isn't covered by the sketches, or the top N of the merged sketch isn't certain.
+     */
+    private List<TopNEntity> getSketchedTopN(final String indName, final int topN, final Step step, final long startTB,
+        final long endTB, final Order order) throws IOException {
+        if (!TopNSketches.INSTANCE.isEnabled() || !Step.MINUTE.equals(step) || Order.ASC.equals(order)
+            || topN > TopNSketches.INSTANCE.getCapacity()) {
+            return null;
+        }
+        List<DurationPoint> durationPoints;
+        try {
+            durationPoints = DurationUtils.INSTANCE.getDurationPoints(step, startTB, endTB);
+        } catch (ParseException e) {
+            return null;
+        }
+        if (durationPoints.size() > TopNSketches.INSTANCE.getMaxMergedBuckets()) {
+            return null;
+        }
+
+        String modelName = DownSamplingModelNameBuilder.build(step, TopNSketchIndicator.INDEX_NAME);
+        TopNSketch merged = null;
+        for (DurationPoint durationPoint : durationPoints) {
+            TopNSketchIndicator key = new TopNSketchIndicator();
+            key.setIndicatorName(indName);
+            key.setTimeBucket(durationPoint.getPoint());
+            TopNSketchIndicator sketchIndicator = (TopNSketchIndicator)getSketchDAO().get(modelName, key);
+            if (sketchIndicator == null) {
+                return null;
+            }
+            TopNSketch sketch = TopNSketch.fromBytes(sketchIndicator.getSketch());
+            if (merged == null) {
+                merged = sketch;
+            } else {
+                merged.merge(sketch);
             }
         }
-        return topNEntities;
+        return merged == null ? null : merged.topN(topN);
     }
 }
@@ -160,6 +160,26 @@ public enum DurationUtils {
         }
     }
 
+    /**
+     * @return the timestamp when the given time bucket ends, which is the start of the next one.
+     */
+    public long timeBucketEndToTimestamp(Step step, long timeBucket) throws ParseException {
+        DateTime dateTime = parseToDateTime(step, timeBucket);
+        switch (step) {
+            case MONTH:
+                return dateTime.plusMonths(1).getMillis();
+            case DAY:
+                return dateTime.plusDays(1).getMillis();
+            case HOUR:
+                return dateTime.plusHours(1).getMillis();
+            case MINUTE:
+                return dateTime.plusMinutes(1).getMillis();
+            case SECOND:
+                return dateTime.plusSeconds(1).getMillis();
+        }
+        throw new UnexpectedException("Unsupported step " + step.name());
+    }
+
     public List<DurationPoint> getDurationPoints(Step step, long startTimeBucket,
         long endTimeBucket) throws ParseException {
         DateTime dateTime = parseToDateTime(step, startTimeBucket);
@@ -20,7 +20,7 @@ package org.apache.skywalking.oap.server.core.query;
 
 import java.io.IOException;
 import java.util.List;
-import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.cache.*;
 import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.core.register.*;
@@ -33,6 +33,11 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
  */
 public class MetadataQueryService implements org.apache.skywalking.oap.server.library.module.Service {
 
+    /**
+     * The same as the size of the service search in the storage.
+     */
+    private static final int SEARCH_SERVICES_LIMIT = 100;
+
     private final ModuleManager moduleManager;
     private IMetadataQueryDAO metadataQueryDAO;
     private ServiceInventoryCache serviceInventoryCache;
@@ -83,6 +88,10 @@ public class MetadataQueryService implements org.apache.skywalking.oap.server.li
 
     public List<Service> searchServices(final long startTimestamp, final long endTimestamp,
         final String keyword) throws IOException {
+        List<Service> services = InventoryNameIndex.INSTANCE.searchServices(startTimestamp, endTimestamp, keyword, SEARCH_SERVICES_LIMIT);
+        if (services != null) {
+            return services;
+        }
         return getMetadataQueryDAO().searchServices(startTimestamp, endTimestamp, keyword);
     }
 
@@ -93,6 +102,16 @@ public class MetadataQueryService implements org.apache.skywalking.oap.server.li
 
     public List<Endpoint> searchEndpoint(final String keyword, final String serviceId,
         final int limit) throws IOException {
+        int indexedServiceId;
+        try {
+            indexedServiceId = Integer.parseInt(serviceId);
+        } catch (NumberFormatException e) {
+            throw new UnexpectedException("Illegal service id " + serviceId);
+        }
+        List<Endpoint> endpoints = InventoryNameIndex.INSTANCE.searchEndpoint(keyword, indexedServiceId, limit);
+        if (endpoints != null) {
+            return endpoints;
+        }
         return getMetadataQueryDAO().searchEndpoint(keyword, serviceId, limit);
     }
 
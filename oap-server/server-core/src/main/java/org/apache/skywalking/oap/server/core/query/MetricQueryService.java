@@ -21,12 +21,14 @@ package org.apache.skywalking.oap.server.core.query;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.util.StringUtil;
-import org.apache.skywalking.oap.server.core.Const;
-import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.summary.*;
 import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.core.query.sql.*;
-import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.*;
 import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnIds;
 import org.apache.skywalking.oap.server.core.storage.query.IMetricQueryDAO;
 import org.apache.skywalking.oap.server.library.module.*;
@@ -41,11 +43,23 @@ public class MetricQueryService implements Service {
 
     private static final Logger logger = LoggerFactory.getLogger(MetricQueryService.class);
 
+    /**
+     * The max number of the ids in one storage query of the linear values.
+     */
+    private static final int LINEAR_QUERY_CHUNK_SIZE = 1000;
+
+    /**
+     * The time after the end of a summary window, when its summaries of all the OAP nodes have been persisted.
+     */
+    private static final long SUMMARY_PERSISTED_DELAY = TimeUnit.MINUTES.toMillis(5);
+
     private final ModuleManager moduleManager;
+    private final QueryResultCache queryResultCache;
     private IMetricQueryDAO metricQueryDAO;
 
-    public MetricQueryService(ModuleManager moduleManager) {
+    public MetricQueryService(ModuleManager moduleManager, QueryResultCache queryResultCache) {
         this.moduleManager = moduleManager;
+        this.queryResultCache = queryResultCache;
     }
 
     private IMetricQueryDAO getMetricQueryDAO() {
@@ -61,6 +75,11 @@ public class MetricQueryService implements Service {
             throw new RuntimeException("IDs can't be null");
         }
 
+        IntValues summarizedValues = getSummarizedValues(indName, ids, step, startTB, endTB);
+        if (summarizedValues != null) {
+            return summarizedValues;
+        }
+
         Where where = new Where();
         KeyValues intKeyValues = new KeyValues();
         intKeyValues.setKey(Indicator.ENTITY_ID);
@@ -70,17 +89,147 @@ public class MetricQueryService implements Service {
         return getMetricQueryDAO().getValues(indName, step, startTB, endTB, where, ValueColumnIds.INSTANCE.getValueCName(indName), ValueColumnIds.INSTANCE.getValueFunction(indName));
     }
 
+    /**
+     * @return the values of the entities added up from the persisted {@link IndicatorSummary}s, or null if the
+     * duration isn't made of whole summary windows, or any window of it isn't completely summarized and persisted, then
+     * the values are aggregated by the storage. The entities without any value are not in the result, like in the
+     * storage aggregation.
+     */
+    private IntValues getSummarizedValues(final String indName, final List<String> ids, final Step step,
+        final long startTB, final long endTB) throws IOException {
+        if (!IndicatorSummaries.INSTANCE.isEnabled()) {
+            return null;
+        }
+
+        List<DurationPoint> durationPoints;
+        try {
+            if (DurationUtils.INSTANCE.timeBucketEndToTimestamp(step, endTB) + SUMMARY_PERSISTED_DELAY > System.currentTimeMillis()) {
+                return null;
+            }
+            durationPoints = DurationUtils.INSTANCE.getDurationPoints(step, startTB, endTB);
+        } catch (ParseException e) {
+            return null;
+        }
+
+        // The summaries of the hour, day and month step are downsampled from the whole windows.
+        int windowPoints = Step.MINUTE.equals(step) ? IndicatorSummaries.INSTANCE.getWindowMinutes() : 1;
+        if (Step.MINUTE.equals(step) && (IndicatorSummaries.INSTANCE.windowOf(startTB) != startTB || durationPoints.size() % windowPoints != 0)) {
+            return null;
+        }
+        List<Long> windows = new ArrayList<>();
+        List<String> markerIds = new ArrayList<>();
+        for (int i = 0; i < durationPoints.size(); i += windowPoints) {
+            windows.add(durationPoints.get(i).getPoint());
+            markerIds.add(IndicatorSummary.id(durationPoints.get(i).getPoint(), indName, null));
+        }
+
+        Map<String, Long> markerCounts = getSummaryValues(step, markerIds, IndicatorSummary.COUNT);
+        Map<String, Long> markerSummations = getSummaryValues(step, markerIds, IndicatorSummary.SUMMATION);
+        for (String markerId : markerIds) {
+            if (markerCounts.getOrDefault(markerId, 0L) == 0 || markerSummations.getOrDefault(markerId, 0L) != 0) {
+                return null;
+            }
+        }
+
+        List<String> summaryIds = new ArrayList<>(windows.size() * ids.size());
+        for (String id : ids) {
+            windows.forEach(window -> summaryIds.add(IndicatorSummary.id(window, indName, id)));
+        }
+        Map<String, Long> counts = getSummaryValues(step, summaryIds, IndicatorSummary.COUNT);
+        Map<String, Long> summations = getSummaryValues(step, summaryIds, IndicatorSummary.SUMMATION);
+
+        boolean sum = Function.Sum.equals(ValueColumnIds.INSTANCE.getValueFunction(indName));
+        IntValues intValues = new IntValues();
+        for (int i = 0; i < ids.size(); i++) {
+            long summation = 0;
+            long count = 0;
+            for (String summaryId : summaryIds.subList(i * windows.size(), (i + 1) * windows.size())) {
+                summation += summations.getOrDefault(summaryId, 0L);
+                count += counts.getOrDefault(summaryId, 0L);
+            }
+            if (count > 0) {
+                KVInt value = new KVInt();
+                value.setId(ids.get(i));
+                value.setValue(sum ? summation : summation / count);
+                intValues.addKVInt(value);
+            }
+        }
+        return intValues;
+    }
+
+    private Map<String, Long> getSummaryValues(final Step step, final List<String> ids,
+        final String valueCName) throws IOException {
+        Map<String, Long> values = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LINEAR_QUERY_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + LINEAR_QUERY_CHUNK_SIZE, ids.size()));
+            for (KVInt value : getMetricQueryDAO().getLinearIntValues(IndicatorSummary.INDEX_NAME, step, chunk, valueCName).getValues()) {
+                values.put(value.getId(), value.getValue());
+            }
+        }
+        return values;
+    }
+
     public IntValues getLinearIntValues(final String indName, final String id, final Step step, final long startTB,
         final long endTB) throws IOException, ParseException {
+        return getLinearIntValues(indName, Collections.singletonList(id), step, startTB, endTB).get(0);
+    }
+
+    /**
+     * Query the linear values of several entities in one storage query, all of them with the same indicator and
+     * duration.
+     *
+     * @return the values of every entity, in the order of the given entity ids.
+     */
+    public List<IntValues> getLinearIntValues(final String indName, final List<String> entityIds, final Step step,
+        final long startTB, final long endTB) throws IOException, ParseException {
         List<DurationPoint> durationPoints = DurationUtils.INSTANCE.getDurationPoints(step, startTB, endTB);
-        List<String> ids = new ArrayList<>();
-        if (StringUtil.isEmpty(id)) {
-            durationPoints.forEach(durationPoint -> ids.add(String.valueOf(durationPoint.getPoint())));
-        } else {
-            durationPoints.forEach(durationPoint -> ids.add(durationPoint.getPoint() + Const.ID_SPLIT + id));
+        List<String> ids = new ArrayList<>(durationPoints.size() * entityIds.size());
+        for (String id : entityIds) {
+            if (StringUtil.isEmpty(id)) {
+                durationPoints.forEach(durationPoint -> ids.add(String.valueOf(durationPoint.getPoint())));
+            } else {
+                durationPoints.forEach(durationPoint -> ids.add(durationPoint.getPoint() + Const.ID_SPLIT + id));
+            }
+        }
+
+        // The points are in time order, all the ones after the first open point are open too.
+        int closedSize = 0;
+        while (closedSize < durationPoints.size() && queryResultCache.isClosed(step, durationPoints.get(closedSize).getPoint())) {
+            closedSize++;
         }
 
-        return getMetricQueryDAO().getLinearIntValues(indName, step, ids, ValueColumnIds.INSTANCE.getValueCName(indName));
+        Map<String, KVInt> values = new HashMap<>();
+        Set<String> queryIds = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            KVInt cachedValue = i % durationPoints.size() < closedSize ? queryResultCache.get(QueryResultCache.key(indName, step, ids.get(i)), QueryResultCache::copyKVInt) : null;
+            if (cachedValue == null) {
+                queryIds.add(ids.get(i));
+            } else {
+                values.put(ids.get(i), cachedValue);
+            }
+        }
+
+        if (!queryIds.isEmpty()) {
+            List<String> queryIdList = new ArrayList<>(queryIds);
+            for (int from = 0; from < queryIdList.size(); from += LINEAR_QUERY_CHUNK_SIZE) {
+                List<String> chunk = queryIdList.subList(from, Math.min(from + LINEAR_QUERY_CHUNK_SIZE, queryIdList.size()));
+                IntValues queriedValues = getMetricQueryDAO().getLinearIntValues(indName, step, chunk, ValueColumnIds.INSTANCE.getValueCName(indName));
+                for (KVInt value : queriedValues.getValues()) {
+                    values.put(value.getId(), value);
+                }
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                if (i % durationPoints.size() < closedSize) {
+                    queryResultCache.put(QueryResultCache.key(indName, step, ids.get(i)), values.get(ids.get(i)), QueryResultCache::copyKVInt);
+                }
+            }
+        }
+
+        List<IntValues> intValuesOfEntities = new ArrayList<>(entityIds.size());
+        for (int i = 0; i < entityIds.size(); i++) {
+            intValuesOfEntities.add(toIntValues(ids.subList(i * durationPoints.size(), (i + 1) * durationPoints.size()), values));
+        }
+        return intValuesOfEntities;
     }
 
     public Thermodynamic getThermodynamic(final String indName, final String id, final Step step, final long startTB,
@@ -95,6 +244,21 @@ public class MetricQueryService implements Service {
             }
         });
 
-        return getMetricQueryDAO().getThermodynamic(indName, step, ids, ValueColumnIds.INSTANCE.getValueCName(indName));
+        return queryResultCache.getOrLoad(QueryResultCache.key(indName, step, startTB, endTB, id), step, endTB, QueryResultCache::copyThermodynamic,
+            () -> getMetricQueryDAO().getThermodynamic(indName, step, ids, ValueColumnIds.INSTANCE.getValueCName(indName)));
+    }
+
+    private IntValues toIntValues(List<String> ids, Map<String, KVInt> values) {
+        IntValues intValues = new IntValues();
+        for (String id : ids) {
+            KVInt value = values.get(id);
+            if (value == null) {
+                value = new KVInt();
+                value.setId(id);
+                value.setValue(0);
+            }
+            intValues.addKVInt(value);
+        }
+        return intValues;
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import com.google.common.cache.*;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.*;
+import java.util.function.UnaryOperator;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+
+/**
+ * The query results of the closed time buckets never change, because no more data could be aggregated into them. This
+ * cache keeps these results, so the dashboards refreshing the same duration again and again only query the still open
+ * time buckets from the storage.
+ *
+ * A time bucket is closed after its end time plus the delay, which leaves time for the late reported and the not yet
+ * persisted data. The cache is disabled when the size is not positive.
+ *
+ * The results are mutable entities, so the cache keeps its own copy of every result and hands out copies of it.
+ */
+public class QueryResultCache {
+
+    private final ModuleDefineHolder moduleDefineHolder;
+    private final Cache<String, Object> cache;
+    private final long closedDelay;
+    private CounterMetric hitCounter;
+    private CounterMetric missCounter;
+
+    /**
+     * @param size the max number of the cached results.
+     * @param closedDelay in seconds, after the end of a time bucket, when it is closed.
+     */
+    public QueryResultCache(ModuleDefineHolder moduleDefineHolder, int size, int closedDelay) {
+        this.moduleDefineHolder = moduleDefineHolder;
+        this.cache = size > 0 ? CacheBuilder.newBuilder().maximumSize(size).build() : null;
+        this.closedDelay = closedDelay * 1000L;
+    }
+
+    /**
+     * Create the hit and miss counters, must be called before any query once the telemetry module is prepared.
+     */
+    public void start() {
+        MetricCreator metricCreator = moduleDefineHolder.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        hitCounter = metricCreator.createCounter("query_result_cache_hit_count", "The number of the query results served by the cache",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+        missCounter = metricCreator.createCounter("query_result_cache_miss_count", "The number of the query results not in the cache",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * @return true if the time bucket of the given step is closed, so its query results could be cached.
+     */
+    public boolean isClosed(Step step, long timeBucket) {
+        if (!isEnabled()) {
+            return false;
+        }
+        try {
+            return DurationUtils.INSTANCE.timeBucketEndToTimestamp(step, timeBucket) + closedDelay <= System.currentTimeMillis();
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return a copy of the cached result, or null if it isn't cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, UnaryOperator<T> copier) {
+        if (!isEnabled()) {
+            return null;
+        }
+        T result = (T)cache.getIfPresent(key);
+        if (Objects.isNull(result)) {
+            missCounter.inc();
+            return null;
+        }
+        hitCounter.inc();
+        return copier.apply(result);
+    }
+
+    /**
+     * Cache a copy of the result, so the caller is still free to change the given one.
+     */
+    public <T> void put(String key, T result, UnaryOperator<T> copier) {
+        if (isEnabled() && Objects.nonNull(result)) {
+            cache.put(key, copier.apply(result));
+        }
+    }
+
+    /**
+     * @return the cached result of the key if the time bucket at the end of the duration is closed, otherwise the
+     * result of the loader, which is cached when the time bucket is closed.
+     */
+    public <T> T getOrLoad(String key, Step step, long endTB, UnaryOperator<T> copier,
+        Loader<T> loader) throws IOException {
+        boolean closed = isClosed(step, endTB);
+        if (closed) {
+            T cachedResult = get(key, copier);
+            if (cachedResult != null) {
+                return cachedResult;
+            }
+        }
+
+        T result = loader.load();
+        if (closed) {
+            put(key, result, copier);
+        }
+        return result;
+    }
+
+    /**
+     * @return the cache key of the given parts, such as the indicator name, the step, the time buckets and the query
+     * conditions. Every part is prefixed with its length, so the parts containing any separator can't make the same
+     * key as others.
+     */
+    public static String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            String value = String.valueOf(part);
+            key.append(value.length()).append(':').append(value);
+        }
+        return key.toString();
+    }
+
+    public static List<TopNEntity> copyTopNEntities(List<TopNEntity> topNEntities) {
+        List<TopNEntity> copy = new ArrayList<>(topNEntities.size());
+        for (TopNEntity topNEntity : topNEntities) {
+            TopNEntity entity = new TopNEntity();
+            entity.setId(topNEntity.getId());
+            entity.setName(topNEntity.getName());
+            entity.setValue(topNEntity.getValue());
+            copy.add(entity);
+        }
+        return copy;
+    }
+
+    public static KVInt copyKVInt(KVInt kvInt) {
+        KVInt copy = new KVInt();
+        copy.setId(kvInt.getId());
+        copy.setValue(kvInt.getValue());
+        return copy;
+    }
+
+    public static Thermodynamic copyThermodynamic(Thermodynamic thermodynamic) {
+        Thermodynamic copy = new Thermodynamic();
+        copy.setAxisYStep(thermodynamic.getAxisYStep());
+        for (List<Long> node : thermodynamic.getNodes()) {
+            copy.getNodes().add(new ArrayList<>(node));
+        }
+        return copy;
+    }
+
+    public static Topology copyTopology(Topology topology) {
+        Topology copy = new Topology();
+        for (Node node : topology.getNodes()) {
+            Node nodeCopy = new Node();
+            nodeCopy.setId(node.getId());
+            nodeCopy.setName(node.getName());
+            nodeCopy.setType(node.getType());
+            nodeCopy.setReal(node.isReal());
+            copy.getNodes().add(nodeCopy);
+        }
+        for (Call call : topology.getCalls()) {
+            Call callCopy = new Call();
+            callCopy.setSource(call.getSource());
+            callCopy.setTarget(call.getTarget());
+            callCopy.setComponentId(call.getComponentId());
+            callCopy.setCallType(call.getCallType());
+            callCopy.setId(call.getId());
+            callCopy.setDetectPoint(call.getDetectPoint());
+            copy.getCalls().add(callCopy);
+        }
+        return copy;
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+}
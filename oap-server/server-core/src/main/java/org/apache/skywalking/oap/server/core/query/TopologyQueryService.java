@@ -21,9 +21,11 @@ package org.apache.skywalking.oap.server.core.query;
 import java.io.IOException;
 import java.util.*;
 import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.servicerelation.ServiceRelationSnapshots;
 import org.apache.skywalking.oap.server.core.cache.EndpointInventoryCache;
 import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
 import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
 import org.apache.skywalking.oap.server.core.source.DetectPoint;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.query.*;
@@ -41,13 +43,16 @@ public class TopologyQueryService implements Service {
     private static final Logger logger = LoggerFactory.getLogger(TopologyQueryService.class);
 
     private final ModuleManager moduleManager;
+    private final QueryResultCache queryResultCache;
     private ITopologyQueryDAO topologyQueryDAO;
     private IMetadataQueryDAO metadataQueryDAO;
     private EndpointInventoryCache endpointInventoryCache;
     private IComponentLibraryCatalogService componentLibraryCatalogService;
+    private RemoteClientManager remoteClientManager;
 
-    public TopologyQueryService(ModuleManager moduleManager) {
+    public TopologyQueryService(ModuleManager moduleManager, QueryResultCache queryResultCache) {
         this.moduleManager = moduleManager;
+        this.queryResultCache = queryResultCache;
     }
 
     private IMetadataQueryDAO getMetadataQueryDAO() {
@@ -78,25 +83,52 @@ public class TopologyQueryService implements Service {
         return endpointInventoryCache;
     }
 
+    private RemoteClientManager getRemoteClientManager() {
+        if (remoteClientManager == null) {
+            remoteClientManager = moduleManager.find(CoreModule.NAME).provider().getService(RemoteClientManager.class);
+        }
+        return remoteClientManager;
+    }
+
     public Topology getGlobalTopology(final Step step, final long startTB, final long endTB, final long startTimestamp,
         final long endTimestamp) throws IOException {
         logger.debug("step: {}, startTimeBucket: {}, endTimeBucket: {}", step, startTB, endTB);
-        List<Call> serviceRelationServerCalls = getTopologyQueryDAO().loadServerSideServiceRelations(step, startTB, endTB);
-        List<Call> serviceRelationClientCalls = getTopologyQueryDAO().loadClientSideServiceRelations(step, startTB, endTB);
+        String cacheKey = QueryResultCache.key("global_topology", step, startTB, endTB, startTimestamp, endTimestamp);
+        Topology cachedTopology = getCachedTopology(step, endTB, cacheKey);
+        if (cachedTopology != null) {
+            return cachedTopology;
+        }
+
+        List<Call> serviceRelationServerCalls;
+        List<Call> serviceRelationClientCalls;
+        if (isSnapshotCovered(step, startTB, endTB)) {
+            serviceRelationServerCalls = ServiceRelationSnapshots.INSTANCE.load(step, startTB, endTB, DetectPoint.SERVER, null);
+            serviceRelationClientCalls = ServiceRelationSnapshots.INSTANCE.load(step, startTB, endTB, DetectPoint.CLIENT, null);
+        } else {
+            serviceRelationServerCalls = getTopologyQueryDAO().loadServerSideServiceRelations(step, startTB, endTB);
+            serviceRelationClientCalls = getTopologyQueryDAO().loadClientSideServiceRelations(step, startTB, endTB);
+        }
 
         TopologyBuilder builder = new TopologyBuilder(moduleManager);
         Topology topology = builder.build(serviceRelationClientCalls, serviceRelationServerCalls);
 
+        cacheTopology(step, endTB, cacheKey, topology);
         return topology;
     }
 
     public Topology getServiceTopology(final Step step, final long startTB, final long endTB,
         final int serviceId) throws IOException {
+        String cacheKey = QueryResultCache.key("service_topology", step, startTB, endTB, serviceId);
+        Topology cachedTopology = getCachedTopology(step, endTB, cacheKey);
+        if (cachedTopology != null) {
+            return cachedTopology;
+        }
+
         List<Integer> serviceIds = new ArrayList<>();
         serviceIds.add(serviceId);
 
-        List<Call> serviceRelationClientCalls = getTopologyQueryDAO().loadSpecifiedClientSideServiceRelations(step, startTB, endTB, serviceIds);
-        List<Call> serviceRelationServerCalls = getTopologyQueryDAO().loadSpecifiedServerSideServiceRelations(step, startTB, endTB, serviceIds);
+        List<Call> serviceRelationClientCalls = loadSpecifiedServiceRelations(step, startTB, endTB, DetectPoint.CLIENT, serviceIds);
+        List<Call> serviceRelationServerCalls = loadSpecifiedServiceRelations(step, startTB, endTB, DetectPoint.SERVER, serviceIds);
 
         TopologyBuilder builder = new TopologyBuilder(moduleManager);
         Topology topology = builder.build(serviceRelationClientCalls, serviceRelationServerCalls);
@@ -104,7 +136,7 @@ public class TopologyQueryService implements Service {
         List<Integer> sourceServiceIds = new ArrayList<>();
         serviceRelationClientCalls.forEach(call -> sourceServiceIds.add(call.getSource()));
         if (CollectionUtils.isNotEmpty(sourceServiceIds)) {
-            List<Call> sourceCalls = getTopologyQueryDAO().loadSpecifiedServerSideServiceRelations(step, startTB, endTB, sourceServiceIds);
+            List<Call> sourceCalls = loadSpecifiedServiceRelations(step, startTB, endTB, DetectPoint.SERVER, sourceServiceIds);
             topology.getNodes().forEach(node -> {
                 if (Strings.isNullOrEmpty(node.getType())) {
                     for (Call call : sourceCalls) {
@@ -117,11 +149,18 @@ public class TopologyQueryService implements Service {
             });
         }
 
+        cacheTopology(step, endTB, cacheKey, topology);
         return topology;
     }
 
     public Topology getEndpointTopology(final Step step, final long startTB, final long endTB,
         final int endpointId) throws IOException {
+        String cacheKey = QueryResultCache.key("endpoint_topology", step, startTB, endTB, endpointId);
+        Topology cachedTopology = getCachedTopology(step, endTB, cacheKey);
+        if (cachedTopology != null) {
+            return cachedTopology;
+        }
+
         List<Call> serverSideCalls = getTopologyQueryDAO().loadSpecifiedDestOfServerSideEndpointRelations(step, startTB, endTB, endpointId);
         serverSideCalls.forEach(call -> call.setDetectPoint(DetectPoint.SERVER));
 
@@ -142,9 +181,39 @@ public class TopologyQueryService implements Service {
             }
         });
 
+        cacheTopology(step, endTB, cacheKey, topology);
         return topology;
     }
 
+    private List<Call> loadSpecifiedServiceRelations(Step step, long startTB, long endTB, DetectPoint detectPoint,
+        List<Integer> serviceIds) throws IOException {
+        if (isSnapshotCovered(step, startTB, endTB)) {
+            return ServiceRelationSnapshots.INSTANCE.load(step, startTB, endTB, detectPoint, new HashSet<>(serviceIds));
+        } else if (detectPoint == DetectPoint.SERVER) {
+            return getTopologyQueryDAO().loadSpecifiedServerSideServiceRelations(step, startTB, endTB, serviceIds);
+        } else {
+            return getTopologyQueryDAO().loadSpecifiedClientSideServiceRelations(step, startTB, endTB, serviceIds);
+        }
+    }
+
+    /**
+     * The in memory snapshots only include the relations dispatched by this OAP node, which are all of them only when
+     * the cluster has a single node.
+     */
+    private boolean isSnapshotCovered(Step step, long startTB, long endTB) {
+        return ServiceRelationSnapshots.INSTANCE.isCovered(step, startTB, endTB) && getRemoteClientManager().getRemoteClient().size() == 1;
+    }
+
+    private Topology getCachedTopology(Step step, long endTB, String cacheKey) {
+        return queryResultCache.isClosed(step, endTB) ? queryResultCache.get(cacheKey, QueryResultCache::copyTopology) : null;
+    }
+
+    private void cacheTopology(Step step, long endTB, String cacheKey, Topology topology) {
+        if (queryResultCache.isClosed(step, endTB)) {
+            queryResultCache.put(cacheKey, topology, QueryResultCache::copyTopology);
+        }
+    }
+
     private Node buildEndpointNode(int endpointId) {
         Node node = new Node();
         node.setId(endpointId);
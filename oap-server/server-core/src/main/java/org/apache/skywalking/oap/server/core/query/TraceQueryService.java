@@ -18,8 +18,9 @@
 
 package org.apache.skywalking.oap.server.core.query;
 
-import java.io.IOException;
+import java.io.*;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.apache.skywalking.apm.network.language.agent.*;
 import org.apache.skywalking.apm.network.language.agent.v2.*;
 import org.apache.skywalking.oap.server.core.*;
@@ -34,7 +35,6 @@ import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
 import org.apache.skywalking.oap.server.library.module.Service;
 import org.apache.skywalking.oap.server.library.module.*;
-import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 
 import static java.util.Objects.nonNull;
 
@@ -96,44 +96,44 @@ public class TraceQueryService implements Service {
         PaginationUtils.Page page = PaginationUtils.INSTANCE.exchange(paging);
 
         return getTraceQueryDAO().queryBasicTraces(startTB, endTB, minTraceDuration, maxTraceDuration, endpointName,
-            serviceId, serviceInstanceId, endpointId, traceId, page.getLimit(), page.getFrom(), traceState, queryOrder);
+            serviceId, serviceInstanceId, endpointId, traceId, page.getLimit(), page.getFrom(), paging.getCursor(),
+            paging.isNeedTotal(), traceState, queryOrder);
     }
 
     public Trace queryTrace(final String traceId) throws IOException {
         Trace trace = new Trace();
 
         List<SegmentRecord> segmentRecords = getTraceQueryDAO().queryByTraceId(traceId);
-        for (SegmentRecord segment : segmentRecords) {
-            if (nonNull(segment)) {
-                if (segment.getVersion() == 2) {
-                    SegmentObject segmentObject = SegmentObject.parseFrom(segment.getDataBinary());
-                    trace.getSpans().addAll(buildSpanV2List(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList()));
-                } else {
-                    TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(segment.getDataBinary());
-                    trace.getSpans().addAll(buildSpanList(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList()));
-                }
-            }
+        try {
+            segmentRecords.parallelStream().filter(Objects::nonNull)
+                .map(segment -> buildSpanList(traceId, segment))
+                .collect(Collectors.toList())
+                .forEach(spans -> trace.getSpans().addAll(spans));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
 
-        List<Span> sortedSpans = new LinkedList<>();
-        if (CollectionUtils.isNotEmpty(trace.getSpans())) {
-            List<Span> rootSpans = findRoot(trace.getSpans());
-
-            if (CollectionUtils.isNotEmpty(rootSpans)) {
-                rootSpans.forEach(span -> {
-                    List<Span> childrenSpan = new ArrayList<>();
-                    childrenSpan.add(span);
-                    findChildren(trace.getSpans(), span, childrenSpan);
-                    sortedSpans.addAll(childrenSpan);
-                });
-            }
-        }
+        List<Span> sortedSpans = sortSpans(trace.getSpans());
 
         trace.getSpans().clear();
         trace.getSpans().addAll(sortedSpans);
         return trace;
     }
 
+    private List<Span> buildSpanList(String traceId, SegmentRecord segment) {
+        try {
+            if (segment.getVersion() == 2) {
+                SegmentObject segmentObject = SegmentObject.parseFrom(segment.getDataBinary());
+                return buildSpanV2List(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList());
+            } else {
+                TraceSegmentObject segmentObject = TraceSegmentObject.parseFrom(segment.getDataBinary());
+                return buildSpanList(traceId, segment.getSegmentId(), segment.getServiceId(), segmentObject.getSpansList());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private List<Span> buildSpanV2List(String traceId, String segmentId, int serviceId,
         List<SpanObjectV2> spanObjects) {
         List<Span> spans = new ArrayList<>();
@@ -344,32 +344,40 @@ public class TraceQueryService implements Service {
         return spans;
     }
 
-    private List<Span> findRoot(List<Span> spans) {
+    /**
+     * Sort the spans in the depth first order of the span trees, with the children indexed by the segment parent span
+     * id, so it takes linear time for the traces of many segments.
+     */
+    static List<Span> sortSpans(List<Span> spans) {
+        Set<String> segmentSpanIds = new HashSet<>();
+        spans.forEach(span -> segmentSpanIds.add(span.getSegmentSpanId()));
+
         List<Span> rootSpans = new ArrayList<>();
+        Map<String, List<Span>> childrenSpans = new HashMap<>();
         spans.forEach(span -> {
-            String segmentParentSpanId = span.getSegmentParentSpanId();
-
-            boolean hasParent = false;
-            for (Span subSpan : spans) {
-                if (segmentParentSpanId.equals(subSpan.getSegmentSpanId())) {
-                    hasParent = true;
-                }
-            }
-
-            if (!hasParent) {
+            if (segmentSpanIds.contains(span.getSegmentParentSpanId())) {
+                childrenSpans.computeIfAbsent(span.getSegmentParentSpanId(), key -> new ArrayList<>()).add(span);
+            } else {
                 span.setRoot(true);
                 rootSpans.add(span);
             }
         });
-        return rootSpans;
-    }
 
-    private void findChildren(List<Span> spans, Span parentSpan, List<Span> childrenSpan) {
-        spans.forEach(span -> {
-            if (span.getSegmentParentSpanId().equals(parentSpan.getSegmentSpanId())) {
-                childrenSpan.add(span);
-                findChildren(spans, span, childrenSpan);
+        List<Span> sortedSpans = new ArrayList<>(spans.size());
+        Deque<Span> stack = new ArrayDeque<>();
+        for (Span rootSpan : rootSpans) {
+            stack.push(rootSpan);
+            while (!stack.isEmpty()) {
+                Span span = stack.pop();
+                sortedSpans.add(span);
+                List<Span> children = childrenSpans.get(span.getSegmentSpanId());
+                if (children != null) {
+                    for (int i = children.size() - 1; i >= 0; i--) {
+                        stack.push(children.get(i));
+                    }
+                }
             }
-        });
+        }
+        return sortedSpans;
     }
 }
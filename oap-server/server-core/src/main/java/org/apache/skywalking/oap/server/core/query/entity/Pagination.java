@@ -29,4 +29,8 @@ public class Pagination {
     private int pageNum;
     private int pageSize;
     private boolean needTotal;
+    /**
+     * The cursor of the previous page, the traces are listed after it, instead of skipping the previous pages.
+     */
+    private String cursor;
 }
@@ -28,6 +28,10 @@ import lombok.*;
 public class TraceBrief {
     private final List<BasicTrace> traces;
     @Setter private int total;
+    /**
+     * The cursor of the last trace, to list the next page after it. Null if there are no more traces.
+     */
+    @Setter private String cursor;
 
     public TraceBrief() {
         this.traces = new ArrayList<>();
@@ -22,9 +22,8 @@ import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
-import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.slf4j.*;
 
 /**
@@ -56,27 +55,36 @@ public class RegisterDistinctWorker extends AbstractWorker<RegisterSource> {
             throw new UnexpectedException(e.getMessage(), e);
         }
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new AggregatorConsumer(this));
+        PipelineProfiler.INSTANCE.register("RegisterDistinctWorker", String.valueOf(workerId), dataCarrier);
     }
 
     @Override public final void in(RegisterSource source) {
-        source.setEndOfBatchContext(new EndOfBatchContext(false));
         dataCarrier.produce(source);
     }
 
-    private void onWork(RegisterSource source) {
-        messageNum++;
+    private void onWork(List<RegisterSource> registerSources) {
+        for (RegisterSource source : registerSources) {
+            messageNum++;
 
-        if (!sources.containsKey(source)) {
-            sources.put(source, source);
-        } else {
-            sources.get(source).combine(source);
+            if (!sources.containsKey(source)) {
+                sources.put(source, source);
+            } else {
+                sources.get(source).combine(source);
+            }
+
+            if (messageNum >= 1000) {
+                sendToNext();
+            }
         }
+        sendToNext();
+    }
 
-        if (messageNum >= 1000 || source.getEndOfBatchContext().isEndOfBatch()) {
-            sources.values().forEach(nextWorker::in);
+    private void sendToNext() {
+        if (!sources.isEmpty()) {
+            nextWorker.in(new ArrayList<>(sources.values()));
             sources.clear();
-            messageNum = 0;
         }
+        messageNum = 0;
     }
 
     private class AggregatorConsumer implements IConsumer<RegisterSource> {
@@ -91,17 +99,7 @@ public class RegisterDistinctWorker extends AbstractWorker<RegisterSource> {
         }
 
         @Override public void consume(List<RegisterSource> sources) {
-            Iterator<RegisterSource> sourceIterator = sources.iterator();
-
-            int i = 0;
-            while (sourceIterator.hasNext()) {
-                RegisterSource source = sourceIterator.next();
-                i++;
-                if (i == sources.size()) {
-                    source.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                aggregator.onWork(source);
-            }
+            aggregator.onWork(sources);
         }
 
         @Override public void onError(List<RegisterSource> sources, Throwable t) {
@@ -22,11 +22,11 @@ import java.util.*;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
 import org.apache.skywalking.oap.server.core.*;
-import org.apache.skywalking.oap.server.core.analysis.data.EndOfBatchContext;
+import org.apache.skywalking.oap.server.core.cache.InventoryNameIndex;
 import org.apache.skywalking.oap.server.core.register.RegisterSource;
 import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
 import org.apache.skywalking.oap.server.core.storage.*;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.slf4j.*;
 
@@ -67,54 +67,64 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         }
 
         this.dataCarrier.consume(ConsumerPoolFactory.INSTANCE.get(name), new RegisterPersistentWorker.PersistentConsumer(this));
+        PipelineProfiler.INSTANCE.register("RegisterPersistentWorker", modelName, dataCarrier);
     }
 
     @Override public final void in(RegisterSource registerSource) {
-        registerSource.setEndOfBatchContext(new EndOfBatchContext(false));
         dataCarrier.produce(registerSource);
     }
 
-    private void onWork(RegisterSource registerSource) {
-        if (!sources.containsKey(registerSource)) {
-            sources.put(registerSource, registerSource);
-        } else {
-            sources.get(registerSource).combine(registerSource);
+    private void onWork(List<RegisterSource> registerSources) {
+        for (RegisterSource registerSource : registerSources) {
+            if (!sources.containsKey(registerSource)) {
+                sources.put(registerSource, registerSource);
+            } else {
+                sources.get(registerSource).combine(registerSource);
+            }
+
+            if (sources.size() > 1000) {
+                persist();
+            }
         }
+        persist();
+    }
 
-        if (sources.size() > 1000 || registerSource.getEndOfBatchContext().isEndOfBatch()) {
-            sources.values().forEach(source -> {
-                try {
-                    RegisterSource dbSource = registerDAO.get(modelName, source.id());
-                    if (Objects.nonNull(dbSource)) {
-                        if (dbSource.combine(source)) {
-                            registerDAO.forceUpdate(modelName, dbSource);
-                        }
-                    } else {
-                        int sequence;
-                        if ((sequence = registerLockDAO.getId(scopeId, source)) != Const.NONE) {
-                            try {
-                                dbSource = registerDAO.get(modelName, source.id());
-                                if (Objects.nonNull(dbSource)) {
-                                    if (dbSource.combine(source)) {
-                                        registerDAO.forceUpdate(modelName, dbSource);
-                                    }
-                                } else {
-                                    source.setSequence(sequence);
-                                    registerDAO.forceInsert(modelName, source);
+    private void persist() {
+        sources.values().forEach(source -> {
+            try {
+                RegisterSource dbSource = registerDAO.get(modelName, source.id());
+                if (Objects.nonNull(dbSource)) {
+                    if (dbSource.combine(source)) {
+                        registerDAO.forceUpdate(modelName, dbSource);
+                    }
+                    InventoryNameIndex.INSTANCE.index(dbSource);
+                } else {
+                    int sequence;
+                    if ((sequence = registerLockDAO.getId(scopeId, source)) != Const.NONE) {
+                        try {
+                            dbSource = registerDAO.get(modelName, source.id());
+                            if (Objects.nonNull(dbSource)) {
+                                if (dbSource.combine(source)) {
+                                    registerDAO.forceUpdate(modelName, dbSource);
                                 }
-                            } catch (Throwable t) {
-                                logger.error(t.getMessage(), t);
+                                InventoryNameIndex.INSTANCE.index(dbSource);
+                            } else {
+                                source.setSequence(sequence);
+                                registerDAO.forceInsert(modelName, source);
+                                InventoryNameIndex.INSTANCE.index(source);
                             }
-                        } else {
-                            logger.info("{} inventory register try lock and increment sequence failure.", DefaultScopeDefine.nameOf(scopeId));
+                        } catch (Throwable t) {
+                            logger.error(t.getMessage(), t);
                         }
+                    } else {
+                        logger.info("{} inventory register try lock and increment sequence failure.", DefaultScopeDefine.nameOf(scopeId));
                     }
-                } catch (Throwable t) {
-                    logger.error(t.getMessage(), t);
                 }
-            });
-            sources.clear();
-        }
+            } catch (Throwable t) {
+                logger.error(t.getMessage(), t);
+            }
+        });
+        sources.clear();
     }
 
     private class PersistentConsumer implements IConsumer<RegisterSource> {
@@ -130,17 +140,7 @@ public class RegisterPersistentWorker extends AbstractWorker<RegisterSource> {
         }
 
         @Override public void consume(List<RegisterSource> data) {
-            Iterator<RegisterSource> sourceIterator = data.iterator();
-
-            int i = 0;
-            while (sourceIterator.hasNext()) {
-                RegisterSource indicator = sourceIterator.next();
-                i++;
-                if (i == data.size()) {
-                    indicator.getEndOfBatchContext().setEndOfBatch(true);
-                }
-                persistent.onWork(indicator);
-            }
+            persistent.onWork(data);
         }
 
         @Override public void onError(List<RegisterSource> data, Throwable t) {
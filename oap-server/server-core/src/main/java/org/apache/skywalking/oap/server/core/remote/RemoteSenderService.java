@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.remote;
 
+import java.util.*;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.client.*;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
@@ -44,20 +45,36 @@ public class RemoteSenderService implements Service {
     public void send(int nextWorkId, StreamData streamData, Selector selector) {
         RemoteClientManager clientManager = moduleManager.find(CoreModule.NAME).provider().getService(RemoteClientManager.class);
 
-        RemoteClient remoteClient;
+        RemoteClient remoteClient = select(clientManager.getRemoteClient(), streamData, selector);
+        remoteClient.push(nextWorkId, streamData);
+    }
+
+    /**
+     * Send a batch of the stream data, grouped by the selected clients, so every client gets its part of the batch
+     * at once.
+     */
+    public void send(int nextWorkId, List<? extends StreamData> streamDataList, Selector selector) {
+        RemoteClientManager clientManager = moduleManager.find(CoreModule.NAME).provider().getService(RemoteClientManager.class);
+        List<RemoteClient> remoteClients = clientManager.getRemoteClient();
+
+        Map<RemoteClient, List<StreamData>> batches = new HashMap<>();
+        for (StreamData streamData : streamDataList) {
+            RemoteClient remoteClient = select(remoteClients, streamData, selector);
+            batches.computeIfAbsent(remoteClient, client -> new ArrayList<>()).add(streamData);
+        }
+        batches.forEach((remoteClient, batch) -> remoteClient.push(nextWorkId, batch));
+    }
+
+    private RemoteClient select(List<RemoteClient> remoteClients, StreamData streamData, Selector selector) {
         switch (selector) {
             case HashCode:
-                remoteClient = hashCodeSelector.select(clientManager.getRemoteClient(), streamData);
-                remoteClient.push(nextWorkId, streamData);
-                break;
+                return hashCodeSelector.select(remoteClients, streamData);
             case Rolling:
-                remoteClient = rollingSelector.select(clientManager.getRemoteClient(), streamData);
-                remoteClient.push(nextWorkId, streamData);
-                break;
+                return rollingSelector.select(remoteClients, streamData);
             case ForeverFirst:
-                remoteClient = foreverFirstSelector.select(clientManager.getRemoteClient(), streamData);
-                remoteClient.push(nextWorkId, streamData);
-                break;
+                return foreverFirstSelector.select(remoteClients, streamData);
+            default:
+                return null;
         }
     }
 }
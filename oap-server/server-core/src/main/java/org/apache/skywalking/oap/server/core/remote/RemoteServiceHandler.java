@@ -19,7 +19,7 @@
 package org.apache.skywalking.oap.server.core.remote;
 
 import io.grpc.stub.StreamObserver;
-import java.util.Objects;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
@@ -36,6 +36,9 @@ import org.slf4j.*;
  * each others. The stream data id is used to find the object to deserialize message. The next worker id is used to find
  * the worker to process message.
  *
+ * The messages of a stream are the batch sent by the remote client, so they are handed to every worker as one batch
+ * when the stream ends.
+ *
  * @author peng-yongsheng
  */
 public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBase implements GRPCHandler {
@@ -72,8 +75,14 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
         }
 
         return new StreamObserver<RemoteMessage>() {
+            /**
+             * The messages of a stream are counted once when it ends, the calls of a stream are serialized.
+             */
+            private int count;
+            private final Map<Integer, List<StreamData>> batches = new LinkedHashMap<>();
+
             @Override public void onNext(RemoteMessage message) {
-                remoteInCounter.inc();
+                count++;
                 HistogramMetric.Timer timer = remoteInHistogram.createTimer();
                 try {
                     int streamDataId = message.getStreamDataId();
@@ -84,7 +93,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
                     try {
                         StreamData streamData = streamDataClass.newInstance();
                         streamData.deserialize(remoteData);
-                        WorkerInstances.INSTANCES.get(nextWorkerId).in(streamData);
+                        batches.computeIfAbsent(nextWorkerId, id -> new ArrayList<>()).add(streamData);
                     } catch (Throwable t) {
                         remoteInErrorCounter.inc();
                         logger.error(t.getMessage(), t);
@@ -95,13 +104,30 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
 
             @Override public void onError(Throwable throwable) {
+                remoteInCounter.inc(count);
                 logger.error(throwable.getMessage(), throwable);
+                // The received messages are still processed, as they were before the stream broke.
+                flush();
             }
 
             @Override public void onCompleted() {
+                remoteInCounter.inc(count);
+                flush();
                 responseObserver.onNext(Empty.newBuilder().build());
                 responseObserver.onCompleted();
             }
+
+            private void flush() {
+                batches.forEach((nextWorkerId, batch) -> {
+                    try {
+                        WorkerInstances.INSTANCES.get(nextWorkerId).in(batch);
+                    } catch (Throwable t) {
+                        remoteInErrorCounter.inc();
+                        logger.error(t.getMessage(), t);
+                    }
+                });
+                batches.clear();
+            }
         };
     }
 }
@@ -28,6 +28,7 @@ import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.*;
+import org.apache.skywalking.oap.server.core.worker.PipelineProfiler;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.apache.skywalking.oap.server.library.module.*;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
@@ -109,6 +110,7 @@ public class GRPCRemoteClient implements RemoteClient {
                 if (Objects.isNull(this.carrier)) {
                     this.carrier = new DataCarrier<>("GRPCRemoteClient", channelSize, bufferSize);
                     this.carrier.setBufferStrategy(BufferStrategy.BLOCKING);
+                    PipelineProfiler.INSTANCE.register("GRPCRemoteClient", address.toString(), carrier);
                 }
             }
         }
@@ -139,9 +141,9 @@ public class GRPCRemoteClient implements RemoteClient {
             try {
                 StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
                 for (RemoteMessage remoteMessage : remoteMessages) {
-                    remoteOutCounter.inc();
                     streamObserver.onNext(remoteMessage);
                 }
+                remoteOutCounter.inc(remoteMessages.size());
                 streamObserver.onCompleted();
             } catch (Throwable t) {
                 remoteOutErrorCounter.inc();
@@ -201,6 +203,7 @@ public class GRPCRemoteClient implements RemoteClient {
     @Override public void close() {
         if (Objects.nonNull(this.carrier)) {
             this.carrier.shutdownConsumers();
+            PipelineProfiler.INSTANCE.unregister(this.carrier);
         }
         if (Objects.nonNull(this.client)) {
             this.client.shutdown();
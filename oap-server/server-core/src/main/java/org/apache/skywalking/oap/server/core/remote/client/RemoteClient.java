@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import java.util.List;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 
 /**
@@ -32,4 +33,13 @@ public interface RemoteClient extends Comparable<RemoteClient> {
     void close();
 
     void push(int nextWorkerId, StreamData streamData);
+
+    /**
+     * Push a batch of the stream data, which are routed to this client, to the same worker.
+     */
+    default void push(int nextWorkerId, List<? extends StreamData> streamDataList) {
+        for (StreamData streamData : streamDataList) {
+            push(nextWorkerId, streamData);
+        }
+    }
 }
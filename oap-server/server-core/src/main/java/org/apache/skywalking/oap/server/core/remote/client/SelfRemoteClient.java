@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import java.util.List;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.worker.WorkerInstances;
@@ -55,6 +56,10 @@ public class SelfRemoteClient implements RemoteClient {
         WorkerInstances.INSTANCES.get(nextWorkerId).in(streamData);
     }
 
+    @Override public void push(int nextWorkerId, List<? extends StreamData> streamDataList) {
+        WorkerInstances.INSTANCES.get(nextWorkerId).in(streamDataList);
+    }
+
     @Override public int compareTo(RemoteClient o) {
         return address.compareTo(o.getAddress());
     }
@@ -22,6 +22,7 @@ import java.util.*;
 import java.util.concurrent.*;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.analysis.worker.*;
+import org.apache.skywalking.oap.server.core.worker.PipelineProfiler;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
@@ -76,10 +77,11 @@ public enum PersistenceTimer {
         }
 
         long startTime = System.currentTimeMillis();
+        long prepareTime = startTime;
+        List batchAllCollection = new LinkedList();
         try {
             HistogramMetric.Timer timer = prepareLatency.createTimer();
 
-            List batchAllCollection = new LinkedList();
             try {
                 List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
                 persistenceWorkers.addAll(IndicatorProcess.INSTANCE.getPersistentWorkers());
@@ -106,6 +108,7 @@ public enum PersistenceTimer {
                 }
             } finally {
                 timer.finish();
+                prepareTime = System.currentTimeMillis();
             }
 
             HistogramMetric.Timer executeLatencyTimer = executeLatency.createTimer();
@@ -118,6 +121,7 @@ public enum PersistenceTimer {
             errorCounter.inc();
             logger.error(e.getMessage(), e);
         } finally {
+            PipelineProfiler.INSTANCE.recordPersistence(batchAllCollection.size(), prepareTime - startTime, System.currentTimeMillis() - prepareTime);
             if (logger.isDebugEnabled()) {
                 logger.debug("persistence data save finish");
             }
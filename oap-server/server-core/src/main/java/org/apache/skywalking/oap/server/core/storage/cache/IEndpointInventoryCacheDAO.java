@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.server.core.storage.cache;
 
+import java.io.IOException;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.register.EndpointInventory;
 import org.apache.skywalking.oap.server.core.storage.DAO;
 
@@ -29,4 +31,9 @@ public interface IEndpointInventoryCacheDAO extends DAO {
     int getEndpointId(int serviceId, String endpointName, int detectPoint);
 
     EndpointInventory get(int endpointId);
+
+    /**
+     * @return at most the given number of the server side endpoints registered not before the given time.
+     */
+    List<EndpointInventory> loadLastRegistered(long registerTime, int limit) throws IOException;
 }
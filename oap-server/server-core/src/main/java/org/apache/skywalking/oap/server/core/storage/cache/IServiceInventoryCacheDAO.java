@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.storage.cache;
 
+import java.io.IOException;
 import java.util.List;
 import org.apache.skywalking.oap.server.core.register.ServiceInventory;
 import org.apache.skywalking.oap.server.core.storage.DAO;
@@ -34,4 +35,9 @@ public interface IServiceInventoryCacheDAO extends DAO {
     ServiceInventory get(int serviceId);
 
     List<ServiceInventory> loadLastMappingUpdate();
+
+    /**
+     * @return the services whose heartbeat time is not before the given time, the new registered ones included.
+     */
+    List<ServiceInventory> loadLastUpdate(long heartbeatTime) throws IOException;
 }
@@ -29,9 +29,16 @@ import org.apache.skywalking.oap.server.library.module.Service;
  */
 public interface ITraceQueryDAO extends Service {
 
+    /**
+     * @param cursor the {@link TraceCursor} of the previous page, if not empty, the traces are listed after it and the
+     * from is ignored.
+     * @param needTotal false means the total isn't counted but approximated by {@link TraceCursor#approximateTotal(int,
+     * int, int)}.
+     */
     TraceBrief queryBasicTraces(long startSecondTB, long endSecondTB, long minDuration,
         long maxDuration, String endpointName, int serviceId, int serviceInstanceId, int endpointId, String traceId,
-        int limit, int from, TraceState traceState, QueryOrder queryOrder) throws IOException;
+        int limit, int from, String cursor, boolean needTotal, TraceState traceState,
+        QueryOrder queryOrder) throws IOException;
 
     List<SegmentRecord> queryByTraceId(String traceId) throws IOException;
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage.query;
+
+import java.util.List;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.*;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+
+/**
+ * The position of the last trace of a page in the basic trace list, which is sorted by the start time or the latency,
+ * then by the segment id. The next page starts after it, so the storage seeks to it instead of skipping all the
+ * traces before the page.
+ */
+@Getter
+public class TraceCursor {
+    private final long sortValue;
+    private final String segmentId;
+
+    public TraceCursor(long sortValue, String segmentId) {
+        this.sortValue = sortValue;
+        this.segmentId = segmentId;
+    }
+
+    /**
+     * @param queryOrder decides the sort value is the start time or the latency.
+     */
+    public static String build(QueryOrder queryOrder, long startTime, int latency, String segmentId) {
+        long sortValue = QueryOrder.BY_DURATION.equals(queryOrder) ? latency : startTime;
+        return sortValue + Const.ID_SPLIT + segmentId;
+    }
+
+    /**
+     * @return the cursor of the last trace if the page is full, otherwise null as there are no more traces.
+     */
+    public static String next(QueryOrder queryOrder, List<BasicTrace> traces, int limit) {
+        if (traces.isEmpty() || traces.size() < limit) {
+            return null;
+        }
+        BasicTrace lastTrace = traces.get(traces.size() - 1);
+        return build(queryOrder, Long.parseLong(lastTrace.getStart()), lastTrace.getDuration(), lastTrace.getSegmentId());
+    }
+
+    public static TraceCursor parse(String cursor) {
+        int index = cursor.indexOf(Const.ID_SPLIT);
+        if (index <= 0) {
+            throw new UnexpectedException("Illegal trace cursor " + cursor);
+        }
+        try {
+            return new TraceCursor(Long.parseLong(cursor.substring(0, index)), cursor.substring(index + 1));
+        } catch (NumberFormatException e) {
+            throw new UnexpectedException("Illegal trace cursor " + cursor);
+        }
+    }
+
+    /**
+     * @return the total of the traces before and in the page, plus one if the page is full, so the next page is
+     * known to exist when the exact total isn't counted.
+     */
+    public static int approximateTotal(int from, int limit, int size) {
+        return from + size + (size >= limit ? 1 : 0);
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.worker;
 
+import java.util.List;
 import lombok.Getter;
 
 /**
@@ -32,4 +33,13 @@ public abstract class AbstractWorker<INPUT> {
     }
 
     public abstract void in(INPUT input);
+
+    /**
+     * Accept a batch of the inputs, so the worker knows the end of the batch without a flag in each input.
+     */
+    public void in(List<INPUT> inputs) {
+        for (INPUT input : inputs) {
+            in(input);
+        }
+    }
 }
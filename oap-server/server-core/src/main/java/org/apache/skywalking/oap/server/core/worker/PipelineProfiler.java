@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.worker;
+
+import com.google.gson.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.*;
+
+/**
+ * The snapshot of the streaming pipeline, so the stage which the backpressure starts from could be found when the OAP
+ * falls behind.
+ *
+ * Every stage reports the occupancy of its data carriers, the data failed to produce into them or blocked on them,
+ * and the drains of the consumers. Every bulk consume pool reports the ratio of the time its threads are busy in the
+ * consumers since the previous snapshot. The persistence timer reports its last cycle.
+ */
+public enum PipelineProfiler {
+    INSTANCE;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    private final Map<String, long[]> previousPoolBusyNanos = new HashMap<>();
+    private volatile long lastPersistenceSize;
+    private volatile long lastPersistencePrepareMillis;
+    private volatile long lastPersistenceExecuteMillis;
+
+    /**
+     * @param stage the name of the stage in the pipeline, the carriers of one stage are summed up.
+     * @param name the name of the carrier in the stage, usually the model name.
+     */
+    public void register(String stage, String name, DataCarrier<?> dataCarrier) {
+        stages.add(new Stage(stage, name, dataCarrier.getChannels()));
+    }
+
+    /**
+     * Remove the carrier which is closed, such as the one of a remote client closed as the cluster changes.
+     */
+    public void unregister(DataCarrier<?> dataCarrier) {
+        stages.removeIf(stage -> stage.channels == dataCarrier.getChannels());
+    }
+
+    public void recordPersistence(long size, long prepareMillis, long executeMillis) {
+        lastPersistenceSize = size;
+        lastPersistencePrepareMillis = prepareMillis;
+        lastPersistenceExecuteMillis = executeMillis;
+    }
+
+    public synchronized JsonObject snapshot() {
+        JsonObject snapshot = new JsonObject();
+
+        Map<String, JsonObject> stageTotals = new LinkedHashMap<>();
+        Map<String, JsonArray> stageCarriers = new HashMap<>();
+        for (Stage stage : stages) {
+            JsonObject carrier = stage.snapshot();
+            stageCarriers.computeIfAbsent(stage.stage, key -> new JsonArray()).add(carrier);
+
+            JsonObject total = stageTotals.computeIfAbsent(stage.stage, key -> {
+                JsonObject json = new JsonObject();
+                json.addProperty("stage", key);
+                return json;
+            });
+            for (String field : Stage.SUMMED_FIELDS) {
+                long sum = total.has(field) ? total.get(field).getAsLong() : 0;
+                total.addProperty(field, sum + carrier.get(field).getAsLong());
+            }
+        }
+
+        JsonArray stagesJson = new JsonArray();
+        stageTotals.forEach((stage, total) -> {
+            total.add("carriers", stageCarriers.get(stage));
+            stagesJson.add(total);
+        });
+        snapshot.add("stages", stagesJson);
+
+        long now = System.nanoTime();
+        JsonArray poolsJson = new JsonArray();
+        ConsumerPoolFactory.INSTANCE.getPools().forEach((name, pool) -> {
+            if (!(pool instanceof BulkConsumePool)) {
+                return;
+            }
+            BulkConsumePool bulkPool = (BulkConsumePool)pool;
+            long busyNanos = bulkPool.getBusyNanos();
+            long[] previous = previousPoolBusyNanos.put(name, new long[] {busyNanos, now});
+
+            JsonObject poolJson = new JsonObject();
+            poolJson.addProperty("name", name);
+            poolJson.addProperty("threads", bulkPool.getSize());
+            if (previous != null && now > previous[1]) {
+                poolJson.addProperty("busyRatio", (double)(busyNanos - previous[0]) / (now - previous[1]) / bulkPool.getSize());
+            }
+            poolsJson.add(poolJson);
+        });
+        snapshot.add("pools", poolsJson);
+
+        JsonObject persistence = new JsonObject();
+        persistence.addProperty("lastSize", lastPersistenceSize);
+        persistence.addProperty("lastPrepareMillis", lastPersistencePrepareMillis);
+        persistence.addProperty("lastExecuteMillis", lastPersistenceExecuteMillis);
+        snapshot.add("persistence", persistence);
+
+        return snapshot;
+    }
+
+    private static class Stage {
+        private static final String[] SUMMED_FIELDS = {"capacity", "occupancy", "produceFailed", "blocked", "consumed", "consumeBatches", "consumeMillis"};
+
+        private final String stage;
+        private final String name;
+        private final Channels<?> channels;
+
+        private Stage(String stage, String name, Channels<?> channels) {
+            this.stage = stage;
+            this.name = name;
+            this.channels = channels;
+        }
+
+        private JsonObject snapshot() {
+            JsonObject json = new JsonObject();
+            json.addProperty("name", name);
+            json.addProperty("capacity", channels.size());
+            json.addProperty("occupancy", channels.occupancy());
+            json.addProperty("produceFailed", channels.getProduceFailedCount());
+            json.addProperty("blocked", channels.getBlockedCount());
+            json.addProperty("consumed", channels.getConsumedCount());
+            json.addProperty("consumeBatches", channels.getConsumeBatchCount());
+            json.addProperty("consumeMillis", channels.getConsumeNanos() / 1000000);
+            return json;
+        }
+    }
+}
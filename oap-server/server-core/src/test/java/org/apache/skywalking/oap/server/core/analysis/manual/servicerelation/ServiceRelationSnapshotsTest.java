@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.servicerelation;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.core.source.*;
+import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
+import org.junit.*;
+
+public class ServiceRelationSnapshotsTest {
+
+    private long currentTB;
+
+    @Before
+    public void setUp() {
+        ServiceRelationSnapshots.INSTANCE.setRetention(60, 24);
+        currentTB = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis());
+    }
+
+    @After
+    public void tearDown() {
+        ServiceRelationSnapshots.INSTANCE.setRetention(0, 0);
+    }
+
+    @Test
+    public void testMergeSnapshots() {
+        ServiceRelationSnapshots.INSTANCE.record(relation(currentTB - 1, 1, 2, DetectPoint.CLIENT));
+        ServiceRelationSnapshots.INSTANCE.record(relation(currentTB, 1, 2, DetectPoint.CLIENT));
+        ServiceRelationSnapshots.INSTANCE.record(relation(currentTB, 2, 3, DetectPoint.CLIENT));
+        ServiceRelationSnapshots.INSTANCE.record(relation(currentTB, 1, 2, DetectPoint.SERVER));
+
+        List<Call> clientCalls = ServiceRelationSnapshots.INSTANCE.load(Step.MINUTE, currentTB - 1, currentTB, DetectPoint.CLIENT, null);
+        Assert.assertEquals(2, clientCalls.size());
+
+        List<Call> serverCalls = ServiceRelationSnapshots.INSTANCE.load(Step.MINUTE, currentTB - 1, currentTB, DetectPoint.SERVER, null);
+        Assert.assertEquals(1, serverCalls.size());
+        Assert.assertEquals("1_2_10", serverCalls.get(0).getId());
+        Assert.assertEquals(1, serverCalls.get(0).getSource());
+        Assert.assertEquals(2, serverCalls.get(0).getTarget());
+        Assert.assertEquals(10, serverCalls.get(0).getComponentId());
+        Assert.assertEquals(DetectPoint.SERVER, serverCalls.get(0).getDetectPoint());
+
+        List<Call> hourCalls = ServiceRelationSnapshots.INSTANCE.load(Step.HOUR, currentTB / 100, currentTB / 100, DetectPoint.CLIENT, null);
+        Assert.assertEquals(2, hourCalls.size());
+    }
+
+    @Test
+    public void testOfferedRelationsRecordedAsync() {
+        ServiceRelationSnapshots.INSTANCE.offer(relation(currentTB, 1, 2, DetectPoint.CLIENT));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        List<Call> calls = Collections.emptyList();
+        while (calls.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+            calls = ServiceRelationSnapshots.INSTANCE.load(Step.MINUTE, currentTB, currentTB, DetectPoint.CLIENT, null);
+        }
+        Assert.assertEquals(1, calls.size());
+    }
+
+    @Test
+    public void testFilterServices() {
+        ServiceRelationSnapshots.INSTANCE.record(relation(currentTB, 1, 2, DetectPoint.CLIENT));
+        ServiceRelationSnapshots.INSTANCE.record(relation(currentTB, 2, 3, DetectPoint.CLIENT));
+        ServiceRelationSnapshots.INSTANCE.record(relation(currentTB, 4, 5, DetectPoint.CLIENT));
+
+        List<Call> calls = ServiceRelationSnapshots.INSTANCE.load(Step.MINUTE, currentTB, currentTB, DetectPoint.CLIENT, Collections.singleton(2));
+        Assert.assertEquals(2, calls.size());
+        calls.forEach(call -> Assert.assertTrue(call.getSource() == 2 || call.getTarget() == 2));
+    }
+
+    @Test
+    public void testCovered() {
+        Assert.assertFalse(ServiceRelationSnapshots.INSTANCE.isCovered(Step.MINUTE, currentTB, currentTB));
+        Assert.assertFalse(ServiceRelationSnapshots.INSTANCE.isCovered(Step.HOUR, currentTB / 100, currentTB / 100));
+        Assert.assertFalse(ServiceRelationSnapshots.INSTANCE.isCovered(Step.DAY, currentTB / 10000, currentTB / 10000));
+
+        long nextTB = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis() + 60 * 1000L);
+        Assert.assertTrue(ServiceRelationSnapshots.INSTANCE.isCovered(Step.MINUTE, nextTB, nextTB));
+
+        ServiceRelationSnapshots.INSTANCE.setRetention(0, 0);
+        Assert.assertFalse(ServiceRelationSnapshots.INSTANCE.isCovered(Step.MINUTE, nextTB, nextTB));
+    }
+
+    @Test
+    public void testDroppedNotCovered() {
+        long nextTB = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis() + 60 * 1000L);
+        long laterTB = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(System.currentTimeMillis() + 2 * 60 * 1000L);
+        Assert.assertTrue(ServiceRelationSnapshots.INSTANCE.isCovered(Step.MINUTE, nextTB, laterTB));
+
+        ServiceRelationSnapshots.INSTANCE.dropped(relation(laterTB, 1, 2, DetectPoint.CLIENT));
+
+        Assert.assertTrue(ServiceRelationSnapshots.INSTANCE.isCovered(Step.MINUTE, nextTB, nextTB));
+        Assert.assertFalse(ServiceRelationSnapshots.INSTANCE.isCovered(Step.MINUTE, nextTB, laterTB));
+        Assert.assertFalse(ServiceRelationSnapshots.INSTANCE.isCovered(Step.MINUTE, laterTB, laterTB));
+    }
+
+    private ServiceRelation relation(long timeBucket, int sourceServiceId, int destServiceId,
+        DetectPoint detectPoint) {
+        ServiceRelation relation = new ServiceRelation();
+        relation.setTimeBucket(timeBucket);
+        relation.setSourceServiceId(sourceServiceId);
+        relation.setDestServiceId(destServiceId);
+        relation.setComponentId(10);
+        relation.setDetectPoint(detectPoint);
+        return relation;
+    }
+}
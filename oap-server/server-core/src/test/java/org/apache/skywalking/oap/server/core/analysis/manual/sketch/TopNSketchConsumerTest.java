@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.sketch;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.analysis.worker.MinuteValueCollector;
+import org.apache.skywalking.oap.server.core.query.entity.TopNEntity;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.library.util.TimeBucketUtils;
+import org.junit.*;
+
+public class TopNSketchConsumerTest {
+
+    @Test
+    public void testCloseBuckets() {
+        long now = System.currentTimeMillis();
+        long currentTB = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(now);
+        long closedTB = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(now - 3 * 60 * 1000L);
+        MinuteValueCollector collector = new MinuteValueCollector(Collections.singletonList(new TopNSketchConsumer("endpoint_avg", 10)));
+
+        collector.collect(indicator(closedTB, "1", 100));
+        collector.collect(indicator(closedTB, "2", 10));
+        collector.collect(indicator(closedTB, "2", 30));
+        collector.collect(indicator(currentTB, "1", 20));
+
+        List<Indicator> sketches = collector.close(now);
+        Assert.assertEquals(1, sketches.size());
+        TopNSketchIndicator sketch = (TopNSketchIndicator)sketches.get(0);
+        Assert.assertEquals(closedTB, sketch.getTimeBucket());
+        Assert.assertEquals("endpoint_avg", sketch.getIndicatorName());
+        List<TopNEntity> topN = TopNSketch.fromBytes(sketch.getSketch()).topN(10);
+        Assert.assertEquals(2, topN.size());
+        Assert.assertEquals(30, topN.get(1).getValue());
+
+        collector.collect(indicator(closedTB, "3", 1000));
+        Assert.assertTrue(collector.close(now).isEmpty());
+        Assert.assertEquals(1, collector.close(now + 3 * 60 * 1000L).size());
+    }
+
+    private Indicator indicator(long timeBucket, String entityId, long value) {
+        LongAvgIndicatorImpl indicator = new LongAvgIndicatorImpl(entityId);
+        indicator.setTimeBucket(timeBucket);
+        indicator.combine(value, 1);
+        indicator.calculate();
+        return indicator;
+    }
+
+    public class LongAvgIndicatorImpl extends LongAvgIndicator implements WithMetadata {
+        private final String entityId;
+
+        LongAvgIndicatorImpl(String entityId) {
+            this.entityId = entityId;
+        }
+
+        @Override public IndicatorMetaInfo getMeta() {
+            return new IndicatorMetaInfo("endpoint_avg", 0, entityId);
+        }
+
+        @Override public String id() {
+            return null;
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.sketch;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.query.entity.TopNEntity;
+import org.junit.*;
+
+public class TopNSketchTest {
+
+    @Test
+    public void testTopN() {
+        Map<String, Double> values = new HashMap<>();
+        values.put("1", 100D);
+        values.put("2", 10D);
+        values.put("3", 50D);
+        TopNSketch sketch = TopNSketch.of(values, 2);
+
+        Assert.assertEquals(2, sketch.size());
+        Assert.assertEquals(10D, sketch.getFloor(), 0);
+        List<TopNEntity> topN = sketch.topN(2);
+        Assert.assertEquals("1", topN.get(0).getId());
+        Assert.assertEquals(100, topN.get(0).getValue());
+        Assert.assertEquals("3", topN.get(1).getId());
+        Assert.assertEquals(1, sketch.topN(1).size());
+        Assert.assertNull(sketch.topN(3));
+    }
+
+    @Test
+    public void testMergeAveragesObservedValues() {
+        TopNSketch minute1 = TopNSketch.of(values("1", 100, "2", 30), 10);
+        TopNSketch minute2 = TopNSketch.of(values("1", 20, "2", 50), 10);
+        TopNSketch minute3 = TopNSketch.of(values("2", 40), 10);
+        minute1.merge(minute2);
+        minute1.merge(minute3);
+
+        List<TopNEntity> topN = minute1.topN(2);
+        Assert.assertEquals("1", topN.get(0).getId());
+        Assert.assertEquals(60, topN.get(0).getValue());
+        Assert.assertEquals("2", topN.get(1).getId());
+        Assert.assertEquals(40, topN.get(1).getValue());
+    }
+
+    @Test
+    public void testRankByAverage() {
+        TopNSketch merged = TopNSketch.of(values("frequent", 10, "rare", 50), 10);
+        merged.merge(TopNSketch.of(values("frequent", 10), 10));
+        merged.merge(TopNSketch.of(values("frequent", 10), 10));
+
+        List<TopNEntity> topN = merged.topN(1);
+        Assert.assertEquals("rare", topN.get(0).getId());
+        Assert.assertEquals(50, topN.get(0).getValue());
+    }
+
+    @Test
+    public void testUncertainAfterDroppedValues() {
+        TopNSketch merged = TopNSketch.of(values("1", 100, "2", 90, "3", 80), 2);
+        merged.merge(TopNSketch.of(values("3", 80, "1", 10, "2", 5), 2));
+
+        Assert.assertNull(merged.topN(1));
+
+        TopNSketch certain = TopNSketch.of(values("1", 100, "2", 90, "3", 10), 2);
+        certain.merge(TopNSketch.of(values("1", 100, "2", 90, "3", 10), 2));
+        List<TopNEntity> topN = certain.topN(2);
+        Assert.assertEquals("1", topN.get(0).getId());
+        Assert.assertEquals("2", topN.get(1).getId());
+        Assert.assertEquals(90, topN.get(1).getValue());
+    }
+
+    @Test
+    public void testHeavyHittersKeptAcrossMerges() {
+        TopNSketch merged = new TopNSketch(5);
+        for (int bucket = 0; bucket < 60; bucket++) {
+            Map<String, Double> values = new HashMap<>();
+            values.put("heavy", 1000D);
+            for (int i = 0; i < 20; i++) {
+                values.put(String.valueOf(bucket * 20 + i), (double)i);
+            }
+            merged.merge(TopNSketch.of(values, 5));
+        }
+
+        Assert.assertEquals(5, merged.size());
+        TopNEntity top = merged.topN(1).get(0);
+        Assert.assertEquals("heavy", top.getId());
+        Assert.assertEquals(1000, top.getValue());
+    }
+
+    @Test
+    public void testCombineNodes() {
+        TopNSketch node1 = TopNSketch.of(values("1", 100, "2", 30, "3", 10), 2);
+        TopNSketch node2 = TopNSketch.of(values("4", 50, "5", 20), 2);
+        node1.combine(node2);
+
+        List<TopNEntity> topN = node1.topN(2);
+        Assert.assertEquals("1", topN.get(0).getId());
+        Assert.assertEquals("4", topN.get(1).getId());
+        Assert.assertEquals(50, topN.get(1).getValue());
+    }
+
+    @Test
+    public void testBytes() {
+        TopNSketch sketch = TopNSketch.of(values("1", 100, "2", 30, "3", 10), 2);
+        TopNSketch copy = TopNSketch.fromBytes(sketch.toBytes());
+
+        Assert.assertEquals(2, copy.getCapacity());
+        Assert.assertEquals(2, copy.size());
+        Assert.assertEquals(sketch.getFloor(), copy.getFloor(), 0);
+        Assert.assertEquals(sketch.topN(2).get(1).getId(), copy.topN(2).get(1).getId());
+        Assert.assertEquals(sketch.topN(2).get(1).getValue(), copy.topN(2).get(1).getValue());
+    }
+
+    @Test
+    public void testCombineIndicators() {
+        TopNSketchIndicator node1 = indicator(201901010000L, values("1", 100, "2", 30));
+        TopNSketchIndicator node2 = indicator(201901010000L, values("3", 50));
+        node1.combine(node2);
+
+        TopNSketchIndicator hour = (TopNSketchIndicator)node1.toHour();
+        Assert.assertEquals(2019010100L, hour.getTimeBucket());
+        Assert.assertEquals("2019010100_endpoint_avg", hour.id());
+        List<TopNEntity> topN = TopNSketch.fromBytes(hour.getSketch()).topN(3);
+        Assert.assertEquals(3, topN.size());
+        Assert.assertEquals("3", topN.get(1).getId());
+
+        TopNSketchIndicator remote = new TopNSketchIndicator();
+        remote.deserialize(hour.serialize().build());
+        Assert.assertEquals(hour, remote);
+        Assert.assertArrayEquals(hour.getSketch(), remote.getSketch());
+    }
+
+    private TopNSketchIndicator indicator(long timeBucket, Map<String, Double> values) {
+        TopNSketchIndicator indicator = new TopNSketchIndicator();
+        indicator.setTimeBucket(timeBucket);
+        indicator.setIndicatorName("endpoint_avg");
+        indicator.setSketch(TopNSketch.of(values, 10).toBytes());
+        return indicator;
+    }
+
+    private Map<String, Double> values(Object... idAndValues) {
+        Map<String, Double> values = new HashMap<>();
+        for (int i = 0; i < idAndValues.length; i += 2) {
+            values.put((String)idAndValues[i], ((Number)idAndValues[i + 1]).doubleValue());
+        }
+        return values;
+    }
+}
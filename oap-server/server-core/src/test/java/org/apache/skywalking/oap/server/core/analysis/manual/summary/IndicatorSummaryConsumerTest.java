@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.manual.summary;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.analysis.manual.sketch.*;
+import org.apache.skywalking.oap.server.core.analysis.worker.MinuteValueCollector;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.*;
+
+public class IndicatorSummaryConsumerTest {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    @Test
+    public void testCloseWindows() throws Exception {
+        long start = new SimpleDateFormat("yyyyMMddHHmm").parse("201901010007").getTime();
+        MinuteValueCollector collector = new MinuteValueCollector(Collections.singletonList(new IndicatorSummaryConsumer("endpoint_avg", 15, start)));
+
+        collector.collect(indicator(201901010010L, "1", 100));
+        collector.collect(indicator(201901010015L, "1", 10));
+        collector.collect(indicator(201901010016L, "1", 20));
+        collector.collect(indicator(201901010016L, "1", 30));
+        collector.collect(indicator(201901010029L, "2", 5));
+
+        Assert.assertTrue(collector.close(start + 8 * MINUTE).isEmpty());
+
+        List<IndicatorSummary> startWindow = summaries(collector.close(start + 9 * MINUTE));
+        Assert.assertEquals(1, startWindow.size());
+        Assert.assertEquals(201901010000L, startWindow.get(0).getTimeBucket());
+        Assert.assertEquals("", startWindow.get(0).getEntityId());
+        Assert.assertEquals(1, startWindow.get(0).getSummation());
+        Assert.assertEquals(0, startWindow.get(0).getCount());
+
+        Assert.assertTrue(collector.close(start + 23 * MINUTE).isEmpty());
+        Map<String, IndicatorSummary> summaries = summaries(collector.close(start + 24 * MINUTE)).stream()
+            .collect(Collectors.toMap(IndicatorSummary::getEntityId, Function.identity()));
+        Assert.assertEquals(3, summaries.size());
+        Assert.assertEquals(40, summaries.get("1").getSummation());
+        Assert.assertEquals(2, summaries.get("1").getCount());
+        Assert.assertEquals(201901010015L, summaries.get("1").getTimeBucket());
+        Assert.assertEquals(5, summaries.get("2").getSummation());
+        Assert.assertEquals(0, summaries.get("").getSummation());
+        Assert.assertEquals(1, summaries.get("").getCount());
+
+        collector.collect(indicator(201901010020L, "3", 1000));
+        Assert.assertTrue(collector.close(start + 40 * MINUTE).isEmpty());
+    }
+
+    @Test
+    public void testShareCollectorWithSketch() throws Exception {
+        long start = new SimpleDateFormat("yyyyMMddHHmm").parse("201901010000").getTime();
+        MinuteValueCollector collector = new MinuteValueCollector(Arrays.asList(
+            new TopNSketchConsumer("endpoint_avg", 10), new IndicatorSummaryConsumer("endpoint_avg", 15, start - MINUTE)));
+
+        collector.collect(indicator(201901010000L, "1", 100));
+        collector.collect(indicator(201901010014L, "1", 20));
+
+        List<Indicator> indicators = collector.close(start + 16 * MINUTE);
+        Assert.assertEquals(5, indicators.size());
+        Assert.assertEquals(2, indicators.stream().filter(TopNSketchIndicator.class::isInstance).count());
+        IndicatorSummary summary = summaries(indicators).stream().filter(s -> "1".equals(s.getEntityId())).findFirst().get();
+        Assert.assertEquals(120, summary.getSummation());
+        Assert.assertEquals(2, summary.getCount());
+    }
+
+    @Test
+    public void testSkipNonIntegerIndicators() {
+        IndicatorSummaries.INSTANCE.setWindowMinutes(15);
+        try {
+            Assert.assertNotNull(IndicatorSummaries.INSTANCE.newConsumer("endpoint_avg", LongAvgIndicatorImpl.class));
+            Assert.assertNull(IndicatorSummaries.INSTANCE.newConsumer("endpoint_apdex", DoubleAvgIndicator.class));
+        } finally {
+            IndicatorSummaries.INSTANCE.setWindowMinutes(0);
+        }
+    }
+
+    @Test
+    public void testCombineAndDownsample() {
+        IndicatorSummary summary = new IndicatorSummary();
+        summary.setTimeBucket(201901010015L);
+        summary.setIndicatorName("endpoint_avg");
+        summary.setEntityId("1");
+        summary.setSummation(40);
+        summary.setCount(2);
+
+        IndicatorSummary remote = new IndicatorSummary();
+        remote.deserialize(summary.serialize().build());
+        Assert.assertEquals(summary, remote);
+        Assert.assertEquals("201901010015_endpoint_avg_1", remote.id());
+
+        summary.combine(remote);
+        Assert.assertEquals(80, summary.getSummation());
+        Assert.assertEquals(4, summary.getCount());
+
+        IndicatorSummary hour = (IndicatorSummary)summary.toHour();
+        Assert.assertEquals(2019010100L, hour.getTimeBucket());
+        Assert.assertEquals(80, hour.getSummation());
+        Assert.assertEquals("2019010100_endpoint_avg", IndicatorSummary.id(hour.getTimeBucket(), "endpoint_avg", ""));
+    }
+
+    private List<IndicatorSummary> summaries(List<Indicator> indicators) {
+        return indicators.stream().filter(IndicatorSummary.class::isInstance).map(IndicatorSummary.class::cast)
+            .collect(Collectors.toList());
+    }
+
+    private Indicator indicator(long timeBucket, String entityId, long value) {
+        LongAvgIndicatorImpl indicator = new LongAvgIndicatorImpl(entityId);
+        indicator.setTimeBucket(timeBucket);
+        indicator.combine(value, 1);
+        indicator.calculate();
+        return indicator;
+    }
+
+    public class LongAvgIndicatorImpl extends LongAvgIndicator implements WithMetadata {
+        private final String entityId;
+
+        LongAvgIndicatorImpl(String entityId) {
+            this.entityId = entityId;
+        }
+
+        @Override public IndicatorMetaInfo getMeta() {
+            return new IndicatorMetaInfo("endpoint_avg", 0, entityId);
+        }
+
+        @Override public String id() {
+            return null;
+        }
+
+        @Override public Indicator toHour() {
+            return null;
+        }
+
+        @Override public Indicator toDay() {
+            return null;
+        }
+
+        @Override public Indicator toMonth() {
+            return null;
+        }
+
+        @Override public int remoteHashCode() {
+            return 0;
+        }
+
+        @Override public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override public RemoteData.Builder serialize() {
+            return null;
+        }
+    }
+}
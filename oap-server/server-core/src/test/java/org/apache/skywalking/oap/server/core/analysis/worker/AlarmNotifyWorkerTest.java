@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.concurrent.*;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.alarm.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.cache.*;
+import org.apache.skywalking.oap.server.core.register.ServiceInventory;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.apache.skywalking.oap.server.testing.module.*;
+import org.junit.*;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class AlarmNotifyWorkerTest {
+
+    private ModuleManager moduleManager;
+    private IndicatorNotify indicatorNotify;
+    private CounterMetric droppedCounter;
+    private CountDownLatch notified;
+    private CountDownLatch released;
+
+    @Before
+    public void setUp() {
+        notified = new CountDownLatch(1);
+        released = new CountDownLatch(1);
+        indicatorNotify = mock(IndicatorNotify.class);
+        doAnswer(invocation -> {
+            notified.countDown();
+            released.await();
+            return null;
+        }).when(indicatorNotify).notify(any(MetaInAlarm.class), any(Indicator.class));
+
+        ServiceInventory serviceInventory = new ServiceInventory();
+        serviceInventory.setName("service");
+        ServiceInventoryCache serviceInventoryCache = mock(ServiceInventoryCache.class);
+        when(serviceInventoryCache.get(anyInt())).thenReturn(serviceInventory);
+
+        droppedCounter = mock(CounterMetric.class);
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createCounter(anyString(), anyString(), any(MetricTag.Keys.class), any(MetricTag.Values.class))).thenReturn(droppedCounter);
+
+        ModuleManagerTesting moduleDefineHolder = new ModuleManagerTesting();
+        ModuleDefineTesting coreModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(CoreModule.NAME, coreModuleDefine);
+        coreModuleDefine.provider().registerServiceImplementation(ServiceInventoryCache.class, serviceInventoryCache);
+        coreModuleDefine.provider().registerServiceImplementation(ServiceInstanceInventoryCache.class, mock(ServiceInstanceInventoryCache.class));
+        coreModuleDefine.provider().registerServiceImplementation(EndpointInventoryCache.class, mock(EndpointInventoryCache.class));
+
+        ModuleDefineTesting alarmModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(AlarmModule.NAME, alarmModuleDefine);
+        alarmModuleDefine.provider().registerServiceImplementation(IndicatorNotify.class, indicatorNotify);
+
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, metricCreator);
+
+        moduleManager = mock(ModuleManager.class);
+        when(moduleManager.has(anyString())).thenReturn(true);
+        when(moduleManager.find(anyString())).thenAnswer(invocation -> moduleDefineHolder.find((String)invocation.getArguments()[0]));
+    }
+
+    @After
+    public void tearDown() {
+        released.countDown();
+    }
+
+    @Test
+    public void testNotifiedByAlarmNotifyThread() throws InterruptedException {
+        AlarmNotifyWorker worker = new AlarmNotifyWorker(1, moduleManager);
+        Thread[] notifyThread = new Thread[1];
+        doAnswer(invocation -> {
+            notifyThread[0] = Thread.currentThread();
+            notified.countDown();
+            return null;
+        }).when(indicatorNotify).notify(any(MetaInAlarm.class), any(Indicator.class));
+
+        worker.in(newIndicator());
+
+        Assert.assertTrue(notified.await(10, TimeUnit.SECONDS));
+        Assert.assertNotSame(Thread.currentThread(), notifyThread[0]);
+        verify(droppedCounter, never()).inc();
+    }
+
+    @Test
+    public void testDroppedWhenBufferFull() throws InterruptedException {
+        AlarmNotifyWorker worker = new AlarmNotifyWorker(2, moduleManager);
+
+        worker.in(newIndicator());
+        // The notify thread is blocked with the first indicator, so the buffer of 10000 is filled up.
+        Assert.assertTrue(notified.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 10001; i++) {
+            worker.in(newIndicator());
+        }
+
+        verify(droppedCounter, times(1)).inc();
+    }
+
+    private Indicator newIndicator() {
+        Indicator indicator = mock(Indicator.class, withSettings().extraInterfaces(WithMetadata.class));
+        when(((WithMetadata)indicator).getMeta()).thenReturn(new IndicatorMetaInfo("service_cpm", DefaultScopeDefine.SERVICE, "1"));
+        return indicator;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.concurrent.*;
+import org.apache.skywalking.oap.server.core.analysis.indicator.*;
+import org.apache.skywalking.oap.server.core.exporter.*;
+import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.apache.skywalking.oap.server.testing.module.*;
+import org.junit.*;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExportWorkerTest {
+
+    private ModuleManager moduleManager;
+    private MetricValuesExportService exportService;
+    private CounterMetric droppedCounter;
+    private CountDownLatch exported;
+    private CountDownLatch released;
+
+    @Before
+    public void setUp() {
+        exported = new CountDownLatch(1);
+        released = new CountDownLatch(1);
+        exportService = mock(MetricValuesExportService.class);
+        doAnswer(invocation -> {
+            exported.countDown();
+            released.await();
+            return null;
+        }).when(exportService).export(any(IndicatorMetaInfo.class), any(Indicator.class));
+
+        droppedCounter = mock(CounterMetric.class);
+        MetricCreator metricCreator = mock(MetricCreator.class);
+        when(metricCreator.createCounter(anyString(), anyString(), any(MetricTag.Keys.class), any(MetricTag.Values.class))).thenReturn(droppedCounter);
+
+        ModuleManagerTesting moduleDefineHolder = new ModuleManagerTesting();
+        ModuleDefineTesting exporterModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(ExporterModule.NAME, exporterModuleDefine);
+        exporterModuleDefine.provider().registerServiceImplementation(MetricValuesExportService.class, exportService);
+
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, metricCreator);
+
+        moduleManager = mock(ModuleManager.class);
+        when(moduleManager.has(anyString())).thenReturn(true);
+        when(moduleManager.find(anyString())).thenAnswer(invocation -> moduleDefineHolder.find((String)invocation.getArguments()[0]));
+    }
+
+    @After
+    public void tearDown() {
+        released.countDown();
+    }
+
+    @Test
+    public void testExportedByExportThread() throws InterruptedException {
+        ExportWorker worker = new ExportWorker(1, moduleManager);
+        Thread[] exportThread = new Thread[1];
+        doAnswer(invocation -> {
+            exportThread[0] = Thread.currentThread();
+            exported.countDown();
+            return null;
+        }).when(exportService).export(any(IndicatorMetaInfo.class), any(Indicator.class));
+
+        Indicator indicator = newIndicator();
+        worker.in(indicator);
+
+        Assert.assertTrue(exported.await(10, TimeUnit.SECONDS));
+        Assert.assertNotSame(Thread.currentThread(), exportThread[0]);
+        verify(exportService).export(((WithMetadata)indicator).getMeta(), indicator);
+        verify(droppedCounter, never()).inc();
+    }
+
+    @Test
+    public void testDroppedWhenBufferFull() throws InterruptedException {
+        ExportWorker worker = new ExportWorker(2, moduleManager);
+
+        worker.in(newIndicator());
+        // The export thread is blocked with the first indicator, so the buffer of 10000 is filled up.
+        Assert.assertTrue(exported.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 10001; i++) {
+            worker.in(newIndicator());
+        }
+
+        verify(droppedCounter, times(1)).inc();
+    }
+
+    @Test
+    public void testNothingExportedWithoutExporter() {
+        when(moduleManager.has(anyString())).thenReturn(false);
+        ExportWorker worker = new ExportWorker(3, moduleManager);
+
+        worker.in(newIndicator());
+
+        verify(moduleManager, never()).find(ExporterModule.NAME);
+    }
+
+    private Indicator newIndicator() {
+        Indicator indicator = mock(Indicator.class, withSettings().extraInterfaces(WithMetadata.class));
+        when(((WithMetadata)indicator).getMeta()).thenReturn(new IndicatorMetaInfo("service_cpm", DefaultScopeDefine.SERVICE, "1"));
+        return indicator;
+    }
+}
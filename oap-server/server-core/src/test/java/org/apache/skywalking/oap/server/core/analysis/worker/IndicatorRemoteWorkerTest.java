@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.indicator.Indicator;
+import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
+import org.apache.skywalking.oap.server.core.remote.client.*;
+import org.apache.skywalking.oap.server.core.worker.*;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.*;
+import org.junit.*;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class IndicatorRemoteWorkerTest {
+
+    private static final int NEXT_WORKER_ID = 100001;
+
+    @Test
+    public void testBatchSentToEveryClient() {
+        ModuleManagerTesting moduleDefineHolder = new ModuleManagerTesting();
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, new MetricCreatorNoop());
+
+        RemoteClient selfClient = new SelfRemoteClient(moduleDefineHolder, new Address("127.0.0.1", 11800, true));
+        RemoteClient peerClient = mock(RemoteClient.class);
+        RemoteClientManager clientManager = mock(RemoteClientManager.class);
+        when(clientManager.getRemoteClient()).thenReturn(Arrays.asList(selfClient, peerClient));
+
+        ModuleManager moduleManager = mock(ModuleManager.class);
+        ModuleDefineTesting coreModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(CoreModule.NAME, coreModuleDefine);
+        coreModuleDefine.provider().registerServiceImplementation(RemoteClientManager.class, clientManager);
+        coreModuleDefine.provider().registerServiceImplementation(RemoteSenderService.class, new RemoteSenderService(moduleManager));
+        when(moduleManager.find(anyString())).thenAnswer(invocation -> moduleDefineHolder.find((String)invocation.getArguments()[0]));
+
+        BatchWorker nextWorker = new BatchWorker();
+        WorkerInstances.INSTANCES.put(NEXT_WORKER_ID, nextWorker);
+        IndicatorRemoteWorker remoteWorker = new IndicatorRemoteWorker(1, moduleManager, nextWorker, "service_cpm");
+
+        List<Indicator> indicators = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Indicator indicator = mock(Indicator.class);
+            when(indicator.remoteHashCode()).thenReturn(i);
+            indicators.add(indicator);
+        }
+        remoteWorker.in(indicators);
+
+        // The local part of the batch reaches the next worker as one list.
+        Assert.assertEquals(1, nextWorker.batches.size());
+        Assert.assertEquals(Arrays.asList(indicators.get(0), indicators.get(2), indicators.get(4)), nextWorker.batches.get(0));
+        verify(peerClient).push(NEXT_WORKER_ID, Arrays.asList(indicators.get(1), indicators.get(3), indicators.get(5)));
+        verify(peerClient, never()).push(anyInt(), any(Indicator.class));
+    }
+
+    private static class BatchWorker extends AbstractWorker<Indicator> {
+        private final List<List<Indicator>> batches = new ArrayList<>();
+
+        private BatchWorker() {
+            super(NEXT_WORKER_ID);
+        }
+
+        @Override public void in(Indicator indicator) {
+            Assert.fail("The batch is split into the single indicators.");
+        }
+
+        @Override public void in(List<Indicator> indicators) {
+            batches.add(indicators);
+        }
+    }
+}
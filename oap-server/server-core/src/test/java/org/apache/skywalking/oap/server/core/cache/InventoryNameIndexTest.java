@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.cache;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import org.apache.skywalking.oap.server.core.storage.cache.*;
+import org.apache.skywalking.oap.server.library.util.BooleanUtils;
+import org.junit.*;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class InventoryNameIndexTest {
+
+    @Before
+    public void setUp() {
+        InventoryNameIndex.INSTANCE.setMaxEndpointSize(3);
+    }
+
+    @After
+    public void tearDown() {
+        InventoryNameIndex.INSTANCE.setMaxEndpointSize(0);
+    }
+
+    @Test
+    public void testSearchEndpoint() {
+        InventoryNameIndex.INSTANCE.index(endpoint(1, 10, "/order/create", DetectPoint.SERVER));
+        InventoryNameIndex.INSTANCE.index(endpoint(2, 10, "/Order/query", DetectPoint.SERVER));
+        InventoryNameIndex.INSTANCE.index(endpoint(3, 10, "/order/delete", DetectPoint.CLIENT));
+        InventoryNameIndex.INSTANCE.index(endpoint(4, 11, "/order/pay", DetectPoint.SERVER));
+
+        List<Endpoint> endpoints = InventoryNameIndex.INSTANCE.searchEndpoint("ORDER", 10, 2);
+        Assert.assertEquals(2, endpoints.size());
+
+        endpoints = InventoryNameIndex.INSTANCE.searchEndpoint("query", 10, 1);
+        Assert.assertEquals(1, endpoints.size());
+        Assert.assertEquals(2, endpoints.get(0).getId());
+        Assert.assertEquals("/Order/query", endpoints.get(0).getName());
+
+        Assert.assertNull(InventoryNameIndex.INSTANCE.searchEndpoint("order", 10, 3));
+        Assert.assertNull(InventoryNameIndex.INSTANCE.searchEndpoint("order", 12, 1));
+    }
+
+    @Test
+    public void testMaxEndpointSize() {
+        for (int i = 1; i <= 5; i++) {
+            InventoryNameIndex.INSTANCE.index(endpoint(i, 10, "/order/" + i, DetectPoint.SERVER));
+        }
+
+        Assert.assertEquals(3, InventoryNameIndex.INSTANCE.searchEndpoint("", 10, 3).size());
+        Assert.assertNull(InventoryNameIndex.INSTANCE.searchEndpoint("", 10, 4));
+    }
+
+    @Test
+    public void testSearchServices() {
+        InventoryNameIndex.INSTANCE.index(service(1, "order-service", 100, 200, BooleanUtils.FALSE));
+        InventoryNameIndex.INSTANCE.index(service(2, "order-db", 100, 200, BooleanUtils.TRUE));
+        InventoryNameIndex.INSTANCE.index(service(3, "pay-service", 100, 150, BooleanUtils.FALSE));
+        InventoryNameIndex.INSTANCE.index(service(3, "pay-service", 100, 300, BooleanUtils.FALSE));
+
+        List<Service> services = InventoryNameIndex.INSTANCE.searchServices(250, 400, "service", 1);
+        Assert.assertEquals(1, services.size());
+        Assert.assertEquals(3, services.get(0).getId());
+
+        Assert.assertEquals(2, InventoryNameIndex.INSTANCE.searchServices(150, 400, "SERVICE", 2).size());
+        Assert.assertNull(InventoryNameIndex.INSTANCE.searchServices(150, 400, "order", 2));
+        Assert.assertNull(InventoryNameIndex.INSTANCE.searchServices(0, 50, "service", 1));
+    }
+
+    @Test
+    public void testSyncedIndexComplete() throws IOException {
+        IServiceInventoryCacheDAO serviceInventoryCacheDAO = mock(IServiceInventoryCacheDAO.class);
+        when(serviceInventoryCacheDAO.loadLastUpdate(anyLong())).thenReturn(Arrays.asList(
+            service(1, "pay-service", 100, 200, BooleanUtils.FALSE), service(2, "Order-service", 100, 200, BooleanUtils.FALSE)));
+        IEndpointInventoryCacheDAO endpointInventoryCacheDAO = mock(IEndpointInventoryCacheDAO.class);
+        when(endpointInventoryCacheDAO.loadLastRegistered(anyLong(), anyInt())).thenReturn(Arrays.asList(
+            endpoint(3, 10, "/order/query", DetectPoint.SERVER), endpoint(1, 10, "/Order/create", DetectPoint.SERVER)));
+
+        Assert.assertNull(InventoryNameIndex.INSTANCE.searchEndpoint("order", 10, 5));
+        InventoryNameIndex.INSTANCE.sync(serviceInventoryCacheDAO, endpointInventoryCacheDAO);
+        Assert.assertTrue(InventoryNameIndex.INSTANCE.isComplete());
+        verify(endpointInventoryCacheDAO).loadLastRegistered(0, 4);
+
+        List<Endpoint> endpoints = InventoryNameIndex.INSTANCE.searchEndpoint("order", 10, 5);
+        Assert.assertEquals(2, endpoints.size());
+        Assert.assertEquals("/Order/create", endpoints.get(0).getName());
+        Assert.assertEquals("/order/query", endpoints.get(1).getName());
+        Assert.assertTrue(InventoryNameIndex.INSTANCE.searchEndpoint("order", 12, 5).isEmpty());
+
+        List<Service> services = InventoryNameIndex.INSTANCE.searchServices(150, 400, "service", 5);
+        Assert.assertEquals(2, services.size());
+        Assert.assertEquals(2, services.get(0).getId());
+
+        InventoryNameIndex.INSTANCE.sync(serviceInventoryCacheDAO, endpointInventoryCacheDAO);
+        verify(endpointInventoryCacheDAO, times(2)).loadLastRegistered(anyLong(), eq(4));
+        verify(endpointInventoryCacheDAO, times(1)).loadLastRegistered(eq(0L), anyInt());
+    }
+
+    @Test
+    public void testOverflowedIndexNotComplete() throws IOException {
+        IServiceInventoryCacheDAO serviceInventoryCacheDAO = mock(IServiceInventoryCacheDAO.class);
+        IEndpointInventoryCacheDAO endpointInventoryCacheDAO = mock(IEndpointInventoryCacheDAO.class);
+        List<EndpointInventory> endpointInventories = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            endpointInventories.add(endpoint(i, 10, "/order/" + i, DetectPoint.SERVER));
+        }
+        when(endpointInventoryCacheDAO.loadLastRegistered(anyLong(), anyInt())).thenReturn(endpointInventories);
+
+        InventoryNameIndex.INSTANCE.sync(serviceInventoryCacheDAO, endpointInventoryCacheDAO);
+        Assert.assertFalse(InventoryNameIndex.INSTANCE.isComplete());
+        Assert.assertNull(InventoryNameIndex.INSTANCE.searchEndpoint("order", 10, 5));
+    }
+
+    private EndpointInventory endpoint(int sequence, int serviceId, String name, DetectPoint detectPoint) {
+        EndpointInventory endpointInventory = new EndpointInventory();
+        endpointInventory.setSequence(sequence);
+        endpointInventory.setServiceId(serviceId);
+        endpointInventory.setName(name);
+        endpointInventory.setDetectPoint(detectPoint.ordinal());
+        return endpointInventory;
+    }
+
+    private ServiceInventory service(int sequence, String name, long registerTime, long heartbeatTime, int isAddress) {
+        ServiceInventory serviceInventory = new ServiceInventory();
+        serviceInventory.setSequence(sequence);
+        serviceInventory.setName(name);
+        serviceInventory.setRegisterTime(registerTime);
+        serviceInventory.setHeartbeatTime(heartbeatTime);
+        serviceInventory.setIsAddress(isAddress);
+        return serviceInventory;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.io.IOException;
+import java.text.*;
+import java.util.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.manual.summary.*;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.apache.skywalking.oap.server.core.query.sql.Function;
+import org.apache.skywalking.oap.server.core.storage.StorageModule;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnIds;
+import org.apache.skywalking.oap.server.core.storage.query.IMetricQueryDAO;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.*;
+import org.junit.*;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class MetricQueryServiceTest {
+
+    private static final String IND_NAME = "service_cpm";
+
+    private IMetricQueryDAO metricQueryDAO;
+    private ModuleManagerTesting moduleDefineHolder;
+    private ModuleManager moduleManager;
+    private List<List<String>> queriedIds;
+
+    @Before
+    public void setUp() throws IOException {
+        ValueColumnIds.INSTANCE.putIfAbsent(IND_NAME, "value", Function.Avg);
+
+        queriedIds = new ArrayList<>();
+        metricQueryDAO = mock(IMetricQueryDAO.class);
+        when(metricQueryDAO.getLinearIntValues(anyString(), any(), anyListOf(String.class), anyString())).thenAnswer(invocation -> {
+            List<String> ids = new ArrayList<>((List<String>)invocation.getArguments()[2]);
+            queriedIds.add(ids);
+            IntValues intValues = new IntValues();
+            for (String id : ids) {
+                KVInt value = new KVInt();
+                value.setId(id);
+                value.setValue(id.hashCode());
+                intValues.addKVInt(value);
+            }
+            return intValues;
+        });
+
+        moduleDefineHolder = new ModuleManagerTesting();
+        ModuleDefineTesting storageModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(StorageModule.NAME, storageModuleDefine);
+        storageModuleDefine.provider().registerServiceImplementation(IMetricQueryDAO.class, metricQueryDAO);
+
+        ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleDefineHolder.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricCreator.class, new MetricCreatorNoop());
+
+        moduleManager = mock(ModuleManager.class);
+        when(moduleManager.find(anyString())).thenAnswer(invocation -> moduleDefineHolder.find((String)invocation.getArguments()[0]));
+    }
+
+    @Test
+    public void testClosedTimeBucketsCached() throws IOException, ParseException {
+        QueryResultCache cache = new QueryResultCache(moduleDefineHolder, 100, 0);
+        cache.start();
+        MetricQueryService service = new MetricQueryService(moduleManager, cache);
+        long currentTB = Long.valueOf(new SimpleDateFormat("yyyyMMddHHmm").format(new Date()));
+        long startTB = Long.valueOf(new SimpleDateFormat("yyyyMMddHHmm").format(new Date(System.currentTimeMillis() - 3 * 60 * 1000)));
+
+        IntValues first = service.getLinearIntValues(IND_NAME, "1", Step.MINUTE, startTB, currentTB);
+        IntValues second = service.getLinearIntValues(IND_NAME, "1", Step.MINUTE, startTB, currentTB);
+
+        Assert.assertEquals(2, queriedIds.size());
+        Assert.assertEquals(4, queriedIds.get(0).size());
+        Assert.assertEquals(Collections.singletonList(currentTB + "_1"), queriedIds.get(1));
+
+        Assert.assertEquals(4, second.getValues().size());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(first.getValues().get(i).getId(), second.getValues().get(i).getId());
+            Assert.assertEquals(first.getValues().get(i).getValue(), second.getValues().get(i).getValue());
+        }
+        Assert.assertEquals(currentTB + "_1", second.getValues().get(3).getId());
+
+        second.getValues().get(0).setValue(-1);
+        IntValues third = service.getLinearIntValues(IND_NAME, "1", Step.MINUTE, startTB, currentTB);
+        Assert.assertEquals(first.getValues().get(0).getValue(), third.getValues().get(0).getValue());
+    }
+
+    @Test
+    public void testCacheKeysNotCollided() {
+        Assert.assertNotEquals(QueryResultCache.key("a_b", "c"), QueryResultCache.key("a", "b_c"));
+        Assert.assertEquals(QueryResultCache.key("a_b", 1), QueryResultCache.key("a_b", "1"));
+    }
+
+    @Test
+    public void testCacheDisabled() throws IOException, ParseException {
+        MetricQueryService service = new MetricQueryService(moduleManager, new QueryResultCache(moduleDefineHolder, 0, 0));
+
+        service.getLinearIntValues(IND_NAME, "1", Step.MINUTE, 201901010000L, 201901010002L);
+        service.getLinearIntValues(IND_NAME, "1", Step.MINUTE, 201901010000L, 201901010002L);
+
+        Assert.assertEquals(2, queriedIds.size());
+        Assert.assertEquals(Arrays.asList("201901010000_1", "201901010001_1", "201901010002_1"), queriedIds.get(1));
+    }
+
+    @Test
+    public void testBatchLinearIntValues() throws IOException, ParseException {
+        MetricQueryService service = new MetricQueryService(moduleManager, new QueryResultCache(moduleDefineHolder, 0, 0));
+
+        List<IntValues> values = service.getLinearIntValues(IND_NAME, Arrays.asList("1", "2"), Step.MINUTE, 201901010000L, 201901010001L);
+
+        Assert.assertEquals(1, queriedIds.size());
+        Assert.assertEquals(Arrays.asList("201901010000_1", "201901010001_1", "201901010000_2", "201901010001_2"), queriedIds.get(0));
+        Assert.assertEquals(2, values.size());
+        Assert.assertEquals("201901010000_2", values.get(1).getValues().get(0).getId());
+        Assert.assertEquals("201901010001_2".hashCode(), values.get(1).getValues().get(1).getValue());
+    }
+
+    @Test
+    public void testChunkedQuery() throws IOException, ParseException {
+        MetricQueryService service = new MetricQueryService(moduleManager, new QueryResultCache(moduleDefineHolder, 0, 0));
+
+        List<IntValues> values = service.getLinearIntValues(IND_NAME, Arrays.asList("1", "2", "3"), Step.MINUTE, 201901010000L, 201901010639L);
+
+        Assert.assertEquals(2, queriedIds.size());
+        Assert.assertEquals(1000, queriedIds.get(0).size());
+        Assert.assertEquals(200, queriedIds.get(1).size());
+        Assert.assertEquals(400, values.get(2).getValues().size());
+        Assert.assertEquals("201901010639_3".hashCode(), values.get(2).getValues().get(399).getValue());
+    }
+
+    @Test(expected = UnexpectedException.class)
+    public void testTooManyPoints() throws IOException, ParseException {
+        MetricQueryService service = new MetricQueryService(moduleManager, new QueryResultCache(moduleDefineHolder, 0, 0));
+
+        service.getLinearIntValues(IND_NAME, "1", Step.MINUTE, 201901010000L, 201901020000L);
+    }
+
+    @Test
+    public void testClosedTimeBucket() {
+        QueryResultCache cache = new QueryResultCache(moduleDefineHolder, 100, 120);
+        long currentTB = Long.valueOf(new SimpleDateFormat("yyyyMMddHH").format(new Date()));
+
+        Assert.assertTrue(cache.isClosed(Step.HOUR, 2019010100L));
+        Assert.assertFalse(cache.isClosed(Step.HOUR, currentTB));
+        Assert.assertTrue(cache.isClosed(Step.MONTH, 201812L));
+    }
+
+    @Test
+    public void testValuesFromSummaries() throws IOException {
+        Map<String, long[]> summaries = new HashMap<>();
+        summaries.put(IndicatorSummary.id(201901010000L, IND_NAME, null), new long[] {0, 1});
+        summaries.put(IndicatorSummary.id(201901010015L, IND_NAME, null), new long[] {0, 2});
+        summaries.put(IndicatorSummary.id(201901010000L, IND_NAME, "1"), new long[] {30, 3});
+        summaries.put(IndicatorSummary.id(201901010015L, IND_NAME, "1"), new long[] {10, 1});
+        summaries.put(IndicatorSummary.id(201901010015L, IND_NAME, "3"), new long[] {7, 1});
+        when(metricQueryDAO.getLinearIntValues(eq(IndicatorSummary.INDEX_NAME), any(), anyListOf(String.class), anyString())).thenAnswer(invocation -> {
+            int column = IndicatorSummary.SUMMATION.equals(invocation.getArguments()[3]) ? 0 : 1;
+            IntValues intValues = new IntValues();
+            for (String id : (List<String>)invocation.getArguments()[2]) {
+                if (summaries.containsKey(id)) {
+                    KVInt value = new KVInt();
+                    value.setId(id);
+                    value.setValue(summaries.get(id)[column]);
+                    intValues.addKVInt(value);
+                }
+            }
+            return intValues;
+        });
+        when(metricQueryDAO.getValues(anyString(), any(), anyLong(), anyLong(), any(), anyString(), any())).thenReturn(new IntValues());
+
+        IndicatorSummaries.INSTANCE.setWindowMinutes(15);
+        try {
+            MetricQueryService service = new MetricQueryService(moduleManager, new QueryResultCache(moduleDefineHolder, 0, 0));
+
+            IntValues values = service.getValues(IND_NAME, Arrays.asList("1", "2", "3"), Step.MINUTE, 201901010000L, 201901010029L);
+            Assert.assertEquals(2, values.getValues().size());
+            Assert.assertEquals("1", values.getValues().get(0).getId());
+            Assert.assertEquals(10, values.getValues().get(0).getValue());
+            Assert.assertEquals("3", values.getValues().get(1).getId());
+            Assert.assertEquals(7, values.getValues().get(1).getValue());
+            verify(metricQueryDAO, never()).getValues(anyString(), any(), anyLong(), anyLong(), any(), anyString(), any());
+
+            service.getValues(IND_NAME, Arrays.asList("1", "2", "3"), Step.MINUTE, 201901010000L, 201901010020L);
+            verify(metricQueryDAO, times(1)).getValues(eq(IND_NAME), any(), anyLong(), anyLong(), any(), anyString(), any());
+
+            summaries.put(IndicatorSummary.id(201901010015L, IND_NAME, null), new long[] {1, 1});
+            service.getValues(IND_NAME, Arrays.asList("1", "2", "3"), Step.MINUTE, 201901010000L, 201901010029L);
+            verify(metricQueryDAO, times(2)).getValues(eq(IND_NAME), any(), anyLong(), anyLong(), any(), anyString(), any());
+        } finally {
+            IndicatorSummaries.INSTANCE.setWindowMinutes(0);
+        }
+    }
+}
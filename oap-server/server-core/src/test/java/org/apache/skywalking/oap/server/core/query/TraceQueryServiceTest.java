@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.query.entity.Span;
+import org.junit.*;
+
+public class TraceQueryServiceTest {
+
+    @Test
+    public void testSortSpans() {
+        List<Span> spans = new ArrayList<>();
+        spans.add(span("2.1", "1.1"));
+        spans.add(span("1.0", "1.-1"));
+        spans.add(span("2.0", "1.0"));
+        spans.add(span("1.1", "1.0"));
+        spans.add(span("3.0", "9.9"));
+        spans.add(span("2.2", "1.1"));
+
+        List<Span> sortedSpans = TraceQueryService.sortSpans(spans);
+
+        List<String> segmentSpanIds = new ArrayList<>();
+        sortedSpans.forEach(span -> segmentSpanIds.add(span.getSegmentSpanId()));
+        Assert.assertEquals(Arrays.asList("1.0", "2.0", "1.1", "2.1", "2.2", "3.0"), segmentSpanIds);
+
+        Assert.assertTrue(sortedSpans.get(0).isRoot());
+        Assert.assertFalse(sortedSpans.get(1).isRoot());
+        Assert.assertTrue(sortedSpans.get(5).isRoot());
+    }
+
+    private Span span(String segmentSpanId, String segmentParentSpanId) {
+        Span span = new Span();
+        span.setSegmentSpanId(segmentSpanId);
+        span.setSegmentParentSpanId(segmentParentSpanId);
+        return span;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.register.worker;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.junit.*;
+
+public class RegisterDistinctWorkerTest {
+
+    @Test
+    public void testBatch() throws InterruptedException {
+        List<RegisterSource> received = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> singleCalls = Collections.synchronizedList(new ArrayList<>());
+        AbstractWorker<RegisterSource> nextWorker = new AbstractWorker<RegisterSource>(0) {
+            @Override public void in(RegisterSource source) {
+                singleCalls.add(1);
+            }
+
+            @Override public void in(List<RegisterSource> sources) {
+                received.addAll(sources);
+            }
+        };
+
+        RegisterDistinctWorker worker = new RegisterDistinctWorker(1, nextWorker);
+        worker.in(service("order-service", 100));
+        worker.in(service("order-service", 200));
+        worker.in(service("pay-service", 100));
+
+        for (int i = 0; i < 50 && received.size() < 2; i++) {
+            Thread.sleep(100);
+        }
+
+        Assert.assertTrue(singleCalls.isEmpty());
+        Set<String> names = new HashSet<>();
+        long heartbeatTime = 0;
+        for (RegisterSource source : received) {
+            ServiceInventory serviceInventory = (ServiceInventory)source;
+            names.add(serviceInventory.getName());
+            if ("order-service".equals(serviceInventory.getName())) {
+                heartbeatTime = Math.max(heartbeatTime, serviceInventory.getHeartbeatTime());
+            }
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("order-service", "pay-service")), names);
+        Assert.assertEquals(200, heartbeatTime);
+    }
+
+    private ServiceInventory service(String name, long heartbeatTime) {
+        ServiceInventory serviceInventory = new ServiceInventory();
+        serviceInventory.setName(name);
+        serviceInventory.setHeartbeatTime(heartbeatTime);
+        return serviceInventory;
+    }
+}
@@ -22,6 +22,7 @@ import io.grpc.inprocess.*;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcCleanupRule;
 import java.io.IOException;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.annotation.StreamDataClassGetter;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
@@ -58,7 +59,8 @@ public class RemoteServiceHandlerTestCase {
 
         moduleDefine.provider().registerServiceImplementation(StreamDataClassGetter.class, classGetter);
 
-        WorkerInstances.INSTANCES.put(testWorkerId, new TestWorker());
+        TestWorker testWorker = new TestWorker();
+        WorkerInstances.INSTANCES.put(testWorkerId, testWorker);
 
         String serverName = InProcessServerBuilder.generateName();
         MetricCreator metricCreator = mock(MetricCreator.class);
@@ -71,7 +73,7 @@ public class RemoteServiceHandlerTestCase {
 
             }
         });
-        when(metricCreator.createHistogramMetric(any(), any(), any(), any(), any())).thenReturn(
+        when(metricCreator.createHistogramMetric(any(), any(), any(), any())).thenReturn(
             new HistogramMetric() {
                 @Override public void observe(double value) {
 
@@ -114,8 +116,13 @@ public class RemoteServiceHandlerTestCase {
         remoteData.addDataLongs(20);
         remoteMessage.setRemoteData(remoteData);
 
+        streamObserver.onNext(remoteMessage.build());
         streamObserver.onNext(remoteMessage.build());
         streamObserver.onCompleted();
+
+        // The messages of the stream are handed to the worker as one batch.
+        Assert.assertEquals(1, testWorker.batches.size());
+        Assert.assertEquals(2, testWorker.batches.get(0).size());
     }
 
     static class TestRemoteData extends StreamData {
@@ -147,6 +154,7 @@ public class RemoteServiceHandlerTestCase {
     }
 
     static class TestWorker extends AbstractWorker {
+        private final List<List> batches = new ArrayList<>();
 
         public TestWorker() {
             super(1);
@@ -160,5 +168,10 @@ public class RemoteServiceHandlerTestCase {
             Assert.assertEquals(10, data.long1);
             Assert.assertEquals(20, data.long2);
         }
+
+        @Override public void in(List inputs) {
+            batches.add(inputs);
+            super.in(inputs);
+        }
     }
 }
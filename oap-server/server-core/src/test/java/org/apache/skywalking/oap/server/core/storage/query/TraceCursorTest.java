@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage.query;
+
+import java.util.*;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.query.entity.*;
+import org.junit.*;
+
+public class TraceCursorTest {
+
+    @Test
+    public void testNext() {
+        List<BasicTrace> traces = new ArrayList<>();
+        traces.add(trace("1.2.3", 1000, 20));
+        traces.add(trace("1.2.4", 900, 30));
+
+        Assert.assertEquals("900_1.2.4", TraceCursor.next(QueryOrder.BY_START_TIME, traces, 2));
+        Assert.assertEquals("30_1.2.4", TraceCursor.next(QueryOrder.BY_DURATION, traces, 2));
+        Assert.assertNull(TraceCursor.next(QueryOrder.BY_START_TIME, traces, 3));
+        Assert.assertNull(TraceCursor.next(QueryOrder.BY_START_TIME, new ArrayList<>(), 0));
+    }
+
+    @Test
+    public void testParse() {
+        TraceCursor cursor = TraceCursor.parse("900_1.2.4");
+        Assert.assertEquals(900, cursor.getSortValue());
+        Assert.assertEquals("1.2.4", cursor.getSegmentId());
+    }
+
+    @Test(expected = UnexpectedException.class)
+    public void testParseIllegal() {
+        TraceCursor.parse("a_1.2.4");
+    }
+
+    @Test
+    public void testApproximateTotal() {
+        Assert.assertEquals(31, TraceCursor.approximateTotal(20, 10, 10));
+        Assert.assertEquals(25, TraceCursor.approximateTotal(20, 10, 5));
+    }
+
+    private BasicTrace trace(String segmentId, long start, int duration) {
+        BasicTrace trace = new BasicTrace();
+        trace.setSegmentId(segmentId);
+        trace.setStart(String.valueOf(start));
+        trace.setDuration(duration);
+        return trace;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.core.worker;
+
+import com.google.gson.*;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.junit.*;
+
+public class PipelineProfilerTest {
+
+    @Test
+    public void testSnapshot() {
+        DataCarrier<String> carrier1 = new DataCarrier<>("TestStage.model1", 1, 10);
+        carrier1.setBufferStrategy(BufferStrategy.IF_POSSIBLE);
+        DataCarrier<String> carrier2 = new DataCarrier<>("TestStage.model2", 1, 10);
+        PipelineProfiler.INSTANCE.register("TestStage", "model1", carrier1);
+        PipelineProfiler.INSTANCE.register("TestStage", "model2", carrier2);
+
+        for (int i = 0; i < 12; i++) {
+            carrier1.produce("data" + i);
+        }
+        carrier2.produce("data");
+        PipelineProfiler.INSTANCE.recordPersistence(100, 20, 30);
+
+        JsonObject snapshot = PipelineProfiler.INSTANCE.snapshot();
+
+        JsonObject stage = null;
+        for (JsonElement element : snapshot.getAsJsonArray("stages")) {
+            if ("TestStage".equals(element.getAsJsonObject().get("stage").getAsString())) {
+                stage = element.getAsJsonObject();
+            }
+        }
+        Assert.assertNotNull(stage);
+        Assert.assertEquals(20, stage.get("capacity").getAsLong());
+        Assert.assertEquals(11, stage.get("occupancy").getAsLong());
+        Assert.assertEquals(2, stage.get("produceFailed").getAsLong());
+        Assert.assertEquals(2, stage.getAsJsonArray("carriers").size());
+
+        JsonObject persistence = snapshot.getAsJsonObject("persistence");
+        Assert.assertEquals(100, persistence.get("lastSize").getAsLong());
+        Assert.assertEquals(30, persistence.get("lastExecuteMillis").getAsLong());
+    }
+
+    @Test
+    public void testUnregister() {
+        DataCarrier<String> carrier1 = new DataCarrier<>("UnregisterStage.model1", 1, 10);
+        DataCarrier<String> carrier2 = new DataCarrier<>("UnregisterStage.model2", 1, 10);
+        PipelineProfiler.INSTANCE.register("UnregisterStage", "model1", carrier1);
+        PipelineProfiler.INSTANCE.register("UnregisterStage", "model2", carrier2);
+
+        PipelineProfiler.INSTANCE.unregister(carrier1);
+
+        JsonObject stage = null;
+        for (JsonElement element : PipelineProfiler.INSTANCE.snapshot().getAsJsonArray("stages")) {
+            if ("UnregisterStage".equals(element.getAsJsonObject().get("stage").getAsString())) {
+                stage = element.getAsJsonObject();
+            }
+        }
+        Assert.assertNotNull(stage);
+        Assert.assertEquals(1, stage.getAsJsonArray("carriers").size());
+        Assert.assertEquals(10, stage.get("capacity").getAsLong());
+    }
+}
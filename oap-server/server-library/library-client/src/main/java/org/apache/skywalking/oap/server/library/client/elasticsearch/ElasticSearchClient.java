@@ -38,8 +38,10 @@ import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.Response;
@@ -140,6 +142,32 @@ public class ElasticSearchClient implements Client {
         return client.search(searchRequest);
     }
 
+    /**
+     * Search the first page and keep the search context alive, the next pages are fetched by {@link
+     * #searchScroll(String, TimeValue)} with the scroll id of the response.
+     */
+    public SearchResponse search(String indexName, SearchSourceBuilder searchSourceBuilder,
+        TimeValue keepAlive) throws IOException {
+        indexName = formatIndexName(indexName);
+        SearchRequest searchRequest = new SearchRequest(indexName);
+        searchRequest.types(TYPE);
+        searchRequest.source(searchSourceBuilder);
+        searchRequest.scroll(keepAlive);
+        return client.search(searchRequest);
+    }
+
+    public SearchResponse searchScroll(String scrollId, TimeValue keepAlive) throws IOException {
+        SearchScrollRequest request = new SearchScrollRequest(scrollId);
+        request.scroll(keepAlive);
+        return client.searchScroll(request);
+    }
+
+    public void clearScroll(String scrollId) throws IOException {
+        ClearScrollRequest request = new ClearScrollRequest();
+        request.addScrollId(scrollId);
+        client.clearScroll(request);
+    }
+
     public GetResponse get(String indexName, String id) throws IOException {
         indexName = formatIndexName(indexName);
         GetRequest request = new GetRequest(indexName, TYPE, id);
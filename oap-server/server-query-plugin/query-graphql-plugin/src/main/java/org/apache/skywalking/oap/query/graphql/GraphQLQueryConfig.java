@@ -32,4 +32,12 @@ import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 @Setter(AccessLevel.PUBLIC)
 public class GraphQLQueryConfig extends ModuleConfig {
     private String path;
+    /**
+     * The number of the threads fetching the fields of the GraphQL requests in parallel.
+     */
+    private int queryThreads = 16;
+    /**
+     * The max number of the pending field fetches, the new ones run in the request thread when the queue is full.
+     */
+    private int queryQueueSize = 1000;
 }
@@ -19,29 +19,46 @@
 package org.apache.skywalking.oap.query.graphql;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
 import graphql.GraphQLError;
-import java.io.BufferedReader;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.schema.GraphQLSchema;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.apache.skywalking.oap.server.library.server.jetty.JettyJsonHandler;
+import org.apache.skywalking.oap.server.library.server.jetty.JettyHandler;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.dataloader.DataLoaderRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Executes the GraphQL requests. The request body is parsed from the input stream directly, and the result is written
+ * into the output stream as it is serialized, without any intermediate json tree or string. Only POST is supported, GET
+ * is rejected by the default implementation of {@link javax.servlet.http.HttpServlet}.
+ *
+ * Every request has its own {@link DataLoaderRegistry}, as the execution context, for the resolvers loading the fields
+ * in batch. The loaders are dispatched once all the fields of the same level have been fetched.
+ */
 @RequiredArgsConstructor
-public class GraphQLQueryHandler extends JettyJsonHandler {
+public class GraphQLQueryHandler extends JettyHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphQLQueryHandler.class);
 
@@ -57,61 +74,69 @@ public class GraphQLQueryHandler extends JettyJsonHandler {
 
     private final String path;
 
-    private final GraphQL graphQL;
+    private final GraphQLSchema schema;
 
 
     @Override public String pathSpec() {
         return path;
     }
 
-    @Override protected JsonElement doGet(HttpServletRequest req) {
-        throw new UnsupportedOperationException("GraphQL only supports POST method");
-    }
-
-    @Override protected JsonElement doPost(HttpServletRequest req) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(req.getInputStream()));
-        String line;
-        StringBuilder request = new StringBuilder();
-        while ((line = reader.readLine()) != null) {
-            request.append(line);
+    @Override protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        JsonObject requestJson;
+        try (Reader reader = new InputStreamReader(req.getInputStream(), StandardCharsets.UTF_8)) {
+            requestJson = gson.fromJson(reader, JsonObject.class);
+        } catch (JsonParseException | IOException e) {
+            replyError(resp, e.getMessage());
+            return;
+        }
+        if (requestJson == null || !requestJson.has(QUERY)) {
+            replyError(resp, "GraphQL query is required");
+            return;
         }
 
-        JsonObject requestJson = gson.fromJson(request.toString(), JsonObject.class);
+        Map<String, Object> result = execute(requestJson.get(QUERY).getAsString(), gson.fromJson(requestJson.get(VARIABLES), mapOfStringObjectType));
 
-        return execute(requestJson.get(QUERY).getAsString(), gson.fromJson(requestJson.get(VARIABLES), mapOfStringObjectType));
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("utf-8");
+        resp.setStatus(HttpServletResponse.SC_OK);
+        try (Writer writer = new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8)) {
+            gson.toJson(result, writer);
+        }
     }
 
-    private JsonObject execute(String request, Map<String, Object> variables) {
+    private Map<String, Object> execute(String request, Map<String, Object> variables) {
+        Map<String, Object> result = new LinkedHashMap<>();
         try {
-            ExecutionInput executionInput = ExecutionInput.newExecutionInput().query(request).variables(variables).build();
+            DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry();
+            GraphQL graphQL = GraphQL.newGraphQL(schema).instrumentation(new DataLoaderDispatcherInstrumentation(dataLoaderRegistry)).build();
+            ExecutionInput executionInput = ExecutionInput.newExecutionInput().query(request).variables(variables).context(dataLoaderRegistry).build();
             ExecutionResult executionResult = graphQL.execute(executionInput);
             logger.debug("Execution result is {}", executionResult);
             Object data = executionResult.getData();
             List<GraphQLError> errors = executionResult.getErrors();
-            JsonObject jsonObject = new JsonObject();
             if (data != null) {
-                jsonObject.add(DATA, gson.fromJson(gson.toJson(data), JsonObject.class));
+                result.put(DATA, data);
             }
 
             if (CollectionUtils.isNotEmpty(errors)) {
-                JsonArray errorArray = new JsonArray();
-                errors.forEach(error -> {
-                    JsonObject errorJson = new JsonObject();
-                    errorJson.addProperty(MESSAGE, error.getMessage());
-                    errorArray.add(errorJson);
-                });
-                jsonObject.add(ERRORS, errorArray);
+                List<Map<String, String>> errorList = new ArrayList<>(errors.size());
+                errors.forEach(error -> errorList.add(Collections.singletonMap(MESSAGE, error.getMessage())));
+                result.put(ERRORS, errorList);
             }
-            return jsonObject;
+            return result;
         } catch (final Throwable e) {
             logger.error(e.getMessage(), e);
-            JsonObject jsonObject = new JsonObject();
-            JsonArray errorArray = new JsonArray();
-            JsonObject errorJson = new JsonObject();
-            errorJson.addProperty(MESSAGE, e.getMessage());
-            errorArray.add(errorJson);
-            jsonObject.add(ERRORS, errorArray);
-            return jsonObject;
+            result.clear();
+            result.put(ERRORS, Collections.singletonList(Collections.singletonMap(MESSAGE, e.getMessage())));
+            return result;
         }
     }
+
+    private void replyError(HttpServletResponse response, String errorMessage) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("utf-8");
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        response.setHeader("error-message", errorMessage);
+        response.getOutputStream().close();
+    }
 }
@@ -19,7 +19,6 @@
 package org.apache.skywalking.oap.query.graphql;
 
 import com.coxautodev.graphql.tools.SchemaParser;
-import graphql.GraphQL;
 import graphql.schema.GraphQLSchema;
 import org.apache.skywalking.oap.query.graphql.resolver.*;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -36,7 +35,7 @@ public class GraphQLQueryProvider extends ModuleProvider {
 
     private final GraphQLQueryConfig config = new GraphQLQueryConfig();
 
-    private GraphQL graphQL;
+    private GraphQLSchema schema;
 
     @Override public String name() {
         return "graphql";
@@ -51,31 +50,31 @@ public class GraphQLQueryProvider extends ModuleProvider {
     }
 
     @Override public void prepare() throws ServiceNotProvidedException, ModuleStartException {
-        GraphQLSchema schema = SchemaParser.newParser()
+        QueryExecutor queryExecutor = new QueryExecutor(config.getQueryThreads(), config.getQueryQueueSize());
+        this.schema = SchemaParser.newParser()
             .file("query-protocol/common.graphqls")
             .resolvers(new Query(), new Mutation())
             .file("query-protocol/metadata.graphqls")
-            .resolvers(new MetadataQuery(getManager()))
+            .resolvers(new MetadataQuery(getManager(), queryExecutor))
             .file("query-protocol/metric.graphqls")
-            .resolvers(new MetricQuery(getManager()))
+            .resolvers(new MetricQuery(getManager(), queryExecutor))
             .file("query-protocol/topology.graphqls")
-            .resolvers(new TopologyQuery(getManager()))
+            .resolvers(new TopologyQuery(getManager(), queryExecutor))
             .file("query-protocol/trace.graphqls")
-            .resolvers(new TraceQuery(getManager()))
+            .resolvers(new TraceQuery(getManager(), queryExecutor))
             .file("query-protocol/aggregation.graphqls")
-            .resolvers(new AggregationQuery(getManager()))
+            .resolvers(new AggregationQuery(getManager(), queryExecutor))
             .file("query-protocol/alarm.graphqls")
-            .resolvers(new AlarmQuery(getManager()))
+            .resolvers(new AlarmQuery(getManager(), queryExecutor))
             .file("query-protocol/top-n-records.graphqls")
-            .resolvers(new TopNRecordsQuery(getManager()))
+            .resolvers(new TopNRecordsQuery(getManager(), queryExecutor))
             .build()
             .makeExecutableSchema();
-        this.graphQL = GraphQL.newGraphQL(schema).build();
     }
 
     @Override public void start() throws ServiceNotProvidedException, ModuleStartException {
         JettyHandlerRegister service = getManager().find(CoreModule.NAME).provider().getService(JettyHandlerRegister.class);
-        service.addHandler(new GraphQLQueryHandler(config.getPath(), graphQL));
+        service.addHandler(new GraphQLQueryHandler(config.getPath(), schema));
     }
 
     @Override public void notifyAfterCompleted() throws ServiceNotProvidedException, ModuleStartException {
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.*;
+
+/**
+ * The bounded thread pool running the storage queries of the resolvers, so the sibling fields of one GraphQL request
+ * are fetched in parallel. When all the threads are busy and the queue is full, the query runs in the caller thread,
+ * which slows down the requests instead of failing them.
+ */
+public class QueryExecutor {
+
+    private final ExecutorService executor;
+
+    public QueryExecutor(int threads, int queueSize) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), new ThreadFactoryBuilder().setDaemon(true).setNameFormat("GraphQL-Query-%s").build(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> query) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(query.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+}
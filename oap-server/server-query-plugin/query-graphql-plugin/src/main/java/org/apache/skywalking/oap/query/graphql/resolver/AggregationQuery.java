@@ -19,8 +19,9 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
-import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.skywalking.oap.query.graphql.QueryExecutor;
 import org.apache.skywalking.oap.query.graphql.type.Duration;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.query.*;
@@ -33,10 +34,12 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 public class AggregationQuery implements GraphQLQueryResolver {
 
     private final ModuleManager moduleManager;
+    private final QueryExecutor queryExecutor;
     private AggregationQueryService queryService;
 
-    public AggregationQuery(ModuleManager moduleManager) {
+    public AggregationQuery(ModuleManager moduleManager, QueryExecutor queryExecutor) {
         this.moduleManager = moduleManager;
+        this.queryExecutor = queryExecutor;
     }
 
     private AggregationQueryService getQueryService() {
@@ -46,43 +49,43 @@ public class AggregationQuery implements GraphQLQueryResolver {
         return queryService;
     }
 
-    public List<TopNEntity> getServiceTopN(final String name, final int topN, final Duration duration,
-        final Order order) throws IOException {
+    public CompletableFuture<List<TopNEntity>> getServiceTopN(final String name, final int topN, final Duration duration,
+        final Order order) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getQueryService().getServiceTopN(name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order);
+        return queryExecutor.submit(() -> getQueryService().getServiceTopN(name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order));
     }
 
-    public List<TopNEntity> getAllServiceInstanceTopN(final String name, final int topN, final Duration duration,
-        final Order order) throws IOException {
+    public CompletableFuture<List<TopNEntity>> getAllServiceInstanceTopN(final String name, final int topN, final Duration duration,
+        final Order order) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getQueryService().getAllServiceInstanceTopN(name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order);
+        return queryExecutor.submit(() -> getQueryService().getAllServiceInstanceTopN(name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order));
     }
 
-    public List<TopNEntity> getServiceInstanceTopN(final int serviceId, final String name, final int topN,
-        final Duration duration, final Order order) throws IOException {
+    public CompletableFuture<List<TopNEntity>> getServiceInstanceTopN(final int serviceId, final String name, final int topN,
+        final Duration duration, final Order order) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getQueryService().getServiceInstanceTopN(serviceId, name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order);
+        return queryExecutor.submit(() -> getQueryService().getServiceInstanceTopN(serviceId, name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order));
     }
 
-    public List<TopNEntity> getAllEndpointTopN(final String name, final int topN,
-        final Duration duration, final Order order) throws IOException {
+    public CompletableFuture<List<TopNEntity>> getAllEndpointTopN(final String name, final int topN,
+        final Duration duration, final Order order) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getQueryService().getAllEndpointTopN(name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order);
+        return queryExecutor.submit(() -> getQueryService().getAllEndpointTopN(name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order));
     }
 
-    public List<TopNEntity> getEndpointTopN(final int serviceId, final String name, final int topN,
-        final Duration duration, final Order order) throws IOException {
+    public CompletableFuture<List<TopNEntity>> getEndpointTopN(final int serviceId, final String name, final int topN,
+        final Duration duration, final Order order) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getQueryService().getEndpointTopN(serviceId, name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order);
+        return queryExecutor.submit(() -> getQueryService().getEndpointTopN(serviceId, name, topN, duration.getStep(), startTimeBucket, endTimeBucket, order));
     }
 }
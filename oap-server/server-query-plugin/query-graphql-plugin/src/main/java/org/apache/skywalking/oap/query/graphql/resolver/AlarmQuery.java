@@ -19,7 +19,8 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
-import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import org.apache.skywalking.oap.query.graphql.QueryExecutor;
 import org.apache.skywalking.oap.query.graphql.type.*;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.query.*;
@@ -32,10 +33,12 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 public class AlarmQuery implements GraphQLQueryResolver {
 
     private final ModuleManager moduleManager;
+    private final QueryExecutor queryExecutor;
     private AlarmQueryService queryService;
 
-    public AlarmQuery(ModuleManager moduleManager) {
+    public AlarmQuery(ModuleManager moduleManager, QueryExecutor queryExecutor) {
         this.moduleManager = moduleManager;
+        this.queryExecutor = queryExecutor;
     }
 
     private AlarmQueryService getQueryService() {
@@ -49,11 +52,11 @@ public class AlarmQuery implements GraphQLQueryResolver {
         return new AlarmTrend();
     }
 
-    public Alarms getAlarm(final Duration duration, final Scope scope, final String keyword,
-        final Pagination paging) throws IOException {
+    public CompletableFuture<Alarms> getAlarm(final Duration duration, final Scope scope, final String keyword,
+        final Pagination paging) {
         long startTimeBucket = DurationUtils.INSTANCE.startTimeDurationToSecondTimeBucket(duration.getStep(), duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.endTimeDurationToSecondTimeBucket(duration.getStep(), duration.getEnd());
 
-        return getQueryService().getAlarm(scope.getScopeId(), keyword, paging, startTimeBucket, endTimeBucket);
+        return queryExecutor.submit(() -> getQueryService().getAlarm(scope.getScopeId(), keyword, paging, startTimeBucket, endTimeBucket));
     }
 }
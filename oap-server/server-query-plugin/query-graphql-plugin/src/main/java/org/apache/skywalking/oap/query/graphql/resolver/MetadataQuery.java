@@ -19,9 +19,10 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
-import java.io.IOException;
 import java.text.ParseException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.skywalking.oap.query.graphql.QueryExecutor;
 import org.apache.skywalking.oap.query.graphql.type.Duration;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.query.*;
@@ -34,10 +35,12 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 public class MetadataQuery implements GraphQLQueryResolver {
 
     private final ModuleManager moduleManager;
+    private final QueryExecutor queryExecutor;
     private MetadataQueryService metadataQueryService;
 
-    public MetadataQuery(ModuleManager moduleManager) {
+    public MetadataQuery(ModuleManager moduleManager, QueryExecutor queryExecutor) {
         this.moduleManager = moduleManager;
+        this.queryExecutor = queryExecutor;
     }
 
     private MetadataQueryService getMetadataQueryService() {
@@ -47,50 +50,50 @@ public class MetadataQuery implements GraphQLQueryResolver {
         return metadataQueryService;
     }
 
-    public ClusterBrief getGlobalBrief(final Duration duration) throws IOException, ParseException {
+    public CompletableFuture<ClusterBrief> getGlobalBrief(final Duration duration) throws ParseException {
         long startTimestamp = DurationUtils.INSTANCE.startTimeToTimestamp(duration.getStep(), duration.getStart());
         long endTimestamp = DurationUtils.INSTANCE.endTimeToTimestamp(duration.getStep(), duration.getEnd());
 
-        return getMetadataQueryService().getGlobalBrief(startTimestamp, endTimestamp);
+        return queryExecutor.submit(() -> getMetadataQueryService().getGlobalBrief(startTimestamp, endTimestamp));
     }
 
-    public List<Service> getAllServices(final Duration duration) throws IOException, ParseException {
+    public CompletableFuture<List<Service>> getAllServices(final Duration duration) throws ParseException {
         long startTimestamp = DurationUtils.INSTANCE.startTimeToTimestamp(duration.getStep(), duration.getStart());
         long endTimestamp = DurationUtils.INSTANCE.endTimeToTimestamp(duration.getStep(), duration.getEnd());
 
-        return getMetadataQueryService().getAllServices(startTimestamp, endTimestamp);
+        return queryExecutor.submit(() -> getMetadataQueryService().getAllServices(startTimestamp, endTimestamp));
     }
 
-    public List<Service> searchServices(final Duration duration, final String keyword)
-        throws IOException, ParseException {
+    public CompletableFuture<List<Service>> searchServices(final Duration duration, final String keyword)
+        throws ParseException {
         long startTimestamp = DurationUtils.INSTANCE.startTimeToTimestamp(duration.getStep(), duration.getStart());
         long endTimestamp = DurationUtils.INSTANCE.endTimeToTimestamp(duration.getStep(), duration.getEnd());
 
-        return getMetadataQueryService().searchServices(startTimestamp, endTimestamp, keyword);
+        return queryExecutor.submit(() -> getMetadataQueryService().searchServices(startTimestamp, endTimestamp, keyword));
     }
 
-    public Service searchService(final String serviceCode) throws IOException {
-        return getMetadataQueryService().searchService(serviceCode);
+    public CompletableFuture<Service> searchService(final String serviceCode) {
+        return queryExecutor.submit(() -> getMetadataQueryService().searchService(serviceCode));
     }
 
-    public List<ServiceInstance> getServiceInstances(final Duration duration,
-        final String serviceId) throws IOException, ParseException {
+    public CompletableFuture<List<ServiceInstance>> getServiceInstances(final Duration duration,
+        final String serviceId) throws ParseException {
         long startTimestamp = DurationUtils.INSTANCE.startTimeToTimestamp(duration.getStep(), duration.getStart());
         long endTimestamp = DurationUtils.INSTANCE.endTimeToTimestamp(duration.getStep(), duration.getEnd());
 
-        return getMetadataQueryService().getServiceInstances(startTimestamp, endTimestamp, serviceId);
+        return queryExecutor.submit(() -> getMetadataQueryService().getServiceInstances(startTimestamp, endTimestamp, serviceId));
     }
 
-    public List<Endpoint> searchEndpoint(final String keyword, final String serviceId,
-        final int limit) throws IOException {
-        return getMetadataQueryService().searchEndpoint(keyword, serviceId, limit);
+    public CompletableFuture<List<Endpoint>> searchEndpoint(final String keyword, final String serviceId,
+        final int limit) {
+        return queryExecutor.submit(() -> getMetadataQueryService().searchEndpoint(keyword, serviceId, limit));
     }
 
-    public EndpointInfo getEndpointInfo(final int endpointId) throws IOException {
-        return getMetadataQueryService().getEndpointInfo(endpointId);
+    public CompletableFuture<EndpointInfo> getEndpointInfo(final int endpointId) {
+        return queryExecutor.submit(() -> getMetadataQueryService().getEndpointInfo(endpointId));
     }
 
-    public List<Database> getAllDatabases(final Duration duration) throws IOException {
-        return getMetadataQueryService().getAllDatabases();
+    public CompletableFuture<List<Database>> getAllDatabases(final Duration duration) {
+        return queryExecutor.submit(() -> getMetadataQueryService().getAllDatabases());
     }
 }
@@ -19,24 +19,30 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
-import java.io.IOException;
-import java.text.ParseException;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.concurrent.CompletableFuture;
+import org.apache.skywalking.oap.query.graphql.QueryExecutor;
 import org.apache.skywalking.oap.query.graphql.type.*;
-import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.query.*;
 import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.dataloader.*;
 
 /**
  * @author peng-yongsheng
  */
 public class MetricQuery implements GraphQLQueryResolver {
 
+    private static final String LINEAR_INT_VALUES_LOADER = "linearIntValues";
+
     private final ModuleManager moduleManager;
+    private final QueryExecutor queryExecutor;
     private MetricQueryService metricQueryService;
 
-    public MetricQuery(ModuleManager moduleManager) {
+    public MetricQuery(ModuleManager moduleManager, QueryExecutor queryExecutor) {
         this.moduleManager = moduleManager;
+        this.queryExecutor = queryExecutor;
     }
 
     private MetricQueryService getMetricQueryService() {
@@ -46,26 +52,44 @@ public class MetricQuery implements GraphQLQueryResolver {
         return metricQueryService;
     }
 
-    public IntValues getValues(final BatchMetricConditions metric, final Duration duration) throws IOException {
+    public CompletableFuture<IntValues> getValues(final BatchMetricConditions metric, final Duration duration) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getMetricQueryService().getValues(metric.getName(), metric.getIds(), duration.getStep(), startTimeBucket, endTimeBucket);
+        return queryExecutor.submit(() -> getMetricQueryService().getValues(metric.getName(), metric.getIds(), duration.getStep(), startTimeBucket, endTimeBucket));
     }
 
-    public IntValues getLinearIntValues(final MetricCondition metric,
-        final Duration duration) throws IOException, ParseException {
+    /**
+     * The linear values of the same indicator and duration are loaded in batch, when the GraphQL request provides a
+     * {@link DataLoaderRegistry} as the context, so the fields of different entities share one storage query.
+     */
+    public CompletableFuture<IntValues> getLinearIntValues(final MetricCondition metric,
+        final Duration duration, final DataFetchingEnvironment environment) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getMetricQueryService().getLinearIntValues(metric.getName(), metric.getId(), duration.getStep(), startTimeBucket, endTimeBucket);
+        if (!(environment.getContext() instanceof DataLoaderRegistry)) {
+            return queryExecutor.submit(() -> getMetricQueryService().getLinearIntValues(metric.getName(), metric.getId(), duration.getStep(), startTimeBucket, endTimeBucket));
+        }
+
+        DataLoaderRegistry registry = environment.getContext();
+        String loaderName = LINEAR_INT_VALUES_LOADER + Const.ID_SPLIT + metric.getName() + Const.ID_SPLIT + duration.getStep() + Const.ID_SPLIT + startTimeBucket + Const.ID_SPLIT + endTimeBucket;
+        DataLoader<String, IntValues> loader;
+        synchronized (registry) {
+            loader = registry.getDataLoader(loaderName);
+            if (loader == null) {
+                loader = DataLoader.newDataLoader(ids -> queryExecutor.submit(() -> getMetricQueryService().getLinearIntValues(metric.getName(), ids, duration.getStep(), startTimeBucket, endTimeBucket)));
+                registry.register(loaderName, loader);
+            }
+        }
+        return loader.load(metric.getId() == null ? Const.EMPTY_STRING : metric.getId());
     }
 
-    public Thermodynamic getThermodynamic(final MetricCondition metric,
-        final Duration duration) throws IOException, ParseException {
+    public CompletableFuture<Thermodynamic> getThermodynamic(final MetricCondition metric,
+        final Duration duration) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getMetricQueryService().getThermodynamic(metric.getName(), metric.getId(), duration.getStep(), startTimeBucket, endTimeBucket);
+        return queryExecutor.submit(() -> getMetricQueryService().getThermodynamic(metric.getName(), metric.getId(), duration.getStep(), startTimeBucket, endTimeBucket));
     }
 }
@@ -19,8 +19,9 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
-import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.skywalking.oap.query.graphql.QueryExecutor;
 import org.apache.skywalking.oap.query.graphql.type.TopNRecordsCondition;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.query.*;
@@ -32,10 +33,12 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
  */
 public class TopNRecordsQuery implements GraphQLQueryResolver {
     private final ModuleManager moduleManager;
+    private final QueryExecutor queryExecutor;
     private TopNRecordsQueryService topNRecordsQueryService;
 
-    public TopNRecordsQuery(ModuleManager moduleManager) {
+    public TopNRecordsQuery(ModuleManager moduleManager, QueryExecutor queryExecutor) {
         this.moduleManager = moduleManager;
+        this.queryExecutor = queryExecutor;
     }
 
     private TopNRecordsQueryService getTopNRecordsQueryService() {
@@ -45,7 +48,7 @@ public class TopNRecordsQuery implements GraphQLQueryResolver {
         return topNRecordsQueryService;
     }
 
-    public List<TopNRecord> getTopNRecords(TopNRecordsCondition condition) throws IOException {
+    public CompletableFuture<List<TopNRecord>> getTopNRecords(TopNRecordsCondition condition) {
         long startSecondTB = DurationUtils.INSTANCE.startTimeDurationToSecondTimeBucket(condition.getDuration().getStep(), condition.getDuration().getStart());
         long endSecondTB = DurationUtils.INSTANCE.endTimeDurationToSecondTimeBucket(condition.getDuration().getStep(), condition.getDuration().getEnd());
 
@@ -54,6 +57,6 @@ public class TopNRecordsQuery implements GraphQLQueryResolver {
         int topN = condition.getTopN();
         int serviceId = condition.getServiceId();
 
-        return getTopNRecordsQueryService().getTopNRecords(startSecondTB, endSecondTB, metricName, serviceId, topN, order);
+        return queryExecutor.submit(() -> getTopNRecordsQueryService().getTopNRecords(startSecondTB, endSecondTB, metricName, serviceId, topN, order));
     }
 }
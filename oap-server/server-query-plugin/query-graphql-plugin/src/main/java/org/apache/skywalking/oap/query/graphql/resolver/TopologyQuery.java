@@ -19,8 +19,9 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
-import java.io.IOException;
 import java.text.ParseException;
+import java.util.concurrent.CompletableFuture;
+import org.apache.skywalking.oap.query.graphql.QueryExecutor;
 import org.apache.skywalking.oap.query.graphql.type.Duration;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.query.*;
@@ -33,10 +34,12 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 public class TopologyQuery implements GraphQLQueryResolver {
 
     private final ModuleManager moduleManager;
+    private final QueryExecutor queryExecutor;
     private TopologyQueryService queryService;
 
-    public TopologyQuery(ModuleManager moduleManager) {
+    public TopologyQuery(ModuleManager moduleManager, QueryExecutor queryExecutor) {
         this.moduleManager = moduleManager;
+        this.queryExecutor = queryExecutor;
     }
 
     private TopologyQueryService getQueryService() {
@@ -46,27 +49,27 @@ public class TopologyQuery implements GraphQLQueryResolver {
         return queryService;
     }
 
-    public Topology getGlobalTopology(final Duration duration) throws IOException, ParseException {
+    public CompletableFuture<Topology> getGlobalTopology(final Duration duration) throws ParseException {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
         long startTimestamp = DurationUtils.INSTANCE.startTimeToTimestamp(duration.getStep(), duration.getStart());
         long endTimestamp = DurationUtils.INSTANCE.endTimeToTimestamp(duration.getStep(), duration.getEnd());
 
-        return getQueryService().getGlobalTopology(duration.getStep(), startTimeBucket, endTimeBucket, startTimestamp, endTimestamp);
+        return queryExecutor.submit(() -> getQueryService().getGlobalTopology(duration.getStep(), startTimeBucket, endTimeBucket, startTimestamp, endTimestamp));
     }
 
-    public Topology getServiceTopology(final int serviceId, final Duration duration) throws IOException {
+    public CompletableFuture<Topology> getServiceTopology(final int serviceId, final Duration duration) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getQueryService().getServiceTopology(duration.getStep(), startTimeBucket, endTimeBucket, serviceId);
+        return queryExecutor.submit(() -> getQueryService().getServiceTopology(duration.getStep(), startTimeBucket, endTimeBucket, serviceId));
     }
 
-    public Topology getEndpointTopology(final int endpointId, final Duration duration) throws IOException {
+    public CompletableFuture<Topology> getEndpointTopology(final int endpointId, final Duration duration) {
         long startTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getStart());
         long endTimeBucket = DurationUtils.INSTANCE.exchangeToTimeBucket(duration.getEnd());
 
-        return getQueryService().getEndpointTopology(duration.getStep(), startTimeBucket, endTimeBucket, endpointId);
+        return queryExecutor.submit(() -> getQueryService().getEndpointTopology(duration.getStep(), startTimeBucket, endTimeBucket, endpointId));
     }
 }
@@ -20,8 +20,9 @@ package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
 import com.google.common.base.Strings;
-import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.skywalking.oap.query.graphql.QueryExecutor;
 import org.apache.skywalking.oap.query.graphql.type.TraceQueryCondition;
 import org.apache.skywalking.oap.server.core.*;
 import org.apache.skywalking.oap.server.core.query.*;
@@ -36,10 +37,12 @@ import static java.util.Objects.nonNull;
 public class TraceQuery implements GraphQLQueryResolver {
 
     private final ModuleManager moduleManager;
+    private final QueryExecutor queryExecutor;
     private TraceQueryService queryService;
 
-    public TraceQuery(ModuleManager moduleManager) {
+    public TraceQuery(ModuleManager moduleManager, QueryExecutor queryExecutor) {
         this.moduleManager = moduleManager;
+        this.queryExecutor = queryExecutor;
     }
 
     private TraceQueryService getQueryService() {
@@ -49,7 +52,7 @@ public class TraceQuery implements GraphQLQueryResolver {
         return queryService;
     }
 
-    public TraceBrief queryBasicTraces(final TraceQueryCondition condition) throws IOException {
+    public CompletableFuture<TraceBrief> queryBasicTraces(final TraceQueryCondition condition) {
         long startSecondTB = 0;
         long endSecondTB = 0;
         String traceId = Const.EMPTY_STRING;
@@ -73,10 +76,13 @@ public class TraceQuery implements GraphQLQueryResolver {
         QueryOrder queryOrder = condition.getQueryOrder();
         Pagination pagination = condition.getPaging();
 
-        return getQueryService().queryBasicTraces(serviceId, serviceInstanceId, endpointId, traceId, endpointName, minDuration, maxDuration, traceState, queryOrder, pagination, startSecondTB, endSecondTB);
+        final String queryTraceId = traceId;
+        final long queryStartSecondTB = startSecondTB;
+        final long queryEndSecondTB = endSecondTB;
+        return queryExecutor.submit(() -> getQueryService().queryBasicTraces(serviceId, serviceInstanceId, endpointId, queryTraceId, endpointName, minDuration, maxDuration, traceState, queryOrder, pagination, queryStartSecondTB, queryEndSecondTB));
     }
 
-    public Trace queryTrace(final String traceId) throws IOException {
-        return getQueryService().queryTrace(traceId);
+    public CompletableFuture<Trace> queryTrace(final String traceId) {
+        return queryExecutor.submit(() -> getQueryService().queryTrace(traceId));
     }
 }
@@ -100,8 +100,8 @@ public class MetricServiceGRPCHandler extends MetricsServiceGrpc.MetricsServiceI
                 if (serviceInstanceId != Const.NONE) {
                     List<Metrics.MetricFamily> list = message.getEnvoyMetricsList();
                     boolean needHeartbeatUpdate = true;
+                    counter.inc(list.size());
                     for (int i = 0; i < list.size(); i++) {
-                        counter.inc();
                         HistogramMetric.Timer timer = histogram.createTimer();
                         try {
                             Metrics.MetricFamily metricFamily = list.get(i);
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.aop.server.receiver.mesh;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Let one heartbeat per service instance pass in each cycle, across all the threads receiving the mesh telemetry, so
+ * the inventory cache isn't looked up for every metric. The instances which have sent no heartbeat in the last cycle
+ * are evicted once per cycle, so the instances gone don't stay.
+ */
+class HeartbeatRateLimiter {
+    private final long heartbeatCycle;
+    private final Map<Integer, AtomicLong> lastHeartbeatTimes = new ConcurrentHashMap<>();
+    private final AtomicLong nextEvictTime = new AtomicLong(Long.MIN_VALUE);
+
+    HeartbeatRateLimiter(long heartbeatCycle) {
+        this.heartbeatCycle = heartbeatCycle;
+    }
+
+    /**
+     * Check without acquiring, so the instance is acquired only after it is resolved.
+     *
+     * @return true if the heartbeat of the instance is due at the time.
+     */
+    boolean isDue(int serviceInstanceId, long time) {
+        AtomicLong lastHeartbeatTime = lastHeartbeatTimes.get(serviceInstanceId);
+        return lastHeartbeatTime == null || time - lastHeartbeatTime.get() > heartbeatCycle;
+    }
+
+    /**
+     * @return true if the heartbeat of the instance should be sent at the time.
+     */
+    boolean tryAcquire(int serviceInstanceId, long time) {
+        evict(time);
+
+        AtomicLong lastHeartbeatTime = lastHeartbeatTimes.computeIfAbsent(serviceInstanceId, key -> new AtomicLong(Long.MIN_VALUE));
+        long last = lastHeartbeatTime.get();
+        if (last != Long.MIN_VALUE && time - last <= heartbeatCycle) {
+            return false;
+        }
+        return lastHeartbeatTime.compareAndSet(last, time);
+    }
+
+    /**
+     * Remove the instances whose last heartbeat is out of the cycle, they pass the next time anyway.
+     */
+    private void evict(long time) {
+        long next = nextEvictTime.get();
+        if (time < next || !nextEvictTime.compareAndSet(next, time + heartbeatCycle)) {
+            return;
+        }
+        lastHeartbeatTimes.values().removeIf(lastHeartbeatTime -> {
+            long last = lastHeartbeatTime.get();
+            return last != Long.MIN_VALUE && time - last > heartbeatCycle;
+        });
+    }
+
+    int size() {
+        return lastHeartbeatTimes.size();
+    }
+}
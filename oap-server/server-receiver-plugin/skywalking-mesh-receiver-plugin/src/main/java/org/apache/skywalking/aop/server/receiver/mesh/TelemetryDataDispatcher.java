@@ -45,6 +45,7 @@ public class TelemetryDataDispatcher {
     private static SourceReceiver SOURCE_RECEIVER;
     private static IServiceInstanceInventoryRegister SERVICE_INSTANCE_INVENTORY_REGISTER;
     private static IServiceInventoryRegister SERVICE_INVENTORY_REGISTER;
+    private static final HeartbeatRateLimiter HEARTBEAT_RATE_LIMITER = new HeartbeatRateLimiter(10000);
 
     private TelemetryDataDispatcher() {
 
@@ -77,54 +78,47 @@ public class TelemetryDataDispatcher {
         ServiceMeshMetric metric = decorator.getMetric();
         long minuteTimeBucket = TimeBucketUtils.INSTANCE.getMinuteTimeBucket(metric.getStartTime());
 
-        heartbeat(decorator, minuteTimeBucket);
+        heartbeat(metric.getSourceServiceInstanceId(), metric.getEndTime());
+        heartbeat(metric.getDestServiceInstanceId(), metric.getEndTime());
+
+        // Resolve the names once, rather than once per source.
+        Names names = new Names(metric);
         if (org.apache.skywalking.apm.network.common.DetectPoint.server.equals(metric.getDetectPoint())) {
-            toAll(decorator, minuteTimeBucket);
-            toService(decorator, minuteTimeBucket);
-            toServiceInstance(decorator, minuteTimeBucket);
-            toEndpoint(decorator, minuteTimeBucket);
+            toAll(metric, names, minuteTimeBucket);
+            toService(metric, names, minuteTimeBucket);
+            toServiceInstance(metric, names, minuteTimeBucket);
+            toEndpoint(decorator, names, minuteTimeBucket);
         }
-        toServiceRelation(decorator, minuteTimeBucket);
-        toServiceInstanceRelation(decorator, minuteTimeBucket);
+        toServiceRelation(metric, names, minuteTimeBucket);
+        toServiceInstanceRelation(metric, names, minuteTimeBucket);
     }
 
-    private static void heartbeat(ServiceMeshMetricDataDecorator decorator, long minuteTimeBucket) {
-        ServiceMeshMetric metric = decorator.getMetric();
-
-        int heartbeatCycle = 10000;
-        // source
-        int instanceId = metric.getSourceServiceInstanceId();
-        ServiceInstanceInventory serviceInstanceInventory = SERVICE_INSTANCE_CACHE.get(instanceId);
-        if (Objects.nonNull(serviceInstanceInventory)) {
-            if (metric.getEndTime() - serviceInstanceInventory.getHeartbeatTime() > heartbeatCycle) {
-                // trigger heartbeat every 10s.
-                SERVICE_INSTANCE_INVENTORY_REGISTER.heartbeat(metric.getSourceServiceInstanceId(), metric.getEndTime());
-                SERVICE_INVENTORY_REGISTER.heartbeat(serviceInstanceInventory.getServiceId(), metric.getEndTime());
-            }
-        } else {
-            logger.warn("Can't found service by service instance id from cache, service instance id is: {}", instanceId);
+    /**
+     * Trigger the heartbeat of the instance and its service every 10s, no matter how many metrics of it are received.
+     * The cycle is acquired only after the instance is resolved, so an instance not in the cache yet doesn't lose its
+     * heartbeat for the whole cycle.
+     */
+    private static void heartbeat(int instanceId, long heartbeatTime) {
+        if (!HEARTBEAT_RATE_LIMITER.isDue(instanceId, heartbeatTime)) {
+            return;
         }
 
-        // dest
-        instanceId = metric.getDestServiceInstanceId();
-        serviceInstanceInventory = SERVICE_INSTANCE_CACHE.get(instanceId);
+        ServiceInstanceInventory serviceInstanceInventory = SERVICE_INSTANCE_CACHE.get(instanceId);
         if (Objects.nonNull(serviceInstanceInventory)) {
-            if (metric.getEndTime() - serviceInstanceInventory.getHeartbeatTime() > heartbeatCycle) {
-                // trigger heartbeat every 10s.
-                SERVICE_INSTANCE_INVENTORY_REGISTER.heartbeat(metric.getDestServiceInstanceId(), metric.getEndTime());
-                SERVICE_INVENTORY_REGISTER.heartbeat(serviceInstanceInventory.getServiceId(), metric.getEndTime());
+            if (HEARTBEAT_RATE_LIMITER.tryAcquire(instanceId, heartbeatTime)) {
+                SERVICE_INSTANCE_INVENTORY_REGISTER.heartbeat(instanceId, heartbeatTime);
+                SERVICE_INVENTORY_REGISTER.heartbeat(serviceInstanceInventory.getServiceId(), heartbeatTime);
             }
         } else {
             logger.warn("Can't found service by service instance id from cache, service instance id is: {}", instanceId);
         }
     }
 
-    private static void toAll(ServiceMeshMetricDataDecorator decorator, long minuteTimeBucket) {
-        ServiceMeshMetric metric = decorator.getMetric();
+    private static void toAll(ServiceMeshMetric metric, Names names, long minuteTimeBucket) {
         All all = new All();
         all.setTimeBucket(minuteTimeBucket);
-        all.setName(getServiceName(metric.getDestServiceId(), metric.getDestServiceName()));
-        all.setServiceInstanceName(getServiceInstanceName(metric.getDestServiceInstanceId(), metric.getDestServiceInstance()));
+        all.setName(names.destServiceName);
+        all.setServiceInstanceName(names.destServiceInstanceName);
         all.setEndpointName(metric.getEndpoint());
         all.setLatency(metric.getLatency());
         all.setStatus(metric.getStatus());
@@ -133,13 +127,12 @@ public class TelemetryDataDispatcher {
         SOURCE_RECEIVER.receive(all);
     }
 
-    private static void toService(ServiceMeshMetricDataDecorator decorator, long minuteTimeBucket) {
-        ServiceMeshMetric metric = decorator.getMetric();
+    private static void toService(ServiceMeshMetric metric, Names names, long minuteTimeBucket) {
         Service service = new Service();
         service.setTimeBucket(minuteTimeBucket);
         service.setId(metric.getDestServiceId());
-        service.setName(getServiceName(metric.getDestServiceId(), metric.getDestServiceName()));
-        service.setServiceInstanceName(getServiceInstanceName(metric.getDestServiceInstanceId(), metric.getDestServiceInstance()));
+        service.setName(names.destServiceName);
+        service.setServiceInstanceName(names.destServiceInstanceName);
         service.setEndpointName(metric.getEndpoint());
         service.setLatency(metric.getLatency());
         service.setStatus(metric.getStatus());
@@ -148,17 +141,16 @@ public class TelemetryDataDispatcher {
         SOURCE_RECEIVER.receive(service);
     }
 
-    private static void toServiceRelation(ServiceMeshMetricDataDecorator decorator, long minuteTimeBucket) {
-        ServiceMeshMetric metric = decorator.getMetric();
+    private static void toServiceRelation(ServiceMeshMetric metric, Names names, long minuteTimeBucket) {
         ServiceRelation serviceRelation = new ServiceRelation();
         serviceRelation.setTimeBucket(minuteTimeBucket);
         serviceRelation.setSourceServiceId(metric.getSourceServiceId());
-        serviceRelation.setSourceServiceName(getServiceName(metric.getSourceServiceId(), metric.getSourceServiceName()));
-        serviceRelation.setSourceServiceInstanceName(getServiceInstanceName(metric.getSourceServiceInstanceId(), metric.getSourceServiceInstance()));
+        serviceRelation.setSourceServiceName(names.sourceServiceName);
+        serviceRelation.setSourceServiceInstanceName(names.sourceServiceInstanceName);
 
         serviceRelation.setDestServiceId(metric.getDestServiceId());
-        serviceRelation.setDestServiceName(getServiceName(metric.getDestServiceId(), metric.getDestServiceName()));
-        serviceRelation.setDestServiceInstanceName(getServiceInstanceName(metric.getDestServiceInstanceId(), metric.getDestServiceInstance()));
+        serviceRelation.setDestServiceName(names.destServiceName);
+        serviceRelation.setDestServiceInstanceName(names.destServiceInstanceName);
 
         serviceRelation.setEndpoint(metric.getEndpoint());
         serviceRelation.setLatency(metric.getLatency());
@@ -171,14 +163,13 @@ public class TelemetryDataDispatcher {
         SOURCE_RECEIVER.receive(serviceRelation);
     }
 
-    private static void toServiceInstance(ServiceMeshMetricDataDecorator decorator, long minuteTimeBucket) {
-        ServiceMeshMetric metric = decorator.getMetric();
+    private static void toServiceInstance(ServiceMeshMetric metric, Names names, long minuteTimeBucket) {
         ServiceInstance serviceInstance = new ServiceInstance();
         serviceInstance.setTimeBucket(minuteTimeBucket);
         serviceInstance.setId(metric.getDestServiceInstanceId());
-        serviceInstance.setName(getServiceInstanceName(metric.getDestServiceInstanceId(), metric.getDestServiceInstance()));
+        serviceInstance.setName(names.destServiceInstanceName);
         serviceInstance.setServiceId(metric.getDestServiceId());
-        serviceInstance.setServiceName(getServiceName(metric.getDestServiceId(), metric.getDestServiceName()));
+        serviceInstance.setServiceName(names.destServiceName);
         serviceInstance.setEndpointName(metric.getEndpoint());
         serviceInstance.setLatency(metric.getLatency());
         serviceInstance.setStatus(metric.getStatus());
@@ -187,19 +178,18 @@ public class TelemetryDataDispatcher {
         SOURCE_RECEIVER.receive(serviceInstance);
     }
 
-    private static void toServiceInstanceRelation(ServiceMeshMetricDataDecorator decorator, long minuteTimeBucket) {
-        ServiceMeshMetric metric = decorator.getMetric();
+    private static void toServiceInstanceRelation(ServiceMeshMetric metric, Names names, long minuteTimeBucket) {
         ServiceInstanceRelation serviceRelation = new ServiceInstanceRelation();
         serviceRelation.setTimeBucket(minuteTimeBucket);
         serviceRelation.setSourceServiceInstanceId(metric.getSourceServiceInstanceId());
-        serviceRelation.setSourceServiceInstanceName(getServiceInstanceName(metric.getSourceServiceInstanceId(), metric.getSourceServiceInstance()));
+        serviceRelation.setSourceServiceInstanceName(names.sourceServiceInstanceName);
         serviceRelation.setSourceServiceId(metric.getSourceServiceId());
-        serviceRelation.setSourceServiceName(getServiceName(metric.getSourceServiceId(), metric.getSourceServiceName()));
+        serviceRelation.setSourceServiceName(names.sourceServiceName);
 
         serviceRelation.setDestServiceInstanceId(metric.getDestServiceInstanceId());
-        serviceRelation.setDestServiceInstanceName(getServiceInstanceName(metric.getDestServiceInstanceId(), metric.getDestServiceInstance()));
+        serviceRelation.setDestServiceInstanceName(names.destServiceInstanceName);
         serviceRelation.setDestServiceId(metric.getDestServiceId());
-        serviceRelation.setDestServiceName(getServiceName(metric.getDestServiceId(), metric.getDestServiceName()));
+        serviceRelation.setDestServiceName(names.destServiceName);
 
         serviceRelation.setEndpoint(metric.getEndpoint());
         serviceRelation.setLatency(metric.getLatency());
@@ -212,16 +202,16 @@ public class TelemetryDataDispatcher {
         SOURCE_RECEIVER.receive(serviceRelation);
     }
 
-    private static void toEndpoint(ServiceMeshMetricDataDecorator decorator, long minuteTimeBucket) {
+    private static void toEndpoint(ServiceMeshMetricDataDecorator decorator, Names names, long minuteTimeBucket) {
         ServiceMeshMetric metric = decorator.getMetric();
         Endpoint endpoint = new Endpoint();
         endpoint.setTimeBucket(minuteTimeBucket);
         endpoint.setId(decorator.getEndpointId());
         endpoint.setName(metric.getEndpoint());
         endpoint.setServiceId(metric.getDestServiceId());
-        endpoint.setServiceName(getServiceName(metric.getDestServiceId(), metric.getDestServiceName()));
+        endpoint.setServiceName(names.destServiceName);
         endpoint.setServiceInstanceId(metric.getDestServiceInstanceId());
-        endpoint.setServiceInstanceName(getServiceInstanceName(metric.getDestServiceInstanceId(), metric.getDestServiceInstance()));
+        endpoint.setServiceInstanceName(names.destServiceInstanceName);
 
         endpoint.setLatency(metric.getLatency());
         endpoint.setStatus(metric.getStatus());
@@ -285,4 +275,18 @@ public class TelemetryDataDispatcher {
             return serviceInstanceName;
         }
     }
+
+    private static class Names {
+        private final String sourceServiceName;
+        private final String sourceServiceInstanceName;
+        private final String destServiceName;
+        private final String destServiceInstanceName;
+
+        private Names(ServiceMeshMetric metric) {
+            this.sourceServiceName = getServiceName(metric.getSourceServiceId(), metric.getSourceServiceName());
+            this.sourceServiceInstanceName = getServiceInstanceName(metric.getSourceServiceInstanceId(), metric.getSourceServiceInstance());
+            this.destServiceName = getServiceName(metric.getDestServiceId(), metric.getDestServiceName());
+            this.destServiceInstanceName = getServiceInstanceName(metric.getDestServiceInstanceId(), metric.getDestServiceInstance());
+        }
+    }
 }
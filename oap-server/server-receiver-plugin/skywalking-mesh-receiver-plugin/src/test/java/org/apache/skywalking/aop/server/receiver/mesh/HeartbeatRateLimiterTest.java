@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.aop.server.receiver.mesh;
+
+import org.junit.*;
+
+public class HeartbeatRateLimiterTest {
+
+    @Test
+    public void testTryAcquire() {
+        HeartbeatRateLimiter limiter = new HeartbeatRateLimiter(10000);
+
+        Assert.assertTrue(limiter.tryAcquire(1, 100000));
+        Assert.assertFalse(limiter.tryAcquire(1, 105000));
+        Assert.assertFalse(limiter.tryAcquire(1, 110000));
+        Assert.assertTrue(limiter.tryAcquire(2, 105000));
+        Assert.assertTrue(limiter.tryAcquire(1, 110001));
+        // The metrics received out of order don't trigger the heartbeat.
+        Assert.assertFalse(limiter.tryAcquire(1, 90000));
+    }
+
+    @Test
+    public void testDueNotAcquired() {
+        HeartbeatRateLimiter limiter = new HeartbeatRateLimiter(10000);
+
+        Assert.assertTrue(limiter.isDue(1, 100000));
+        Assert.assertTrue(limiter.isDue(1, 100000));
+        Assert.assertEquals(0, limiter.size());
+        Assert.assertTrue(limiter.tryAcquire(1, 100000));
+        Assert.assertFalse(limiter.isDue(1, 105000));
+        Assert.assertTrue(limiter.isDue(1, 110001));
+    }
+
+    @Test
+    public void testEvicted() {
+        HeartbeatRateLimiter limiter = new HeartbeatRateLimiter(10000);
+
+        Assert.assertTrue(limiter.tryAcquire(1, 100000));
+        Assert.assertTrue(limiter.tryAcquire(2, 105000));
+        Assert.assertEquals(2, limiter.size());
+
+        // Only the instance 1 is out of the cycle at the time.
+        Assert.assertTrue(limiter.tryAcquire(3, 112000));
+        Assert.assertEquals(2, limiter.size());
+        Assert.assertTrue(limiter.isDue(1, 112000));
+        Assert.assertFalse(limiter.isDue(2, 112000));
+    }
+}
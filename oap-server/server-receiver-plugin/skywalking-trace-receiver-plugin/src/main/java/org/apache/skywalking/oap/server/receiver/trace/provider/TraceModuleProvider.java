@@ -29,9 +29,11 @@ import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.rest.
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v6.grpc.TraceSegmentReportServiceHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.*;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.endpoint.MultiScopesSpanListener;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.sampling.DynamicSamplingSpanListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.segment.SegmentSpanListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.service.ServiceMappingSpanListener;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization.SegmentStandardizationWorker;
+import org.apache.skywalking.oap.server.receiver.trace.provider.sampling.DynamicSamplingController;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 
 /**
@@ -42,6 +44,7 @@ public class TraceModuleProvider extends ModuleProvider {
     private final TraceServiceModuleConfig moduleConfig;
     private SegmentParse.Producer segmentProducer;
     private SegmentParseV2.Producer segmentProducerV2;
+    private DynamicSamplingController dynamicSamplingController;
 
     public TraceModuleProvider() {
         this.moduleConfig = new TraceServiceModuleConfig();
@@ -74,6 +77,11 @@ public class TraceModuleProvider extends ModuleProvider {
         listenerManager.add(new ServiceMappingSpanListener.Factory());
         listenerManager.add(new SegmentSpanListener.Factory(moduleConfig.getSampleRate()));
 
+        dynamicSamplingController = new DynamicSamplingController(moduleConfig);
+        if (dynamicSamplingController.isEnabled()) {
+            listenerManager.add(new DynamicSamplingSpanListener.Factory(dynamicSamplingController));
+        }
+
         segmentProducerV2 = new SegmentParseV2.Producer(getManager(), listenerManager, moduleConfig);
 
         this.registerServiceImplementation(ISegmentParserService.class, new SegmentParserServiceImpl(segmentProducerV2));
@@ -85,7 +93,7 @@ public class TraceModuleProvider extends ModuleProvider {
         try {
 
             grpcHandlerRegister.addHandler(new TraceSegmentServiceHandler(segmentProducer));
-            grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(segmentProducerV2, getManager()));
+            grpcHandlerRegister.addHandler(new TraceSegmentReportServiceHandler(segmentProducerV2, dynamicSamplingController, getManager()));
             jettyHandlerRegister.addHandler(new TraceSegmentServletHandler(segmentProducer));
 
             SegmentStandardizationWorker standardizationWorker = new SegmentStandardizationWorker(getManager(), segmentProducer,
@@ -97,6 +105,8 @@ public class TraceModuleProvider extends ModuleProvider {
                 moduleConfig.getBufferPath(), moduleConfig.getBufferOffsetMaxFileSize(), moduleConfig.getBufferDataMaxFileSize(), moduleConfig.isBufferFileCleanWhenRestart(),
                 true);
             segmentProducerV2.setStandardizationWorker(standardizationWorker2);
+
+            dynamicSamplingController.start(getManager());
         } catch (IOException e) {
             throw new ModuleStartException(e.getMessage(), e);
         }
@@ -39,4 +39,18 @@ public class TraceServiceModuleConfig extends ModuleConfig {
      */
     @Setter @Getter private String slowDBAccessThreshold = "default:200";
     @Setter @Getter private DBLatencyThresholds dbLatencyThresholds;
+
+    /**
+     * Push sampling limits to the agents through the trace report stream, when this backend is saturated.
+     */
+    @Setter @Getter private boolean dynamicSamplingEnabled = false;
+    /**
+     * The backend is considered saturated, when the average time of receiving one segment is over this threshold. Unit,
+     * millisecond.
+     */
+    @Setter @Getter private int dynamicSamplingLatencyThreshold = 20;
+    /**
+     * The lowest limit pushed to one service instance, the number of sampled traces in 3 seconds.
+     */
+    @Setter @Getter private int dynamicSamplingMinSampleNPer3Secs = 5;
 }
@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.library.server.grpc.GRPCHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.handler.v5.grpc.TraceSegmentServiceHandler;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParseV2;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentSource;
+import org.apache.skywalking.oap.server.receiver.trace.provider.sampling.DynamicSamplingController;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.*;
 import org.slf4j.Logger;
@@ -37,10 +38,13 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
     private static final Logger logger = LoggerFactory.getLogger(TraceSegmentServiceHandler.class);
 
     private final SegmentParseV2.Producer segmentProducer;
+    private final DynamicSamplingController dynamicSamplingController;
     private HistogramMetric histogram;
 
-    public TraceSegmentReportServiceHandler(SegmentParseV2.Producer segmentProducer, ModuleManager moduleManager) {
+    public TraceSegmentReportServiceHandler(SegmentParseV2.Producer segmentProducer,
+        DynamicSamplingController dynamicSamplingController, ModuleManager moduleManager) {
         this.segmentProducer = segmentProducer;
+        this.dynamicSamplingController = dynamicSamplingController;
         MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         histogram = metricCreator.createHistogramMetric("trace_grpc_v6_in_latency", "The process latency of service mesh telemetry",
             MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
@@ -54,10 +58,14 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
                 }
 
                 HistogramMetric.Timer timer = histogram.createTimer();
+                long startTime = System.nanoTime();
                 try {
                     segmentProducer.send(segment, SegmentSource.Agent);
                 } finally {
                     timer.finish();
+                    if (dynamicSamplingController.isEnabled()) {
+                        dynamicSamplingController.recordLatency(System.nanoTime() - startTime);
+                    }
                 }
             }
 
@@ -67,7 +75,7 @@ public class TraceSegmentReportServiceHandler extends TraceSegmentReportServiceG
             }
 
             @Override public void onCompleted() {
-                responseObserver.onNext(Commands.newBuilder().build());
+                responseObserver.onNext(dynamicSamplingController.getCommands());
                 responseObserver.onCompleted();
             }
         };
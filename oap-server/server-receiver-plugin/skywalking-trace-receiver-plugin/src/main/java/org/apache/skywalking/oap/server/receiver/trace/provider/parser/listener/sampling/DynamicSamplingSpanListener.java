@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.sampling;
+
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.decorator.*;
+import org.apache.skywalking.oap.server.receiver.trace.provider.parser.listener.*;
+import org.apache.skywalking.oap.server.receiver.trace.provider.sampling.DynamicSamplingController;
+
+/**
+ * Count the received segments of each service instance for {@link DynamicSamplingController}.
+ */
+public class DynamicSamplingSpanListener implements FirstSpanListener {
+
+    private final DynamicSamplingController controller;
+    private int serviceInstanceId = 0;
+
+    private DynamicSamplingSpanListener(DynamicSamplingController controller) {
+        this.controller = controller;
+    }
+
+    @Override public boolean containsPoint(Point point) {
+        return Point.First.equals(point);
+    }
+
+    @Override public void parseFirst(SpanDecorator spanDecorator, SegmentCoreInfo segmentCoreInfo) {
+        serviceInstanceId = segmentCoreInfo.getServiceInstanceId();
+    }
+
+    @Override public void build() {
+        if (serviceInstanceId != 0) {
+            controller.recordSegment(serviceInstanceId);
+        }
+    }
+
+    public static class Factory implements SpanListenerFactory {
+        private final DynamicSamplingController controller;
+
+        public Factory(DynamicSamplingController controller) {
+            this.controller = controller;
+        }
+
+        @Override public SpanListener create(ModuleManager moduleManager, TraceServiceModuleConfig config) {
+            return new DynamicSamplingSpanListener(controller);
+        }
+    }
+}
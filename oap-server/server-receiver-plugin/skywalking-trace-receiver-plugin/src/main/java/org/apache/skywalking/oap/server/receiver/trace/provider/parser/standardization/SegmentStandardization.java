@@ -19,12 +19,11 @@
 package org.apache.skywalking.oap.server.receiver.trace.provider.parser.standardization;
 
 import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
-import org.apache.skywalking.oap.server.core.analysis.data.*;
 
 /**
  * @author peng-yongsheng
  */
-public class SegmentStandardization implements QueueData {
+public class SegmentStandardization {
 
     private final String id;
 
@@ -36,16 +35,6 @@ public class SegmentStandardization implements QueueData {
         return id;
     }
 
-    private EndOfBatchContext context;
-
-    @Override public EndOfBatchContext getEndOfBatchContext() {
-        return this.context;
-    }
-
-    @Override public void setEndOfBatchContext(EndOfBatchContext context) {
-        this.context = context;
-    }
-
     private UpstreamSegment upstreamSegment;
 
     public UpstreamSegment getUpstreamSegment() {
@@ -23,7 +23,7 @@ import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.language.agent.UpstreamSegment;
-import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.core.worker.*;
 import org.apache.skywalking.oap.server.library.buffer.BufferStream;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.receiver.trace.provider.parser.SegmentParse;
@@ -58,6 +58,7 @@ public class SegmentStandardizationWorker extends AbstractWorker<SegmentStandard
 
         dataCarrier = new DataCarrier<>("SegmentStandardizationWorker", 1, 1024);
         dataCarrier.consume(new Consumer(stream), 1, 200);
+        PipelineProfiler.INSTANCE.register("SegmentStandardizationWorker", isV6 ? "v6" : "v5", dataCarrier);
 
         MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
         String metricNamePrefix = isV6 ? "v6_" : "v5_";
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.receiver.trace.provider.sampling;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import org.apache.skywalking.apm.network.common.Commands;
+import org.apache.skywalking.apm.network.trace.command.TraceSamplingCommand;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.*;
+import org.slf4j.*;
+
+/**
+ * DynamicSamplingController calculates the sampling limit of each service instance, based on the segments received in
+ * the last 3 seconds and the time of pushing them into the analysis stream. Receiving slows down when the buffers of the
+ * downstream workers are full, so the receiving latency is used as the saturation signal.
+ *
+ * When saturated, the limit of every active instance is reduced in proportion to the pressure. When not, the limits
+ * are relaxed by doubling, and removed once the instance sends far less than its limit. The limits are pushed to the
+ * agents through {@link TraceSamplingCommand} in the response of the trace report stream.
+ */
+public class DynamicSamplingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamicSamplingController.class);
+
+    private static final Commands EMPTY = Commands.newBuilder().build();
+
+    private final boolean enabled;
+    private final long latencyThreshold;
+    private final int minSampleNPer3Secs;
+    private final ConcurrentHashMap<Integer, AtomicInteger> segmentCounters;
+    private final AtomicLong latencySum;
+    private final AtomicLong latencyCount;
+    /**
+     * Only accessed by the evaluating thread.
+     */
+    private final Map<Integer, Integer> limits;
+    private volatile Commands commands = EMPTY;
+    private GaugeMetric limitedInstances;
+
+    public DynamicSamplingController(TraceServiceModuleConfig config) {
+        this.enabled = config.isDynamicSamplingEnabled();
+        this.latencyThreshold = TimeUnit.MILLISECONDS.toNanos(config.getDynamicSamplingLatencyThreshold());
+        this.minSampleNPer3Secs = config.getDynamicSamplingMinSampleNPer3Secs();
+        this.segmentCounters = new ConcurrentHashMap<>();
+        this.latencySum = new AtomicLong(0);
+        this.latencyCount = new AtomicLong(0);
+        this.limits = new HashMap<>();
+        if (enabled) {
+            this.commands = buildCommands();
+        }
+    }
+
+    public void start(ModuleManager moduleManager) {
+        if (!enabled) {
+            return;
+        }
+
+        MetricCreator metricCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricCreator.class);
+        limitedInstances = metricCreator.createGauge("trace_dynamic_sampling_limited_instances", "The number of service instances limited by dynamic sampling",
+            MetricTag.EMPTY_KEY, MetricTag.EMPTY_VALUE);
+
+        Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Dynamic-Sampling-%s").build()).scheduleAtFixedRate(
+            new RunnableWithExceptionProtection(this::evaluate,
+                t -> logger.error("Dynamic sampling evaluation failure.", t)), 3, 3, TimeUnit.SECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordSegment(int serviceInstanceId) {
+        AtomicInteger counter = segmentCounters.get(serviceInstanceId);
+        if (counter == null) {
+            counter = segmentCounters.computeIfAbsent(serviceInstanceId, id -> new AtomicInteger(0));
+        }
+        counter.incrementAndGet();
+    }
+
+    public void recordLatency(long nanos) {
+        latencySum.addAndGet(nanos);
+        latencyCount.incrementAndGet();
+    }
+
+    /**
+     * @return the commands should be sent back to the agent when its trace report stream completed.
+     */
+    public Commands getCommands() {
+        return commands;
+    }
+
+    int countedInstances() {
+        return segmentCounters.size();
+    }
+
+    void evaluate() {
+        long count = latencyCount.getAndSet(0);
+        long sum = latencySum.getAndSet(0);
+        double pressure = count == 0 ? 0 : (double)sum / count / latencyThreshold;
+
+        Map<Integer, Integer> received = new HashMap<>();
+        segmentCounters.forEach((serviceInstanceId, counter) -> {
+            int segments = counter.getAndSet(0);
+            if (segments > 0) {
+                received.put(serviceInstanceId, segments);
+            } else {
+                // The instance sent nothing in the last 3 seconds, a new counter is created once it comes back.
+                segmentCounters.remove(serviceInstanceId, counter);
+            }
+        });
+
+        if (pressure > 1) {
+            received.forEach((serviceInstanceId, segments) -> {
+                int limit = Math.max(minSampleNPer3Secs, (int)(segments / pressure));
+                limits.merge(serviceInstanceId, limit, Math::min);
+            });
+        } else {
+            Iterator<Map.Entry<Integer, Integer>> iterator = limits.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, Integer> limit = iterator.next();
+                int segments = received.getOrDefault(limit.getKey(), 0);
+                if (segments < limit.getValue() / 2) {
+                    iterator.remove();
+                } else {
+                    limit.setValue(limit.getValue() * 2);
+                }
+            }
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Dynamic sampling pressure: {}, limited instances: {}", pressure, limits);
+        }
+
+        if (limitedInstances != null) {
+            limitedInstances.setValue(limits.size());
+        }
+        commands = buildCommands();
+    }
+
+    /**
+     * The sampling command is sent even no instance is limited, in order to release the limits in the agents.
+     */
+    private Commands buildCommands() {
+        return Commands.newBuilder().addCommands(TraceSamplingCommand.build(limits)).build();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.oap.server.receiver.trace.provider.sampling;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.network.common.Command;
+import org.apache.skywalking.apm.network.trace.command.TraceSamplingCommand;
+import org.apache.skywalking.oap.server.receiver.trace.provider.TraceServiceModuleConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DynamicSamplingControllerTest {
+    @Test
+    public void disabled() {
+        DynamicSamplingController controller = new DynamicSamplingController(new TraceServiceModuleConfig());
+        Assert.assertFalse(controller.isEnabled());
+        Assert.assertEquals(0, controller.getCommands().getCommandsCount());
+    }
+
+    @Test
+    public void limitAndRelease() {
+        TraceServiceModuleConfig config = new TraceServiceModuleConfig();
+        config.setDynamicSamplingEnabled(true);
+        config.setDynamicSamplingLatencyThreshold(10);
+        config.setDynamicSamplingMinSampleNPer3Secs(5);
+        DynamicSamplingController controller = new DynamicSamplingController(config);
+
+        // Not saturated, nothing limited, but the command is sent to release the limits.
+        record(controller, 1, 100, 1);
+        controller.evaluate();
+        Assert.assertEquals(TraceSamplingCommand.NO_LIMIT, limitOf(controller, 1));
+
+        // Average latency is 4 times of the threshold.
+        record(controller, 1, 100, 40);
+        record(controller, 2, 2, 40);
+        controller.evaluate();
+        Assert.assertEquals(25, limitOf(controller, 1));
+        Assert.assertEquals(5, limitOf(controller, 2));
+
+        // Still saturated, the limit never goes up.
+        record(controller, 1, 25, 20);
+        controller.evaluate();
+        Assert.assertEquals(12, limitOf(controller, 1));
+
+        // Recovered, relax by doubling while the instance keeps using its limit.
+        record(controller, 1, 12, 1);
+        controller.evaluate();
+        Assert.assertEquals(24, limitOf(controller, 1));
+        Assert.assertEquals(TraceSamplingCommand.NO_LIMIT, limitOf(controller, 2));
+
+        // Far less than the limit, release.
+        record(controller, 1, 3, 1);
+        controller.evaluate();
+        Assert.assertEquals(TraceSamplingCommand.NO_LIMIT, limitOf(controller, 1));
+    }
+
+    @Test
+    public void pruneInactiveInstances() {
+        TraceServiceModuleConfig config = new TraceServiceModuleConfig();
+        config.setDynamicSamplingEnabled(true);
+        config.setDynamicSamplingLatencyThreshold(10);
+        DynamicSamplingController controller = new DynamicSamplingController(config);
+
+        record(controller, 1, 10, 1);
+        record(controller, 2, 10, 1);
+        controller.evaluate();
+        Assert.assertEquals(2, controller.countedInstances());
+
+        // Instance 2 is gone.
+        record(controller, 1, 10, 1);
+        controller.evaluate();
+        Assert.assertEquals(1, controller.countedInstances());
+    }
+
+    private void record(DynamicSamplingController controller, int serviceInstanceId, int segments, long latencyInMillis) {
+        for (int i = 0; i < segments; i++) {
+            controller.recordSegment(serviceInstanceId);
+            controller.recordLatency(TimeUnit.MILLISECONDS.toNanos(latencyInMillis));
+        }
+    }
+
+    private int limitOf(DynamicSamplingController controller, int serviceInstanceId) {
+        Assert.assertEquals(1, controller.getCommands().getCommandsCount());
+        Command command = controller.getCommands().getCommands(0);
+        Assert.assertTrue(TraceSamplingCommand.isSamplingCommand(command));
+        return TraceSamplingCommand.findSampleNPer3Secs(command, serviceInstanceId);
+    }
+}
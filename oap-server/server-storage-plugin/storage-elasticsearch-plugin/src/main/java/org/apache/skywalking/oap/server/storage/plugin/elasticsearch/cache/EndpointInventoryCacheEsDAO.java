@@ -18,14 +18,18 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.cache;
 
+import java.io.IOException;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.register.*;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
 import org.apache.skywalking.oap.server.core.storage.cache.IEndpointInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchResponse;
-import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.*;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.slf4j.*;
@@ -37,6 +41,9 @@ public class EndpointInventoryCacheEsDAO extends EsDAO implements IEndpointInven
 
     private static final Logger logger = LoggerFactory.getLogger(EndpointInventoryCacheEsDAO.class);
 
+    private static final int SCROLL_PAGE_SIZE = 1000;
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
     private final EndpointInventory.Builder builder = new EndpointInventory.Builder();
 
     public EndpointInventoryCacheEsDAO(ElasticSearchClient client) {
@@ -76,4 +83,31 @@ public class EndpointInventoryCacheEsDAO extends EsDAO implements IEndpointInven
             return null;
         }
     }
+
+    @Override public List<EndpointInventory> loadLastRegistered(long registerTime, int limit) throws IOException {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+        BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+        boolQuery.must().add(QueryBuilders.termQuery(EndpointInventory.DETECT_POINT, DetectPoint.SERVER.ordinal()));
+        boolQuery.must().add(QueryBuilders.rangeQuery(EndpointInventory.REGISTER_TIME).gte(registerTime));
+        searchSourceBuilder.query(boolQuery);
+        searchSourceBuilder.size(Math.min(limit, SCROLL_PAGE_SIZE));
+
+        List<EndpointInventory> endpointInventories = new ArrayList<>();
+        SearchResponse response = getClient().search(EndpointInventory.MODEL_NAME, searchSourceBuilder, SCROLL_KEEP_ALIVE);
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length > 0 && endpointInventories.size() < limit) {
+                for (SearchHit searchHit : response.getHits().getHits()) {
+                    if (endpointInventories.size() < limit) {
+                        endpointInventories.add(builder.map2Data(searchHit.getSourceAsMap()));
+                    }
+                }
+                response = getClient().searchScroll(scrollId, SCROLL_KEEP_ALIVE);
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            getClient().clearScroll(scrollId);
+        }
+        return endpointInventories;
+    }
 }
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.cache;
 
+import java.io.IOException;
 import java.util.*;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.register.*;
@@ -27,6 +28,7 @@ import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -39,6 +41,9 @@ public class ServiceInventoryCacheEsDAO extends EsDAO implements IServiceInvento
 
     private static final Logger logger = LoggerFactory.getLogger(ServiceInventoryCacheEsDAO.class);
 
+    private static final int SCROLL_PAGE_SIZE = 1000;
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
     private final ServiceInventory.Builder builder = new ServiceInventory.Builder();
 
     public ServiceInventoryCacheEsDAO(ElasticSearchClient client) {
@@ -112,4 +117,26 @@ public class ServiceInventoryCacheEsDAO extends EsDAO implements IServiceInvento
 
         return serviceInventories;
     }
+
+    @Override public List<ServiceInventory> loadLastUpdate(long heartbeatTime) throws IOException {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+        searchSourceBuilder.query(QueryBuilders.rangeQuery(ServiceInventory.HEARTBEAT_TIME).gte(heartbeatTime));
+        searchSourceBuilder.size(SCROLL_PAGE_SIZE);
+
+        List<ServiceInventory> serviceInventories = new ArrayList<>();
+        SearchResponse response = getClient().search(ServiceInventory.MODEL_NAME, searchSourceBuilder, SCROLL_KEEP_ALIVE);
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length > 0) {
+                for (SearchHit searchHit : response.getHits().getHits()) {
+                    serviceInventories.add(builder.map2Data(searchHit.getSourceAsMap()));
+                }
+                response = getClient().searchScroll(scrollId, SCROLL_KEEP_ALIVE);
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            getClient().clearScroll(scrollId);
+        }
+        return serviceInventories;
+    }
 }
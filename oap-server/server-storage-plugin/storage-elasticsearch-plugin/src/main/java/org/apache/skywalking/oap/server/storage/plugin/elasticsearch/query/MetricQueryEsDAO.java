@@ -40,6 +40,8 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
  */
 public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
 
+    private static final int DEFAULT_TERMS_SIZE = 1000;
+
     public MetricQueryEsDAO(ElasticSearchClient client) {
         super(client);
     }
@@ -51,7 +53,12 @@ public class MetricQueryEsDAO extends EsDAO implements IMetricQueryDAO {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
         queryBuild(sourceBuilder, where, startTB, endTB);
 
-        TermsAggregationBuilder entityIdAggregation = AggregationBuilders.terms(Indicator.ENTITY_ID).field(Indicator.ENTITY_ID).size(1000);
+        int size = 0;
+        for (KeyValues keyValues : where.getKeyValues()) {
+            size += keyValues.getValues().size();
+        }
+        // One bucket for every queried entity, so no one is dropped however many entities are queried.
+        TermsAggregationBuilder entityIdAggregation = AggregationBuilders.terms(Indicator.ENTITY_ID).field(Indicator.ENTITY_ID).size(Math.max(size, DEFAULT_TERMS_SIZE));
         functionAggregation(function, entityIdAggregation, valueCName);
 
         sourceBuilder.aggregation(entityIdAggregation);
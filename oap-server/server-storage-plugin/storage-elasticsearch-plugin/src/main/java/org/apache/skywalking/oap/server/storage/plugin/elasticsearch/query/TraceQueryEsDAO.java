@@ -23,11 +23,12 @@ import java.io.IOException;
 import java.util.*;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.query.entity.*;
-import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.*;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base.EsDAO;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.*;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -38,6 +39,11 @@ import org.elasticsearch.search.sort.SortOrder;
  */
 public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
 
+    private static final String[] BASIC_TRACE_COLUMNS = {SegmentRecord.SEGMENT_ID, SegmentRecord.START_TIME,
+        SegmentRecord.ENDPOINT_NAME, SegmentRecord.LATENCY, SegmentRecord.IS_ERROR, SegmentRecord.TRACE_ID};
+    private static final int SEGMENT_PAGE_SIZE = 200;
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
     public TraceQueryEsDAO(ElasticSearchClient client) {
         super(client);
     }
@@ -45,7 +51,8 @@ public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
     @Override
     public TraceBrief queryBasicTraces(long startSecondTB, long endSecondTB, long minDuration,
         long maxDuration, String endpointName, int serviceId, int serviceInstanceId, int endpointId, String traceId,
-        int limit, int from, TraceState traceState, QueryOrder queryOrder) throws IOException {
+        int limit, int from, String cursor, boolean needTotal, TraceState traceState,
+        QueryOrder queryOrder) throws IOException {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
 
         BoolQueryBuilder boolQueryBuilder = QueryBuilders.boolQuery();
@@ -97,54 +104,93 @@ public class TraceQueryEsDAO extends EsDAO implements ITraceQueryDAO {
                 sourceBuilder.sort(SegmentRecord.LATENCY, SortOrder.DESC);
                 break;
         }
+        sourceBuilder.sort(SegmentRecord.SEGMENT_ID, SortOrder.DESC);
+        if (Strings.isNullOrEmpty(cursor)) {
+            sourceBuilder.from(from);
+        } else {
+            TraceCursor traceCursor = TraceCursor.parse(cursor);
+            sourceBuilder.searchAfter(new Object[] {traceCursor.getSortValue(), traceCursor.getSegmentId()});
+        }
         sourceBuilder.size(limit);
-        sourceBuilder.from(from);
+        sourceBuilder.fetchSource(BASIC_TRACE_COLUMNS, null);
+        sourceBuilder.trackTotalHits(needTotal);
 
         SearchResponse response = getClient().search(SegmentRecord.INDEX_NAME, sourceBuilder);
 
         TraceBrief traceBrief = new TraceBrief();
-        traceBrief.setTotal((int)response.getHits().totalHits);
 
         for (SearchHit searchHit : response.getHits().getHits()) {
+            Map<String, Object> source = searchHit.getSourceAsMap();
             BasicTrace basicTrace = new BasicTrace();
 
-            basicTrace.setSegmentId((String)searchHit.getSourceAsMap().get(SegmentRecord.SEGMENT_ID));
-            basicTrace.setStart(String.valueOf(searchHit.getSourceAsMap().get(SegmentRecord.START_TIME)));
-            basicTrace.getEndpointNames().add((String)searchHit.getSourceAsMap().get(SegmentRecord.ENDPOINT_NAME));
-            basicTrace.setDuration(((Number)searchHit.getSourceAsMap().get(SegmentRecord.LATENCY)).intValue());
-            basicTrace.setError(BooleanUtils.valueToBoolean(((Number)searchHit.getSourceAsMap().get(SegmentRecord.IS_ERROR)).intValue()));
-            basicTrace.getTraceIds().add((String)searchHit.getSourceAsMap().get(SegmentRecord.TRACE_ID));
+            basicTrace.setSegmentId((String)source.get(SegmentRecord.SEGMENT_ID));
+            basicTrace.setStart(String.valueOf(source.get(SegmentRecord.START_TIME)));
+            basicTrace.getEndpointNames().add((String)source.get(SegmentRecord.ENDPOINT_NAME));
+            basicTrace.setDuration(((Number)source.get(SegmentRecord.LATENCY)).intValue());
+            basicTrace.setError(BooleanUtils.valueToBoolean(((Number)source.get(SegmentRecord.IS_ERROR)).intValue()));
+            basicTrace.getTraceIds().add((String)source.get(SegmentRecord.TRACE_ID));
             traceBrief.getTraces().add(basicTrace);
         }
 
+        traceBrief.setCursor(TraceCursor.next(queryOrder, traceBrief.getTraces(), limit));
+        if (needTotal) {
+            traceBrief.setTotal((int)response.getHits().totalHits);
+        } else {
+            traceBrief.setTotal(TraceCursor.approximateTotal(from, limit, traceBrief.getTraces().size()));
+        }
+
         return traceBrief;
     }
 
+    /**
+     * Most traces have fewer segments than one page, which are fetched by a single search. The larger ones are fetched
+     * page by page in a scroll, so no segment is truncated.
+     */
     @Override public List<SegmentRecord> queryByTraceId(String traceId) throws IOException {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource();
         sourceBuilder.query(QueryBuilders.termQuery(SegmentRecord.TRACE_ID, traceId));
-        sourceBuilder.size(20);
+        sourceBuilder.size(SEGMENT_PAGE_SIZE);
 
         SearchResponse response = getClient().search(SegmentRecord.INDEX_NAME, sourceBuilder);
 
         List<SegmentRecord> segmentRecords = new ArrayList<>();
+        if (response.getHits().getTotalHits() <= response.getHits().getHits().length) {
+            buildSegmentRecords(response, segmentRecords);
+            return segmentRecords;
+        }
+
+        response = getClient().search(SegmentRecord.INDEX_NAME, sourceBuilder, SCROLL_KEEP_ALIVE);
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length > 0) {
+                buildSegmentRecords(response, segmentRecords);
+                response = getClient().searchScroll(scrollId, SCROLL_KEEP_ALIVE);
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            getClient().clearScroll(scrollId);
+        }
+        return segmentRecords;
+    }
+
+    private void buildSegmentRecords(SearchResponse response, List<SegmentRecord> segmentRecords) {
         for (SearchHit searchHit : response.getHits().getHits()) {
+            Map<String, Object> source = searchHit.getSourceAsMap();
             SegmentRecord segmentRecord = new SegmentRecord();
-            segmentRecord.setSegmentId((String)searchHit.getSourceAsMap().get(SegmentRecord.SEGMENT_ID));
-            segmentRecord.setTraceId((String)searchHit.getSourceAsMap().get(SegmentRecord.TRACE_ID));
-            segmentRecord.setServiceId(((Number)searchHit.getSourceAsMap().get(SegmentRecord.SERVICE_ID)).intValue());
-            segmentRecord.setEndpointName((String)searchHit.getSourceAsMap().get(SegmentRecord.ENDPOINT_NAME));
-            segmentRecord.setStartTime(((Number)searchHit.getSourceAsMap().get(SegmentRecord.START_TIME)).longValue());
-            segmentRecord.setEndTime(((Number)searchHit.getSourceAsMap().get(SegmentRecord.END_TIME)).longValue());
-            segmentRecord.setLatency(((Number)searchHit.getSourceAsMap().get(SegmentRecord.LATENCY)).intValue());
-            segmentRecord.setIsError(((Number)searchHit.getSourceAsMap().get(SegmentRecord.IS_ERROR)).intValue());
-            String dataBinaryBase64 = (String)searchHit.getSourceAsMap().get(SegmentRecord.DATA_BINARY);
+            segmentRecord.setSegmentId((String)source.get(SegmentRecord.SEGMENT_ID));
+            segmentRecord.setTraceId((String)source.get(SegmentRecord.TRACE_ID));
+            segmentRecord.setServiceId(((Number)source.get(SegmentRecord.SERVICE_ID)).intValue());
+            segmentRecord.setEndpointName((String)source.get(SegmentRecord.ENDPOINT_NAME));
+            segmentRecord.setStartTime(((Number)source.get(SegmentRecord.START_TIME)).longValue());
+            segmentRecord.setEndTime(((Number)source.get(SegmentRecord.END_TIME)).longValue());
+            segmentRecord.setLatency(((Number)source.get(SegmentRecord.LATENCY)).intValue());
+            segmentRecord.setIsError(((Number)source.get(SegmentRecord.IS_ERROR)).intValue());
+            String dataBinaryBase64 = (String)source.get(SegmentRecord.DATA_BINARY);
             if (!Strings.isNullOrEmpty(dataBinaryBase64)) {
                 segmentRecord.setDataBinary(Base64.getDecoder().decode(dataBinaryBase64));
             }
-            segmentRecord.setVersion(((Number)searchHit.getSourceAsMap().get(SegmentRecord.VERSION)).intValue());
+            segmentRecord.setVersion(((Number)source.get(SegmentRecord.VERSION)).intValue());
             segmentRecords.add(segmentRecord);
         }
-        return segmentRecords;
     }
 }
@@ -19,7 +19,10 @@
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.io.IOException;
+import java.sql.*;
+import java.util.*;
 import org.apache.skywalking.oap.server.core.register.EndpointInventory;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
 import org.apache.skywalking.oap.server.core.storage.cache.IEndpointInventoryCacheDAO;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.slf4j.*;
@@ -48,4 +51,30 @@ public class H2EndpointInventoryCacheDAO extends H2SQLExecutor implements IEndpo
             return null;
         }
     }
+
+    @Override public List<EndpointInventory> loadLastRegistered(long registerTime, int limit) throws IOException {
+        List<EndpointInventory> endpointInventories = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder("select * from ");
+        sql.append(EndpointInventory.MODEL_NAME);
+        sql.append(" where ").append(EndpointInventory.DETECT_POINT).append("=?");
+        sql.append(" and ").append(EndpointInventory.REGISTER_TIME).append(">=?");
+        sql.append(" limit ").append(limit);
+
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet resultSet = h2Client.executeQuery(connection, sql.toString(), DetectPoint.SERVER.ordinal(), registerTime)) {
+                EndpointInventory endpointInventory;
+                do {
+                    endpointInventory = (EndpointInventory)toStorageData(resultSet, EndpointInventory.MODEL_NAME, new EndpointInventory.Builder());
+                    if (endpointInventory != null) {
+                        endpointInventories.add(endpointInventory);
+                    }
+                }
+                while (endpointInventory != null);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+        return endpointInventories;
+    }
 }
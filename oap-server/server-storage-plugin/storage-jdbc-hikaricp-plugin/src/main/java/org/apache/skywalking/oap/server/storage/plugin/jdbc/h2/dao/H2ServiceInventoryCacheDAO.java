@@ -89,4 +89,28 @@ public class H2ServiceInventoryCacheDAO extends H2SQLExecutor implements IServic
         }
         return serviceInventories;
     }
+
+    @Override public List<ServiceInventory> loadLastUpdate(long heartbeatTime) throws IOException {
+        List<ServiceInventory> serviceInventories = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder("select * from ");
+        sql.append(ServiceInventory.MODEL_NAME);
+        sql.append(" where ").append(ServiceInventory.HEARTBEAT_TIME).append(">=?");
+
+        try (Connection connection = h2Client.getConnection()) {
+            try (ResultSet resultSet = h2Client.executeQuery(connection, sql.toString(), heartbeatTime)) {
+                ServiceInventory serviceInventory;
+                do {
+                    serviceInventory = (ServiceInventory)toStorageData(resultSet, ServiceInventory.MODEL_NAME, new ServiceInventory.Builder());
+                    if (serviceInventory != null) {
+                        serviceInventories.add(serviceInventory);
+                    }
+                }
+                while (serviceInventory != null);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+        return serviceInventories;
+    }
 }
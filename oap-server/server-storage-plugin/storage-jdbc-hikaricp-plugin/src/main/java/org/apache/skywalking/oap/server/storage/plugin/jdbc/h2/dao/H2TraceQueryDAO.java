@@ -24,7 +24,7 @@ import java.sql.*;
 import java.util.*;
 import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
 import org.apache.skywalking.oap.server.core.query.entity.*;
-import org.apache.skywalking.oap.server.core.storage.query.ITraceQueryDAO;
+import org.apache.skywalking.oap.server.core.storage.query.*;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.elasticsearch.search.sort.SortOrder;
@@ -33,6 +33,9 @@ import org.elasticsearch.search.sort.SortOrder;
  * @author wusheng
  */
 public class H2TraceQueryDAO implements ITraceQueryDAO {
+    private static final String BASIC_TRACE_COLUMNS = SegmentRecord.SEGMENT_ID + ", " + SegmentRecord.START_TIME + ", "
+        + SegmentRecord.ENDPOINT_NAME + ", " + SegmentRecord.LATENCY + ", " + SegmentRecord.IS_ERROR + ", " + SegmentRecord.TRACE_ID;
+
     private JDBCHikariCPClient h2Client;
 
     public H2TraceQueryDAO(JDBCHikariCPClient h2Client) {
@@ -42,7 +45,7 @@ public class H2TraceQueryDAO implements ITraceQueryDAO {
     @Override
     public TraceBrief queryBasicTraces(long startSecondTB, long endSecondTB, long minDuration, long maxDuration,
         String endpointName, int serviceId, int serviceInstanceId, int endpointId, String traceId, int limit, int from,
-        TraceState traceState, QueryOrder queryOrder) throws IOException {
+        String cursor, boolean needTotal, TraceState traceState, QueryOrder queryOrder) throws IOException {
         StringBuilder sql = new StringBuilder();
         List<Object> parameters = new ArrayList<>(10);
 
@@ -91,27 +94,35 @@ public class H2TraceQueryDAO implements ITraceQueryDAO {
                 sql.append(" and ").append(SegmentRecord.IS_ERROR).append(" = ").append(BooleanUtils.FALSE);
                 break;
         }
-        switch (queryOrder) {
-            case BY_START_TIME:
-                sql.append(" order by ").append(SegmentRecord.START_TIME).append(" ").append(SortOrder.DESC);
-                break;
-            case BY_DURATION:
-                sql.append(" order by ").append(SegmentRecord.LATENCY).append(" ").append(SortOrder.DESC);
-                break;
+        String countSql = buildCountSql(sql.toString());
+        Object[] countParameters = parameters.toArray(new Object[0]);
+
+        String sortColumn = QueryOrder.BY_DURATION.equals(queryOrder) ? SegmentRecord.LATENCY : SegmentRecord.START_TIME;
+        if (!Strings.isNullOrEmpty(cursor)) {
+            TraceCursor traceCursor = TraceCursor.parse(cursor);
+            sql.append(" and (").append(sortColumn).append(" < ? or (").append(sortColumn).append(" = ? and ")
+                .append(SegmentRecord.SEGMENT_ID).append(" < ?))");
+            parameters.add(traceCursor.getSortValue());
+            parameters.add(traceCursor.getSortValue());
+            parameters.add(traceCursor.getSegmentId());
         }
+        sql.append(" order by ").append(sortColumn).append(" ").append(SortOrder.DESC);
+        sql.append(", ").append(SegmentRecord.SEGMENT_ID).append(" ").append(SortOrder.DESC);
 
         TraceBrief traceBrief = new TraceBrief();
         try (Connection connection = h2Client.getConnection()) {
 
-            try (ResultSet resultSet = h2Client.executeQuery(connection, "select count(1) total from (select 1 " + sql.toString() + " )", parameters.toArray(new Object[0]))) {
-                while (resultSet.next()) {
-                    traceBrief.setTotal(resultSet.getInt("total"));
+            if (needTotal) {
+                try (ResultSet resultSet = h2Client.executeQuery(connection, countSql, countParameters)) {
+                    while (resultSet.next()) {
+                        traceBrief.setTotal(resultSet.getInt("total"));
+                    }
                 }
             }
 
-            buildLimit(sql, from, limit);
+            buildLimit(sql, Strings.isNullOrEmpty(cursor) ? from : 0, limit);
 
-            try (ResultSet resultSet = h2Client.executeQuery(connection, "select * " + sql.toString(), parameters.toArray(new Object[0]))) {
+            try (ResultSet resultSet = h2Client.executeQuery(connection, "select " + BASIC_TRACE_COLUMNS + " " + sql.toString(), parameters.toArray(new Object[0]))) {
                 while (resultSet.next()) {
                     BasicTrace basicTrace = new BasicTrace();
 
@@ -129,9 +140,17 @@ public class H2TraceQueryDAO implements ITraceQueryDAO {
             throw new IOException(e);
         }
 
+        traceBrief.setCursor(TraceCursor.next(queryOrder, traceBrief.getTraces(), limit));
+        if (!needTotal) {
+            traceBrief.setTotal(TraceCursor.approximateTotal(from, limit, traceBrief.getTraces().size()));
+        }
         return traceBrief;
     }
 
+    protected String buildCountSql(String sql) {
+        return "select count(1) total from (select 1 " + sql + " )";
+    }
+
     protected void buildLimit(StringBuilder sql, int from, int limit) {
         sql.append(" LIMIT ").append(limit);
         sql.append(" OFFSET ").append(from);
@@ -18,16 +18,8 @@
 
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.mysql;
 
-import com.google.common.base.Strings;
-import java.io.IOException;
-import java.sql.*;
-import java.util.*;
-import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
-import org.apache.skywalking.oap.server.core.query.entity.*;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
-import org.apache.skywalking.oap.server.library.util.BooleanUtils;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao.H2TraceQueryDAO;
-import org.elasticsearch.search.sort.SortOrder;
 
 /**
  * @author wusheng
@@ -37,97 +29,8 @@ public class MySQLTraceQueryDAO extends H2TraceQueryDAO {
         super(mysqlClient);
     }
 
-    @Override
-    public TraceBrief queryBasicTraces(long startSecondTB, long endSecondTB, long minDuration, long maxDuration,
-        String endpointName, int serviceId, int serviceInstanceId, int endpointId, String traceId, int limit, int from,
-        TraceState traceState, QueryOrder queryOrder) throws IOException {
-        StringBuilder sql = new StringBuilder();
-        List<Object> parameters = new ArrayList<>(10);
-
-        sql.append("from ").append(SegmentRecord.INDEX_NAME).append(" where ");
-        sql.append(" 1=1 ");
-        if (startSecondTB != 0 && endSecondTB != 0) {
-            sql.append(" and ").append(SegmentRecord.TIME_BUCKET).append(" >= ?");
-            parameters.add(startSecondTB);
-            sql.append(" and ").append(SegmentRecord.TIME_BUCKET).append(" <= ?");
-            parameters.add(endSecondTB);
-        }
-        if (minDuration != 0 || maxDuration != 0) {
-            if (minDuration != 0) {
-                sql.append(" and ").append(SegmentRecord.LATENCY).append(" >= ?");
-                parameters.add(minDuration);
-            }
-            if (maxDuration != 0) {
-                sql.append(" and ").append(SegmentRecord.LATENCY).append(" <= ?");
-                parameters.add(maxDuration);
-            }
-        }
-        if (!Strings.isNullOrEmpty(endpointName)) {
-            sql.append(" and ").append(SegmentRecord.ENDPOINT_NAME).append(" like '%" + endpointName + "%'");
-        }
-        if (serviceId != 0) {
-            sql.append(" and ").append(SegmentRecord.SERVICE_ID).append(" = ?");
-            parameters.add(serviceId);
-        }
-        if (serviceInstanceId != 0) {
-            sql.append(" and ").append(SegmentRecord.SERVICE_INSTANCE_ID).append(" = ?");
-            parameters.add(serviceInstanceId);
-        }
-        if (endpointId != 0) {
-            sql.append(" and ").append(SegmentRecord.ENDPOINT_ID).append(" = ?");
-            parameters.add(endpointId);
-        }
-        if (!Strings.isNullOrEmpty(traceId)) {
-            sql.append(" and ").append(SegmentRecord.TRACE_ID).append(" = ?");
-            parameters.add(traceId);
-        }
-        switch (traceState) {
-            case ERROR:
-                sql.append(" and ").append(SegmentRecord.IS_ERROR).append(" = ").append(BooleanUtils.TRUE);
-                break;
-            case SUCCESS:
-                sql.append(" and ").append(SegmentRecord.IS_ERROR).append(" = ").append(BooleanUtils.FALSE);
-                break;
-        }
-        switch (queryOrder) {
-            case BY_START_TIME:
-                sql.append(" order by ").append(SegmentRecord.START_TIME).append(" ").append(SortOrder.DESC);
-                break;
-            case BY_DURATION:
-                sql.append(" order by ").append(SegmentRecord.LATENCY).append(" ").append(SortOrder.DESC);
-                break;
-        }
-
-        TraceBrief traceBrief = new TraceBrief();
-        try (Connection connection = getClient().getConnection()) {
-
-            try (ResultSet resultSet = getClient().executeQuery(connection, "select count(1) total from (select 1 " + sql.toString() + " ) AS TRACE", parameters.toArray(new Object[0]))) {
-                while (resultSet.next()) {
-                    traceBrief.setTotal(resultSet.getInt("total"));
-                }
-            }
-
-            buildLimit(sql, from, limit);
-
-            try (ResultSet resultSet = getClient().executeQuery(connection, "select * " + sql.toString(), parameters.toArray(new Object[0]))) {
-                while (resultSet.next()) {
-                    BasicTrace basicTrace = new BasicTrace();
-
-                    basicTrace.setSegmentId(resultSet.getString(SegmentRecord.SEGMENT_ID));
-                    basicTrace.setStart(resultSet.getString(SegmentRecord.START_TIME));
-                    basicTrace.getEndpointNames().add(resultSet.getString(SegmentRecord.ENDPOINT_NAME));
-                    basicTrace.setDuration(resultSet.getInt(SegmentRecord.LATENCY));
-                    basicTrace.setError(BooleanUtils.valueToBoolean(resultSet.getInt(SegmentRecord.IS_ERROR)));
-                    String traceIds = resultSet.getString(SegmentRecord.TRACE_ID);
-                    basicTrace.getTraceIds().add(traceIds);
-                    traceBrief.getTraces().add(basicTrace);
-                }
-            }
-        } catch (SQLException e) {
-            throw new IOException(e);
-        }
-
-        return traceBrief;
+    @Override protected String buildCountSql(String sql) {
+        return "select count(1) total from (select 1 " + sql + " ) AS TRACE";
     }
 
     @Override protected void buildLimit(StringBuilder sql, int from, int limit) {
@@ -20,23 +20,26 @@ package org.apache.skywalking.oap.server.telemetry.prometheus;
 
 import io.prometheus.client.SimpleCollector;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.skywalking.oap.server.telemetry.api.*;
 
 /**
  * BaseMetric parent class represents the me
  *
+ * The collector of a name is registered once and shared, the child of the label values is bound once the instance id
+ * is ready. After that, the child is read from a volatile field, no lock is in the recording path, and the Prometheus
+ * children record into striped adders, which are summed at the scrape time.
+ *
  * @author wusheng
  */
 public abstract class BaseMetric<T extends SimpleCollector, C> {
-    private static Map<String, Object> ALL_METRICS = new HashMap<>();
+    private static final Map<String, Object> ALL_METRICS = new ConcurrentHashMap<>();
 
     private volatile C metricInstance;
     protected final String name;
     protected final String tips;
     protected final MetricTag.Keys labels;
     protected final MetricTag.Values values;
-    private ReentrantLock lock = new ReentrantLock();
 
     public BaseMetric(String name, String tips, MetricTag.Keys labels,
         MetricTag.Values values) {
@@ -51,42 +54,32 @@ public abstract class BaseMetric<T extends SimpleCollector, C> {
     }
 
     protected C getMetric() {
-        if (metricInstance == null) {
-            if (isIDReady()) {
-                lock.lock();
-                try {
-                    if (metricInstance == null) {
-                        String[] labelNames = new String[labels.getKeys().length + 1];
-                        labelNames[0] = "sw_backend_instance";
-                        for (int i = 0; i < labels.getKeys().length; i++) {
-                            labelNames[i + 1] = labels.getKeys()[i];
-                        }
-
-                        String[] labelValues = new String[values.getValues().length + 1];
-                        labelValues[0] = TelemetryRelatedContext.INSTANCE.getId();
-                        for (int i = 0; i < values.getValues().length; i++) {
-                            labelValues[i + 1] = values.getValues()[i];
-                        }
-
-                        if (!ALL_METRICS.containsKey(name)) {
-                            synchronized (ALL_METRICS) {
-                                if (!ALL_METRICS.containsKey(name)) {
-                                    ALL_METRICS.put(name, create(labelNames));
-                                }
-                            }
-                        }
+        C metric = metricInstance;
+        if (metric == null && isIDReady()) {
+            /*
+             * Binding concurrently is harmless, the collector returns the same child for the same label values.
+             */
+            metric = bind();
+            metricInstance = metric;
+        }
+        return metric;
+    }
 
-                        T metric = (T)ALL_METRICS.get(name);
+    private C bind() {
+        String[] labelNames = new String[labels.getKeys().length + 1];
+        labelNames[0] = "sw_backend_instance";
+        for (int i = 0; i < labels.getKeys().length; i++) {
+            labelNames[i + 1] = labels.getKeys()[i];
+        }
 
-                        metricInstance = (C)metric.labels(labelValues);
-                    }
-                } finally {
-                    lock.unlock();
-                }
-            }
+        String[] labelValues = new String[values.getValues().length + 1];
+        labelValues[0] = TelemetryRelatedContext.INSTANCE.getId();
+        for (int i = 0; i < values.getValues().length; i++) {
+            labelValues[i + 1] = values.getValues()[i];
         }
 
-        return metricInstance;
+        T collector = (T)ALL_METRICS.computeIfAbsent(name, key -> create(labelNames));
+        return (C)collector.labels(labelValues);
     }
 
     protected abstract T create(String[] labelNames);